@@ -0,0 +1,14 @@
+package com.app.game;
+
+import android.os.Debug;
+
+import com.app.game.core.pacing.SystemPacingClock;
+
+// Системные часы + CPU-время потока из ART
+public class AndroidPacingClock extends SystemPacingClock {
+
+    @Override
+    public long threadCpuNanos() {
+        return Debug.threadCpuTimeNanos();
+    }
+}
@@ -0,0 +1,18 @@
+package com.app.game;
+
+import android.os.Trace;
+
+import com.app.game.core.trace.TraceSink;
+
+// Секции Tracing в systrace/Perfetto. Пока захват не идет, beginSection почти ничего не стоит
+class AndroidTraceSink implements TraceSink {
+    @Override
+    public void begin(String name) {
+        Trace.beginSection(name);
+    }
+
+    @Override
+    public void end() {
+        Trace.endSection();
+    }
+}
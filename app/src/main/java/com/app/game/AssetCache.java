@@ -0,0 +1,309 @@
+package com.app.game;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.app.game.core.memory.AssetQuality;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Кэш отмасштабированных битмапов, живет дольше поверхности (и активити при повороте).
+// Ключ - id ресурса + целевая высота + уровень качества (AssetQuality). Декод и скейл идут в фоне,
+// LRU с бюджетом по байтам. Освобожденные через release битмапы переиспользуются
+// (inBitmap / reconfigure), если размер подходит. Пул переиспользования входит в тот же бюджет:
+// кэш + пул не больше maxBytes, при росте кэша пул отдает битмапы первым
+public class AssetCache {
+
+    private static final String TAG = "AssetCache";
+    // Кэш берет не больше 1/8 хипа
+    private static final int HEAP_FRACTION = 8;
+    private static final int MAX_REUSE_POOL = 4;
+
+    private static AssetCache shared;
+
+    public interface Listener {
+        // Зовется на потоке декодера (или сразу, если уже в кэше)
+        void onLoaded(long key, Bitmap bitmap);
+    }
+
+    private final Resources res;
+    private final LruCache<Long, Bitmap> cache;
+    private final ExecutorService decoder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "AssetDecoder");
+        t.setPriority(Thread.NORM_PRIORITY - 1);
+        return t;
+    });
+    private final Map<Long, Boolean> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger loading = new AtomicInteger();
+    // Размеры исходников (decode bounds), чтобы не декодить ради ширины/высоты
+    private final Map<Integer, int[]> sourceSizes = new ConcurrentHashMap<>();
+    // Битмапы, которые больше никто не рисует - под inBitmap
+    private final ArrayList<Bitmap> reusePool = new ArrayList<>();
+
+    // байты в кэше по уровням качества - для HUD и решений о нехватке памяти
+    private final AtomicLongArray tierBytes = new AtomicLongArray(AssetQuality.TIER_COUNT);
+
+    private final Rect scaleSrc = new Rect();
+    private final Rect scaleDst = new Rect();
+
+    // Один кэш на процесс, чтобы пережить пересоздание GameView
+    public static synchronized AssetCache shared(Resources res) {
+        if (shared == null) {
+            int budget = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / HEAP_FRACTION);
+            shared = new AssetCache(res, budget);
+        }
+        return shared;
+    }
+
+    public AssetCache(Resources res, int maxBytes) {
+        this.res = res;
+        this.cache = new LruCache<Long, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(Long key, Bitmap value) {
+                return value.getAllocationByteCount();
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, Long key, Bitmap oldValue, Bitmap newValue) {
+                tierBytes.addAndGet(tierOf(key), -oldValue.getAllocationByteCount());
+            }
+        };
+    }
+
+    // targetHeight = 0 - исходный размер, иначе скейл до высоты с сохранением пропорций
+    public static long key(int resId, int targetHeight) {
+        return key(resId, targetHeight, AssetQuality.FULL);
+    }
+
+    // [resId:32][tier:4][targetHeight:28]
+    public static long key(int resId, int targetHeight, int tier) {
+        return ((long) resId << 32) | ((long) tier << 28) | (targetHeight & 0x0fffffffL);
+    }
+
+    private static int tierOf(long key) {
+        return (int) (key >>> 28) & 0xf;
+    }
+
+    // Сколько байт битмапов в кэше загружено на этом уровне качества
+    public long tierBytes(int tier) {
+        return tierBytes.get(tier);
+    }
+
+    // Все байты пикселей, которые держит кэш, вместе с пулом переиспользования
+    public long bitmapBytes() {
+        long sum = 0;
+        for (int t = 0; t < AssetQuality.TIER_COUNT; t++) sum += tierBytes.get(t);
+        synchronized (reusePool) {
+            return sum + poolBytes();
+        }
+    }
+
+    public Bitmap get(long key) {
+        return cache.get(key);
+    }
+
+    public boolean isLoading() {
+        return loading.get() > 0;
+    }
+
+    public int sizeBytes() {
+        return cache.size();
+    }
+
+    public int maxBytes() {
+        return cache.maxSize();
+    }
+
+    // Ширина и высота исходного ресурса без полного декода
+    public int[] sourceSize(int resId) {
+        int[] size = sourceSizes.get(resId);
+        if (size == null) {
+            BitmapFactory.Options o = new BitmapFactory.Options();
+            o.inJustDecodeBounds = true;
+            o.inScaled = false;
+            BitmapFactory.decodeResource(res, resId, o);
+            size = new int[]{o.outWidth, o.outHeight};
+            sourceSizes.put(resId, size);
+        }
+        return size;
+    }
+
+    public long load(int resId, int targetHeight, Listener listener) {
+        return load(resId, targetHeight, AssetQuality.FULL, false, listener);
+    }
+
+    // Если битмап уже в кэше - listener вызывается сразу, иначе после фонового декода.
+    // opaque - в битмапе нет прозрачности, на OPAQUE_565 и ниже он идет в RGB_565.
+    // На REDUCED декодим в половину targetHeight, рисующий растягивает сам
+    public long load(final int resId, final int targetHeight, final int tier, boolean opaque,
+                     final Listener listener) {
+        final long key = key(resId, targetHeight, tier);
+        final Bitmap.Config config = opaque && tier >= AssetQuality.OPAQUE_565
+                ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+        final int decodeHeight = tier >= AssetQuality.REDUCED && targetHeight > 1 ? targetHeight / 2 : targetHeight;
+        Bitmap cached = cache.get(key);
+        if (cached != null) {
+            listener.onLoaded(key, cached);
+            return key;
+        }
+        if (pending.put(key, Boolean.TRUE) != null) {
+            // уже грузится - догружаем еще раз из кэша после текущей задачи
+            decoder.execute(() -> {
+                Bitmap b = cache.get(key);
+                if (b != null) listener.onLoaded(key, b);
+            });
+            return key;
+        }
+        loading.incrementAndGet();
+        decoder.execute(() -> {
+            try {
+                Bitmap b = decodeScaled(resId, decodeHeight, config);
+                if (b != null) {
+                    tierBytes.addAndGet(tier, b.getAllocationByteCount());
+                    cache.put(key, b);
+                    trimPool();
+                    listener.onLoaded(key, b);
+                }
+            } catch (RuntimeException | OutOfMemoryError e) {
+                Log.e(TAG, "Failed to load resource " + resId, e);
+            } finally {
+                pending.remove(key);
+                loading.decrementAndGet();
+            }
+        });
+        return key;
+    }
+
+    // Битмап по ключу больше не рисуется (например, сменился размер поверхности).
+    // Звать только когда рендер гарантированно его не держит
+    public void release(long key) {
+        Bitmap b = cache.remove(key);
+        if (b == null || !b.isMutable()) return;
+        // не влез в бюджет - просто отпускаем, рендер его уже не держит
+        offerToPool(b);
+    }
+
+    public void evictAll() {
+        cache.evictAll();
+        clearPool();
+    }
+
+    // Нехватка памяти: в кэше остается только то, что рисуется сейчас, пул переиспользования - пустой
+    public void evictExcept(long... keep) {
+        for (Long key : cache.snapshot().keySet()) {
+            boolean used = false;
+            for (long k : keep) used |= k == key;
+            if (!used) cache.remove(key);
+        }
+        clearPool();
+    }
+
+    // В пул, только если кэш + пул остаются в maxBytes и в пуле меньше MAX_REUSE_POOL
+    private boolean offerToPool(Bitmap b) {
+        int bytes = b.getAllocationByteCount();
+        synchronized (reusePool) {
+            if (reusePool.size() >= MAX_REUSE_POOL || cache.size() + poolBytes() + bytes > cache.maxSize()) {
+                return false;
+            }
+            reusePool.add(b);
+            return true;
+        }
+    }
+
+    // Кэш вырос - старые битмапы пула уходят, пока не влезем в бюджет
+    private void trimPool() {
+        synchronized (reusePool) {
+            while (!reusePool.isEmpty() && cache.size() + poolBytes() > cache.maxSize()) {
+                reusePool.remove(0);
+            }
+        }
+    }
+
+    private void clearPool() {
+        synchronized (reusePool) {
+            reusePool.clear();
+        }
+    }
+
+    // Под локом reusePool. В пуле не больше MAX_REUSE_POOL битмапов
+    private long poolBytes() {
+        long sum = 0;
+        for (int i = 0; i < reusePool.size(); i++) {
+            Bitmap b = reusePool.get(i);
+            if (!b.isRecycled()) sum += b.getAllocationByteCount();
+        }
+        return sum;
+    }
+
+    private Bitmap decodeScaled(int resId, int targetHeight, Bitmap.Config config) {
+        int[] size = sourceSize(resId);
+        BitmapFactory.Options o = new BitmapFactory.Options();
+        o.inScaled = false;
+        o.inMutable = true;
+        o.inPreferredConfig = config;
+        o.inBitmap = takeReusable(size[0], size[1], config);
+        Bitmap src;
+        try {
+            src = BitmapFactory.decodeResource(res, resId, o);
+        } catch (IllegalArgumentException e) {
+            // inBitmap не подошел - декодим в новый
+            o.inBitmap = null;
+            src = BitmapFactory.decodeResource(res, resId, o);
+        }
+        if (src == null || targetHeight <= 0 || targetHeight == src.getHeight()) {
+            return src;
+        }
+
+        float k = targetHeight / (float) src.getHeight();
+        int w = Math.max(1, Math.round(src.getWidth() * k));
+        int h = Math.max(1, targetHeight);
+
+        Bitmap dst = takeReusable(w, h, config);
+        if (dst == null) {
+            dst = Bitmap.createBitmap(w, h, config);
+        }
+        // скейл без фильтрации, как createScaledBitmap(.., false), но в готовый битмап
+        scaleSrc.set(0, 0, src.getWidth(), src.getHeight());
+        scaleDst.set(0, 0, w, h);
+        Canvas c = new Canvas(dst);
+        c.drawBitmap(src, scaleSrc, scaleDst, null);
+
+        // исходник больше не нужен - в пул под следующий декод
+        if (!offerToPool(src)) src.recycle();
+        return dst;
+    }
+
+    // Ищем в пуле битмап, в чью память влезет w x h, и перенастраиваем его
+    private Bitmap takeReusable(int w, int h, Bitmap.Config config) {
+        int needBytes = w * h * (config == Bitmap.Config.RGB_565 ? 2 : 4);
+        synchronized (reusePool) {
+            for (int i = 0; i < reusePool.size(); i++) {
+                Bitmap b = reusePool.get(i);
+                if (b.isRecycled()) {
+                    reusePool.remove(i--);
+                    continue;
+                }
+                if (b.getAllocationByteCount() >= needBytes) {
+                    reusePool.remove(i);
+                    if (b.getWidth() != w || b.getHeight() != h || b.getConfig() != config) {
+                        b.reconfigure(w, h, config);
+                    }
+                    b.eraseColor(0);
+                    return b;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.app.game;
+
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioTrack;
+import android.os.Build;
+import android.os.Process;
+
+import com.app.game.core.audio.Mixer;
+
+// Поток звука: буфер из микшера -> AudioTrack. write блокирует, пока трек не примет буфер,
+// так что поток сам идет в темпе вывода, а GameLoop и симуляция его никогда не ждут
+class AudioOutput extends Thread {
+
+    private final Mixer mixer;
+    private final AudioTrack track;
+    private final short[] buffer;
+    private final int frames;
+    private volatile boolean running = true;
+
+    AudioOutput(Mixer mixer, int sampleRate) {
+        this.mixer = mixer;
+        this.frames = mixer.getMaxFrames();
+        this.buffer = new short[frames * Mixer.CHANNELS];
+        // два наших буфера в треке: меньше - щелчки на медленных устройствах, больше - задержка
+        int bytes = Math.max(AudioTrack.getMinBufferSize(sampleRate, AudioFormat.CHANNEL_OUT_STEREO,
+                AudioFormat.ENCODING_PCM_16BIT), buffer.length * 2 * 2);
+        AudioTrack.Builder b = new AudioTrack.Builder()
+                .setAudioAttributes(new AudioAttributes.Builder()
+                        .setUsage(AudioAttributes.USAGE_GAME)
+                        .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                        .build())
+                .setAudioFormat(new AudioFormat.Builder()
+                        .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+                        .setSampleRate(sampleRate)
+                        .setChannelMask(AudioFormat.CHANNEL_OUT_STEREO)
+                        .build())
+                .setBufferSizeInBytes(bytes)
+                .setTransferMode(AudioTrack.MODE_STREAM);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            b.setPerformanceMode(AudioTrack.PERFORMANCE_MODE_LOW_LATENCY);
+        }
+        track = b.build();
+        setName("Audio");
+    }
+
+    @Override
+    public void run() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_URGENT_AUDIO);
+        track.play();
+        while (running) {
+            mixer.mix(buffer, frames);
+            track.write(buffer, 0, buffer.length);
+        }
+        track.pause();
+        track.flush();
+        track.release();
+    }
+
+    public void requestStopAndJoin() {
+        running = false;
+        try {
+            join();
+        } catch (InterruptedException ignored) {
+        }
+    }
+}
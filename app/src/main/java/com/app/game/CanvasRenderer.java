@@ -0,0 +1,105 @@
+package com.app.game;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import com.app.game.core.render.DrawStats;
+import com.app.game.core.render.Renderer;
+
+// Renderer поверх android Canvas - программного (lockCanvas, битмап) или аппаратного (lockHardwareCanvas).
+// Рисует сразу, слои игнорирует: порядок вызовов и есть порядок слоев. Текстуры и стили - слоты,
+// GameView привязывает к ним битмапы и Paint перед кадром. Заодно считает вызовы и пиксели в DrawStats
+final class CanvasRenderer implements Renderer {
+
+    private final Bitmap[] textures;
+    private final Paint[] styles;
+    // пиксель-арт: без фильтрации при любом масштабе
+    private final Paint imagePaint = new Paint();
+    private final DrawStats stats;
+
+    private final Rect src = new Rect();
+    private final RectF dst = new RectF();
+
+    private Canvas canvas;
+    private int width, height;
+    private float scale = 1f;
+
+    CanvasRenderer(int textureSlots, int styleSlots, DrawStats stats) {
+        textures = new Bitmap[textureSlots];
+        styles = new Paint[styleSlots];
+        this.stats = stats;
+        imagePaint.setFilterBitmap(false);
+        imagePaint.setAntiAlias(false);
+        imagePaint.setDither(false);
+    }
+
+    void setTexture(int slot, Bitmap bitmap) {
+        textures[slot] = bitmap;
+    }
+
+    void setStyle(int slot, Paint paint) {
+        styles[slot] = paint;
+    }
+
+    // Куда рисовать дальше. Батчинг поверх должен быть сброшен (flush) до смены цели
+    void setTarget(Canvas canvas, int width, int height) {
+        this.canvas = canvas;
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public void setLayer(int layer) {
+    }
+
+    @Override
+    public void setScale(float scale) {
+        this.scale = scale;
+    }
+
+    @Override
+    public void clear(int argb) {
+        canvas.drawColor(argb);
+        stats.blit(0, 0, width, height, width, height);
+    }
+
+    @Override
+    public void drawImage(int texture, int srcLeft, int srcTop, int srcRight, int srcBottom,
+                          float dstLeft, float dstTop, float dstRight, float dstBottom, boolean flipX) {
+        Bitmap bitmap = textures[texture];
+        if (bitmap == null) return;
+        src.set(srcLeft, srcTop, srcRight, srcBottom);
+        float l = dstLeft * scale, t = dstTop * scale, r = dstRight * scale, b = dstBottom * scale;
+        dst.set(l, t, r, b);
+        if (flipX) {
+            // зеркало относительно центра прямоугольника
+            canvas.save();
+            canvas.translate(l + r, 0f);
+            canvas.scale(-1f, 1f);
+            canvas.drawBitmap(bitmap, src, dst, imagePaint);
+            canvas.restore();
+        } else {
+            canvas.drawBitmap(bitmap, src, dst, imagePaint);
+        }
+        stats.blit(l, t, (int) (r - l), (int) (b - t), width, height);
+    }
+
+    @Override
+    public void drawText(char[] chars, int length, float x, float y, int style) {
+        canvas.drawText(chars, 0, length, x * scale, y * scale, styles[style]);
+        stats.call();
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, int style) {
+        canvas.drawCircle(cx * scale, cy * scale, radius * scale, styles[style]);
+        stats.call();
+    }
+
+    @Override
+    public void flush() {
+    }
+}
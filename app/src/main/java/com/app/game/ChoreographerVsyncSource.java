@@ -0,0 +1,46 @@
+package com.app.game;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.view.Choreographer;
+
+import com.app.game.core.pacing.VsyncPacer;
+
+// Vsync для VsyncPacer. Choreographer живет на Looper-потоке, поток лупа своего Looper-а не имеет,
+// поэтому колбэки идут на отдельном HandlerThread и только будят луп
+public class ChoreographerVsyncSource implements Choreographer.FrameCallback {
+
+    private final VsyncPacer pacer;
+    private HandlerThread thread;
+    private Choreographer choreographer;
+    private volatile boolean running;
+
+    public ChoreographerVsyncSource(VsyncPacer pacer) {
+        this.pacer = pacer;
+    }
+
+    public void start() {
+        running = true;
+        thread = new HandlerThread("Vsync", Process.THREAD_PRIORITY_DISPLAY);
+        thread.start();
+        new Handler(thread.getLooper()).post(() -> {
+            choreographer = Choreographer.getInstance();
+            choreographer.postFrameCallback(this);
+        });
+    }
+
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.quitSafely();
+            thread = null;
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        pacer.onVsync(frameTimeNanos);
+        if (running) choreographer.postFrameCallback(this);
+    }
+}
@@ -0,0 +1,111 @@
+package com.app.game;
+
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import com.app.game.core.World;
+import com.app.game.core.hud.HudText;
+import com.app.game.core.level.LevelStreamer;
+import com.app.game.core.memory.AssetQuality;
+import com.app.game.core.render.DrawStats;
+import com.app.game.core.render.FrameFingerprint;
+import com.app.game.core.render.Renderer;
+import com.app.game.core.render.VirtualResolution;
+import com.app.game.core.stats.FrameStats;
+
+// Отладочный HUD: FPS/UPS, перцентили кадра, джанк, пейсинг и CPU, сущности, чанки уровня, отрисовка и режим рендера, качество ассетов, GC.
+// Строки собираются в HudText и рисуются из char[] - в кадре ничего не аллоцируем.
+// prepare до решения о пропуске кадра: текст входит в отпечаток кадра
+public class DebugHud {
+
+    private static final int MAX_LINES = 9;
+    private static final int MAX_CHARS = 96;
+    private static final float LEFT = 32f;
+    private static final float TOP = 64f;
+
+    private final Paint paint = new Paint();
+    private final HudText text = new HudText(MAX_LINES, MAX_CHARS);
+    private final float lineHeight;
+
+    public DebugHud(float textSizePx) {
+        paint.setColor(Color.GREEN);
+        paint.setTextSize(textSizePx);
+        paint.setAntiAlias(true);
+        lineHeight = textSizePx * 1.3f;
+    }
+
+    public void prepare(GameLoop loop, World world, DrawStats draw, VirtualResolution res, String backend,
+                        AssetCache assets, int qualityTier) {
+        FrameStats fs = loop.getFrameStats();
+        int entityCount = world != null ? world.getEntityCount() : 0;
+        LevelStreamer level = world != null ? world.getLevel() : null;
+
+        text.clear();
+        text.line().append("FPS: ").append(loop.getFps())
+                .append(" UPS: ").append(loop.getUps())
+                .append(" entities: ").append(entityCount)
+                .append(" GC: ").append(loop.getGcCount());
+        text.line().append("frame p50/p95/p99/max: ")
+                .appendMs(fs.get(FrameStats.FRAME, FrameStats.P50)).append('/')
+                .appendMs(fs.get(FrameStats.FRAME, FrameStats.P95)).append('/')
+                .appendMs(fs.get(FrameStats.FRAME, FrameStats.P99)).append('/')
+                .appendMs(fs.get(FrameStats.FRAME, FrameStats.MAX)).append(" ms");
+        text.line().append("update p95: ").appendMs(fs.get(FrameStats.UPDATE, FrameStats.P95))
+                .append(" draw p95: ").appendMs(fs.get(FrameStats.DRAW, FrameStats.P95))
+                .append(" lock p95: ").appendMs(fs.get(FrameStats.LOCK_CANVAS, FrameStats.P95))
+                .append(" post p95: ").appendMs(fs.get(FrameStats.POST, FrameStats.P95));
+        text.line().append("jank: ").append(fs.getJankFrames())
+                .append(" dropped: ").append(fs.getDroppedFrames())
+                .append(" capped: ").append(fs.getUpdateCapFrames())
+                .append(" clamped: ").append(fs.getAccumClampFrames());
+        text.line().append("pacing: ").append(loop.getPacingName())
+                .append(" err p50/p95: ").appendMs(fs.get(FrameStats.PACING_ERROR, FrameStats.P50)).append('/')
+                .appendMs(fs.get(FrameStats.PACING_ERROR, FrameStats.P95))
+                .append(" cpu p50/p95: ").appendMs(fs.get(FrameStats.CPU, FrameStats.P50)).append('/')
+                .appendMs(fs.get(FrameStats.CPU, FrameStats.P95)).append(" ms");
+        if (level != null) {
+            text.line().append("chunks: ").append(level.getResidentChunks())
+                    .append(" resident, ").append(level.getResidentBytes() / 1024).append(" KB, gen avg/max: ")
+                    .appendMs((int) (level.getAverageGenerationNs() / 1000)).append('/')
+                    .appendMs((int) (level.getMaxGenerationNs() / 1000)).append(" ms");
+        }
+        // опубликованное раз в секунду - строка не дергает отпечаток каждый кадр
+        text.line().append("draw: ").append(draw.getCalls()).append(" calls, ")
+                .append(draw.getPixels() / 1000).append("K px, skipped/s: ").append(draw.getSkipped())
+                .append(" objects drawn/culled: ").append(draw.getDrawnObjects()).append('/')
+                .append(draw.getCulledObjects());
+        // draw p95 по режимам: окно гистограммы ~4 с, после переключения обе цифры живые
+        HudText render = text.line().append("render: ");
+        if (res.scale > 1) {
+            render.append(res.width).append('x').append(res.height).append(" x").append(res.scale);
+        } else {
+            render.append("native");
+        }
+        render.append(' ').append(backend);
+        render.append(" draw p95 native/low: ").appendMs(fs.get(FrameStats.DRAW_NATIVE, FrameStats.P95)).append('/')
+                .appendMs(fs.get(FrameStats.DRAW_LOW_RES, FrameStats.P95)).append(" ms");
+        HudText mem = text.line().append("assets: ").append(AssetQuality.name(qualityTier))
+                .append(", KB full/565/reduced: ");
+        for (int t = 0; t < AssetQuality.TIER_COUNT; t++) {
+            if (t > 0) mem.append('/');
+            mem.append(assets.tierBytes(t) / 1024);
+        }
+    }
+
+    public void addTo(FrameFingerprint fp) {
+        for (int i = 0; i < text.lineCount(); i++) {
+            fp.add(text.chars(i), text.length(i));
+        }
+    }
+
+    public Paint getPaint() {
+        return paint;
+    }
+
+    // Рисует подготовленное в prepare. style - слот, к которому рендерер привязал getPaint()
+    public void draw(Renderer renderer, int style) {
+        for (int i = 0; i < text.lineCount(); i++) {
+            renderer.drawText(text.chars(i), text.length(i), LEFT, TOP + i * lineHeight, style);
+        }
+    }
+}
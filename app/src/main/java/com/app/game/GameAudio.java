@@ -0,0 +1,97 @@
+package com.app.game;
+
+import com.app.game.core.World;
+import com.app.game.core.anim.AnimationLibrary;
+import com.app.game.core.anim.AnimationListener;
+import com.app.game.core.audio.Mixer;
+import com.app.game.core.audio.SoundBank;
+import com.app.game.core.audio.SoundSynth;
+import com.app.game.core.camera.ViewBounds;
+import com.app.game.core.entity.EntityStore;
+
+// Звуки игры: банк PCM, микшер и поток вывода. Шаги идут от события "step" в клипе бега
+// (любая сущность в кадре), удар - от нажатия атаки (хук тика, как и искры). Все play() - с потока
+// симуляции, какой бы режим ни был; микшер разбирает их у себя, симуляция не ждет звук
+class GameAudio implements AnimationListener, World.TickHook {
+
+    private static final int SAMPLE_RATE = 48_000;
+    // 256 кадров - 5.3 мс: задержка от нажатия до звука - 1-2 таких буфера
+    private static final int BUFFER_FRAMES = 256;
+    private static final int MAX_VOICES = 32;
+    private static final int QUEUE_CAPACITY = 256;
+    private static final int BANK_SAMPLES = SAMPLE_RATE;
+
+    private static final int PRIORITY_CROWD = 1;
+    private static final int PRIORITY_PLAYER = 2;
+    private static final int PRIORITY_HIT = 3;
+    private static final float PLAYER_STEP_VOLUME = 0.6f;
+    private static final float CROWD_STEP_VOLUME = 0.25f;
+    private static final float HIT_VOLUME = 1f;
+    // за краем экрана не дальше этого (в долях панорамы) еще слышно
+    private static final float MAX_PAN = 1.5f;
+
+    private final Mixer mixer;
+    private final int stepSound;
+    private final int hitSound;
+    private final int stepEvent;
+    private AudioOutput output;
+
+    // только поток симуляции
+    private World world;
+    private final ViewBounds view = new ViewBounds();
+
+    GameAudio() {
+        // настоящих звуков в ресурсах пока нет - заглушки, посчитанные один раз
+        SoundBank bank = new SoundBank(SAMPLE_RATE, BANK_SAMPLES);
+        short[] step = SoundSynth.noiseBurst(SAMPLE_RATE, 90, 0.5f, 0x5eed);
+        short[] hit = SoundSynth.thump(SAMPLE_RATE, 220f, 70f, 160, 0.8f);
+        stepSound = bank.add(step, 0, step.length);
+        hitSound = bank.add(hit, 0, hit.length);
+        mixer = new Mixer(bank, MAX_VOICES, BUFFER_FRAMES, QUEUE_CAPACITY);
+        stepEvent = AnimationLibrary.standard().eventId("step");
+    }
+
+    // До старта симуляции, на том же потоке, что собирает мир
+    void attach(World world) {
+        this.world = world;
+        world.getEntities().setAnimationListener(this);
+        world.addTickHook(this);
+    }
+
+    void start() {
+        if (output != null) return;
+        output = new AudioOutput(mixer, SAMPLE_RATE);
+        output.start();
+    }
+
+    void stop() {
+        if (output == null) return;
+        output.requestStopAndJoin();
+        output = null;
+    }
+
+    @Override
+    public void onAnimationEvent(int entityIndex, int event) {
+        if (event != stepEvent || world == null) return;
+        EntityStore e = world.getEntities();
+        boolean isPlayer = e.idAt(entityIndex) == world.getPlayer().getId();
+        float pan = pan(e.x[entityIndex]);
+        if (Math.abs(pan) > MAX_PAN) return;
+        mixer.play(stepSound, isPlayer ? PLAYER_STEP_VOLUME : CROWD_STEP_VOLUME, pan,
+                isPlayer ? PRIORITY_PLAYER : PRIORITY_CROWD);
+    }
+
+    @Override
+    public void onTick(World world, float dt) {
+        if (world.getAttackPresses() > 0) {
+            mixer.play(hitSound, HIT_VOLUME, pan(world.getPlayer().getX()), PRIORITY_HIT);
+        }
+    }
+
+    // -1 левый край кадра, 1 - правый
+    private float pan(float x) {
+        ViewBounds v = world.getCamera().visibleBounds(view);
+        float w = v.width();
+        return w > 0 ? (x - v.left) / w * 2f - 1f : 0f;
+    }
+}
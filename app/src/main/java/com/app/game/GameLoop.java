@@ -1,27 +1,90 @@
 package com.app.game;
 
 import android.graphics.Canvas;
+import android.os.Build;
+import android.os.Debug;
 import android.view.SurfaceHolder;
 
+import com.app.game.core.RenderState;
+import com.app.game.core.SimulationThread;
+import com.app.game.core.World;
+import com.app.game.core.concurrent.TripleBuffer;
+import com.app.game.core.pacing.FramePacer;
+import com.app.game.core.pacing.HybridSleepPacer;
+import com.app.game.core.pacing.LowPowerPacer;
+import com.app.game.core.pacing.PacingClock;
+import com.app.game.core.pacing.PacingMode;
+import com.app.game.core.pacing.VsyncPacer;
+import com.app.game.core.stats.FrameStats;
+import com.app.game.core.trace.Tracing;
+
 public class GameLoop extends Thread {
-    private static final int TARGET_UPS = 60;
+    private static final int TARGET_UPS = World.TARGET_UPS;
     private static final double DT_SEC = 1.0 / TARGET_UPS;
     private static final double MAX_ACCUM_SEC = 0.25;
     private static final int MAX_UPDATES_PER_FRAME = 5;
+    private static final long DT_NS = 1_000_000_000L / TARGET_UPS;
+    // surface is gone: don't spin, check again a bit later
+    private static final long NO_SURFACE_WAIT_NS = 50_000_000L;
+    // low-power/vsync draw every Nth vsync while the player is idle
+    private static final int IDLE_VSYNC_DIVISOR = 4;
+
+    private static final int FRAME_DRAWN = 0;
+    // nothing on screen would change: the canvas is not locked, the previous frame stays up
+    private static final int FRAME_SKIPPED = 1;
+    private static final int FRAME_NO_SURFACE = 2;
 
-    private final long targetFrameNs;
     private final SurfaceHolder surfaceHolder;
     private final GameView gameView;
+    // GPU-backed canvas: blits go through hwui instead of the CPU rasterizer
+    private final boolean hardwareCanvas;
     private volatile boolean running = false;
 
+    // Optional mode: simulation runs on its own thread, this one only renders
+    private final SimulationThread simulation;
+    private final TripleBuffer<RenderState> simStates;
+
+    // When the next frame starts (vsync / precise sleep / low power)
+    private final PacingClock clock = new AndroidPacingClock();
+    private final FramePacer pacer;
+    private final ChoreographerVsyncSource vsyncSource;
+
     // Stats
     private volatile int fps = 0;
     private volatile int ups = 0;
+    private volatile long gcCount = 0;
+    private final FrameStats frameStats;
 
-    public GameLoop(SurfaceHolder surfaceHolder, GameView gameView, float refreshRate) {
+    public GameLoop(SurfaceHolder surfaceHolder, GameView gameView, float refreshRate, boolean separateSimThread,
+                    PacingMode pacing, boolean hardwareCanvas) {
         this.surfaceHolder = surfaceHolder;
         this.gameView = gameView;
-        this.targetFrameNs = (long) (1_000_000_000L / (refreshRate > 0 ? refreshRate : 60f));
+        this.hardwareCanvas = canUseHardwareCanvas(hardwareCanvas);
+        if (separateSimThread) {
+            simStates = SimulationThread.newBuffer();
+            simulation = new SimulationThread(gameView.getWorld(), simStates);
+        } else {
+            simStates = null;
+            simulation = null;
+        }
+        long displayFrameNs = (long) (1_000_000_000L / (refreshRate > 0 ? refreshRate : 60f));
+        switch (pacing) {
+            case VSYNC:
+                VsyncPacer vsync = new VsyncPacer(clock, displayFrameNs, IDLE_VSYNC_DIVISOR);
+                vsyncSource = new ChoreographerVsyncSource(vsync);
+                pacer = vsync;
+                break;
+            case LOW_POWER:
+                vsyncSource = null;
+                pacer = new LowPowerPacer(clock, displayFrameNs);
+                break;
+            default:
+                vsyncSource = null;
+                pacer = new HybridSleepPacer(clock, displayFrameNs);
+                break;
+        }
+        // jank is measured against the pacer's own budget (33 ms in low power)
+        this.frameStats = new FrameStats(pacer.getFrameIntervalNs());
         setName("GameLoop");
     }
 
@@ -30,6 +93,12 @@ public class GameLoop extends Thread {
         try {
             join();
         } catch (InterruptedException ignored) {}
+        if (simulation != null) {
+            simulation.requestStopAndJoin();
+        }
+        if (vsyncSource != null) {
+            vsyncSource.stop();
+        }
     }
 
     public void setRunning(boolean running) {
@@ -45,75 +114,182 @@ public class GameLoop extends Thread {
         return ups;
     }
 
+    // Total GC runs of the ART runtime, refreshed once a second
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    // Frame phase percentiles, jank and clamp counters (HUD / tests)
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    public String getPacingName() {
+        return pacer.getName();
+    }
+
     @Override
     public void run() {
-        long previousNs = System.nanoTime();
         double accumulator = 0.0;
 
         int frames = 0;
         int updates = 0;
+        long simUpdatesAtSecond = 0;
         long secTimerMs = System.currentTimeMillis();
 
+        if (simulation != null) {
+            simulation.start();
+        }
+        if (vsyncSource != null) {
+            vsyncSource.start();
+        }
+
+        pacer.reset();
+        long nowNs = pacer.awaitFrame();
+        long previousNs = nowNs;
+        long previousCpuNs = clock.threadCpuNanos();
+
         while (running) {
-            long nowNs = System.nanoTime();
-            double frameDeltaSec = (nowNs - previousNs) / 1_000_000_000.0;
+            long frameIntervalNs = nowNs - previousNs;
+            double frameDeltaSec = frameIntervalNs / 1_000_000_000.0;
             previousNs = nowNs;
 
+            // CPU of the whole previous frame, waiting included (spinning is not free)
+            long cpuNs = clock.threadCpuNanos();
+            if (cpuNs >= 0 && previousCpuNs >= 0) {
+                frameStats.record(FrameStats.CPU, cpuNs - previousCpuNs);
+            }
+            previousCpuNs = cpuNs;
+
             // clamp spikes
+            boolean accumClamped = frameDeltaSec > MAX_ACCUM_SEC;
             accumulator += Math.min(frameDeltaSec, MAX_ACCUM_SEC);
 
-            // fixed updates
+            // fixed updates (in threaded mode the simulation thread does them)
             int updatesThisFrame = 0;
-            while (accumulator >= DT_SEC && updatesThisFrame < MAX_UPDATES_PER_FRAME) {
+            while (simulation == null && accumulator >= DT_SEC && updatesThisFrame < MAX_UPDATES_PER_FRAME) {
+                Tracing.begin(Tracing.UPDATE);
                 gameView.update((float) DT_SEC);
+                Tracing.end(Tracing.UPDATE);
                 updates++;
                 accumulator -= DT_SEC;
                 updatesThisFrame++;
             }
+            // couldn't catch up within MAX_UPDATES_PER_FRAME, the rest is dropped
+            boolean updateCapHit = simulation == null && accumulator >= DT_SEC;
             if (accumulator > DT_SEC) accumulator = DT_SEC;
+            long updateEndNs = System.nanoTime();
+            frameStats.record(FrameStats.UPDATE, updateEndNs - nowNs);
 
             // render
-
-            Canvas canvas = null;
-            try {
-                if (!surfaceHolder.getSurface().isValid()) {
-                    continue;
-                }
-                canvas = surfaceHolder.lockCanvas();
-                if (canvas == null) {
-                    continue;
-                }
-                synchronized (surfaceHolder) {
-                    gameView.draw(canvas);
-                }
-                frames++;
-            } finally {
-                if (canvas != null) {
-                    surfaceHolder.unlockCanvasAndPost(canvas);
-                }
+            int frame = drawFrame(updateEndNs, accumulator);
+            if (frame != FRAME_NO_SURFACE) {
+                // fps counts frames actually posted, skipped ones still go into the pacing stats
+                if (frame == FRAME_DRAWN) frames++;
+                frameStats.endFrame(frameIntervalNs, updateCapHit, accumClamped);
+            } else {
+                // no surface (or no canvas): the old loop spun here at full speed
+                clock.park(NO_SURFACE_WAIT_NS);
+                pacer.reset();
             }
 
             // publish stats each second
             long nowMs = System.currentTimeMillis();
             if (nowMs - secTimerMs >= 1000) {
                 fps = frames;
+                if (simulation != null) {
+                    long simUpdates = simulation.getUpdateCount();
+                    updates = (int) (simUpdates - simUpdatesAtSecond);
+                    simUpdatesAtSecond = simUpdates;
+                }
                 ups = updates;
+                frameStats.publish();
+                gameView.getDrawStats().publish();
+                gcCount = readGcCount();
+                // here and not in the tick: in threaded mode GameView.update never runs
+                gameView.sampleHeap();
                 frames = 0;
                 updates = 0;
                 secTimerMs += 1000;
             }
 
-            // (Optional) soft cap to ~60 FPS if device is too fast
-            // We can sleep a tiny bit to reduce CPU usage.
-            long frameTimeNs = System.nanoTime() - nowNs;
-            long remainingNs = targetFrameNs - frameTimeNs;
-            if (remainingNs > 200_000) { // >0.2ms
-                try {
-                    // sleep for a bit less than the remaining to avoid oversleeping
-                    Thread.sleep(0, (int) Math.min(remainingNs - 100_000, 900_000));
-                } catch (InterruptedException ignored) {
-                }
+            // wait for the next frame the way the selected pacer does it
+            pacer.setIdle(gameView.isIdle());
+            Tracing.begin(Tracing.SLEEP);
+            nowNs = pacer.awaitFrame();
+            Tracing.end(Tracing.SLEEP);
+            frameStats.record(FrameStats.PACING_ERROR, Math.abs(pacer.getLastErrorNs()));
+        }
+    }
+
+    private int drawFrame(long updateEndNs, double accumulator) {
+        if (!surfaceHolder.getSurface().isValid()) {
+            return FRAME_NO_SURFACE;
+        }
+        // interpolate between the last two ticks instead of dropping the accumulator remainder
+        RenderState state;
+        float alpha;
+        if (simulation != null) {
+            simStates.acquire();
+            state = simStates.readSlot();
+            alpha = Math.min(1f, Math.max(0f, (System.nanoTime() - state.tickNs) / (float) DT_NS));
+        } else {
+            state = gameView.getRenderState();
+            alpha = (float) (accumulator / DT_SEC);
+        }
+        // decided before lockCanvas: a locked canvas has to be posted, and a post is a full frame
+        if (!gameView.needsRedraw(state, alpha)) {
+            gameView.getDrawStats().skipFrame();
+            return FRAME_SKIPPED;
+        }
+
+        Tracing.begin(Tracing.LOCK_CANVAS);
+        Canvas canvas = lockCanvas();
+        Tracing.end(Tracing.LOCK_CANVAS);
+        long lockedNs = System.nanoTime();
+        frameStats.record(FrameStats.LOCK_CANVAS, lockedNs - updateEndNs);
+        if (canvas == null) {
+            return FRAME_NO_SURFACE;
+        }
+        try {
+            boolean lowRes = gameView.isLowResFrame();
+            synchronized (surfaceHolder) {
+                gameView.render(canvas, state, alpha);
             }
+            long drawNs = System.nanoTime() - lockedNs;
+            frameStats.record(FrameStats.DRAW, drawNs);
+            // per render mode, so native and low-res can be compared on the same device
+            frameStats.record(lowRes ? FrameStats.DRAW_LOW_RES : FrameStats.DRAW_NATIVE, drawNs);
+        } finally {
+            long postStartNs = System.nanoTime();
+            Tracing.begin(Tracing.POST);
+            surfaceHolder.unlockCanvasAndPost(canvas);
+            Tracing.end(Tracing.POST);
+            frameStats.record(FrameStats.POST, System.nanoTime() - postStartNs);
+        }
+        return FRAME_DRAWN;
+    }
+
+    private Canvas lockCanvas() {
+        if (hardwareCanvas && Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            return surfaceHolder.lockHardwareCanvas();
+        }
+        return surfaceHolder.lockCanvas();
+    }
+
+    // lockHardwareCanvas appeared in API 26, minSdk is 24 - older devices stay on the software canvas
+    public static boolean canUseHardwareCanvas(boolean requested) {
+        return requested && Build.VERSION.SDK_INT >= Build.VERSION_CODES.O;
+    }
+
+    // getRuntimeStat returns a String, so it is only polled with the per-second stats
+    private static long readGcCount() {
+        String v = Debug.getRuntimeStat("art.gc.gc-count");
+        if (v == null) return 0;
+        try {
+            return Long.parseLong(v);
+        } catch (NumberFormatException e) {
+            return 0;
         }
     }
 }
@@ -3,17 +3,44 @@ package com.app.game;
 import android.annotation.SuppressLint;
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
-import android.graphics.Rect;
+import android.os.Build;
 import android.view.MotionEvent;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 
 import androidx.annotation.NonNull;
 
+import com.app.game.core.RenderState;
+import com.app.game.core.TileLoop;
+import com.app.game.core.World;
+import com.app.game.core.anim.AnimationLibrary;
+import com.app.game.core.camera.ViewBounds;
+import com.app.game.core.concurrent.WorkerPool;
+import com.app.game.core.fx.ParticlePool;
+import com.app.game.core.fx.PlayerEffects;
+import com.app.game.core.fx.ParticleStyle;
+import com.app.game.core.input.InputRing;
+import com.app.game.core.input.TouchControls;
+import com.app.game.core.level.Chunk;
+import com.app.game.core.level.ChunkGenerator;
+import com.app.game.core.level.LevelStreamer;
+import com.app.game.core.memory.AssetQuality;
+import com.app.game.core.pacing.PacingMode;
+import com.app.game.core.render.DrawStats;
+import com.app.game.core.render.BatchingRenderer;
+import com.app.game.core.render.FrameFingerprint;
+import com.app.game.core.render.Renderer;
+import com.app.game.core.render.VirtualResolution;
+import com.app.game.core.replay.InputRecorder;
+import com.app.game.core.replay.WorldSetup;
+import com.app.game.core.save.GameSnapshot;
+import com.app.game.core.trace.Tracing;
+
+import java.util.Random;
+
 public class GameView extends SurfaceView implements SurfaceHolder.Callback {
 
     private GameLoop gameLoop;
@@ -23,49 +50,176 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
 
     //во сколько раз увеличить кадр спрайта на экране
     private static final float PLAYER_SCALE_SIZE = 5f;
+    private static final float PLAYER_SPEED = 500f; // пикс/сек
+    // хитбокс тела в долях кадра (персонаж занимает середину кадра), подобрано на глаз
+    private static final float PLAYER_HITBOX_HALF_W = 0.12f;
+    private static final float PLAYER_HITBOX_HALF_H = 0.3f;
     private Player player;
-
-
-    // HUD-краска и кэш строк
-    private final Paint hudPaint = new Paint();
-    private String fpsText = "";
-    private String upsText = "";
-
-    // Камера
-    private static final float CAM_HALF_LIFE_SEC = 0.12f;
-    private float camX = 0f;
-
+    // Общий атлас спрайтов (игрок, дальше враги)
+    private SpriteAtlas atlas;
+
+    // Частицы: лист кругов в том же атласе, рисуются вместе с игроком одной текстурой
+    private static final int PARTICLE_DOT_PX = 8;
+    private static final int DOT_DUST = 0;
+    private static final int DOT_SPARK = 1;
+    private static final float DUST_PER_SEC = 24f;
+    private static final int SPARKS_PER_ATTACK = 16;
+    // Тряска камеры на удар: мировые px и секунды (только в кадре, симуляцию не трогает)
+    private static final float ATTACK_SHAKE_PX = 6f;
+    private static final float ATTACK_SHAKE_SEC = 0.15f;
+    private int[] particleRects;
+
+    // Симуляция мира (игрок, камера, пол) живет в core
+    private World world;
+    // Последний тик для рендера в однопоточном режиме (prev + текущее для интерполяции)
+    private final RenderState renderState = new RenderState();
+    // true - симуляция на своем потоке, рендер интерполирует снимки из тройного буфера
+    private static final boolean SEPARATE_SIM_THREAD = false;
+    // Параллельные фазы тика (ИИ, движение толпы): потоки по ядрам, не больше этого.
+    // Пока сущностей меньше World.ENTITY_CHUNK, все идет на потоке симуляции
+    private static final int MAX_JOB_THREADS = 4;
+    private WorkerPool jobPool;
+    // Как луп ждет следующий кадр: VSYNC - по Choreographer, HYBRID - точный сон, LOW_POWER - 30 FPS
+    private static final PacingMode PACING_MODE = PacingMode.VSYNC;
+    // Столько без касаний и стоя на месте - простой, пейсер может реже рисовать
+    private static final long IDLE_AFTER_NS = 5_000_000_000L;
+    private volatile long lastInputNs = System.nanoTime();
+
+    // Запись ввода по тикам для реплея на десктопе (регрессии, перф-нагрузка). Только в debug-сборке:
+    // лог растет всю сессию и пишется в файл на каждой паузе
+    private static final boolean RECORD_REPLAY = BuildConfig.DEBUG;
+    private static final int REPLAY_CHECKPOINT_TICKS = World.TARGET_UPS;
+    private volatile InputRecorder recorder;
+
+    // Касания: UI-поток кладет события в кольцо, TouchControls разбирает его в начале тика
+    private static final int INPUT_RING_CAPACITY = 256;
+    // столько мест держим под DOWN/UP, исторические MOVE при нехватке места склеиваются в последний
+    private static final int INPUT_RING_RESERVE = 32;
+    private final InputRing inputRing = new InputRing(INPUT_RING_CAPACITY);
+    private final TouchControls controls = new TouchControls(inputRing);
+    private final Paint controlsPaint = new Paint();
+
+
+    // HUD без аллокаций в кадре
+    private final DebugHud hud;
+
+    // Звук: шаги и удары через микшер на своем потоке
+    private final GameAudio audio = new GameAudio();
+
+    // Пропуск кадров без изменений и кэш статичных слоев. Трогает только поток лупа
+    private final FrameFingerprint frameKey = new FrameFingerprint();
+    private final FrameFingerprint layersKey = new FrameFingerprint();
+    private final LayerCache layerCache = new LayerCache();
+    private long lastLayersKey;
+    private final DrawStats drawStats = new DrawStats();
+    // растет при каждой смене битмапа слоя (догрузка, пересоздание под новый размер)
+    private volatile int assetVersion;
+
+    // Low-res: сцена (слои и спрайты) рисуется в цель поменьше и одним блитом растягивается на экран,
+    // HUD и контролы - поверх, в полном разрешении. Множитель ограничен так, что ни один ассет в цели
+    // не меньше 1:1 (см. nativeScaleCap), поэтому на 1080p с фоном 700px режим остается 1:1.
+    // Что остается нецелым: фон (высота экрана / 700) и пол/магазин при декоде под цель фильтруются,
+    // а растяжка цели - nearest, так что края текселей чуть жестче, чем в полном разрешении.
+    // По умолчанию выключен; в debug-сборке касание тремя пальцами переключает режим на лету,
+    // draw p95 каждого режима видно на HUD
+    private static final boolean LOW_RES_RENDER = false;
+    private volatile boolean lowResRender = LOW_RES_RENDER;
+    private volatile VirtualResolution resolution = VirtualResolution.identity(1, 1);
+    private final LowResTarget lowResTarget = new LowResTarget();
+    // разрешение кадра, который сейчас рисуется. Только поток лупа
+    private VirtualResolution frameRes = resolution;
+
+    // Все рисование идет через Renderer. HARDWARE_CANVAS - GameLoop берет lockHardwareCanvas (API 26+),
+    // BATCH_DRAWS - вызовы кадра сортируются по (слой, текстура) перед выдачей в Canvas
+    private static final boolean HARDWARE_CANVAS = true;
+    private static final boolean BATCH_DRAWS = true;
+    // Слоты текстур и стилей рендерера
+    private static final int TEX_BACKGROUND = 0;
+    private static final int TEX_GROUND = 1;
+    private static final int TEX_GROUND_LIGHT = 2;
+    private static final int TEX_SHOP = 3;
+    private static final int TEX_ATLAS = 4;
+    private static final int TEX_LAYERS = 5;
+    private static final int TEX_LOW_RES = 6;
+    private static final int TEXTURE_SLOTS = 7;
+    private static final int STYLE_HUD = 0;
+    private static final int STYLE_CONTROLS = 1;
+    private static final int STYLE_SLOTS = 2;
+    // Слои: внутри слоя батчинг меняет порядок разных текстур, так что перекрывающееся - в разные слои
+    private static final int LAYER_CLEAR = 0;
+    private static final int LAYER_BACKGROUND = 1;
+    private static final int LAYER_GROUND = 2;
+    private static final int LAYER_PLATFORMS = 3;
+    private static final int LAYER_PROPS = 4;
+    private static final int LAYER_SPRITES = 5;
+    private static final int LAYER_OVERLAY = 6;
+    private final CanvasRenderer canvasOut;
+    private final Renderer renderer;
+    private final String backendName;
+
+    // Битмапы фона и пола берем из кэша, он переживает пересоздание поверхности
+    private static final long NO_KEY = -1L;
+    private final AssetCache assets;
+
+    // Качество битмапов под давлением памяти: trim-колбэки и замер хипа раз в секунду
+    // (на потоке лупа, он есть в обоих режимах). Бюджет по умолчанию - доля от maxMemory, можно задать setHeapBudget.
+    // С API 26 пиксели битмапов в нативной памяти и в Java-хип не видны - к замеру прибавляются байты кэша ассетов
+    private static final float HEAP_BUDGET_FRACTION = 0.75f;
+    private static final long QUALITY_RESTORE_AFTER_NS = 30_000_000_000L;
+    private final AssetQuality quality = new AssetQuality(
+            (long) (Runtime.getRuntime().maxMemory() * HEAP_BUDGET_FRACTION), QUALITY_RESTORE_AFTER_NS);
 
     // Background
     private static final float BG_PARALLAX = 0.3f; // фон движется медленнее камеры
-    private Bitmap bgTile;     // seamless_bg.png
-    private Bitmap bgScaled;
-    private int bgScaledW;
+    private Bitmap bgScaled;   // seamless_bg.png под высоту экрана (в low-res - под высоту цели)
+    private volatile long bgKey = NO_KEY;
 
     //Ground tile
 
-    // т.к тайл персонажа 80px, а мы за основу берем серидину персонажа(40px)
-    // то надо смещать персонажа по пропорции, чтобы ноги касались пола
-    private static final float PLAYER_OFFSET_FOR_GROUND = 0.17f;
     private static final float GROUND_PARALLAX = 1.0f;
     private static final int GROUND_SCALE = 2;
     private static final int GROUND_OFFSET_Y = 20; // на сколько пикселей опущен тайл
 
-    private Bitmap groundTile;
     private Bitmap groundTileScaled;
-    private int groundTileWidth, groundTileHeight;
+    private volatile long groundKey = NO_KEY;
+    private int groundTileHeight;
     private int groundDrawHeightPx;
     private float groundY;
 
-    private final Rect groundSrc = new Rect();
+
+    // Level: чанки генерируются на фоне впереди камеры, рендер рисует только готовые.
+    // Окно и стример собирает WorldSetup - монстры и магазины ставятся миром и повторяются в реплее
+    private static final float PLATFORM_THICKNESS = 40f;
+    private static final int SHOP_SCALE = 2; // shop.png 512x256 -> высота 2 тайлов пола
+    private LevelStreamer level;
+
+    // Видимая область кадра: своя у рендера и у проверки "надо ли рисовать" (она до lockCanvas)
+    private final ViewBounds view = new ViewBounds();
+    private final ViewBounds redrawView = new ViewBounds();
+
+    private Bitmap groundLightScaled;
+    private volatile long groundLightKey = NO_KEY;
+    private Bitmap shopScaled;
+    private volatile long shopKey = NO_KEY;
 
     public GameView(Context context) {
         super(context);
         getHolder().addCallback(this);
 
-        hudPaint.setColor(Color.GREEN);
-        hudPaint.setTextSize(14f * getResources().getDisplayMetrics().scaledDensity);
-        hudPaint.setAntiAlias(true);
+        assets = AssetCache.shared(context.getApplicationContext().getResources());
+        hud = new DebugHud(14f * getResources().getDisplayMetrics().scaledDensity);
+
+        canvasOut = new CanvasRenderer(TEXTURE_SLOTS, STYLE_SLOTS, drawStats);
+        canvasOut.setStyle(STYLE_HUD, hud.getPaint());
+        canvasOut.setStyle(STYLE_CONTROLS, controlsPaint);
+        renderer = BATCH_DRAWS ? new BatchingRenderer(canvasOut) : canvasOut;
+        backendName = (GameLoop.canUseHardwareCanvas(HARDWARE_CANVAS) ? "hw" : "sw") + (BATCH_DRAWS ? "+batch" : "");
+
+        controlsPaint.setColor(Color.WHITE);
+        controlsPaint.setAlpha(60);
+        controlsPaint.setStyle(Paint.Style.STROKE);
+        controlsPaint.setStrokeWidth(4f);
+        controlsPaint.setAntiAlias(true);
 
         setFocusable(true);
     }
@@ -76,219 +230,661 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
 
     @Override
     public void surfaceCreated(@NonNull SurfaceHolder holder) {
-        player = new Player(getResources(), getWidth() / 2f, getHeight() / 2f, 500f, PLAYER_SCALE_SIZE);
+        // атлас маленький и живет, пока вьюха в окне - при resume не пересобираем
+        if (atlas == null) {
+            SpriteAtlas.Builder atlasBuilder = new SpriteAtlas.Builder(getResources());
+            AnimationLibrary animations = AnimationLibrary.standard();
+            int[] playerSheets = Player.addSheets(atlasBuilder, animations);
+            int dots = atlasBuilder.addDots(PARTICLE_DOT_PX, 0xffb8a48a, 0xffffe27a);
+            atlas = atlasBuilder.build();
+            particleRects = atlas.frameRects(dots);
+            player = new Player(atlas, TEX_ATLAS, animations, playerSheets, PLAYER_SCALE_SIZE);
+        }
+        // Мир (и восстановление из сохранения) собираем до старта лупы, чтобы поток симуляции
+        // не видел полусобранный мир. Реплеер строит его тем же WorldSetup.
+        // Тот же сид после восстановления - тот же уровень; 0 - "без уровня", его не берем
+        long seed = pendingSnapshot != null ? pendingSnapshot.levelSeed : 0;
+        for (Random random = new Random(); seed == 0; ) seed = random.nextLong();
+        WorldSetup setup = new WorldSetup(getWidth() / 2f, getHeight() / 2f, PLAYER_SPEED,
+                player.getDrawHeight(),
+                player.getDrawWidth() * PLAYER_HITBOX_HALF_W, player.getDrawHeight() * PLAYER_HITBOX_HALF_H,
+                getWidth(), getHeight(), groundSurfaceY(), pendingSnapshot, seed);
+        pendingSnapshot = null;
+        world = setup.createWorld();
+        jobPool = new WorkerPool(WorkerPool.defaultThreads(MAX_JOB_THREADS));
+        world.setScheduler(jobPool);
+        setupParticles(world);
+        audio.attach(world);
+        level = world.getLevel();
+        level.requestAround(world.getCamX(), getWidth());
+        level.start();
+        inputRing.offer(InputRing.RESIZE, -1, getWidth(), getHeight(), 0);
+        world.setInputSource(controls);
+        if (RECORD_REPLAY) {
+            recorder = new InputRecorder(setup, REPLAY_CHECKPOINT_TICKS);
+            world.setTickListener(recorder);
+        }
+        renderState.capture(world, null, System.nanoTime());
+        resolution = resolveResolution(getWidth(), getHeight());
+
+        // новый уровень и новая поверхность - старые запеченные слои и содержимое экрана не годятся
+        assetVersion++;
+        frameKey.invalidate();
 
         float refreshRate = (getDisplay() != null) ? getDisplay().getRefreshRate() : 60f;
 
-        gameLoop = new GameLoop(getHolder(), this, refreshRate);
+        gameLoop = new GameLoop(getHolder(), this, refreshRate, SEPARATE_SIM_THREAD, PACING_MODE, HARDWARE_CANVAS);
         gameLoop.setRunning(true);
         gameLoop.start();
+        audio.start();
+    }
+
+    @Override
+    public void surfaceChanged(@NonNull SurfaceHolder holder, int format, int width, int height) {
+        // Размер тайла пола знаем без декода, он нужен сразу для линии пола
+        int[] groundSize = assets.sourceSize(R.drawable.ground_tile_dark);
+        groundTileHeight = groundSize[1];
+
+        // Увеличиваем высоту в GROUND_SCALE раз относительно оригинала
+        groundDrawHeightPx = groundTileHeight * GROUND_SCALE;
+
+        applyResolution(width, height);
+
+        // Линия пола = нижняя граница экрана
+        groundY = getHeight();
 
-        if (pendingSnapshot != null) {
-            restoreFrom(pendingSnapshot);
-            pendingSnapshot = null;
+        if (world != null) {
+            world.setViewport(width, height, groundSurfaceY());
         }
+        inputRing.offer(InputRing.RESIZE, -1, width, height, 0);
+        frameKey.invalidate();
     }
 
     @Override
-    public void surfaceChanged(@NonNull SurfaceHolder holder, int format, int width, int height) {
-        //Если бгтайл нету, то берем из ресурсов
-        if (bgTile == null) {
-            bgTile = BitmapFactory.decodeResource(getResources(), R.drawable.seamless_bg);
+    public void surfaceDestroyed(@NonNull SurfaceHolder holder) {
+        // Убиваем геймлупу, перед удалением, проверить сохраняемость новых данных если есть
+        stopLoop();
+        // битмапы остаются в AssetCache до следующего surfaceCreated
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (atlas != null) {
+            atlas.dispose();
+            atlas = null;
+            player = null;
+        }
+        synchronized (getHolder()) {
+            layerCache.release();
+            lowResTarget.release();
         }
-        // Предварительно масштабируем bg до высоты экрана один раз
-        if (bgTile != null) {
-            int screenH = getHeight();
-            int srcW = bgTile.getWidth();
-            int srcH = bgTile.getHeight();
+    }
+
+    // Логика
+    public void update(float dtSeconds) {
+        if (world != null) {
+            world.update(dtSeconds);
+            renderState.capture(world, renderState, System.nanoTime());
+        }
+    }
 
-            float koeffBg = screenH / (float) srcH;
+    // Пыль, искры и тряска идут хуком мира - на потоке симуляции в обоих режимах
+    private void setupParticles(World world) {
+        ParticlePool fx = world.getParticles();
+        // life, скорость, угол/разброс, гравитация, торможение, размер от/до, кадр
+        int dust = fx.addStyle(new ParticleStyle(0.5f, 40f, 120f, 90f, 60f, 200f, 2f, 24f, 4f, DOT_DUST));
+        int spark = fx.addStyle(new ParticleStyle(0.3f, 300f, 700f, 10f, 40f, 900f, 1f, 16f, 4f, DOT_SPARK));
+        // искры у края хитбокса, со стороны взгляда
+        float sparkOffsetPx = player.getDrawWidth() * PLAYER_HITBOX_HALF_W * 2f;
+        world.addTickHook(new PlayerEffects(fx, dust, DUST_PER_SEC, spark, SPARKS_PER_ATTACK, sparkOffsetPx,
+                ATTACK_SHAKE_PX, ATTACK_SHAKE_SEC));
+    }
 
-            bgScaledW = Math.max(1, Math.round(srcW * koeffBg));
+    public World getWorld() {
+        return world;
+    }
 
-            if (bgScaled != null) {
-                bgScaled.recycle();
-                bgScaled = null;
-            }
+    public RenderState getRenderState() {
+        return renderState;
+    }
 
-            bgScaled = Bitmap.createScaledBitmap(bgTile, bgScaledW, screenH, false);
+    // Лог ввода текущей сессии, null - не пишем. Звать после stopLoop
+    public byte[] takeReplay() {
+        InputRecorder r = recorder;
+        if (r == null || world == null) return null;
+        recorder = null;
+        return r.toByteArray(world.getTick());
+    }
+
+    // Разрешение сцены под размер поверхности и текущий режим
+    private VirtualResolution resolveResolution(int width, int height) {
+        return lowResRender
+                ? VirtualResolution.fit(width, height, VirtualResolution.DEFAULT_HEIGHT, nativeScaleCap(height))
+                : VirtualResolution.identity(width, height);
+    }
+
+    // Наибольший множитель, при котором каждый ассет сцены в цели не меньше исходника
+    private int nativeScaleCap(int height) {
+        int cap = VirtualResolution.nativeScale(height, assets.sourceSize(R.drawable.seamless_bg)[1]);
+        cap = Math.min(cap, VirtualResolution.nativeScale(groundDrawHeightPx, groundTileHeight));
+        cap = Math.min(cap, VirtualResolution.nativeScale(groundDrawHeightPx * SHOP_SCALE,
+                assets.sourceSize(R.drawable.shop)[1]));
+        // спрайты игрока рисуются в PLAYER_SCALE_SIZE раз крупнее кадра атласа
+        return Math.min(cap, (int) PLAYER_SCALE_SIZE);
+    }
+
+    // bg скейлим до высоты экрана, пол - в GROUND_SCALE раз. В low-res декодим сразу под цель:
+    // битмапы в scale раз меньше по каждой стороне. Декод в фоне, при том же размере - из кэша
+    private void applyResolution(int width, int height) {
+        VirtualResolution res = resolveResolution(width, height);
+        resolution = res;
+        int tier;
+        synchronized (quality) {
+            tier = quality.tier();
         }
+        // фон непрозрачный - на OPAQUE_565 он в RGB_565, остальные слои с альфой
+        requestBackground(res.toTarget(height), tier);
+        requestGround(res.toTarget(groundDrawHeightPx), tier);
+        requestGroundLight(res.toTarget(groundDrawHeightPx), tier);
+        requestShop(res.toTarget(groundDrawHeightPx * SHOP_SCALE), tier);
+    }
 
-        if (groundTile == null) {
-            groundTile = BitmapFactory.decodeResource(getResources(), R.drawable.ground_tile_dark);
-            groundTileWidth = groundTile.getWidth();
-            groundTileHeight = groundTile.getHeight();
-            groundSrc.set(0, 0, groundTileWidth, groundTileHeight);
+    // UI-поток, из MainActivity.onTrimMemory / onLowMemory (TRIM_COMPLETE)
+    public void onTrimMemory(int level) {
+        int action;
+        synchronized (quality) {
+            action = quality.onTrimMemory(level, System.nanoTime());
         }
+        applyQuality(action);
+    }
 
-        // Увеличиваем высоту в GROUND_SCALE раз относительно оригинала
-        groundDrawHeightPx = groundTileHeight * GROUND_SCALE;
+    // Порог занятого хипа, выше которого качество понижается
+    public void setHeapBudget(long bytes) {
+        synchronized (quality) {
+            quality.setHeapBudgetBytes(bytes);
+        }
+    }
 
+    public int getQualityTier() {
+        synchronized (quality) {
+            return quality.tier();
+        }
+    }
 
-        // Предварительно масштабируем тайл земли до высоты экрана один раз
-        if (groundTile != null) {
-            float kg = groundDrawHeightPx / (float) groundTileHeight;
-            int gW = Math.max(1, Math.round(groundTileWidth * kg));
-            int gH = Math.max(1, Math.round(groundTileHeight * kg));
+    // Поток лупа, со статистикой раз в секунду. Действия - на UI-поток, там живут ключи ассетов
+    void sampleHeap() {
+        Runtime rt = Runtime.getRuntime();
+        long used = rt.totalMemory() - rt.freeMemory();
+        // до O пиксели лежат в хипе и уже посчитаны
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) used += assets.bitmapBytes();
+        int action;
+        synchronized (quality) {
+            action = quality.onHeapSample(used, System.nanoTime());
+        }
+        if (action != AssetQuality.NONE) post(() -> applyQuality(action));
+    }
 
-            if (groundTileScaled != null) {
-                groundTileScaled.recycle();
+    // UI-поток. Смена уровня перезапрашивает слои (старые битмапы рисуются до прихода новых),
+    // потом из кэша уходит все, что не на экране
+    private void applyQuality(int action) {
+        if ((action & AssetQuality.EVICT_ALL) != 0 && gameLoop == null) {
+            // в фоне: отдаем все, surfaceChanged загрузит заново под текущий уровень
+            synchronized (getHolder()) {
+                bgScaled = null;
                 groundTileScaled = null;
+                groundLightScaled = null;
+                shopScaled = null;
+                bgKey = groundKey = groundLightKey = shopKey = NO_KEY;
+                layerCache.release();
+                lowResTarget.release();
+                assetVersion++;
             }
-            groundTileScaled = Bitmap.createScaledBitmap(groundTile, gW, gH, false);
+            assets.evictAll();
+            return;
+        }
+        if ((action & AssetQuality.TIER_CHANGED) != 0 && getWidth() > 0 && groundDrawHeightPx > 0) {
+            applyResolution(getWidth(), getHeight());
+        }
+        if ((action & (AssetQuality.EVICT_UNUSED | AssetQuality.EVICT_ALL)) != 0) {
+            assets.evictExcept(bgKey, groundKey, groundLightKey, shopKey);
         }
-        // Линия пола = нижняя граница экрана
-        groundY = getHeight();
     }
 
-    @Override
-    public void surfaceDestroyed(@NonNull SurfaceHolder holder) {
-        // Убиваем геймлупу, перед удалением, проверить сохраняемость новых данных если есть
-        stopLoop();
-        // освобождение битмапов
-        if (bgScaled != null) {
-            bgScaled.recycle();
+    // UI-поток. Ассеты перезапрашиваются под новую цель, до их прихода рисуются старые
+    public void setLowResRender(boolean on) {
+        lowResRender = on;
+        if (getWidth() > 0 && groundDrawHeightPx > 0) applyResolution(getWidth(), getHeight());
+    }
+
+    // Кадр пойдет через внутреннюю цель (на маленьком экране low-res совпадает с 1:1)
+    public boolean isLowResFrame() {
+        return resolution.scale > 1;
+    }
+
+    private void requestBackground(int screenH, int tier) {
+        long key = AssetCache.key(R.drawable.seamless_bg, screenH, tier);
+        if (key == bgKey) return;
+        long old = bgKey;
+        bgKey = key;
+        // рисуем под локом surfaceHolder, так что после этого блока старый битмап рендер уже не держит
+        synchronized (getHolder()) {
             bgScaled = null;
+            assetVersion++;
         }
-        if (bgTile != null) {
-            bgTile.recycle();
-            bgTile = null;
-        }
-        if (groundTileScaled != null) {
-            groundTileScaled.recycle();
+        if (old != NO_KEY) assets.release(old);
+        assets.load(R.drawable.seamless_bg, screenH, tier, true, (k, bitmap) -> {
+            synchronized (getHolder()) {
+                if (k != bgKey) return;
+                bgScaled = bitmap;
+                assetVersion++;
+            }
+        });
+    }
+
+    private void requestGround(int tileH, int tier) {
+        long key = AssetCache.key(R.drawable.ground_tile_dark, tileH, tier);
+        if (key == groundKey) return;
+        long old = groundKey;
+        groundKey = key;
+        synchronized (getHolder()) {
             groundTileScaled = null;
+            assetVersion++;
         }
-        if (groundTile != null) {
-            groundTile.recycle();
-            groundTile = null;
-        }
-        if (player != null) {
-            player.dispose();
-        }
+        if (old != NO_KEY) assets.release(old);
+        assets.load(R.drawable.ground_tile_dark, tileH, tier, false, (k, bitmap) -> {
+            synchronized (getHolder()) {
+                if (k != groundKey) return;
+                groundTileScaled = bitmap;
+                assetVersion++;
+            }
+        });
     }
 
-    // Логика
-    public void update(float dtSeconds) {
-        if (gameLoop != null) {
-            fpsText = "FPS: " + gameLoop.getFps();
-            upsText = "UPS: " + gameLoop.getUps();
+    private void requestGroundLight(int tileH, int tier) {
+        long key = AssetCache.key(R.drawable.ground_tile, tileH, tier);
+        if (key == groundLightKey) return;
+        long old = groundLightKey;
+        groundLightKey = key;
+        synchronized (getHolder()) {
+            groundLightScaled = null;
+            assetVersion++;
         }
+        if (old != NO_KEY) assets.release(old);
+        assets.load(R.drawable.ground_tile, tileH, tier, false, (k, bitmap) -> {
+            synchronized (getHolder()) {
+                if (k != groundLightKey) return;
+                groundLightScaled = bitmap;
+                assetVersion++;
+            }
+        });
+    }
 
-        if (player != null) {
-            player.update(dtSeconds);
-
-            //half-life камера
-            float target = player.getX() - getWidth() * 0.5f;
-            float k = (float) Math.pow(0.5, dtSeconds / CAM_HALF_LIFE_SEC);
-            camX = k * camX + (1f - k) * target;
-
-            float playerHalfHeight = player.getDrawHeight() * 0.5f;
-            //PLAYER_OFFSET_FOR_GROUND подобран эпирически под текущий спрайт. Если другой спрайт - высчитывать пропорцию
-            player.setY(groundY + GROUND_OFFSET_Y - groundDrawHeightPx - playerHalfHeight * PLAYER_OFFSET_FOR_GROUND);
+    private void requestShop(int shopH, int tier) {
+        long key = AssetCache.key(R.drawable.shop, shopH, tier);
+        if (key == shopKey) return;
+        long old = shopKey;
+        shopKey = key;
+        synchronized (getHolder()) {
+            shopScaled = null;
+            assetVersion++;
         }
+        if (old != NO_KEY) assets.release(old);
+        assets.load(R.drawable.shop, shopH, tier, false, (k, bitmap) -> {
+            synchronized (getHolder()) {
+                if (k != shopKey) return;
+                shopScaled = bitmap;
+                assetVersion++;
+            }
+        });
+    }
+
+    // Верхняя кромка тайлов пола на экране, по ней world ставит ноги игрока
+    private float groundSurfaceY() {
+        return groundY + GROUND_OFFSET_Y - groundDrawHeightPx;
     }
 
 
-    // Рисуем тут бгшку, тайл земли, потом счетчик фпса(в дальнейшем худ отладки) и игрока.
     @Override
     public void draw(Canvas canvas) {
         super.draw(canvas);
         if (canvas == null) return;
+        render(canvas, renderState, 1f);
+    }
+
+    // Рисуем тут бгшку, тайл земли и игрока (в low-res - во внутреннюю цель), потом худ отладки и контролы.
+    // alpha - доля между предыдущим и текущим тиком, позиции и камера интерполируются.
+    // Камера прижата к сетке пикселей цели: слои тогда попиксельно повторяются и их можно кэшировать
+    public void render(Canvas canvas, RenderState state, float alpha) {
+        VirtualResolution res = resolution;
+        frameRes = res;
+        boolean lowRes = res.scale > 1;
+        ViewBounds v = frameView(view, state, alpha, res);
+        bindTextures();
+        Renderer r = renderer;
+
+        // Фон и пол меняются только вместе с камерой и ассетами. Камера стоит второй кадр подряд -
+        // запекаем их в битмап и дальше, пока стоит, рисуем одним блитом
+        long key = staticLayersKey(res, v);
+        if (!layerCache.has(key) && key == lastLayersKey) {
+            canvasOut.setTarget(layerCache.begin(res.width, res.height), res.width, res.height);
+            drawStaticLayers(r, res, v);
+            flush(r);
+            layerCache.end(key);
+            canvasOut.setTexture(TEX_LAYERS, layerCache.bitmap());
+        }
+        lastLayersKey = key;
+
+        canvasOut.setTarget(lowRes ? lowResTarget.begin(res) : canvas, res.width, res.height);
+        canvasOut.setTexture(TEX_LOW_RES, lowResTarget.bitmap());
+        if (layerCache.has(key)) {
+            Tracing.begin(Tracing.DRAW_BACKGROUND);
+            r.setLayer(LAYER_BACKGROUND);
+            r.setScale(1f);
+            r.drawImage(TEX_LAYERS, 0, 0, res.width, res.height, 0, 0, res.width, res.height, false);
+            Tracing.end(Tracing.DRAW_BACKGROUND);
+        } else {
+            drawStaticLayers(r, res, v);
+        }
+        if (player != null) {
+            Tracing.begin(Tracing.DRAW_PLAYER);
+            r.setLayer(LAYER_SPRITES);
+            r.setScale(v.zoom / res.scale);
+            float px = state.playerX(alpha), py = state.playerY(alpha);
+            float halfW = player.getDrawWidth() * 0.5f, halfH = player.getDrawHeight() * 0.5f;
+            if (v.accept(px - halfW, py - halfH, px + halfW, py + halfH)) player.draw(r, state, alpha, v.left, v.top);
+            Tracing.end(Tracing.DRAW_PLAYER);
+            Tracing.begin(Tracing.DRAW_PARTICLES);
+            state.particles.draw(r, TEX_ATLAS, particleRects, alpha, World.DT_SEC, v);
+            Tracing.end(Tracing.DRAW_PARTICLES);
+        }
+
+        if (lowRes) {
+            // сцена готова - один апскейл на поверхность, поля от остатка деления черные
+            flush(r);
+            canvasOut.setTarget(canvas, res.surfaceWidth, res.surfaceHeight);
+            r.setScale(1f);
+            if (res.offsetX != 0 || res.offsetY != 0) {
+                r.setLayer(LAYER_CLEAR);
+                r.clear(Color.BLACK);
+            }
+            r.setLayer(LAYER_BACKGROUND);
+            r.drawImage(TEX_LOW_RES, 0, 0, res.width, res.height, res.offsetX, res.offsetY,
+                    res.offsetX + res.width * res.scale, res.offsetY + res.height * res.scale, false);
+        }
 
-        drawLoopedBackground(canvas);
-        drawGround(canvas);
+        // HUD и контролы - в разрешении экрана
+        Tracing.begin(Tracing.DRAW_HUD);
+        r.setLayer(LAYER_OVERLAY);
+        r.setScale(1f);
+        if (gameLoop != null) hud.draw(r, STYLE_HUD);
+        drawControls(r);
+        Tracing.end(Tracing.DRAW_HUD);
+        flush(r);
+        drawStats.objects(v.getDrawn(), v.getCulled());
+        drawStats.endFrame();
+    }
 
-        if (gameLoop != null) {
-            canvas.drawText(fpsText + " " + upsText, 32, 64, hudPaint);
+    // Видимая часть мира в кадре. Камера прижата к сетке пикселей цели
+    private ViewBounds frameView(ViewBounds out, RenderState state, float alpha, VirtualResolution res) {
+        return out.set(res.snap(state.camX(alpha)), res.snap(state.camY(alpha)), state.zoom(alpha),
+                getWidth(), getHeight());
+    }
+
+    // Битмапы меняются под локом поверхности (догрузка ассетов), рендер тоже под ним - привязываем каждый кадр
+    private void bindTextures() {
+        canvasOut.setTexture(TEX_BACKGROUND, bgScaled);
+        canvasOut.setTexture(TEX_GROUND, groundTileScaled);
+        canvasOut.setTexture(TEX_GROUND_LIGHT, groundLightScaled);
+        canvasOut.setTexture(TEX_SHOP, shopScaled);
+        canvasOut.setTexture(TEX_ATLAS, atlas != null ? atlas.getBitmap() : null);
+        canvasOut.setTexture(TEX_LAYERS, layerCache.bitmap());
+    }
+
+    // Фон - в координатах экрана, без зума (он далеко). Пол и все, что в мире, - относительно
+    // видимой области с ее зумом. На цель меньшего размера - через масштаб рендерера
+    private void drawStaticLayers(Renderer r, VirtualResolution res, ViewBounds v) {
+        Tracing.begin(Tracing.DRAW_BACKGROUND);
+        r.setScale(1f / res.scale);
+        drawLoopedBackground(r, v.left);
+        Tracing.end(Tracing.DRAW_BACKGROUND);
+        Tracing.begin(Tracing.DRAW_GROUND);
+        r.setScale(v.zoom / res.scale);
+        drawGround(r, v);
+        Tracing.end(Tracing.DRAW_GROUND);
+    }
+
+    // С батчингом draw-вызовы слоев только копятся, в Canvas они уходят здесь
+    private static void flush(Renderer r) {
+        Tracing.begin(Tracing.FLUSH);
+        r.flush();
+        Tracing.end(Tracing.FLUSH);
+    }
+
+    // Зовет луп до lockCanvas. false - кадр совпадет с уже показанным, его можно не рисовать
+    public boolean needsRedraw(RenderState state, float alpha) {
+        GameLoop loop = gameLoop;
+        VirtualResolution res = resolution;
+        if (loop != null) hud.prepare(loop, world, drawStats, res, backendName, assets, getQualityTier());
+
+        ViewBounds v = frameView(redrawView, state, alpha, res);
+        frameKey.begin()
+                .add(staticLayersKey(res, v))
+                .add(Math.round(state.playerX(alpha) - v.left))
+                .add(Math.round(state.playerY(alpha) - v.top))
+                .add(state.frameIndex)
+                .add(state.sheet)
+                .add(state.isFacingLeft() ? 1 : 0);
+        // живые частицы двигаются каждый кадр
+        if (state.particles.count > 0) frameKey.add(state.tick).add(Float.floatToIntBits(alpha));
+        if (loop != null) hud.addTo(frameKey);
+        return frameKey.changed();
+    }
+
+    public DrawStats getDrawStats() {
+        return drawStats;
+    }
+
+    // Все, от чего зависят пиксели фона и пола: размер экрана и цели, сдвиг камеры, ассеты и готовность видимых чанков
+    private long staticLayersKey(VirtualResolution res, ViewBounds v) {
+        layersKey.begin()
+                .add(res.surfaceWidth)
+                .add(res.surfaceHeight)
+                .add(res.scale)
+                .add((long) v.left)
+                .add((long) v.top)
+                .add(Float.floatToIntBits(v.zoom))
+                .add(assetVersion);
+        LevelStreamer lvl = level;
+        if (lvl != null) {
+            int last = LevelStreamer.chunkIndex(v.right);
+            for (int ci = LevelStreamer.chunkIndex(v.left); ci <= last; ci++) {
+                layersKey.add(lvl.chunk(ci) != null ? ci : ~ci);
+            }
         }
+        return layersKey.value();
+    }
+
+    // Контуры джойстика и кнопки атаки - по тем же долям экрана, что у TouchControls
+    private void drawControls(Renderer r) {
+        float w = getWidth(), h = getHeight();
+        float stickX = TouchControls.JOYSTICK_MAX_X * w * 0.5f;
+        float stickY = (1f + TouchControls.JOYSTICK_MIN_Y) * h * 0.5f;
+        r.drawCircle(stickX, stickY, (1f - TouchControls.JOYSTICK_MIN_Y) * h * 0.4f, STYLE_CONTROLS);
+        r.drawCircle(TouchControls.ATTACK_CENTER_X * w, TouchControls.ATTACK_CENTER_Y * h,
+                TouchControls.ATTACK_RADIUS * h, STYLE_CONTROLS);
+    }
 
-        if (player != null) player.draw(canvas, camX);
+    // Простой: давно не трогали экран и игрок стоит
+    public boolean isIdle() {
+        return world != null
+                && world.getPlayer().getDirection() == 0
+                && System.nanoTime() - lastInputNs > IDLE_AFTER_NS;
     }
 
-    //Логика событий касания
+    //Логика событий касания: только кладем в кольцо, игрок меняется на тике симуляции
     @SuppressLint("ClickableViewAccessibility")
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        switch (event.getAction()) {
+        lastInputNs = System.nanoTime();
+        switch (event.getActionMasked()) {
             case MotionEvent.ACTION_DOWN:
-            case MotionEvent.ACTION_MOVE:
-                if (event.getX() < getWidth() / 2f) {
-                    // левая половина экрана
-                    player.setDirection(-1);
-                } else {
-                    // правая половина экрана
-                    player.setDirection(1);
-                }
+            case MotionEvent.ACTION_POINTER_DOWN:
+                offerPointer(InputRing.DOWN, event, event.getActionIndex());
+                // отладка: три пальца - сравнить low-res и полное разрешение
+                if (BuildConfig.DEBUG && event.getPointerCount() == 3) setLowResRender(!lowResRender);
                 break;
-
             case MotionEvent.ACTION_UP:
-                player.setDirection(0); // отпустили палец — стоим
+            case MotionEvent.ACTION_POINTER_UP:
+                offerPointer(InputRing.UP, event, event.getActionIndex());
+                break;
+            case MotionEvent.ACTION_MOVE:
+                offerMoves(event);
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                inputRing.offer(InputRing.CANCEL, -1, 0f, 0f, event.getEventTime() * 1_000_000L);
                 break;
         }
         return true;
     }
 
+    private void offerPointer(int type, MotionEvent event, int index) {
+        inputRing.offer(type, event.getPointerId(index), event.getX(index), event.getY(index),
+                event.getEventTime() * 1_000_000L);
+    }
+
+    // MOVE приходит пачкой: исторические сэмплы всех пальцев + текущий.
+    // Если места мало - пачка склеивается в текущие позиции, DOWN/UP не должны теряться
+    private void offerMoves(MotionEvent event) {
+        int pointers = event.getPointerCount();
+        int history = event.getHistorySize();
+        if (inputRing.free() >= pointers * (history + 1) + INPUT_RING_RESERVE) {
+            for (int h = 0; h < history; h++) {
+                long timeNs = event.getHistoricalEventTime(h) * 1_000_000L;
+                for (int p = 0; p < pointers; p++) {
+                    inputRing.offer(InputRing.MOVE, event.getPointerId(p),
+                            event.getHistoricalX(p, h), event.getHistoricalY(p, h), timeNs);
+                }
+            }
+        }
+        for (int p = 0; p < pointers; p++) {
+            offerPointer(InputRing.MOVE, event, p);
+        }
+    }
+
     //Логика бесконечного бг
-    private void drawLoopedBackground(Canvas canvas) {
+    private void drawLoopedBackground(Renderer r, float camX) {
+        int screenWidth = getWidth(), screenHeight = getHeight();
         if (bgScaled == null) {
-            canvas.drawColor(Color.BLACK);
+            r.setLayer(LAYER_CLEAR);
+            r.clear(Color.BLACK);
             return;
         }
-        int screenWidth = getWidth();
+        r.setLayer(LAYER_BACKGROUND);
 
-        int scroll = (int) (camX * BG_PARALLAX);
-        int startX = -(scroll % bgScaledW);
-        if (startX > 0) startX -= bgScaledW;
+        int bgW = layerWidth(bgScaled, screenHeight);
+        int startX = TileLoop.startX(camX, BG_PARALLAX, bgW);
 
-        for (int x = startX; x < screenWidth + bgScaledW; x += bgScaledW) {
-            canvas.drawBitmap(bgScaled, x, 0, null);
+        // startX <= 0, так что последний тайл, начинающийся левее края экрана, уже закрывает его
+        for (int x = startX; x < screenWidth; x += bgW) {
+            drawLayer(r, TEX_BACKGROUND, bgScaled, x, 0, bgW, screenHeight);
         }
     }
 
     //Логика тайлов земли
-    private void drawGround(Canvas canvas) {
+    // Пол, платформы и магазины в координатах мира: все, что не пересекает v, отсекается до отрисовки
+    private void drawGround(Renderer r, ViewBounds v) {
         if (groundTileScaled == null) return;
+        r.setLayer(LAYER_GROUND);
 
-        int screenWidth = getWidth();
         int destTop = getHeight() - groundDrawHeightPx + GROUND_OFFSET_Y;
+        float top = destTop - v.top;
+
+        LevelStreamer lvl = level;
+        if (lvl == null) {
+            int tileW = layerWidth(groundTileScaled, groundDrawHeightPx);
+            int startX = TileLoop.startX(v.left, GROUND_PARALLAX, tileW);
+            for (int x = startX; x < v.width(); x += tileW) {
+                drawLayer(r, TEX_GROUND, groundTileScaled, x, top, tileW, groundDrawHeightPx);
+                v.countDrawn(1);
+            }
+            return;
+        }
 
-        int tileW = groundTileScaled.getWidth();
-
-        int scroll = (int) (camX * GROUND_PARALLAX);
-        int startX = -(scroll % tileW);
-        if (startX > 0) startX -= tileW;
+        // чанк еще не готов - под ним обычный темный пол, без платформ и магазинов
+        float tileW = ChunkGenerator.TILE_WIDTH;
+        int last = LevelStreamer.chunkIndex(v.right);
+        for (int ci = LevelStreamer.chunkIndex(v.left); ci <= last; ci++) {
+            Chunk c = lvl.chunk(ci);
+            float chunkX = ci * ChunkGenerator.CHUNK_WIDTH;
+            for (int t = 0; t < ChunkGenerator.CHUNK_TILES; t++) {
+                float x = chunkX + t * tileW;
+                if (!v.accept(x, destTop, x + tileW, destTop + groundDrawHeightPx)) continue;
+                boolean light = c != null && c.tiles[t] == Chunk.TILE_LIGHT && groundLightScaled != null;
+                Bitmap tile = light ? groundLightScaled : groundTileScaled;
+                drawLayer(r, light ? TEX_GROUND_LIGHT : TEX_GROUND, tile, x - v.left, top,
+                        layerWidth(tile, groundDrawHeightPx), groundDrawHeightPx);
+            }
+            if (c != null) drawChunkProps(r, c, v);
+        }
+    }
 
-        for (int x = startX; x < screenWidth + tileW; x += tileW) {
-            canvas.drawBitmap(groundTileScaled, x, destTop, null);
+    private void drawChunkProps(Renderer r, Chunk c, ViewBounds v) {
+        float surface = groundSurfaceY();
+        r.setLayer(LAYER_PLATFORMS);
+        for (int p = 0; p < c.platformCount; p++) {
+            float top = (int) (surface - c.platformHeight[p]);
+            if (!v.accept(c.platformX0[p], top, c.platformX1[p], top + PLATFORM_THICKNESS)) continue;
+            // платформа - левый верхний угол тайла в исходном масштабе, при любом размере декода
+            r.drawImage(TEX_GROUND, 0, 0, groundTileScaled.getWidth() / GROUND_SCALE,
+                    groundTileScaled.getHeight() / GROUND_SCALE,
+                    (int) (c.platformX0[p] - v.left), (int) (top - v.top), (int) (c.platformX1[p] - v.left),
+                    (int) (top - v.top + PLATFORM_THICKNESS), false);
+        }
+        Bitmap shop = shopScaled;
+        if (shop != null) {
+            r.setLayer(LAYER_PROPS);
+            int shopH = groundDrawHeightPx * SHOP_SCALE;
+            int shopW = layerWidth(shop, shopH);
+            for (int s = 0; s < c.shopCount; s++) {
+                float left = c.shopX[s] - shopW * 0.5f;
+                if (!v.accept(left, surface - shopH, left + shopW, surface)) continue;
+                drawLayer(r, TEX_SHOP, shop, left - v.left, surface - shopH - v.top, shopW, shopH);
+            }
         }
     }
 
+    // Ширина на экране битмапа слоя высотой heightPx. Если он декодирован под текущую цель - ровно
+    // scale пикселей экрана на пиксель битмапа (тайлы стыкуются без швов), иначе пропорционально
+    private int layerWidth(Bitmap b, int heightPx) {
+        VirtualResolution res = frameRes;
+        if (b.getHeight() == res.toTarget(heightPx)) return b.getWidth() * res.scale;
+        return Math.round(b.getWidth() * (float) heightPx / b.getHeight());
+    }
+
+    private void drawLayer(Renderer r, int texture, Bitmap b, float x, float y, int widthPx, int heightPx) {
+        int left = Math.round(x), top = Math.round(y);
+        r.drawImage(texture, 0, 0, b.getWidth(), b.getHeight(), left, top, left + widthPx, top + heightPx, false);
+    }
+
     //Остановить gameLoop
     public void stopLoop() {
         if (gameLoop != null) {
             gameLoop.requestStopAndJoin();
             gameLoop = null;
         }
+        audio.stop();
+        if (level != null) {
+            level.stop();
+        }
+        if (jobPool != null) {
+            jobPool.close();
+            jobPool = null;
+        }
     }
 
-    //Логика создания снапшота сохранения
-    //TODO: возможно вынести в отдельный класс при разрастании проекта
+    //Логика создания снапшота сохранения (сама копия мира - в GameSnapshot из core)
     public GameSnapshot createSnapshot() {
-        GameSnapshot s = new GameSnapshot();
-        s.playerX = player.getX();
-        s.playerY = player.getY();
-        s.cameraX = camX;
-        s.playerLastDirection = player.getLastDirection();
-        return s;
+        return world != null ? GameSnapshot.capture(world) : null;
     }
-
-    //Логика взятия данных из снапшота сохранения
-    //Todo: также как и createSnapshot() - при разрастании проекта возможно вынести в отедльный класс
-    public void restoreFrom(GameSnapshot s) {
-        player.setPosition(s.playerX, s.playerY);
-        camX = s.cameraX;
-        player.setLastDirX(s.playerLastDirection);
-    }
-
-
 }
\ No newline at end of file
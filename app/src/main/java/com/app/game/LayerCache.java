@@ -0,0 +1,47 @@
+package com.app.game;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+
+// Статичные слои (фон + пол + декор уровня), запеченные в оффскрин-битмап под размер экрана.
+// Ключ - сдвиги слоев и все, что меняет их пиксели; пока ключ тот же, слои - один блит вместо десятка
+final class LayerCache {
+
+    private final Canvas canvas = new Canvas();
+    private Bitmap bitmap;
+    private long key;
+    private boolean valid;
+
+    boolean has(long key) {
+        return valid && this.key == key;
+    }
+
+    // Холст для перезапекания, размер экрана мог поменяться
+    Canvas begin(int width, int height) {
+        if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            release();
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            canvas.setBitmap(bitmap);
+        }
+        valid = false;
+        return canvas;
+    }
+
+    void end(long key) {
+        this.key = key;
+        valid = true;
+    }
+
+    Bitmap bitmap() {
+        return bitmap;
+    }
+
+    void release() {
+        valid = false;
+        if (bitmap != null) {
+            canvas.setBitmap(null);
+            bitmap.recycle();
+            bitmap = null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.app.game;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+
+import com.app.game.core.render.VirtualResolution;
+
+// Внутренняя цель low-res рендера: битмап размера VirtualResolution. На поверхность уходит одним
+// drawImage целым множителем, рендерер рисует без фильтрации - пиксель-арт остается резким
+final class LowResTarget {
+
+    private final Canvas canvas = new Canvas();
+    private Bitmap bitmap;
+
+    // Холст цели, битмап пересоздается только при смене разрешения
+    Canvas begin(VirtualResolution v) {
+        if (bitmap == null || bitmap.getWidth() != v.width || bitmap.getHeight() != v.height) {
+            release();
+            bitmap = Bitmap.createBitmap(v.width, v.height, Bitmap.Config.ARGB_8888);
+            canvas.setBitmap(bitmap);
+        }
+        return canvas;
+    }
+
+    Bitmap bitmap() {
+        return bitmap;
+    }
+
+    void release() {
+        if (bitmap != null) {
+            canvas.setBitmap(null);
+            bitmap.recycle();
+            bitmap = null;
+        }
+    }
+}
@@ -1,13 +1,57 @@
 package com.app.game;
 
+import android.content.Intent;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.View;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.app.game.core.memory.AssetQuality;
+import com.app.game.core.save.GameSnapshot;
+import com.app.game.core.save.LegacySnapshot;
+import com.app.game.core.save.SaveStore;
+import com.app.game.core.trace.TraceRecorder;
+import com.app.game.core.trace.Tracing;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 public class MainActivity extends AppCompatActivity {
 
-    private static final String SNAPSHOT_FILE = "game_snapshot.bin";
+    private static final String TAG = "MainActivity";
+    private static final String SAVE_FILE = "game_save.dat";
+    // старый формат (ObjectOutputStream): один раз переносится в SAVE_FILE и удаляется
+    private static final String LEGACY_SNAPSHOT_FILE = "game_snapshot.bin";
+    // лог ввода последней сессии, забирается adb pull и гоняется InputReplayer-ом на десктопе
+    private static final String REPLAY_FILE = "last_session.dfrp";
+
+    // Секции кадра в systrace/Perfetto (видны только во время захвата). Только в debug-сборке:
+    // ~20 секций на кадр, каждая - Trace.beginSection/endSection и атомик кольца
+    private static final boolean TRACE_SECTIONS = BuildConfig.DEBUG;
+    // Свое кольцо событий: последние N begin/end (~24 байта на событие). 0 - рекордер выключен.
+    // 32k событий - несколько секунд игры
+    private static final int TRACE_RING_EVENTS = BuildConfig.DEBUG ? 1 << 15 : 0;
+    // Кольцо пишется в TRACE_FILE (Chrome JSON, пара МБ) только по запросу:
+    // adb shell am start -n com.app.game/.MainActivity -a com.app.game.action.DUMP_TRACE
+    private static final String ACTION_DUMP_TRACE = "com.app.game.action.DUMP_TRACE";
+    private static final String TRACE_FILE = "last_session.trace.json";
+
+    // Один писатель на процесс: сохранения идут по порядку и переживают пересоздание активити
+    private static final ExecutorService SAVE_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "SaveWriter");
+        t.setPriority(Thread.NORM_PRIORITY - 1);
+        return t;
+    });
+    private static SaveStore saveStore;
 
     private GameView gameView;
 
@@ -25,6 +69,13 @@ public class MainActivity extends AppCompatActivity {
 
         getWindow().addFlags(android.view.WindowManager.LayoutParams.FLAG_KEEP_SCREEN_ON);
 
+        if (saveStore == null) {
+            saveStore = new SaveStore(new File(getFilesDir(), SAVE_FILE));
+            migrateLegacySave();
+            if (TRACE_SECTIONS) Tracing.setSink(new AndroidTraceSink());
+            if (TRACE_RING_EVENTS > 0) Tracing.setRecorder(new TraceRecorder(TRACE_RING_EVENTS));
+        }
+
         gameView = new GameView(this);
         setContentView(gameView);
     }
@@ -41,9 +92,17 @@ public class MainActivity extends AppCompatActivity {
         if (gameView != null) {
             gameView.stopLoop();
             saveSnapshot(gameView.createSnapshot());
+            saveReplay(gameView.takeReplay());
         }
     }
 
+    // singleTop: am start с ACTION_DUMP_TRACE приходит сюда, а не создает вторую активити
+    @Override
+    protected void onNewIntent(Intent intent) {
+        super.onNewIntent(intent);
+        if (ACTION_DUMP_TRACE.equals(intent.getAction())) saveTrace();
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
@@ -53,19 +112,79 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    // Система просит память: GameView понижает качество битмапов или отдает их совсем
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (gameView != null) gameView.onTrimMemory(level);
+    }
+
+    @Override
+    public void onLowMemory() {
+        super.onLowMemory();
+        if (gameView != null) gameView.onTrimMemory(AssetQuality.TRIM_COMPLETE);
+    }
+
+    // Запись в фоне: UI-поток только копирует мир в снапшот
     private void saveSnapshot(GameSnapshot s) {
-        try (java.io.ObjectOutputStream oos = new java.io.ObjectOutputStream(
-                openFileOutput(SNAPSHOT_FILE, MODE_PRIVATE))) {
-            oos.writeObject(s);
-        } catch (java.io.IOException ignored) {}
+        if (s == null) return;
+        saveStore.saveAsync(s, SAVE_EXECUTOR, e -> Log.w(TAG, "Failed to save snapshot", e));
+    }
+
+    private void saveReplay(byte[] log) {
+        if (log == null) return;
+        File file = new File(getFilesDir(), REPLAY_FILE);
+        SAVE_EXECUTOR.execute(() -> {
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                out.write(log);
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to write replay", e);
+            }
+        });
+    }
+
+    // Снимок кольца трассировки, забирается adb pull и открывается в ui.perfetto.dev
+    private void saveTrace() {
+        TraceRecorder recorder = Tracing.getRecorder();
+        if (recorder == null) return;
+        File file = new File(getFilesDir(), TRACE_FILE);
+        SAVE_EXECUTOR.execute(() -> {
+            try (Writer out = new BufferedWriter(
+                    new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+                recorder.writeChromeJson(out);
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to write trace", e);
+            }
+        });
+    }
+
+    // Сохранение старой версии приложения: переписываем через SaveStore, потом удаляем.
+    // Если новое сохранение уже есть, старое устарело. Нечитаемое - пишем в лог, что потеряли
+    private void migrateLegacySave() {
+        File legacy = new File(getFilesDir(), LEGACY_SNAPSHOT_FILE);
+        if (!legacy.exists()) return;
+        try {
+            if (saveStore.load() == null) {
+                GameSnapshot s;
+                try (FileInputStream in = new FileInputStream(legacy)) {
+                    s = LegacySnapshot.read(in);
+                }
+                saveSnapshot(s);
+                Log.i(TAG, "Migrated legacy save " + LEGACY_SNAPSHOT_FILE);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Dropping unreadable legacy save " + LEGACY_SNAPSHOT_FILE, e);
+        }
+        deleteFile(LEGACY_SNAPSHOT_FILE);
     }
 
+    // В том же процессе отдается последний снапшот из памяти, с диска читаем только после рестарта
     private GameSnapshot loadSnapshot() {
-        try (java.io.ObjectInputStream ois = new java.io.ObjectInputStream(
-                openFileInput(SNAPSHOT_FILE))) {
-            return (GameSnapshot) ois.readObject();
-        } catch (Exception e) {
+        try {
+            return saveStore.load();
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to load snapshot", e);
             return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,135 +1,62 @@
 package com.app.game;
 
-import android.content.res.Resources;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.graphics.Canvas;
-import android.graphics.Rect;
+import com.app.game.core.RenderState;
+import com.app.game.core.anim.AnimationLibrary;
+import com.app.game.core.render.Renderer;
 
+import java.util.Arrays;
+
+// Спрайты игрока. Само состояние (позиция, клип и время в нем) живет в EntityStore из core,
+// клипы - в общей AnimationLibrary. Листы лежат в общем атласе только в варианте "вправо", влево рисуем зеркально
 public class Player {
 
-    // Основные переменные игрока
-    private float x, y;         // координаты в мире(пока что y всегда одна)
-    private final float speed;  // пикс/сек
-    private int directionX = 0; // -1 влево, 1 вправо, 0 стоим
-    private int lastDirX = 1;   // куда смотрим, если стоим (1 = вправо, -1 влево)
+    // Листы библиотеки анимаций, которые рисует игрок
+    private static final String[] SHEET_NAMES = {"player_idle", "player_run"};
+    private static final int[] SHEET_RES = {R.drawable.idle_right, R.drawable.run_right};
 
-    // Спрайт-листы
-    private final Bitmap idleLeft, idleRight, runLeft, runRight;
+    private final SpriteAtlas atlas;
+    private final int texture;
+    // лист библиотеки -> лист атласа
+    private final int[] atlasSheets;
+    private final float scale;
 
-    // Количество кадров в каждом листе
-    private static final int FRAMES = 8;
     private final int frameW, frameH;
 
-    // Анимация
-    private static final float FRAME_DURATION_IDLE = 0.14f;  // сек на кадр в idle
-    private static final float FRAME_DURATION_RUN = 0.09f;  // сек на кадр в беге
-    private int frameIndex = 0;
-    private float frameTimer = 0f;
-
-    private final Rect src = new Rect();
-    private final Rect dst = new Rect();
-
-
-    public Player(Resources res, float startX, float startY, float speedPxPerSec, float scale) {
-        this.x = startX;
-        this.y = startY;
-        this.speed = speedPxPerSec;
-
-        idleLeft = scaleSheet(loadAlpha(res, R.drawable.idle_left), scale);
-        idleRight = scaleSheet(loadAlpha(res, R.drawable.idle_right), scale);
-        runLeft = scaleSheet(loadAlpha(res, R.drawable.run_left), scale);
-        runRight = scaleSheet(loadAlpha(res, R.drawable.run_right), scale);
-
-        // считаем размеры кадра по первому (уже масштабированному) листу
-        frameW = idleLeft.getWidth() / FRAMES;
-        frameH = idleLeft.getHeight();
-    }
-
-    public void setDirection(int dirX) {
-        this.directionX = dirX;
-        if (dirX != 0) lastDirX = dirX;
-    }
-    public int getLastDirection() {
-        return lastDirX;
-    }
-    public void setLastDirX(int lastDir){
-        this.lastDirX = lastDir;
+    // Регистрирует листы игрока в атласе. Вернет таблицу лист библиотеки -> лист атласа (-1 - не наш лист)
+    public static int[] addSheets(SpriteAtlas.Builder builder, AnimationLibrary animations) {
+        int[] atlasSheets = new int[animations.sheetCount()];
+        Arrays.fill(atlasSheets, -1);
+        for (int k = 0; k < SHEET_NAMES.length; k++) {
+            int sheet = animations.sheetIndex(SHEET_NAMES[k]);
+            atlasSheets[sheet] = builder.addSheet(SHEET_RES[k], animations.framesInSheet(sheet));
+        }
+        return atlasSheets;
     }
 
-    public float getX() {
-        return x;
-    }
+    public Player(SpriteAtlas atlas, int texture, AnimationLibrary animations, int[] atlasSheets, float scale) {
+        this.atlas = atlas;
+        this.texture = texture;
+        this.atlasSheets = atlasSheets;
+        this.scale = scale;
 
-    public float getY() {
-        return y;
+        // размеры кадра на экране
+        int idle = atlasSheets[animations.sheetIndex(SHEET_NAMES[0])];
+        frameW = Math.round(atlas.frameWidth(idle) * scale);
+        frameH = Math.round(atlas.frameHeight(idle) * scale);
     }
 
-    public void setY(float v) {
-        y = v;
+    public int getDrawWidth() {
+        return frameW;
     }
 
     public int getDrawHeight() {
         return frameH;
     }
 
-    public void setPosition(float x, float y) {
-        this.x = x;
-        this.y = y;
+    // Рисуем текущий кадр текущего клипа. alpha - доля между прошлым и текущим тиком
+    // camX, camY - левый верхний угол видимой области мира
+    public void draw(Renderer renderer, RenderState state, float alpha, float camX, float camY) {
+        atlas.draw(renderer, texture, atlasSheets[state.sheet], state.frameIndex, state.playerX(alpha) - camX,
+                state.playerY(alpha) - camY, scale, state.isFacingLeft());
     }
-
-    public void update(float dt) {
-        // движение
-        x += directionX * speed * dt;
-
-        boolean moving = directionX != 0;
-        float dur = moving ? FRAME_DURATION_RUN : FRAME_DURATION_IDLE;
-
-        frameTimer += dt;
-        while (frameTimer >= dur) {
-            frameTimer -= dur;
-            frameIndex = (frameIndex + 1) % FRAMES;
-        }
-    }
-
-    // Рисуем спрайт нашего челика
-    public void draw(Canvas canvas, float camX) {
-        Bitmap sheet;
-        if (directionX < 0) sheet = runLeft;
-        else if (directionX > 0) sheet = runRight;
-        else sheet = (lastDirX < 0) ? idleLeft : idleRight;
-
-        int sx = frameIndex * frameW;
-        src.set(sx, 0, sx + frameW, frameH);
-
-        int dx = Math.round(x - camX - frameW / 2f);
-        int dy = Math.round(y - frameH / 2f);
-        dst.set(dx, dy, dx + frameW, dy + frameH);
-
-        canvas.drawBitmap(sheet, src, dst, null);
-    }
-
-    // Облегчаем наши пнгшки
-    private static Bitmap loadAlpha(Resources res, int resId) {
-        BitmapFactory.Options o = new BitmapFactory.Options();
-        o.inScaled = false;
-        o.inPreferredConfig = Bitmap.Config.ARGB_8888;
-        return BitmapFactory.decodeResource(res, resId, o);
-    }
-
-    //Скейлим на необходимое число наши спрайт-листы
-    private static Bitmap scaleSheet(Bitmap src, float scale) {
-        int w = Math.max(1, Math.round(src.getWidth() * scale));
-        int h = Math.max(1, Math.round(src.getHeight() * scale));
-        return Bitmap.createScaledBitmap(src, w, h, false);
-    }
-
-    //Очищаем объекты с спрайтлистами
-    public void dispose() {
-        if (idleLeft != null && !idleLeft.isRecycled()) idleLeft.recycle();
-        if (idleRight != null && !idleRight.isRecycled()) idleRight.recycle();
-        if (runLeft != null && !runLeft.isRecycled()) runLeft.recycle();
-        if (runRight != null && !runRight.isRecycled()) runRight.recycle();
-    }
-
 }
@@ -0,0 +1,140 @@
+package com.app.game;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import com.app.game.core.atlas.AtlasLayout;
+import com.app.game.core.render.Renderer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Атлас спрайтов: все листы в одной ARGB_8888 текстуре в исходном размере.
+// Масштаб и зеркалирование (смотрим влево) применяются при отрисовке через Renderer.
+// Подходит и для врагов - добавляем их листы в тот же Builder
+public class SpriteAtlas {
+
+    private static final int MAX_ATLAS_WIDTH = 2048;
+
+    private final Bitmap bitmap;
+    private final AtlasLayout layout;
+    // Прямоугольники кадров в атласе, считаются один раз
+    private final Rect[] frames;
+
+    private SpriteAtlas(Bitmap bitmap, AtlasLayout layout) {
+        this.bitmap = bitmap;
+        this.layout = layout;
+
+        frames = new Rect[layout.getFrameCount()];
+        for (int i = 0; i < frames.length; i++) {
+            int l = layout.frameLeft(i);
+            int t = layout.frameTop(i);
+            frames[i] = new Rect(l, t, l + layout.frameWidth(i), t + layout.frameHeight(i));
+        }
+    }
+
+    public int frameWidth(int sheet) {
+        return frames[layout.frameIndex(sheet, 0)].width();
+    }
+
+    public int frameHeight(int sheet) {
+        return frames[layout.frameIndex(sheet, 0)].height();
+    }
+
+    public int framesIn(int sheet) {
+        return layout.framesIn(sheet);
+    }
+
+    // Кадры листа как [left, top, right, bottom] подряд - для ParticleSnapshot.draw
+    public int[] frameRects(int sheet) {
+        int n = layout.framesIn(sheet);
+        int[] out = new int[n * 4];
+        for (int f = 0; f < n; f++) {
+            Rect r = frames[layout.frameIndex(sheet, f)];
+            out[f * 4] = r.left;
+            out[f * 4 + 1] = r.top;
+            out[f * 4 + 2] = r.right;
+            out[f * 4 + 3] = r.bottom;
+        }
+        return out;
+    }
+
+    public int getByteCount() {
+        return bitmap.getByteCount();
+    }
+
+    public Bitmap getBitmap() {
+        return bitmap;
+    }
+
+    // Рисуем кадр с центром в (cx, cy). flipX - зеркалим по горизонтали (спрайт смотрит влево).
+    // texture - слот, к которому рендерер привязал getBitmap()
+    public void draw(Renderer renderer, int texture, int sheet, int frame, float cx, float cy, float scale,
+                     boolean flipX) {
+        Rect src = frames[layout.frameIndex(sheet, frame)];
+        float left = Math.round(cx) - (src.width() / 2) * scale;
+        float top = Math.round(cy) - (src.height() / 2) * scale;
+        renderer.drawImage(texture, src.left, src.top, src.right, src.bottom,
+                left, top, left + src.width() * scale, top + src.height() * scale, flipX);
+    }
+
+    public void dispose() {
+        if (!bitmap.isRecycled()) bitmap.recycle();
+    }
+
+    public static class Builder {
+        private final Resources res;
+        private final AtlasLayout layout = new AtlasLayout();
+        private final List<Bitmap> sources = new ArrayList<>();
+
+        public Builder(Resources res) {
+            this.res = res;
+        }
+
+        // Лист из frames кадров в строку. Возвращает id листа для draw()
+        public int addSheet(int resId, int frames) {
+            Bitmap src = loadAlpha(res, resId);
+            sources.add(src);
+            return layout.addSheet(src.getWidth(), src.getHeight(), frames);
+        }
+
+        // Лист частиц без png: по кругу dotSize px на каждый цвет. Кадр = номер цвета
+        public int addDots(int dotSize, int... colors) {
+            Bitmap src = Bitmap.createBitmap(dotSize * colors.length, dotSize, Bitmap.Config.ARGB_8888);
+            Canvas c = new Canvas(src);
+            Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            float r = dotSize * 0.5f;
+            for (int i = 0; i < colors.length; i++) {
+                paint.setColor(colors[i]);
+                c.drawCircle(i * dotSize + r, r, r, paint);
+            }
+            sources.add(src);
+            return layout.addSheet(src.getWidth(), src.getHeight(), colors.length);
+        }
+
+        public SpriteAtlas build() {
+            layout.pack(MAX_ATLAS_WIDTH);
+            Bitmap atlas = Bitmap.createBitmap(layout.getWidth(), layout.getHeight(), Bitmap.Config.ARGB_8888);
+            Canvas c = new Canvas(atlas);
+            for (int i = 0; i < sources.size(); i++) {
+                Bitmap src = sources.get(i);
+                c.drawBitmap(src, layout.sheetX(i), layout.sheetY(i), null);
+                src.recycle();
+            }
+            sources.clear();
+            return new SpriteAtlas(atlas, layout);
+        }
+
+        // Облегчаем наши пнгшки
+        private static Bitmap loadAlpha(Resources res, int resId) {
+            BitmapFactory.Options o = new BitmapFactory.Options();
+            o.inScaled = false;
+            o.inPreferredConfig = Bitmap.Config.ARGB_8888;
+            return BitmapFactory.decodeResource(res, resId, o);
+        }
+    }
+}
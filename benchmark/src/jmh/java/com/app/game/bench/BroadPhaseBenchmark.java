@@ -0,0 +1,74 @@
+package com.app.game.bench;
+
+import com.app.game.core.collision.BroadPhase;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Каждая сущность ищет, кого задевает (удары по толпе): сетка по x против перебора
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BroadPhaseBenchmark {
+
+    @Param({"100", "1000", "5000", "20000"})
+    public int entities;
+
+    // толпа размазана по уровню, плотность ~ 1 монстр на 20 px
+    private float[] xs;
+    private BroadPhase broadPhase;
+    private final int[] out = new int[256];
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(1);
+        xs = new float[entities];
+        for (int i = 0; i < entities; i++) xs[i] = rnd.nextFloat() * entities * 20f;
+        broadPhase = new BroadPhase(294f, 1024, entities);
+        rebuild();
+    }
+
+    private void rebuild() {
+        broadPhase.clear();
+        for (int i = 0; i < entities; i++) {
+            broadPhase.add(i, BroadPhase.LAYER_ENTITY, xs[i] - 50f, 0f, xs[i] + 50f, 120f);
+        }
+        broadPhase.build();
+    }
+
+    // Перестройка + запрос на каждую сущность, как в тике
+    @Benchmark
+    public int gridTick() {
+        rebuild();
+        int hits = 0;
+        for (int i = 0; i < entities; i++) {
+            hits += broadPhase.query(xs[i] + 40f, 20f, xs[i] + 120f, 100f, BroadPhase.LAYER_ENTITY, out);
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int bruteForceTick() {
+        rebuild();
+        int hits = 0;
+        for (int i = 0; i < entities; i++) {
+            hits += broadPhase.queryBruteForce(xs[i] + 40f, 20f, xs[i] + 120f, 100f, BroadPhase.LAYER_ENTITY, out);
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int rebuildOnly() {
+        rebuild();
+        return broadPhase.size();
+    }
+}
@@ -0,0 +1,51 @@
+package com.app.game.bench;
+
+import com.app.game.core.World;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// half-life камера: Math.pow на каждый тик против коэффициента, посчитанного заранее
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CameraBenchmark {
+
+    private static final float CAM_HALF_LIFE_SEC = 0.12f;
+
+    // dt не константа для JIT, иначе pow свернется
+    public float dt = World.DT_SEC;
+    private float camX;
+    private float target;
+    private float precomputedK;
+
+    @Setup
+    public void setUp() {
+        camX = 0f;
+        target = 10_000f;
+        precomputedK = (float) Math.pow(0.5, dt / CAM_HALF_LIFE_SEC);
+    }
+
+    @Benchmark
+    public float powPerTick() {
+        float k = (float) Math.pow(0.5, dt / CAM_HALF_LIFE_SEC);
+        camX = k * camX + (1f - k) * target;
+        target += 1f;
+        return camX;
+    }
+
+    @Benchmark
+    public float precomputedFactor() {
+        float k = precomputedK;
+        camX = k * camX + (1f - k) * target;
+        target += 1f;
+        return camX;
+    }
+}
@@ -0,0 +1,53 @@
+package com.app.game.bench;
+
+import com.app.game.core.World;
+import com.app.game.core.entity.EntityStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Стоимость тика EntityStore.update на толпе монстров
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EntityStoreBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int entities;
+
+    private EntityStore store;
+
+    @Setup
+    public void setUp() {
+        store = new EntityStore(entities);
+        Random rnd = new Random(42);
+        for (int i = 0; i < entities; i++) {
+            int id = store.create(rnd.nextFloat() * 100_000f, 0f, 100f + rnd.nextInt(400), 100, 1);
+            // часть стоит, часть бежит
+            store.setDirection(store.indexOf(id), rnd.nextInt(3) - 1);
+        }
+    }
+
+    @Benchmark
+    public int tick() {
+        store.update(World.DT_SEC);
+        return store.frameAt(0);
+    }
+
+    // Удалить и сразу создать: swap-remove + переиспользование слота
+    @Benchmark
+    public int churn() {
+        int id = store.idAt(store.size() / 2);
+        store.destroy(id);
+        return store.create(0f, 0f, 100f, 100, 1);
+    }
+}
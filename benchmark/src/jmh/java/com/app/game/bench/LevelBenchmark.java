@@ -0,0 +1,49 @@
+package com.app.game.bench;
+
+import com.app.game.core.level.Chunk;
+import com.app.game.core.level.ChunkGenerator;
+import com.app.game.core.level.LevelStreamer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Генерация чанка и проход стриминга (генерация + выселение) при беге камеры
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LevelBenchmark {
+
+    // скорость игрока 500 px/s при 60 UPS
+    private static final float CAMERA_STEP = 500f / 60f;
+
+    private ChunkGenerator generator;
+    private LevelStreamer streamer;
+    private int index;
+    private float camX;
+
+    @Setup
+    public void setUp() {
+        generator = new ChunkGenerator(42L);
+        streamer = new LevelStreamer(generator, ChunkGenerator.CHUNK_WIDTH, ChunkGenerator.CHUNK_WIDTH * 0.5f, 64 * 1024);
+    }
+
+    @Benchmark
+    public Chunk generate() {
+        return generator.generate(index++);
+    }
+
+    // Тик симуляции + работа потока стриминга, выполненная синхронно
+    @Benchmark
+    public boolean streamTick() {
+        camX += CAMERA_STEP;
+        streamer.requestAround(camX, 1920);
+        return streamer.pump();
+    }
+}
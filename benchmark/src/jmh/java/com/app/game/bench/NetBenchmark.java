@@ -0,0 +1,113 @@
+package com.app.game.bench;
+
+import com.app.game.core.net.Duel;
+import com.app.game.core.net.DuelClient;
+import com.app.game.core.net.DuelHost;
+import com.app.game.core.net.DuelInput;
+import com.app.game.core.net.DuelState;
+import com.app.game.core.net.LoopbackTransport;
+import com.app.game.core.net.NetStats;
+import com.app.game.core.replay.WorldSetup;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Дуэль по loopback: тик хоста + тик клиента с кодеком и сверкой, и цена пересчета
+// предсказания на resimTicks тиков (столько вводов в пути при задержке туда-обратно).
+// Трафик и сверки идут в результаты JMH вторичными метриками (см. Traffic)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NetBenchmark {
+
+    private static final float GAP = 300f;
+    private static final float REACH = 60f;
+
+    @Param({"3"})
+    public int latencyTicks;
+
+    @Param({"4", "16"})
+    public int resimTicks;
+
+    private LoopbackTransport link;
+    private DuelHost host;
+    private DuelClient client;
+    private Duel duel;
+    private final DuelState snapshot = new DuelState();
+    private int t;
+
+    @Setup
+    public void setUp() {
+        WorldSetup setup = new WorldSetup(960f, 540f, 500f, 400, 48f, 120f, 1920, 1000f, null);
+        link = new LoopbackTransport(latencyTicks, 64);
+        host = new DuelHost(setup, GAP, REACH, link.hostEnd());
+        client = new DuelClient(setup, GAP, REACH, link.clientEnd());
+        duel = new Duel(setup, DuelClient.SLOT, GAP, REACH);
+        duel.step(DuelInput.NONE, DuelInput.of(1, false));
+        duel.capture(snapshot);
+    }
+
+    // Счетчики networkedTick за итерацию, попадают в results.json рядом со временем.
+    // JMH суммирует EVENTS-счетчики по итерациям, так что байт на тик = hostBytes / ticks,
+    // доля исправленных предсказаний = corrections / reconciles
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Traffic {
+        public long ticks;
+        public long hostBytes, clientBytes;
+        public long reconciles, corrections;
+
+        private long lastHostBytes, lastClientBytes, lastReconciles, lastCorrections;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            ticks = hostBytes = clientBytes = reconciles = corrections = 0;
+        }
+
+        void record(NetStats host, NetStats client) {
+            ticks++;
+            long v = host.getBytesSent();
+            hostBytes += v - lastHostBytes;
+            lastHostBytes = v;
+            v = client.getBytesSent();
+            clientBytes += v - lastClientBytes;
+            lastClientBytes = v;
+            v = client.getReconciles();
+            reconciles += v - lastReconciles;
+            lastReconciles = v;
+            v = client.getCorrections();
+            corrections += v - lastCorrections;
+            lastCorrections = v;
+        }
+    }
+
+    @Benchmark
+    public long networkedTick(Traffic traffic) {
+        t++;
+        host.tick(DuelInput.of(0, t % 50 == 0));
+        client.tick(DuelInput.of((t / 45) % 3 - 1, t % 70 == 35));
+        link.step();
+        traffic.record(host.getStats(), client.getStats());
+        return client.getLatestTick();
+    }
+
+    // То, что делает DuelClient при расхождении: состояние хоста + повтор своих вводов
+    @Benchmark
+    public float reconcile() {
+        duel.apply(snapshot);
+        for (int i = 0; i < resimTicks; i++) {
+            duel.step(DuelInput.NONE, DuelInput.of(i % 3 - 1, false));
+        }
+        return duel.getX(DuelClient.SLOT);
+    }
+}
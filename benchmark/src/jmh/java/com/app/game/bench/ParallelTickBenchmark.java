@@ -0,0 +1,86 @@
+package com.app.game.bench;
+
+import com.app.game.core.World;
+import com.app.game.core.concurrent.WorkerPool;
+import com.app.game.core.entity.EntityStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Время тика World с ИИ толпы от числа потоков. threads=1 - JobScheduler.SERIAL, без пула.
+// Результат тика один для любого threads (см. WorldTest.parallelPhasesMatchSerialRun)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParallelTickBenchmark {
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    @Param({"2000", "20000"})
+    public int entities;
+
+    // ИИ смотрит на столько соседей по индексу - грубая модель "кого вижу"
+    private static final int AI_NEIGHBOURS = 8;
+
+    private World world;
+    private WorkerPool pool;
+
+    @Setup
+    public void setUp() {
+        world = new World(0f, 300f, 500f);
+        world.setViewport(1920, 1000f);
+        final EntityStore e = world.getEntities();
+        Random rnd = new Random(7);
+        for (int i = 0; i < entities; i++) {
+            e.create(rnd.nextFloat() * entities * 20f, 300f, 100f + rnd.nextInt(400), 100, 1);
+        }
+        if (threads > 1) {
+            pool = new WorkerPool(threads);
+            world.setScheduler(pool);
+        }
+        final int playerId = world.getPlayer().getId();
+        world.addEntitySystem((w, from, to, dt) -> {
+            int n = e.size();
+            for (int i = from; i < to; i++) {
+                if (e.idAt(i) == playerId) continue;
+                // бежим от ближайшего соседа, если он ближе 100px, иначе к игроку
+                float best = Float.MAX_VALUE, bestDx = 0f;
+                for (int k = 1; k <= AI_NEIGHBOURS; k++) {
+                    float dx = e.x[(i + k * 97) % n] - e.x[i];
+                    float d = (float) Math.sqrt(dx * dx + 1f);
+                    if (d < best) {
+                        best = d;
+                        bestDx = dx;
+                    }
+                }
+                float toPlayer = w.getPlayer().getX() - e.x[i];
+                float steer = best < 100f ? -bestDx : toPlayer;
+                e.setDirection(i, steer > 1f ? 1 : steer < -1f ? -1 : 0);
+            }
+        });
+        world.getPlayer().setDirection(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (pool != null) pool.close();
+    }
+
+    @Benchmark
+    public float tick() {
+        world.update(World.DT_SEC);
+        return world.getEntities().x[entities / 2];
+    }
+}
@@ -0,0 +1,72 @@
+package com.app.game.bench;
+
+import com.app.game.core.World;
+import com.app.game.core.camera.ViewBounds;
+import com.app.game.core.fx.ParticlePool;
+import com.app.game.core.fx.ParticleSnapshot;
+import com.app.game.core.fx.ParticleStyle;
+import com.app.game.core.render.BatchingRenderer;
+import com.app.game.core.render.RecordingRenderer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Стресс частиц: live живых всегда (умершие сразу добиваются новыми), тик пула, снимок для рендера
+// и отрисовка через батчинг. Аллокации смотреть с -prof gc: после прогрева должно быть 0 B/op
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParticleBenchmark {
+
+    @Param({"2000", "20000"})
+    public int live;
+
+    private static final int[] FRAME_RECTS = {0, 0, 8, 8, 8, 0, 16, 8};
+
+    private ParticlePool pool;
+    private int dust, spark;
+    private final ParticleSnapshot snapshot = new ParticleSnapshot();
+    private final RecordingRenderer target = new RecordingRenderer();
+    private BatchingRenderer batch;
+    private final ViewBounds view = new ViewBounds();
+
+    @Setup
+    public void setUp() {
+        pool = new ParticlePool(live, 1, 7);
+        dust = pool.addStyle(new ParticleStyle(0.5f, 40f, 120f, 90f, 60f, 200f, 2f, 24f, 4f, 0));
+        spark = pool.addStyle(new ParticleStyle(0.3f, 300f, 700f, 10f, 40f, 900f, 1f, 16f, 4f, 1));
+        refill();
+        batch = new BatchingRenderer(target);
+    }
+
+    private void refill() {
+        int missing = live - pool.size();
+        pool.emit(dust, 960f, 800f, missing / 2, 1);
+        pool.emit(spark, 960f, 500f, live - pool.size(), -1);
+    }
+
+    @Benchmark
+    public int update() {
+        pool.update(World.DT_SEC);
+        refill();
+        return pool.size();
+    }
+
+    @Benchmark
+    public int captureAndDraw() {
+        snapshot.capture(pool);
+        target.reset();
+        view.set(0f, 0f, 1f, 1920, 1080);
+        int drawn = snapshot.draw(batch, 4, FRAME_RECTS, 0.5f, World.DT_SEC, view);
+        batch.flush();
+        return drawn;
+    }
+}
@@ -0,0 +1,63 @@
+package com.app.game.bench;
+
+import com.app.game.core.World;
+import com.app.game.core.entity.EntityStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Продвижение анимации игрока (время клипа + кадр из таблицы клипа в EntityStore.update)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PlayerUpdateBenchmark {
+
+    // 1 - обычный тик, 0 - стоим; большой dt перескакивает несколько кадров (раньше - итерации while)
+    @Param({"1", "0"})
+    public int direction;
+
+    @Param({"0.016666668", "0.25"})
+    public float dt;
+
+    private EntityStore store;
+
+    @Setup
+    public void setUp() {
+        store = new EntityStore(1);
+        int id = store.create(0f, 0f, 500f, 100, 0);
+        store.setDirection(store.indexOf(id), direction);
+    }
+
+    @Benchmark
+    public int update() {
+        store.update(dt);
+        return store.frameAt(0);
+    }
+
+    // Полный тик мира: игрок + камера + пол
+    @Benchmark
+    public float worldTick(WorldState s) {
+        s.world.update(World.DT_SEC);
+        return s.world.getCamX();
+    }
+
+    @State(Scope.Thread)
+    public static class WorldState {
+        World world;
+
+        @Setup
+        public void setUp() {
+            world = new World(0f, 0f, 500f);
+            world.setViewport(1920, 1000f);
+            world.getPlayer().setDirection(1);
+        }
+    }
+}
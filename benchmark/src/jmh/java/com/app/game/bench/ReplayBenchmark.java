@@ -0,0 +1,82 @@
+package com.app.game.bench;
+
+import com.app.game.core.World;
+import com.app.game.core.replay.InputRecorder;
+import com.app.game.core.replay.InputReplayer;
+import com.app.game.core.replay.ReplayResult;
+import com.app.game.core.replay.WorldSetup;
+import com.app.game.core.save.GameSnapshot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Реплей сессии как перф-нагрузка: весь лог headless, без пейсинга.
+// Записанную на устройстве сессию можно подставить: -PjmhInclude=Replay и -p replayFile=/path/last_session.dfrp
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReplayBenchmark {
+
+    // 10 минут игры
+    private static final int SYNTHETIC_TICKS = 10 * 60 * World.TARGET_UPS;
+
+    @Param({""})
+    public String replayFile;
+
+    @Param({"1000"})
+    public int monsters;
+
+    private ByteBuffer log;
+
+    @Setup
+    public void setUp() throws IOException {
+        if (!replayFile.isEmpty()) {
+            log = ByteBuffer.wrap(Files.readAllBytes(Paths.get(replayFile)));
+        } else {
+            log = ByteBuffer.wrap(syntheticSession());
+        }
+        // сначала проверяем, что нагрузка вообще детерминирована
+        ReplayResult check = InputReplayer.run(log, true);
+        if (!check.isDeterministic()) {
+            throw new IllegalStateException("Replay diverged at tick " + check.firstMismatchTick);
+        }
+    }
+
+    private byte[] syntheticSession() {
+        World seed = new World(960f, 540f, 500f);
+        Random rnd = new Random(42);
+        for (int i = 0; i < monsters; i++) {
+            int id = seed.getEntities().create(rnd.nextFloat() * 100_000f, 900f, 100f + rnd.nextInt(400), 100, 1);
+            seed.getEntities().setDirection(seed.getEntities().indexOf(id), rnd.nextInt(3) - 1);
+        }
+        WorldSetup setup = new WorldSetup(960f, 540f, 500f, 400, 48f, 120f, 1920, 1000f,
+                GameSnapshot.capture(seed));
+        World world = setup.createWorld();
+        InputRecorder recorder = new InputRecorder(setup, World.TARGET_UPS);
+        world.setTickListener(recorder);
+        for (int i = 0; i < SYNTHETIC_TICKS; i++) {
+            // нажатия длиной 0.5-3 секунды
+            if (rnd.nextInt(90) == 0) world.setInputDirection(rnd.nextInt(3) - 1);
+            world.update(World.DT_SEC);
+        }
+        return recorder.toByteArray(world.getTick());
+    }
+
+    @Benchmark
+    public long replay() throws IOException {
+        return InputReplayer.run(log, false).finalHash;
+    }
+}
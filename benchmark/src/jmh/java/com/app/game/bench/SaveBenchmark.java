@@ -0,0 +1,138 @@
+package com.app.game.bench;
+
+import com.app.game.core.save.GameSnapshot;
+import com.app.game.core.save.SaveCodec;
+import com.app.game.core.save.SaveStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Старое сохранение через ObjectOutputStream против бинарного формата SaveCodec/SaveStore
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SaveBenchmark {
+
+    // Повторяет прежний Serializable-снапшот, расширенный массивами сущностей
+    static class LegacySnapshot implements Serializable {
+        private static final long serialVersionUID = 1L;
+        long tick;
+        float playerX, playerY, cameraX;
+        int playerLastDirection, playerHp;
+        float[] entityX, entityY, entitySpeed, entityHalfW, entityHalfH;
+        int[] entityDir, entityLastDir, entityHp, entitySprite;
+
+        LegacySnapshot(GameSnapshot s) {
+            tick = s.tick;
+            playerX = s.playerX;
+            playerY = s.playerY;
+            cameraX = s.cameraX;
+            playerLastDirection = s.playerLastDirection;
+            playerHp = s.playerHp;
+            entityX = s.entityX;
+            entityY = s.entityY;
+            entitySpeed = s.entitySpeed;
+            entityHalfW = s.entityHalfW;
+            entityHalfH = s.entityHalfH;
+            entityDir = s.entityDir;
+            entityLastDir = s.entityLastDir;
+            entityHp = s.entityHp;
+            entitySprite = s.entitySprite;
+        }
+    }
+
+    @Param({"0", "1000", "10000", "100000"})
+    public int entities;
+
+    private GameSnapshot snapshot;
+    private LegacySnapshot legacy;
+    private byte[] legacyBytes;
+    private ByteBuffer encoded;
+    private ByteBuffer scratch;
+    private File dir;
+    private SaveStore store;
+
+    @Setup
+    public void setUp() throws IOException {
+        snapshot = new GameSnapshot();
+        snapshot.ensureEntityCapacity(entities);
+        Random rnd = new Random(42);
+        for (int i = 0; i < entities; i++) {
+            snapshot.entityX[i] = rnd.nextFloat() * 100_000f;
+            snapshot.entitySpeed[i] = 100f + rnd.nextInt(400);
+            snapshot.entityHalfW[i] = 20f;
+            snapshot.entityHalfH[i] = 40f;
+            snapshot.entityDir[i] = rnd.nextInt(3) - 1;
+            snapshot.entityHp[i] = 100;
+            snapshot.entitySprite[i] = 1;
+        }
+        snapshot.entityCount = entities;
+        legacy = new LegacySnapshot(snapshot);
+        legacyBytes = legacySerialize();
+        encoded = SaveCodec.encodeFull(snapshot, null);
+        dir = Files.createTempDirectory("savebench").toFile();
+        store = new SaveStore(new File(dir, "save.dat"));
+        store.save(snapshot);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.delete();
+        dir.delete();
+    }
+
+    @Benchmark
+    public byte[] legacySerialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(legacy);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object legacyDeserialize() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(legacyBytes))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer binaryEncode() {
+        scratch = SaveCodec.encodeFull(snapshot, scratch);
+        return scratch;
+    }
+
+    @Benchmark
+    public GameSnapshot binaryDecode() throws IOException {
+        return SaveCodec.decode(encoded.duplicate());
+    }
+
+    // Меняется только тик: дописывается одна маленькая запись WORLD
+    @Benchmark
+    public long storeDeltaSave() throws IOException {
+        snapshot.tick++;
+        store.save(snapshot);
+        return store.getFileSize();
+    }
+}
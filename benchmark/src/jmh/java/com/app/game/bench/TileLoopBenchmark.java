@@ -0,0 +1,72 @@
+package com.app.game.bench;
+
+import com.app.game.core.TileLoop;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Цикл тайлов из drawLoopedBackground/drawGround, рисуем в фейковый канвас
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TileLoopBenchmark {
+
+    private static final float BG_PARALLAX = 0.3f;
+    private static final float GROUND_PARALLAX = 1.0f;
+
+    @Param({"1920", "3200"})
+    public int screenWidth;
+
+    // ширина bgScaled и groundTileScaled на типичном экране
+    public int bgTileW = 2960;
+    public int groundTileW = 294;
+    public int groundTop = 980;
+
+    private FakeCanvas canvas;
+    private float camX;
+
+    @Setup
+    public void setUp() {
+        canvas = new FakeCanvas();
+        camX = 0f;
+    }
+
+    @Benchmark
+    public long background() {
+        camX += 8.3f;
+        int startX = TileLoop.startX(camX, BG_PARALLAX, bgTileW);
+        for (int x = startX; x < screenWidth + bgTileW; x += bgTileW) {
+            canvas.drawBitmap(x, 0);
+        }
+        return canvas.checksum;
+    }
+
+    @Benchmark
+    public long ground() {
+        camX += 8.3f;
+        int startX = TileLoop.startX(camX, GROUND_PARALLAX, groundTileW);
+        for (int x = startX; x < screenWidth + groundTileW; x += groundTileW) {
+            canvas.drawBitmap(x, groundTop);
+        }
+        return canvas.checksum;
+    }
+
+    // Вместо Canvas: только считаем вызовы и координаты, чтобы JIT не выкинул цикл
+    static final class FakeCanvas {
+        long drawCalls;
+        long checksum;
+
+        void drawBitmap(int x, int y) {
+            drawCalls++;
+            checksum = checksum * 31 + x + y;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.app.game.bench;
+
+import com.app.game.core.trace.TraceRecorder;
+import com.app.game.core.trace.Tracing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+// Цена пары begin/end: выключено (одно чтение флага) против записи в кольцо
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TracingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean recording;
+
+    @Setup
+    public void setUp() {
+        Tracing.setRecorder(recording ? new TraceRecorder(1 << 15) : null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Tracing.setRecorder(null);
+    }
+
+    @Benchmark
+    public void section() {
+        Tracing.begin(Tracing.UPDATE);
+        Tracing.end(Tracing.UPDATE);
+    }
+}
@@ -0,0 +1,94 @@
+package com.app.game.core;
+
+import com.app.game.core.entity.EntityStore;
+
+// Игрок - обычная сущность в EntityStore. Этот класс только удобный доступ к ее полям по id.
+// Спрайты и отрисовка остаются в Player (модуль app).
+public class PlayerState {
+
+    public static final int MAX_HP = 100;
+
+    private final EntityStore store;
+    private final int id;
+
+    // высота кадра на экране, нужна для привязки к полу. Задает рендер
+    private int drawHeight;
+
+    public PlayerState(EntityStore store, float startX, float startY, float speedPxPerSec) {
+        this.store = store;
+        this.id = store.create(startX, startY, speedPxPerSec, MAX_HP, 0);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    // плотный индекс может поменяться после удаления других сущностей - берем каждый раз
+    private int index() {
+        return store.indexOf(id);
+    }
+
+    public void setDirection(int dirX) {
+        store.setDirection(index(), dirX);
+    }
+
+    public int getDirection() {
+        return store.dir[index()];
+    }
+
+    public int getLastDirection() {
+        return store.lastDir[index()];
+    }
+
+    public void setLastDirX(int lastDir) {
+        store.lastDir[index()] = lastDir;
+    }
+
+    public boolean isMoving() {
+        return getDirection() != 0;
+    }
+
+    public float getX() {
+        return store.x[index()];
+    }
+
+    public float getY() {
+        return store.y[index()];
+    }
+
+    public void setY(float v) {
+        store.y[index()] = v;
+    }
+
+    public void setPosition(float x, float y) {
+        int i = index();
+        store.x[i] = x;
+        store.y[i] = y;
+    }
+
+    public float getSpeed() {
+        return store.speed[index()];
+    }
+
+    public int getFrameIndex() {
+        return store.frameAt(index());
+    }
+
+    // Лист текущего клипа (номер в библиотеке анимаций)
+    public int getSheet() {
+        return store.sheetAt(index());
+    }
+
+    // Хитбокс тела вокруг центра спрайта
+    public void setHitbox(float halfWidth, float halfHeight) {
+        store.setHitbox(index(), halfWidth, halfHeight);
+    }
+
+    public int getDrawHeight() {
+        return drawHeight;
+    }
+
+    public void setDrawHeight(int drawHeight) {
+        this.drawHeight = drawHeight;
+    }
+}
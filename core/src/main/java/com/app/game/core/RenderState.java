@@ -0,0 +1,104 @@
+package com.app.game.core;
+
+import com.app.game.core.fx.ParticleSnapshot;
+
+// Снимок мира для рендера: текущее и предыдущее состояние тика, между ними рендер интерполирует.
+// Объекты переиспользуются (пул в TripleBuffer), копирование без аллокаций
+public class RenderState {
+
+    public long tick;
+    // System.nanoTime() момента, когда тик посчитан
+    public long tickNs;
+
+    public float prevPlayerX, prevPlayerY, prevCamX, prevCamY, prevZoom = 1f;
+    public float playerX, playerY, camX, camY, zoom = 1f;
+
+    public int direction;
+    public int lastDirection;
+    public int frameIndex;
+    public int sheet;
+
+    public final ParticleSnapshot particles = new ParticleSnapshot();
+
+    // Сдвигаем текущее в prev и берем новое из мира
+    public void capture(World world, RenderState previous, long nowNs) {
+        PlayerState p = world.getPlayer();
+        // previous может быть этим же объектом - сначала читаем, потом пишем
+        boolean hasPrevious = previous != null && previous.tick > 0;
+        if (hasPrevious) {
+            prevPlayerX = previous.playerX;
+            prevPlayerY = previous.playerY;
+            prevCamX = previous.camX;
+            prevCamY = previous.camY;
+            prevZoom = previous.zoom;
+        } else {
+            prevPlayerX = p.getX();
+            prevPlayerY = p.getY();
+            prevCamX = world.getCamX();
+            prevCamY = world.getCamY();
+            prevZoom = world.getCamera().getZoom();
+        }
+        tick = world.getTick();
+        tickNs = nowNs;
+        playerX = p.getX();
+        playerY = p.getY();
+        // тряска только в кадре, в мире ее нет
+        camX = world.getCamX() + world.getCamera().getShakeX();
+        camY = world.getCamY() + world.getCamera().getShakeY();
+        zoom = world.getCamera().getZoom();
+        direction = p.getDirection();
+        lastDirection = p.getLastDirection();
+        frameIndex = p.getFrameIndex();
+        sheet = p.getSheet();
+        particles.capture(world.getParticles());
+    }
+
+    public void copyFrom(RenderState o) {
+        tick = o.tick;
+        tickNs = o.tickNs;
+        prevPlayerX = o.prevPlayerX;
+        prevPlayerY = o.prevPlayerY;
+        prevCamX = o.prevCamX;
+        playerX = o.playerX;
+        playerY = o.playerY;
+        camX = o.camX;
+        prevCamY = o.prevCamY;
+        camY = o.camY;
+        prevZoom = o.prevZoom;
+        zoom = o.zoom;
+        direction = o.direction;
+        lastDirection = o.lastDirection;
+        frameIndex = o.frameIndex;
+        sheet = o.sheet;
+        particles.copyFrom(o.particles);
+    }
+
+    // alpha: 0 - предыдущий тик, 1 - текущий
+    public float playerX(float alpha) {
+        return prevPlayerX + (playerX - prevPlayerX) * alpha;
+    }
+
+    public float playerY(float alpha) {
+        return prevPlayerY + (playerY - prevPlayerY) * alpha;
+    }
+
+    public float camX(float alpha) {
+        return prevCamX + (camX - prevCamX) * alpha;
+    }
+
+    public float camY(float alpha) {
+        return prevCamY + (camY - prevCamY) * alpha;
+    }
+
+    public float zoom(float alpha) {
+        return prevZoom + (zoom - prevZoom) * alpha;
+    }
+
+    public boolean isMoving() {
+        return direction != 0;
+    }
+
+    public boolean isFacingLeft() {
+        return direction != 0 ? direction < 0 : lastDirection < 0;
+    }
+}
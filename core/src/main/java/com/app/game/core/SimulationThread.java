@@ -0,0 +1,86 @@
+package com.app.game.core;
+
+import com.app.game.core.concurrent.TripleBuffer;
+import com.app.game.core.trace.Tracing;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Симуляция на своем потоке: фиксированный шаг DT_SEC, после каждого тика публикует
+// RenderState в тройной буфер. Рендер не ждет симуляцию и наоборот
+public class SimulationThread extends Thread {
+
+    private static final long DT_NS = 1_000_000_000L / World.TARGET_UPS;
+    private static final long MAX_ACCUM_NS = 250_000_000L;
+    private static final int MAX_UPDATES_PER_WAKE = 5;
+
+    private final World world;
+    private final TripleBuffer<RenderState> out;
+    // последнее опубликованное, чтобы заполнить prev у следующего
+    private final RenderState last = new RenderState();
+    private final AtomicLong updates = new AtomicLong();
+    private volatile boolean running = true;
+
+    public SimulationThread(World world, TripleBuffer<RenderState> out) {
+        this.world = world;
+        this.out = out;
+        setName("Simulation");
+    }
+
+    public static TripleBuffer<RenderState> newBuffer() {
+        return new TripleBuffer<>(new RenderState(), new RenderState(), new RenderState());
+    }
+
+    public long getUpdateCount() {
+        return updates.get();
+    }
+
+    public void requestStopAndJoin() {
+        running = false;
+        LockSupport.unpark(this);
+        try {
+            join();
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    @Override
+    public void run() {
+        publish(System.nanoTime());
+        long previousNs = System.nanoTime();
+        long accumulator = 0;
+
+        while (running) {
+            long nowNs = System.nanoTime();
+            accumulator += Math.min(nowNs - previousNs, MAX_ACCUM_NS);
+            previousNs = nowNs;
+
+            int n = 0;
+            while (accumulator >= DT_NS && n < MAX_UPDATES_PER_WAKE) {
+                Tracing.begin(Tracing.UPDATE);
+                world.update(World.DT_SEC);
+                Tracing.end(Tracing.UPDATE);
+                accumulator -= DT_NS;
+                n++;
+                updates.incrementAndGet();
+                publish(System.nanoTime());
+            }
+            if (accumulator > DT_NS) accumulator = DT_NS;
+
+            // спим до следующего тика
+            long waitNs = DT_NS - accumulator - (System.nanoTime() - nowNs);
+            if (waitNs > 0) {
+                Tracing.begin(Tracing.SLEEP);
+                LockSupport.parkNanos(waitNs);
+                Tracing.end(Tracing.SLEEP);
+            }
+        }
+    }
+
+    private void publish(long nowNs) {
+        RenderState s = out.writeSlot();
+        s.capture(world, last, nowNs);
+        last.copyFrom(s);
+        out.publish();
+    }
+}
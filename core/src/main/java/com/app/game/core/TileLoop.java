@@ -0,0 +1,17 @@
+package com.app.game.core;
+
+// Математика бесконечной ленты тайлов (фон, пол) вынесена сюда,
+// чтобы ее можно было гонять в бенчах без Canvas
+public final class TileLoop {
+
+    private TileLoop() {
+    }
+
+    // x первого тайла ленты на экране (<= 0) для камеры с учетом параллакса
+    public static int startX(float camX, float parallax, int tileW) {
+        int scroll = (int) (camX * parallax);
+        int startX = -(scroll % tileW);
+        if (startX > 0) startX -= tileW;
+        return startX;
+    }
+}
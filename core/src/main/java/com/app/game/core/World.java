@@ -0,0 +1,391 @@
+package com.app.game.core;
+
+import com.app.game.core.anim.AnimationEventBuffer;
+import com.app.game.core.anim.AnimationListener;
+import com.app.game.core.camera.Camera;
+import com.app.game.core.camera.ViewBounds;
+import com.app.game.core.collision.BroadPhase;
+import com.app.game.core.concurrent.JobScheduler;
+import com.app.game.core.entity.EntityStore;
+import com.app.game.core.fx.ParticlePool;
+import com.app.game.core.level.LevelPopulator;
+import com.app.game.core.level.LevelStreamer;
+import com.app.game.core.trace.Tracing;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Мир игры: игрок, камера и привязка к полу. Никаких android-зависимостей,
+// GameView только подает ввод и читает состояние для отрисовки.
+public class World {
+
+    public static final int TARGET_UPS = 60;
+    public static final float DT_SEC = 1f / TARGET_UPS;
+
+    // Нет нового ввода с прошлого тика
+    public static final int NO_INPUT = Integer.MIN_VALUE;
+
+    // Наблюдатель тиков (запись реплея). Зовется на потоке симуляции
+    public interface TickListener {
+        // ввод этого тика уже применен, симуляция еще нет
+        void beforeTick(World world);
+
+        void afterTick(World world);
+    }
+
+    // Источник ввода, который разбирается в начале каждого тика на потоке симуляции
+    public interface InputSource {
+        void pollInput(World world);
+    }
+
+    // Игровая реакция на тик (эффекты, звук). Зовется внутри update на потоке симуляции,
+    // после движения, камеры и сетки, до частиц: видит позиции и ввод этого тика
+    public interface TickHook {
+        void onTick(World world, float dt);
+    }
+
+    // Система над сущностями (ИИ и т.п.), идет параллельной фазой перед движением.
+    // Читать можно весь мир, писать - только сущности своего куска [from, to),
+    // иначе результат начнет зависеть от числа потоков и реплей разойдется
+    public interface EntitySystem {
+        void update(World world, int from, int to, float dt);
+    }
+
+    // Камера
+    private static final float CAM_HALF_LIFE_SEC = 0.12f;
+
+    // т.к тайл персонажа 80px, а мы за основу берем серидину персонажа(40px)
+    // то надо смещать персонажа по пропорции, чтобы ноги касались пола
+    private static final float PLAYER_OFFSET_FOR_GROUND = 0.17f;
+
+    // Стартовая емкость хранилища, дальше растет при create
+    private static final int INITIAL_ENTITY_CAPACITY = 1024;
+
+    private final EntityStore entities = new EntityStore(INITIAL_ENTITY_CAPACITY);
+
+    // Широкая фаза: ячейка = ширина тайла пола на экране (147px * GROUND_SCALE)
+    private static final float COLLISION_CELL_WIDTH = 294f;
+    private static final int COLLISION_BUCKETS = 1024;
+    private final BroadPhase broadPhase =
+            new BroadPhase(COLLISION_CELL_WIDTH, COLLISION_BUCKETS, INITIAL_ENTITY_CAPACITY);
+
+    // Искры, пыль, снаряды. Косметика: в хэш и сохранение не входят. Сид фиксированный, а рождаются
+    // они из хуков тика по вводу, который пишет InputRecorder, - реплей с теми же хуками повторяет и их
+    private static final int MAX_PARTICLES = 4096;
+    private static final int MAX_EMITTERS = 32;
+    private static final long PARTICLE_SEED = 0x9E3779B97F4A7C15L;
+    private final ParticlePool particles = new ParticlePool(MAX_PARTICLES, MAX_EMITTERS, PARTICLE_SEED);
+
+    // Статичные зоны-триггеры (магазин и т.п.): id + AABB
+    private int triggerCount = 0;
+    private int[] triggerIds = new int[4];
+    private float[] triggerBounds = new float[4 * 4];
+    private final PlayerState player;
+    private final Camera camera = new Camera(CAM_HALF_LIFE_SEC);
+    private final ViewBounds visible = new ViewBounds();
+
+    // Вьюпорт и линия пола приходят от вьюхи (surfaceChanged)
+    private int viewportWidth, viewportHeight;
+    private float groundSurfaceY;
+
+    // Ввод приходит с UI-потока, а применяется только на границе тика - иначе реплей не повторить.
+    // Вьюпорт упакован в один long: ширина, высота + биты groundSurfaceY, чтобы не читать их вразнобой
+    private final AtomicInteger pendingDirection = new AtomicInteger(NO_INPUT);
+    private final AtomicInteger pendingAttacks = new AtomicInteger();
+    private int attackPresses;
+    private volatile long pendingViewport;
+    private volatile boolean viewportChanged;
+    private TickListener tickListener;
+    private InputSource inputSource;
+    private TickHook[] hooks = new TickHook[0];
+
+    // Чанки уровня вокруг камеры, null - без уровня (тесты, бенчи)
+    private LevelStreamer level;
+    // монстры и магазины чанков окна
+    private final LevelPopulator populator = new LevelPopulator();
+
+    // Фазы тика над сущностями режутся на куски фиксированного размера - границы не зависят
+    // от числа потоков, поэтому хэш мира на 1 и на N потоках одинаковый
+    public static final int ENTITY_CHUNK = 512;
+    private JobScheduler scheduler = JobScheduler.SERIAL;
+    private JobScheduler.RangeTask[] systems = new JobScheduler.RangeTask[0];
+    private float phaseDt;
+    // события анимации по кускам, сливаются после барьера в порядке кусков
+    private AnimationEventBuffer[] chunkEvents = new AnimationEventBuffer[0];
+    private boolean chunkEventsEnabled;
+    private final JobScheduler.RangeTask moveTask = (chunk, from, to) ->
+            entities.updateRange(from, to, phaseDt, chunkEventsEnabled ? chunkEvents[chunk] : null);
+
+    private long tick = 0;
+
+    public World(float playerStartX, float playerStartY, float playerSpeedPxPerSec) {
+        player = new PlayerState(entities, playerStartX, playerStartY, playerSpeedPxPerSec);
+    }
+
+    public PlayerState getPlayer() {
+        return player;
+    }
+
+    public EntityStore getEntities() {
+        return entities;
+    }
+
+    public void addTriggerZone(int zoneId, float minX, float minY, float maxX, float maxY) {
+        if (triggerCount == triggerIds.length) {
+            triggerIds = Arrays.copyOf(triggerIds, triggerCount * 2);
+            triggerBounds = Arrays.copyOf(triggerBounds, triggerCount * 2 * 4);
+        }
+        int o = triggerCount * 4;
+        triggerIds[triggerCount++] = zoneId;
+        triggerBounds[o] = minX;
+        triggerBounds[o + 1] = minY;
+        triggerBounds[o + 2] = maxX;
+        triggerBounds[o + 3] = maxY;
+    }
+
+    public void clearTriggerZones() {
+        triggerCount = 0;
+    }
+
+    // Порядок зон не важен - последняя встает на место убранной
+    public boolean removeTriggerZone(int zoneId) {
+        for (int i = 0; i < triggerCount; i++) {
+            if (triggerIds[i] != zoneId) continue;
+            int last = --triggerCount;
+            triggerIds[i] = triggerIds[last];
+            System.arraycopy(triggerBounds, last * 4, triggerBounds, i * 4, 4);
+            return true;
+        }
+        return false;
+    }
+
+    // Кто попал в прямоугольник (хитбокс удара, зона магазина) на текущем тике.
+    // В out пишутся id сущностей (LAYER_ENTITY) или зон (LAYER_TRIGGER), возвращает сколько нашлось
+    public int queryArea(float minX, float minY, float maxX, float maxY, int layerMask, int[] out) {
+        return broadPhase.query(minX, minY, maxX, maxY, layerMask, out);
+    }
+
+    public ParticlePool getParticles() {
+        return particles;
+    }
+
+    public BroadPhase getBroadPhase() {
+        return broadPhase;
+    }
+
+    // groundSurfaceY - экранная Y верхней кромки тайлов пола. Вступает в силу со следующего тика.
+    // Без высоты камера по y не двигается
+    public void setViewport(int width, float groundSurfaceY) {
+        setViewport(width, 0, groundSurfaceY);
+    }
+
+    // С высотой камера держит линию пола на месте при зуме и идет за игроком по y
+    public void setViewport(int width, int height, float groundSurfaceY) {
+        pendingViewport = ((long) (width & 0xffff) << 48) | ((long) (height & 0xffff) << 32)
+                | (Float.floatToRawIntBits(groundSurfaceY) & 0xffffffffL);
+        viewportChanged = true;
+    }
+
+    public float getGroundSurfaceY() {
+        return groundSurfaceY;
+    }
+
+    // Направление игрока (-1, 0, 1) с любого потока, применяется в начале следующего тика
+    public void setInputDirection(int dirX) {
+        pendingDirection.set(dirX);
+    }
+
+    // Нажатия атаки с любого потока, засчитываются в следующем тике
+    public void pressAttack(int presses) {
+        if (presses > 0) pendingAttacks.addAndGet(presses);
+    }
+
+    // Сколько раз нажали атаку к этому тику
+    public int getAttackPresses() {
+        return attackPresses;
+    }
+
+    public void setTickListener(TickListener listener) {
+        this.tickListener = listener;
+    }
+
+    public void setInputSource(InputSource source) {
+        this.inputSource = source;
+    }
+
+    // Содержимое прежнего уровня убирается сразу, нового - появится на следующем тике.
+    // Менять только между тиками
+    public void setLevel(LevelStreamer level) {
+        populator.clear(this);
+        this.level = level;
+    }
+
+    // Сущность поставлена уровнем: ее заново ставит окно чанков, в сохранение она не идет
+    public boolean isLevelEntity(int id) {
+        return populator.owns(id);
+    }
+
+    public LevelStreamer getLevel() {
+        return level;
+    }
+
+    // Хуки идут в порядке добавления. Добавлять до старта симуляции
+    public void addTickHook(TickHook hook) {
+        hooks = Arrays.copyOf(hooks, hooks.length + 1);
+        hooks[hooks.length - 1] = hook;
+    }
+
+    // Куда раскладывать параллельные фазы. Менять только между тиками
+    public void setScheduler(JobScheduler scheduler) {
+        this.scheduler = scheduler != null ? scheduler : JobScheduler.SERIAL;
+    }
+
+    public JobScheduler getScheduler() {
+        return scheduler;
+    }
+
+    // Системы идут в порядке добавления, между ними барьер
+    public void addEntitySystem(final EntitySystem system) {
+        systems = Arrays.copyOf(systems, systems.length + 1);
+        systems[systems.length - 1] = (chunk, from, to) -> system.update(this, from, to, phaseDt);
+    }
+
+    public int getViewportWidth() {
+        return viewportWidth;
+    }
+
+    // 0 - высоту не задавали, камера по y не двигается
+    public int getViewportHeight() {
+        return viewportHeight;
+    }
+
+    public Camera getCamera() {
+        return camera;
+    }
+
+    public float getCamX() {
+        return camera.getX();
+    }
+
+    public float getCamY() {
+        return camera.getY();
+    }
+
+    public void setCamX(float camX) {
+        camera.setPosition(camX, camera.getY());
+    }
+
+    // Что попадает в кадр камеры на этом тике (id, как в queryArea)
+    public int queryVisible(int layerMask, int[] out) {
+        ViewBounds v = camera.visibleBounds(visible);
+        return broadPhase.query(v.left, v.top, v.right, v.bottom, layerMask, out);
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public void setTick(long tick) {
+        this.tick = tick;
+    }
+
+    public int getEntityCount() {
+        return entities.size();
+    }
+
+    public void update(float dtSeconds) {
+        Tracing.begin(Tracing.INPUT);
+        applyInput();
+        Tracing.end(Tracing.INPUT);
+        // чанки окна ставят и убирают свое до систем, по камере прошлого тика
+        LevelStreamer lvl = level;
+        if (lvl != null) populator.sync(this, lvl, camera.getX(), levelViewWidth());
+        TickListener listener = tickListener;
+        if (listener != null) listener.beforeTick(this);
+
+        phaseDt = dtSeconds;
+        int n = entities.size();
+        // ИИ и прочие системы: каждая - своя фаза по кускам сущностей
+        for (JobScheduler.RangeTask system : systems) {
+            scheduler.parallelFor(n, ENTITY_CHUNK, system);
+        }
+        // движение и анимация всех сущностей, включая игрока
+        moveEntities(n);
+
+        // камера за игроком: по x - в центр, по y - держим линию пола там, где она на экране
+        camera.follow(player.getX(), groundSurfaceY, dtSeconds);
+
+        float playerHalfHeight = player.getDrawHeight() * 0.5f;
+        //PLAYER_OFFSET_FOR_GROUND подобран эпирически под текущий спрайт. Если другой спрайт - высчитывать пропорцию
+        player.setY(groundSurfaceY - playerHalfHeight * PLAYER_OFFSET_FOR_GROUND);
+
+        rebuildBroadPhase();
+        for (TickHook hook : hooks) hook.onTick(this, dtSeconds);
+        // после сетки: снаряды проверяют попадания по позициям этого тика
+        particles.update(dtSeconds);
+
+        // генерация идет на своем потоке, тут только сдвиг окна
+        if (lvl != null) lvl.requestAround(camera.getX(), levelViewWidth());
+
+        tick++;
+        if (listener != null) listener.afterTick(this);
+    }
+
+    // Ширина кадра в мировых px при текущем зуме
+    private int levelViewWidth() {
+        return (int) Math.ceil(viewportWidth / camera.getZoom());
+    }
+
+    private void applyInput() {
+        InputSource source = inputSource;
+        if (source != null) source.pollInput(this);
+        if (viewportChanged) {
+            viewportChanged = false;
+            long v = pendingViewport;
+            viewportWidth = (int) (v >>> 48);
+            viewportHeight = (int) (v >>> 32) & 0xffff;
+            groundSurfaceY = Float.intBitsToFloat((int) v);
+            camera.setViewport(viewportWidth, viewportHeight);
+            camera.setAnchor(0.5f, viewportHeight > 0 ? groundSurfaceY / viewportHeight : 0f);
+        }
+        int dir = pendingDirection.getAndSet(NO_INPUT);
+        if (dir != NO_INPUT) player.setDirection(dir);
+        attackPresses = pendingAttacks.getAndSet(0);
+    }
+
+    private void moveEntities(int n) {
+        AnimationListener listener = entities.getAnimationListener();
+        if (scheduler.threads() == 1) {
+            entities.updateRange(0, n, phaseDt, listener);
+            return;
+        }
+        int chunks = (n + ENTITY_CHUNK - 1) / ENTITY_CHUNK;
+        if (chunkEvents.length < chunks) {
+            int old = chunkEvents.length;
+            chunkEvents = Arrays.copyOf(chunkEvents, chunks);
+            for (int c = old; c < chunks; c++) chunkEvents[c] = new AnimationEventBuffer();
+        }
+        chunkEventsEnabled = listener != null;
+        scheduler.parallelFor(n, ENTITY_CHUNK, moveTask);
+        if (listener != null) {
+            for (int c = 0; c < chunks; c++) chunkEvents[c].drainTo(listener);
+        }
+    }
+
+    // Сетка строится последовательно: вставка в общие бакеты, а на наших количествах
+    // это меньше фаз движения
+    private void rebuildBroadPhase() {
+        broadPhase.clear();
+        EntityStore e = entities;
+        for (int i = 0, n = e.size(); i < n; i++) {
+            broadPhase.add(e.idAt(i), BroadPhase.LAYER_ENTITY,
+                    e.x[i] - e.halfW[i], e.y[i] - e.halfH[i], e.x[i] + e.halfW[i], e.y[i] + e.halfH[i]);
+        }
+        for (int t = 0; t < triggerCount; t++) {
+            int o = t * 4;
+            broadPhase.add(triggerIds[t], BroadPhase.LAYER_TRIGGER,
+                    triggerBounds[o], triggerBounds[o + 1], triggerBounds[o + 2], triggerBounds[o + 3]);
+        }
+        broadPhase.build();
+    }
+}
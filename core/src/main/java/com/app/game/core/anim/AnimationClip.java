@@ -0,0 +1,68 @@
+package com.app.game.core.anim;
+
+// Клип анимации: лист, длительности кадров, режим и события кадров. Неизменяемый, один на всех,
+// кто его играет. Кадр по времени - из таблицы с шагом в 1 мс, O(1) без цикла по кадрам
+public final class AnimationClip {
+
+    // Зациклен, по нему же решается переключение idle/run от движения
+    public static final int LOOP = 0;
+    // Один раз, потом обратно в idle/run (атака, урон)
+    public static final int ONCE = 1;
+    // Один раз и стоим на последнем кадре (смерть)
+    public static final int HOLD = 2;
+
+    public static final int NO_EVENT = 0;
+
+    public final int id;
+    public final String name;
+    // номер листа в AnimationLibrary (рендер сам знает, какой это лист атласа)
+    public final int sheet;
+    public final int frameCount;
+    public final int mode;
+    public final float duration;
+
+    // кадр на каждую миллисекунду клипа
+    private final byte[] frameAtMs;
+    private final int[] frameEvent;
+
+    AnimationClip(int id, String name, int sheet, int[] frameMs, int mode, int[] frameEvent) {
+        if (frameMs.length == 0 || frameMs.length > 255) {
+            throw new IllegalArgumentException("Clip " + name + ": bad frame count " + frameMs.length);
+        }
+        this.id = id;
+        this.name = name;
+        this.sheet = sheet;
+        this.frameCount = frameMs.length;
+        this.mode = mode;
+        this.frameEvent = frameEvent;
+
+        int total = 0;
+        for (int ms : frameMs) {
+            if (ms <= 0) throw new IllegalArgumentException("Clip " + name + ": frame duration " + ms);
+            total += ms;
+        }
+        frameAtMs = new byte[total];
+        int pos = 0;
+        for (int f = 0; f < frameMs.length; f++) {
+            for (int k = 0; k < frameMs[f]; k++) frameAtMs[pos++] = (byte) f;
+        }
+        duration = total / 1000f;
+    }
+
+    // t - секунды от начала клипа. За пределами клипа - крайний кадр
+    public int frameAt(float t) {
+        int ms = (int) (t * 1000f);
+        if (ms < 0) ms = 0;
+        else if (ms >= frameAtMs.length) ms = frameAtMs.length - 1;
+        return frameAtMs[ms] & 0xff;
+    }
+
+    // Событие, которое срабатывает при входе в кадр (NO_EVENT - нет)
+    public int eventAt(int frame) {
+        return frameEvent[frame];
+    }
+
+    public boolean loops() {
+        return mode == LOOP;
+    }
+}
@@ -0,0 +1,32 @@
+package com.app.game.core.anim;
+
+import java.util.Arrays;
+
+// События одного куска сущностей при параллельном тике. Копятся на потоке куска,
+// после барьера сливаются в настоящий слушатель по порядку кусков - порядок как у
+// последовательного прохода. Массив только растет, в устоявшейся игре без аллокаций
+public final class AnimationEventBuffer implements AnimationListener {
+
+    // пары [entityIndex, event]
+    private int[] events = new int[16];
+    private int count;
+
+    @Override
+    public void onAnimationEvent(int entityIndex, int event) {
+        if (count * 2 == events.length) events = Arrays.copyOf(events, events.length * 2);
+        events[count * 2] = entityIndex;
+        events[count * 2 + 1] = event;
+        count++;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void drainTo(AnimationListener listener) {
+        if (listener != null) {
+            for (int i = 0; i < count; i++) listener.onAnimationEvent(events[i * 2], events[i * 2 + 1]);
+        }
+        count = 0;
+    }
+}
@@ -0,0 +1,201 @@
+package com.app.game.core.anim;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Все клипы и наборы состояний игры. Разбирается из текста один раз и дальше только читается,
+// так что один экземпляр делят все сущности и потоки. Формат построчно:
+//   clip <имя> <лист> <кадры> <loop|once|hold> [событие@кадр ...]
+//     кадры: 8x140 - 8 кадров по 140 мс, или 60,60,80,120 - по кадру на число
+//   set <sprite id> <состояние>=<клип> ...   состояния: idle run attack hurt death
+// Листы и события - имена, номера им раздаются по порядку появления
+public final class AnimationLibrary {
+
+    // Клипы игры. Берут и приложение, и реплеер: кадры входят в хэш состояния мира
+    public static final String STANDARD_SOURCE = ""
+            + "clip player_idle player_idle 8x140 loop\n"
+            + "clip player_run player_run 8x90 loop step@1 step@5\n"
+            // монстры пока рисуются листами игрока
+            + "set 0 idle=player_idle run=player_run\n"
+            + "set 1 idle=player_idle run=player_run\n";
+
+    private static AnimationLibrary standard;
+
+    private final AnimationClip[] clips;
+    // по sprite id; неизвестный sprite получает набор с наименьшим id
+    private final AnimationSet[] sets;
+    private final AnimationSet fallback;
+    private final List<String> sheets;
+    private final List<String> events;
+
+    private AnimationLibrary(List<AnimationClip> clips, AnimationSet[] sets, AnimationSet fallback,
+                             List<String> sheets, List<String> events) {
+        this.clips = clips.toArray(new AnimationClip[0]);
+        this.sets = sets;
+        this.fallback = fallback;
+        this.sheets = sheets;
+        this.events = events;
+    }
+
+    public static synchronized AnimationLibrary standard() {
+        if (standard == null) standard = parse(STANDARD_SOURCE);
+        return standard;
+    }
+
+    public static AnimationLibrary parse(String source) {
+        try {
+            return parse(new StringReader(source));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static AnimationLibrary parse(Reader source) throws IOException {
+        List<AnimationClip> clips = new ArrayList<>();
+        List<String> clipNames = new ArrayList<>();
+        List<String> sheets = new ArrayList<>();
+        // событие 0 - NO_EVENT
+        List<String> events = new ArrayList<>();
+        events.add("");
+        List<int[]> setClips = new ArrayList<>();
+        List<Integer> setSprites = new ArrayList<>();
+
+        BufferedReader in = new BufferedReader(source);
+        String line;
+        int lineNo = 0;
+        while ((line = in.readLine()) != null) {
+            lineNo++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] t = line.split("\\s+");
+            try {
+                if (t[0].equals("clip") && t.length >= 5) {
+                    if (clipNames.contains(t[1])) throw new IllegalArgumentException("duplicate clip " + t[1]);
+                    int[] frameMs = parseFrames(t[3]);
+                    int[] frameEvent = new int[frameMs.length];
+                    for (int k = 5; k < t.length; k++) {
+                        int at = t[k].indexOf('@');
+                        if (at <= 0) throw new IllegalArgumentException("event " + t[k]);
+                        int frame = Integer.parseInt(t[k].substring(at + 1));
+                        frameEvent[frame] = intern(events, t[k].substring(0, at));
+                    }
+                    clips.add(new AnimationClip(clips.size(), t[1], intern(sheets, t[2]), frameMs,
+                            parseMode(t[4]), frameEvent));
+                    clipNames.add(t[1]);
+                } else if (t[0].equals("set") && t.length >= 3) {
+                    int sprite = Integer.parseInt(t[1]);
+                    if (sprite < 0 || setSprites.contains(sprite)) throw new IllegalArgumentException("sprite " + sprite);
+                    int[] byState = {-1, -1, -1, -1, -1};
+                    for (int k = 2; k < t.length; k++) {
+                        int eq = t[k].indexOf('=');
+                        if (eq <= 0) throw new IllegalArgumentException("state " + t[k]);
+                        int clip = clipNames.indexOf(t[k].substring(eq + 1));
+                        if (clip < 0) throw new IllegalArgumentException("unknown clip " + t[k].substring(eq + 1));
+                        byState[AnimationSet.stateId(t[k].substring(0, eq))] = clip;
+                    }
+                    setClips.add(byState);
+                    setSprites.add(sprite);
+                } else {
+                    throw new IllegalArgumentException("unknown directive");
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Animation line " + lineNo + ": " + line + " (" + e.getMessage() + ")", e);
+            }
+        }
+        if (setSprites.isEmpty()) throw new IllegalArgumentException("Animation library has no sets");
+
+        int maxSprite = 0;
+        int firstSprite = Integer.MAX_VALUE;
+        for (int s : setSprites) {
+            maxSprite = Math.max(maxSprite, s);
+            firstSprite = Math.min(firstSprite, s);
+        }
+        AnimationSet[] sets = new AnimationSet[maxSprite + 1];
+        for (int k = 0; k < setSprites.size(); k++) sets[setSprites.get(k)] = new AnimationSet(setClips.get(k));
+        AnimationSet fallback = sets[firstSprite];
+        for (int s = 0; s < sets.length; s++) if (sets[s] == null) sets[s] = fallback;
+        return new AnimationLibrary(clips, sets, fallback, sheets, events);
+    }
+
+    public AnimationClip clip(int id) {
+        return clips[id];
+    }
+
+    public int clipCount() {
+        return clips.length;
+    }
+
+    public int clipId(String name) {
+        for (AnimationClip c : clips) if (c.name.equals(name)) return c.id;
+        throw new IllegalArgumentException("Unknown clip " + name);
+    }
+
+    public AnimationSet set(int sprite) {
+        return sprite >= 0 && sprite < sets.length ? sets[sprite] : fallback;
+    }
+
+    public int sheetCount() {
+        return sheets.size();
+    }
+
+    public String sheetName(int sheet) {
+        return sheets.get(sheet);
+    }
+
+    public int sheetIndex(String name) {
+        int s = sheets.indexOf(name);
+        if (s < 0) throw new IllegalArgumentException("Unknown sheet " + name);
+        return s;
+    }
+
+    // Сколько кадров в листе: по самому длинному клипу на нем (листы режутся на кадры одинаковой ширины)
+    public int framesInSheet(int sheet) {
+        int frames = 0;
+        for (AnimationClip c : clips) if (c.sheet == sheet) frames = Math.max(frames, c.frameCount);
+        return frames;
+    }
+
+    // Номер события по имени, AnimationClip.NO_EVENT - такого нет ни в одном клипе
+    public int eventId(String name) {
+        int e = events.indexOf(name);
+        return e > 0 ? e : AnimationClip.NO_EVENT;
+    }
+
+    private static int[] parseFrames(String spec) {
+        int x = spec.indexOf('x');
+        if (x > 0) {
+            int[] ms = new int[Integer.parseInt(spec.substring(0, x))];
+            Arrays.fill(ms, Integer.parseInt(spec.substring(x + 1)));
+            return ms;
+        }
+        String[] parts = spec.split(",");
+        int[] ms = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) ms[i] = Integer.parseInt(parts[i]);
+        return ms;
+    }
+
+    private static int parseMode(String mode) {
+        switch (mode) {
+            case "loop":
+                return AnimationClip.LOOP;
+            case "once":
+                return AnimationClip.ONCE;
+            case "hold":
+                return AnimationClip.HOLD;
+            default:
+                throw new IllegalArgumentException("mode " + mode);
+        }
+    }
+
+    private static int intern(List<String> names, String name) {
+        int i = names.indexOf(name);
+        if (i >= 0) return i;
+        names.add(name);
+        return names.size() - 1;
+    }
+}
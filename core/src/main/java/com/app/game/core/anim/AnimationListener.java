@@ -0,0 +1,6 @@
+package com.app.game.core.anim;
+
+// События кадров ("hit" на кадре удара и т.п.), зовется из EntityStore.update на потоке симуляции
+public interface AnimationListener {
+    void onAnimationEvent(int entityIndex, int event);
+}
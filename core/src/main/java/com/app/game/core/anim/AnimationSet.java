@@ -0,0 +1,37 @@
+package com.app.game.core.anim;
+
+import java.util.Arrays;
+
+// Какой клип играть в каком состоянии - одна таблица на вид сущности (sprite id), а не на сущность.
+// Переходы: зацикленные клипы следуют движению (idle/run), ONCE возвращается к ним в конце, HOLD стоит
+public final class AnimationSet {
+
+    public static final int IDLE = 0;
+    public static final int RUN = 1;
+    public static final int ATTACK = 2;
+    public static final int HURT = 3;
+    public static final int DEATH = 4;
+    public static final int STATE_COUNT = 5;
+
+    static final String[] STATE_NAMES = {"idle", "run", "attack", "hurt", "death"};
+
+    private final int[] clipByState = new int[STATE_COUNT];
+
+    // clips[state] - id клипа или -1; без клипа состояние играет idle
+    AnimationSet(int[] clips) {
+        if (clips[IDLE] < 0) throw new IllegalArgumentException("Animation set without idle clip");
+        for (int s = 0; s < STATE_COUNT; s++) {
+            clipByState[s] = clips[s] >= 0 ? clips[s] : clips[IDLE];
+        }
+    }
+
+    public int clip(int state) {
+        return clipByState[state];
+    }
+
+    static int stateId(String name) {
+        int s = Arrays.asList(STATE_NAMES).indexOf(name);
+        if (s < 0) throw new IllegalArgumentException("Unknown animation state " + name);
+        return s;
+    }
+}
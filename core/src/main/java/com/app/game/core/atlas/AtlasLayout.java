@@ -0,0 +1,134 @@
+package com.app.game.core.atlas;
+
+import java.util.Arrays;
+
+// Раскладка спрайт-листов в одну текстуру (полочная упаковка) и таблица прямоугольников кадров.
+// Кадры листа лежат в строку слева направо, как в исходных png.
+// Считается один раз при сборке атласа, дальше только чтение по индексу.
+public class AtlasLayout {
+
+    // Отступ между листами, чтобы без фильтрации не цеплять пиксели соседа
+    private static final int PADDING = 1;
+
+    private int sheetCount = 0;
+    private int[] sheetW = new int[4];
+    private int[] sheetH = new int[4];
+    private int[] sheetFrames = new int[4];
+    private int[] sheetX = new int[4];
+    private int[] sheetY = new int[4];
+    private int[] firstFrame = new int[4];
+
+    // Кадры всех листов подряд: left, top, width, height
+    private int[] frameRects = new int[0];
+    private int frameCount = 0;
+
+    private int width, height;
+    private boolean packed = false;
+
+    // Лист шириной width из frames одинаковых кадров. Возвращает id листа
+    public int addSheet(int width, int height, int frames) {
+        if (packed) throw new IllegalStateException("Atlas already packed");
+        if (frames <= 0 || width < frames || height <= 0) {
+            throw new IllegalArgumentException("Bad sheet " + width + "x" + height + " / " + frames);
+        }
+        if (sheetCount == sheetW.length) {
+            int n = sheetCount * 2;
+            sheetW = Arrays.copyOf(sheetW, n);
+            sheetH = Arrays.copyOf(sheetH, n);
+            sheetFrames = Arrays.copyOf(sheetFrames, n);
+            sheetX = Arrays.copyOf(sheetX, n);
+            sheetY = Arrays.copyOf(sheetY, n);
+            firstFrame = Arrays.copyOf(firstFrame, n);
+        }
+        sheetW[sheetCount] = width;
+        sheetH[sheetCount] = height;
+        sheetFrames[sheetCount] = frames;
+        firstFrame[sheetCount] = frameCount;
+        frameCount += frames;
+        return sheetCount++;
+    }
+
+    // Полки: листы идут слева направо, не влезли по ширине - новая полка ниже
+    public void pack(int maxWidth) {
+        int shelfX = 0, shelfY = 0, shelfH = 0, usedW = 0;
+        for (int i = 0; i < sheetCount; i++) {
+            if (sheetW[i] > maxWidth) {
+                throw new IllegalArgumentException("Sheet " + i + " wider than atlas: " + sheetW[i]);
+            }
+            if (shelfX > 0 && shelfX + sheetW[i] > maxWidth) {
+                shelfY += shelfH + PADDING;
+                shelfX = 0;
+                shelfH = 0;
+            }
+            sheetX[i] = shelfX;
+            sheetY[i] = shelfY;
+            shelfX += sheetW[i] + PADDING;
+            shelfH = Math.max(shelfH, sheetH[i]);
+            usedW = Math.max(usedW, shelfX - PADDING);
+        }
+        width = Math.max(1, usedW);
+        height = Math.max(1, shelfY + shelfH);
+
+        frameRects = new int[frameCount * 4];
+        for (int s = 0; s < sheetCount; s++) {
+            int fw = sheetW[s] / sheetFrames[s];
+            for (int f = 0; f < sheetFrames[s]; f++) {
+                int o = (firstFrame[s] + f) * 4;
+                frameRects[o] = sheetX[s] + f * fw;
+                frameRects[o + 1] = sheetY[s];
+                frameRects[o + 2] = fw;
+                frameRects[o + 3] = sheetH[s];
+            }
+        }
+        packed = true;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getSheetCount() {
+        return sheetCount;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public int sheetX(int sheet) {
+        return sheetX[sheet];
+    }
+
+    public int sheetY(int sheet) {
+        return sheetY[sheet];
+    }
+
+    public int framesIn(int sheet) {
+        return sheetFrames[sheet];
+    }
+
+    // Глобальный индекс кадра (для таблицы прямоугольников)
+    public int frameIndex(int sheet, int frame) {
+        return firstFrame[sheet] + frame;
+    }
+
+    public int frameLeft(int globalFrame) {
+        return frameRects[globalFrame * 4];
+    }
+
+    public int frameTop(int globalFrame) {
+        return frameRects[globalFrame * 4 + 1];
+    }
+
+    public int frameWidth(int globalFrame) {
+        return frameRects[globalFrame * 4 + 2];
+    }
+
+    public int frameHeight(int globalFrame) {
+        return frameRects[globalFrame * 4 + 3];
+    }
+}
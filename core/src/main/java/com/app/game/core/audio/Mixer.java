@@ -0,0 +1,182 @@
+package com.app.game.core.audio;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Программный микшер: ограниченное число голосов поверх SoundBank, выход - стерео PCM 16 бит.
+// play() зовется с любого потока игры и только кладет команду в TriggerQueue; mix() зовет поток
+// звука: разбирает команды, запускает голоса и складывает их в выходной буфер.
+// Свободного голоса нет - отнимаем у самого неважного (меньше приоритет, потом старше по запуску),
+// если он не важнее нового; иначе новый звук теряется. Все массивы выделены в конструкторе
+public class Mixer {
+
+    public static final int CHANNELS = 2;
+    public static final int MAX_PRIORITY = 255;
+    // Сумма в int: сэмпл 16 бит * усиление до 2^9 * 64 голоса еще не переполняется
+    public static final int MAX_VOICES = 64;
+
+    // Усиление голоса - 8 бит дробной части, громкость и панорама в команде - 13 бит
+    private static final int GAIN_BITS = 8;
+    private static final int GAIN_ONE = 1 << GAIN_BITS;
+    private static final int SOUND_BITS = 16;
+    private static final int FIELD_BITS = 13;
+    private static final int FIELD_MASK = (1 << FIELD_BITS) - 1;
+    private static final int PRIORITY_BITS = 8;
+    // громкость до x2 - запас для тихих исходников
+    private static final float MAX_VOLUME = 2f;
+
+    private final SoundBank bank;
+    private final TriggerQueue queue;
+    private final int maxFrames;
+
+    // голоса (только поток звука), sound -1 - свободен
+    private final int[] voiceSound;
+    private final int[] voicePos;
+    private final int[] voiceGainL, voiceGainR;
+    private final int[] voicePriority;
+    private final long[] voiceStarted;
+    private long starts;
+    private final int[] accum;
+
+    // Счетчики для HUD и тестов. Первые три пишет только поток звука, rejected - любой поток с play()
+    private volatile long played, stolen, dropped;
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile int activeVoices;
+
+    public Mixer(SoundBank bank, int maxVoices, int maxFrames, int queueCapacity) {
+        if (maxVoices < 1 || maxVoices > MAX_VOICES) throw new IllegalArgumentException("voices " + maxVoices);
+        this.bank = bank;
+        this.queue = new TriggerQueue(queueCapacity);
+        this.maxFrames = maxFrames;
+        voiceSound = new int[maxVoices];
+        voicePos = new int[maxVoices];
+        voiceGainL = new int[maxVoices];
+        voiceGainR = new int[maxVoices];
+        voicePriority = new int[maxVoices];
+        voiceStarted = new long[maxVoices];
+        Arrays.fill(voiceSound, -1);
+        accum = new int[maxFrames * CHANNELS];
+    }
+
+    // Любой поток. volume 0..2, pan -1 (лево)..1 (право), priority 0..MAX_PRIORITY.
+    // false - очередь команд полна
+    public boolean play(int sound, float volume, float pan, int priority) {
+        if (sound < 0 || sound >= bank.size()) throw new IllegalArgumentException("sound " + sound);
+        int v = Math.round(Math.max(0f, Math.min(MAX_VOLUME, volume)) / MAX_VOLUME * FIELD_MASK);
+        int p = Math.round((Math.max(-1f, Math.min(1f, pan)) + 1f) * 0.5f * FIELD_MASK);
+        long command = sound
+                | (long) v << SOUND_BITS
+                | (long) p << (SOUND_BITS + FIELD_BITS)
+                | (long) Math.max(0, Math.min(MAX_PRIORITY, priority)) << (SOUND_BITS + 2 * FIELD_BITS);
+        if (queue.offer(command)) return true;
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    // Поток звука. Смешивает frames кадров (по CHANNELS сэмплов) в out, вернет число звучащих голосов
+    public int mix(short[] out, int frames) {
+        if (frames > maxFrames) throw new IllegalArgumentException("frames " + frames + " > " + maxFrames);
+        for (long c; (c = queue.poll()) != TriggerQueue.EMPTY; ) start(c);
+
+        int samples = frames * CHANNELS;
+        final int[] acc = accum;
+        for (int i = 0; i < samples; i++) acc[i] = 0;
+
+        final short[] pcm = bank.samples();
+        int active = 0;
+        for (int v = 0; v < voiceSound.length; v++) {
+            int sound = voiceSound[v];
+            if (sound < 0) continue;
+            int pos = voicePos[v];
+            int n = Math.min(frames, bank.length(sound) - pos);
+            int base = bank.offset(sound) + pos;
+            int gl = voiceGainL[v], gr = voiceGainR[v];
+            for (int i = 0, o = 0; i < n; i++, o += CHANNELS) {
+                int s = pcm[base + i];
+                acc[o] += s * gl;
+                acc[o + 1] += s * gr;
+            }
+            pos += n;
+            if (pos >= bank.length(sound)) {
+                voiceSound[v] = -1;
+            } else {
+                voicePos[v] = pos;
+                active++;
+            }
+        }
+
+        // жесткий клип: голосов много, но громкие совпадают редко
+        for (int i = 0; i < samples; i++) {
+            int s = acc[i] >> GAIN_BITS;
+            out[i] = (short) (s > Short.MAX_VALUE ? Short.MAX_VALUE : s < Short.MIN_VALUE ? Short.MIN_VALUE : s);
+        }
+        activeVoices = active;
+        return active;
+    }
+
+    private void start(long command) {
+        int sound = (int) command & ((1 << SOUND_BITS) - 1);
+        float volume = ((command >>> SOUND_BITS) & FIELD_MASK) / (float) FIELD_MASK * MAX_VOLUME;
+        float pan = ((command >>> (SOUND_BITS + FIELD_BITS)) & FIELD_MASK) / (float) FIELD_MASK;
+        int priority = (int) (command >>> (SOUND_BITS + 2 * FIELD_BITS)) & ((1 << PRIORITY_BITS) - 1);
+
+        int v = freeOrVictim(priority);
+        if (v < 0) {
+            dropped++;
+            return;
+        }
+        if (voiceSound[v] >= 0) stolen++;
+        // равная мощность: в центре оба канала на -3 дБ
+        double angle = pan * Math.PI * 0.5;
+        voiceSound[v] = sound;
+        voicePos[v] = 0;
+        voiceGainL[v] = (int) Math.round(Math.cos(angle) * volume * GAIN_ONE);
+        voiceGainR[v] = (int) Math.round(Math.sin(angle) * volume * GAIN_ONE);
+        voicePriority[v] = priority;
+        voiceStarted[v] = starts++;
+        played++;
+    }
+
+    private int freeOrVictim(int priority) {
+        int victim = -1;
+        for (int v = 0; v < voiceSound.length; v++) {
+            if (voiceSound[v] < 0) return v;
+            if (victim < 0 || voicePriority[v] < voicePriority[victim]
+                    || voicePriority[v] == voicePriority[victim] && voiceStarted[v] < voiceStarted[victim]) {
+                victim = v;
+            }
+        }
+        return victim >= 0 && voicePriority[victim] <= priority ? victim : -1;
+    }
+
+    public int getMaxVoices() {
+        return voiceSound.length;
+    }
+
+    public int getMaxFrames() {
+        return maxFrames;
+    }
+
+    public int getActiveVoices() {
+        return activeVoices;
+    }
+
+    // Запущено голосов, из них отнято у звучащих
+    public long getPlayed() {
+        return played;
+    }
+
+    public long getStolen() {
+        return stolen;
+    }
+
+    // Не нашлось голоса не важнее нового
+    public long getDropped() {
+        return dropped;
+    }
+
+    // Очередь команд была полна
+    public long getRejected() {
+        return rejected.get();
+    }
+}
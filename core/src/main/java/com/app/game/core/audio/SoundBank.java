@@ -0,0 +1,69 @@
+package com.app.game.core.audio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Все звуки игры уже разжатыми: моно PCM 16 бит на частоте микшера, подряд в одном массиве,
+// выделенном один раз. Загружается до старта звука (на потоке загрузки), потом только читается
+// микшером, так что синхронизации нет: add после запуска AudioOutput не звать
+public class SoundBank {
+
+    private final int sampleRate;
+    private final short[] pcm;
+    private int used;
+    private int count;
+    private int[] offsets = new int[16];
+    private int[] lengths = new int[16];
+
+    public SoundBank(int sampleRate, int capacitySamples) {
+        this.sampleRate = sampleRate;
+        this.pcm = new short[capacitySamples];
+    }
+
+    // Вернет id звука. Места в банке не хватило - IllegalStateException (размер банка - константа игры)
+    public int add(short[] samples, int offset, int length) {
+        if (used + length > pcm.length) {
+            throw new IllegalStateException("Sound bank full: " + (used + length) + " > " + pcm.length);
+        }
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+            lengths = Arrays.copyOf(lengths, count * 2);
+        }
+        System.arraycopy(samples, offset, pcm, used, length);
+        offsets[count] = used;
+        lengths[count] = length;
+        used += length;
+        return count++;
+    }
+
+    // WAV (PCM 16 бит, моно/стерео) - декод один раз, со сведением в моно и пересчетом частоты
+    public int addWav(ByteBuffer wav) throws IOException {
+        short[] samples = WavDecoder.decode(wav, sampleRate);
+        return add(samples, 0, samples.length);
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int offset(int sound) {
+        return offsets[sound];
+    }
+
+    public int length(int sound) {
+        return lengths[sound];
+    }
+
+    public short[] samples() {
+        return pcm;
+    }
+
+    public int usedSamples() {
+        return used;
+    }
+}
@@ -0,0 +1,13 @@
+package com.app.game.core.audio;
+
+import java.io.IOException;
+
+// Файл звука не WAV, не PCM 16 бит или обрезан
+public class SoundFormatException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SoundFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,41 @@
+package com.app.game.core.audio;
+
+// Звуки-заглушки, пока в ресурсах нет настоящих: считаются один раз при загрузке банка.
+// Шум с сидом - одинаковый на всех запусках
+public final class SoundSynth {
+
+    private SoundSynth() {
+    }
+
+    // Шорох шага: шум через простой ФНЧ с экспоненциальным затуханием
+    public static short[] noiseBurst(int sampleRate, int durationMs, float amplitude, long seed) {
+        short[] out = new short[sampleRate * durationMs / 1000];
+        long x = seed != 0 ? seed : 1;
+        float lp = 0f;
+        float decay = (float) Math.exp(-5.0 / out.length);
+        float env = amplitude;
+        for (int i = 0; i < out.length; i++) {
+            x ^= x << 13;
+            x ^= x >>> 7;
+            x ^= x << 17;
+            float white = (x >> 40) / (float) (1 << 23);
+            lp += (white - lp) * 0.3f;
+            out[i] = (short) (lp * env * Short.MAX_VALUE);
+            env *= decay;
+        }
+        return out;
+    }
+
+    // Удар: тон, который падает по частоте и затухает
+    public static short[] thump(int sampleRate, float startHz, float endHz, int durationMs, float amplitude) {
+        short[] out = new short[sampleRate * durationMs / 1000];
+        double phase = 0;
+        for (int i = 0; i < out.length; i++) {
+            float t = i / (float) out.length;
+            double hz = startHz + (endHz - startHz) * t;
+            phase += 2 * Math.PI * hz / sampleRate;
+            out[i] = (short) (Math.sin(phase) * amplitude * (1f - t) * (1f - t) * Short.MAX_VALUE);
+        }
+        return out;
+    }
+}
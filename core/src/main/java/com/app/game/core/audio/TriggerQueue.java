@@ -0,0 +1,65 @@
+package com.app.game.core.audio;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Команды "сыграть звук" от потоков игры к потоку звука: ограниченная очередь без локов,
+// много писателей (симуляция, UI) и один читатель (AudioOutput). Команда - один long >= 0.
+// У каждой ячейки свой номер: писатель занимает позицию CAS-ом и публикует ячейку номером
+// pos + 1, читатель освобождает ее номером pos + capacity. Ни offer, ни poll не аллоцируют
+public class TriggerQueue {
+
+    public static final long EMPTY = -1L;
+
+    private final int mask;
+    private final long[] commands;
+    private final AtomicLongArray sequence;
+    private final AtomicLong tail = new AtomicLong();
+    // только поток звука
+    private long head;
+
+    // capacity округляется вверх до степени двойки
+    public TriggerQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity));
+        if (size < capacity) size <<= 1;
+        mask = size - 1;
+        commands = new long[size];
+        sequence = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) sequence.set(i, i);
+    }
+
+    // false - очередь полна, команда не принята
+    public boolean offer(long command) {
+        if (command < 0) throw new IllegalArgumentException("command " + command);
+        while (true) {
+            long pos = tail.get();
+            int slot = (int) pos & mask;
+            long seq = sequence.get(slot);
+            if (seq == pos) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    commands[slot] = command;
+                    sequence.lazySet(slot, pos + 1);
+                    return true;
+                }
+            } else if (seq < pos) {
+                // читатель еще не освободил ячейку круга назад
+                return false;
+            }
+            // иначе позицию уже занял другой писатель - берем следующую
+        }
+    }
+
+    // EMPTY - команд нет. Только поток звука
+    public long poll() {
+        int slot = (int) head & mask;
+        if (sequence.get(slot) != head + 1) return EMPTY;
+        long command = commands[slot];
+        sequence.lazySet(slot, head + mask + 1);
+        head++;
+        return command;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
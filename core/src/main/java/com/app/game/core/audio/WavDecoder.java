@@ -0,0 +1,71 @@
+package com.app.game.core.audio;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// RIFF/WAVE с PCM 16 бит. Стерео сводится в моно, частота пересчитывается линейно под микшер.
+// Зовется при загрузке, не в кадре - тут можно аллоцировать
+public final class WavDecoder {
+
+    private static final int RIFF = 0x46464952; // "RIFF"
+    private static final int WAVE = 0x45564157; // "WAVE"
+    private static final int FMT = 0x20746d66;  // "fmt "
+    private static final int DATA = 0x61746164; // "data"
+    private static final int FORMAT_PCM = 1;
+
+    private WavDecoder() {
+    }
+
+    public static short[] decode(ByteBuffer wav, int targetRate) throws SoundFormatException {
+        ByteBuffer in = wav.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < 12 || in.getInt() != RIFF) throw new SoundFormatException("Not a RIFF file");
+        in.getInt();
+        if (in.getInt() != WAVE) throw new SoundFormatException("Not a WAVE file");
+
+        int channels = 0, rate = 0;
+        while (in.remaining() >= 8) {
+            int id = in.getInt();
+            int size = in.getInt();
+            if (size < 0 || size > in.remaining()) throw new SoundFormatException("Truncated chunk");
+            int next = in.position() + size + (size & 1);
+            if (id == FMT) {
+                if (size < 16) throw new SoundFormatException("Bad fmt chunk");
+                int format = in.getShort() & 0xffff;
+                channels = in.getShort() & 0xffff;
+                rate = in.getInt();
+                in.getInt();
+                in.getShort();
+                int bits = in.getShort() & 0xffff;
+                if (format != FORMAT_PCM || bits != 16 || channels < 1 || channels > 2 || rate <= 0) {
+                    throw new SoundFormatException("Unsupported format " + format + "/" + bits + " bit/" + channels + " ch");
+                }
+            } else if (id == DATA) {
+                if (channels == 0) throw new SoundFormatException("data before fmt");
+                short[] mono = new short[size / 2 / channels];
+                for (int i = 0; i < mono.length; i++) {
+                    int s = in.getShort();
+                    if (channels == 2) s = (s + in.getShort()) >> 1;
+                    mono[i] = (short) s;
+                }
+                return resample(mono, rate, targetRate);
+            }
+            in.position(Math.min(next, in.limit()));
+        }
+        throw new SoundFormatException("No data chunk");
+    }
+
+    static short[] resample(short[] src, int fromRate, int toRate) {
+        if (fromRate == toRate || src.length == 0) return src;
+        int n = (int) ((long) src.length * toRate / fromRate);
+        short[] out = new short[n];
+        double step = fromRate / (double) toRate;
+        for (int i = 0; i < n; i++) {
+            double p = i * step;
+            int a = (int) p;
+            int b = Math.min(a + 1, src.length - 1);
+            double f = p - a;
+            out[i] = (short) Math.round(src[a] + (src[b] - src[a]) * f);
+        }
+        return out;
+    }
+}
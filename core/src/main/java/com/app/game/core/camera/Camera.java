@@ -0,0 +1,165 @@
+package com.app.game.core.camera;
+
+// Камера мира: позиция (левый верхний угол видимого в мировых px), зум, мертвая зона и тряска.
+// Следование - half-life сглаживание: множитель на фиксированный шаг считается один раз
+// (StrictMath - одинаково на ART и JVM, реплеи сходятся), в тике только умножения.
+// Цель держится в точке anchor (доли вьюпорта), пока она внутри мертвой зоны - камера стоит.
+// Тряска - отдельное смещение поверх позиции, только для рисования: позиция, по которой живет
+// симуляция (хэш, стриминг уровня, queryVisible), от нее не зависит
+public final class Camera {
+
+    public static final float MIN_ZOOM = 0.5f;
+    public static final float MAX_ZOOM = 3f;
+    private static final float ZOOM_EPSILON = 1e-4f;
+
+    private final float halfLifeSec;
+    private float stepDt = -1f;
+    private float stepK;
+
+    private float x, y;
+    private float zoom = 1f, targetZoom = 1f;
+    private int viewWidth, viewHeight;
+    private float anchorX = 0.5f, anchorY = 0f;
+    // половина мертвой зоны в долях видимой области
+    private float deadZoneX, deadZoneY;
+
+    private float shakeAmplitude, shakeDuration, shakeLeft;
+    private float shakeX, shakeY;
+    private long shakeSeed = 0x2545F4914F6CDD1DL;
+
+    public Camera(float halfLifeSec) {
+        this.halfLifeSec = halfLifeSec;
+    }
+
+    // viewHeight = 0 - высота не известна, камера по y не двигается
+    public void setViewport(int width, int height) {
+        viewWidth = width;
+        viewHeight = height;
+    }
+
+    public int getViewWidth() {
+        return viewWidth;
+    }
+
+    public int getViewHeight() {
+        return viewHeight;
+    }
+
+    // Где на экране держать цель, доли вьюпорта (0.5, 0.5 - центр)
+    public void setAnchor(float fx, float fy) {
+        anchorX = fx;
+        anchorY = fy;
+    }
+
+    // Размер мертвой зоны в долях видимой области (0 - цель всегда в anchor)
+    public void setDeadZone(float fractionX, float fractionY) {
+        deadZoneX = fractionX * 0.5f;
+        deadZoneY = fractionY * 0.5f;
+    }
+
+    // Зум подъезжает с тем же сглаживанием, что и позиция
+    public void setZoom(float zoom) {
+        targetZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+    }
+
+    public void snapZoom(float zoom) {
+        setZoom(zoom);
+        this.zoom = targetZoom;
+    }
+
+    // Тряска amplitudePx мировых пикселей, затухает за durationSec. Более сильная перекрывает слабую
+    public void shake(float amplitudePx, float durationSec) {
+        float current = shakeDuration > 0f ? shakeAmplitude * shakeLeft / shakeDuration : 0f;
+        if (amplitudePx < current || durationSec <= 0f) return;
+        shakeAmplitude = amplitudePx;
+        shakeDuration = durationSec;
+        shakeLeft = durationSec;
+    }
+
+    public void setPosition(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    // Один фиксированный шаг за целью (мировые координаты)
+    public void follow(float targetX, float targetY, float dt) {
+        float k = smoothing(dt);
+        if (zoom != targetZoom) {
+            // доехали - ставим ровно, иначе zoom 1 навсегда остается 0.99999..
+            zoom = Math.abs(targetZoom - zoom) < ZOOM_EPSILON ? targetZoom : k * zoom + (1f - k) * targetZoom;
+        }
+
+        float visW = viewWidth / zoom;
+        float desiredX = deadZone(x + anchorX * visW, targetX, deadZoneX * visW) - anchorX * visW;
+        x = k * x + (1f - k) * desiredX;
+        if (viewHeight > 0) {
+            float visH = viewHeight / zoom;
+            float desiredY = deadZone(y + anchorY * visH, targetY, deadZoneY * visH) - anchorY * visH;
+            y = k * y + (1f - k) * desiredY;
+        }
+        updateShake(dt);
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    // Смещение тряски этого тика, рендер добавляет его к позиции
+    public float getShakeX() {
+        return shakeX;
+    }
+
+    public float getShakeY() {
+        return shakeY;
+    }
+
+    public float getZoom() {
+        return zoom;
+    }
+
+    // Видимая область без тряски
+    public ViewBounds visibleBounds(ViewBounds out) {
+        return out.set(x, y, zoom, viewWidth, viewHeight);
+    }
+
+    // Множитель half-life на шаг dt: пересчет только если шаг поменялся
+    float smoothing(float dt) {
+        if (dt != stepDt) {
+            stepK = (float) StrictMath.pow(0.5, dt / halfLifeSec);
+            stepDt = dt;
+        }
+        return stepK;
+    }
+
+    // Где должна стоять точка привязки, чтобы цель оказалась на краю мертвой зоны (или не двигаться)
+    private static float deadZone(float anchor, float target, float halfZone) {
+        if (target < anchor - halfZone) return target + halfZone;
+        if (target > anchor + halfZone) return target - halfZone;
+        return anchor;
+    }
+
+    private void updateShake(float dt) {
+        if (shakeLeft <= 0f) {
+            shakeX = 0f;
+            shakeY = 0f;
+            return;
+        }
+        shakeLeft = Math.max(0f, shakeLeft - dt);
+        float amp = shakeAmplitude * shakeLeft / shakeDuration;
+        shakeX = amp * nextSigned();
+        shakeY = amp * nextSigned();
+    }
+
+    private float nextSigned() {
+        long s = shakeSeed;
+        s ^= s << 13;
+        s ^= s >>> 7;
+        s ^= s << 17;
+        shakeSeed = s;
+        return (s >>> 40) * 0x1.0p-23f - 1f;
+    }
+}
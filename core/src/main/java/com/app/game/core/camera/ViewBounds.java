@@ -0,0 +1,58 @@
+package com.app.game.core.camera;
+
+// Видимая область мира на кадр: левый верхний угол, размер и зум. Рендер отсекает по ней
+// все до вызова отрисовки и считает, сколько нарисовал и сколько отсек.
+// Мировые координаты -> экран: (x - left) * zoom. Переиспользуется между кадрами
+public final class ViewBounds {
+
+    public float left, top, right, bottom;
+    public float zoom = 1f;
+
+    private int drawn, culled;
+
+    // viewHeight = 0 - высота не известна, по y не отсекаем
+    public ViewBounds set(float left, float top, float zoom, int viewWidth, int viewHeight) {
+        this.left = left;
+        this.top = top;
+        this.zoom = zoom;
+        right = left + viewWidth / zoom;
+        bottom = viewHeight > 0 ? top + viewHeight / zoom : Float.POSITIVE_INFINITY;
+        drawn = 0;
+        culled = 0;
+        return this;
+    }
+
+    public boolean intersects(float minX, float minY, float maxX, float maxY) {
+        return maxX >= left && minX <= right && maxY >= top && minY <= bottom;
+    }
+
+    // intersects + учет: true - рисуем
+    public boolean accept(float minX, float minY, float maxX, float maxY) {
+        if (intersects(minX, minY, maxX, maxY)) {
+            drawn++;
+            return true;
+        }
+        culled++;
+        return false;
+    }
+
+    public void countCulled(int n) {
+        culled += n;
+    }
+
+    public void countDrawn(int n) {
+        drawn += n;
+    }
+
+    public int getDrawn() {
+        return drawn;
+    }
+
+    public int getCulled() {
+        return culled;
+    }
+
+    public float width() {
+        return right - left;
+    }
+}
@@ -0,0 +1,161 @@
+package com.app.game.core.collision;
+
+import java.util.Arrays;
+
+// Широкая фаза столкновений для сайд-скроллера: равномерная сетка по оси x
+// (ширина ячейки ~ ширина тайла пола), ячейки хешируются в фиксированное число корзин,
+// так что мир может быть бесконечным. Число корзин подстраивается под число прокси (до maxBuckets),
+// перестройка каждый тик за O(n) сортировкой подсчетом.
+// Запрос возвращает пересекающиеся AABB без дублей и без аллокаций
+public class BroadPhase {
+
+    // Слои, чтобы удар меча не искал среди триггеров и наоборот
+    public static final int LAYER_ENTITY = 1;
+    public static final int LAYER_PROJECTILE = 1 << 1;
+    public static final int LAYER_TRIGGER = 1 << 2;
+    public static final int LAYER_ALL = -1;
+
+    private static final int MIN_BUCKETS = 16;
+
+    private final float invCellWidth;
+    private final int maxBuckets;
+    private int bucketMask;
+
+    // Прокси: AABB + id владельца + слой
+    private int count = 0;
+    private float[] minX, minY, maxX, maxY;
+    private int[] userId;
+    private int[] layer;
+    private int[] firstCell;
+
+    // Сетка: bucketStart[b]..bucketStart[b+1] - индексы прокси в items
+    private final int[] bucketStart;
+    private final int[] bucketFill;
+    private int[] items = new int[0];
+
+    public BroadPhase(float cellWidth, int maxBucketsPow2, int initialCapacity) {
+        if (Integer.bitCount(maxBucketsPow2) != 1) {
+            throw new IllegalArgumentException("Bucket count must be a power of two: " + maxBucketsPow2);
+        }
+        invCellWidth = 1f / cellWidth;
+        maxBuckets = maxBucketsPow2;
+        bucketMask = Math.min(MIN_BUCKETS, maxBuckets) - 1;
+        bucketStart = new int[maxBucketsPow2 + 1];
+        bucketFill = new int[maxBucketsPow2];
+
+        int cap = Math.max(1, initialCapacity);
+        minX = new float[cap];
+        minY = new float[cap];
+        maxX = new float[cap];
+        maxY = new float[cap];
+        userId = new int[cap];
+        layer = new int[cap];
+        firstCell = new int[cap];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public int add(int id, int layerBits, float x0, float y0, float x1, float y1) {
+        if (count == minX.length) grow(count * 2);
+        int p = count++;
+        minX[p] = x0;
+        minY[p] = y0;
+        maxX[p] = x1;
+        maxY[p] = y1;
+        userId[p] = id;
+        layer[p] = layerBits;
+        firstCell[p] = cellOf(x0);
+        return p;
+    }
+
+    // Раскладываем прокси по корзинам. Звать после всех add, до query
+    public void build() {
+        // ~2 корзины на прокси: мало сущностей - мало работы на очистку и префиксные суммы
+        int buckets = Math.min(maxBuckets, Math.max(MIN_BUCKETS, Integer.highestOneBit(Math.max(1, count)) << 2));
+        bucketMask = buckets - 1;
+        Arrays.fill(bucketStart, 0, buckets + 1, 0);
+
+        int total = 0;
+        for (int p = 0; p < count; p++) {
+            int span = cellOf(maxX[p]) - firstCell[p] + 1;
+            if (span >= buckets) {
+                for (int b = 0; b < buckets; b++) bucketStart[b + 1]++;
+                total += buckets;
+            } else {
+                for (int c = firstCell[p], end = firstCell[p] + span; c < end; c++) {
+                    bucketStart[(c & bucketMask) + 1]++;
+                }
+                total += span;
+            }
+        }
+        for (int b = 0; b < buckets; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+            bucketFill[b] = bucketStart[b];
+        }
+        if (items.length < total) items = new int[Math.max(total, items.length * 2)];
+
+        for (int p = 0; p < count; p++) {
+            int span = cellOf(maxX[p]) - firstCell[p] + 1;
+            if (span >= buckets) {
+                for (int b = 0; b < buckets; b++) items[bucketFill[b]++] = p;
+            } else {
+                for (int c = firstCell[p], end = firstCell[p] + span; c < end; c++) {
+                    items[bucketFill[c & bucketMask]++] = p;
+                }
+            }
+        }
+    }
+
+    // id всех прокси из слоев layerMask, чей AABB пересекает запрос. Пишет в out, возвращает
+    // сколько нашлось всего (может быть больше out.length - тогда хвост отброшен)
+    public int query(float x0, float y0, float x1, float y1, int layerMask, int[] out) {
+        int found = 0;
+        int q0 = cellOf(x0);
+        int q1 = cellOf(x1);
+        for (int c = q0; c <= q1; c++) {
+            int b = c & bucketMask;
+            for (int k = bucketStart[b], end = bucketStart[b + 1]; k < end; k++) {
+                int p = items[k];
+                if ((layer[p] & layerMask) == 0) continue;
+                if (maxX[p] < x0 || minX[p] > x1 || maxY[p] < y0 || minY[p] > y1) continue;
+                // прокси из нескольких ячеек отдаем только в первой общей с запросом
+                if (Math.max(firstCell[p], q0) != c) continue;
+                if (found < out.length) out[found] = userId[p];
+                found++;
+            }
+        }
+        return found;
+    }
+
+    // Для сравнения в бенчах и тестах: тот же запрос перебором
+    public int queryBruteForce(float x0, float y0, float x1, float y1, int layerMask, int[] out) {
+        int found = 0;
+        for (int p = 0; p < count; p++) {
+            if ((layer[p] & layerMask) == 0) continue;
+            if (maxX[p] < x0 || minX[p] > x1 || maxY[p] < y0 || minY[p] > y1) continue;
+            if (found < out.length) out[found] = userId[p];
+            found++;
+        }
+        return found;
+    }
+
+    private int cellOf(float x) {
+        return (int) Math.floor(x * invCellWidth);
+    }
+
+    private void grow(int cap) {
+        minX = Arrays.copyOf(minX, cap);
+        minY = Arrays.copyOf(minY, cap);
+        maxX = Arrays.copyOf(maxX, cap);
+        maxY = Arrays.copyOf(maxY, cap);
+        userId = Arrays.copyOf(userId, cap);
+        layer = Arrays.copyOf(layer, cap);
+        firstCell = Arrays.copyOf(firstCell, cap);
+    }
+}
@@ -0,0 +1,33 @@
+package com.app.game.core.concurrent;
+
+// Раскладка фазы тика по потокам: [0, count) режется на куски по chunkSize, каждый кусок
+// отдается задаче, возврат только когда все куски готовы (барьер между фазами).
+// Границы кусков зависят только от count и chunkSize, не от числа потоков - задача, которая
+// пишет только в свой кусок, дает одинаковый результат на 1 и на N потоках
+public interface JobScheduler {
+
+    interface RangeTask {
+        // chunk - номер куска (для буферов по кускам), [from, to) - индексы
+        void run(int chunk, int from, int to);
+    }
+
+    // Все куски по очереди на вызывающем потоке
+    JobScheduler SERIAL = new JobScheduler() {
+        @Override
+        public void parallelFor(int count, int chunkSize, RangeTask task) {
+            for (int c = 0, from = 0; from < count; c++, from += chunkSize) {
+                task.run(c, from, Math.min(count, from + chunkSize));
+            }
+        }
+
+        @Override
+        public int threads() {
+            return 1;
+        }
+    };
+
+    void parallelFor(int count, int chunkSize, RangeTask task);
+
+    // Сколько потоков считают куски, включая вызывающий
+    int threads();
+}
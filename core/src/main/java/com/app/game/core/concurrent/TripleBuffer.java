@@ -0,0 +1,44 @@
+package com.app.game.core.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Тройной буфер без локов: один писатель, один читатель.
+// Писатель всегда пишет в свой слот и обменивает его со средним, читатель забирает средний,
+// если там появилось новое. Никто никого не ждет, объекты слотов переиспользуются
+public final class TripleBuffer<T> {
+
+    private static final int INDEX_MASK = 0b11;
+    private static final int DIRTY = 0b100;
+
+    private final Object[] slots;
+    // индекс среднего слота + флаг "есть свежие данные"
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int writeIndex = 0;
+    private int readIndex = 2;
+
+    public TripleBuffer(T a, T b, T c) {
+        slots = new Object[]{a, b, c};
+    }
+
+    // Слот писателя: заполняем и зовем publish()
+    @SuppressWarnings("unchecked")
+    public T writeSlot() {
+        return (T) slots[writeIndex];
+    }
+
+    public void publish() {
+        writeIndex = middle.getAndSet(writeIndex | DIRTY) & INDEX_MASK;
+    }
+
+    // Забрать свежий слот, если писатель что-то опубликовал. false - читаем прежний
+    public boolean acquire() {
+        if ((middle.get() & DIRTY) == 0) return false;
+        readIndex = middle.getAndSet(readIndex) & INDEX_MASK;
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T readSlot() {
+        return (T) slots[readIndex];
+    }
+}
@@ -0,0 +1,139 @@
+package com.app.game.core.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Постоянный пул потоков для фаз тика. Вызывающий поток тоже берет куски, так что threads = 1
+// это просто последовательный проход. Куски разбираются через общий курсор, в старших битах
+// которого номер задачи: отставший поток с прошлой фазы не может схватить кусок следующей.
+// На фазу без аллокаций, ожидание - короткий спин и park
+public final class WorkerPool implements JobScheduler, AutoCloseable {
+
+    private static final int SPINS = 256;
+
+    private final Thread[] workers;
+
+    // [generation:32][следующий кусок:32]
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicInteger remaining = new AtomicInteger();
+    private volatile int generation;
+    private volatile boolean running = true;
+
+    // Текущая задача, меняется только когда remaining == 0
+    private RangeTask task;
+    private int count, chunkSize, chunks;
+    private volatile Thread caller;
+    private volatile Throwable failure;
+
+    public WorkerPool(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("threads < 1: " + threads);
+        workers = new Thread[threads - 1];
+        for (int i = 0; i < workers.length; i++) {
+            Thread t = new Thread(this::workerLoop, "JobWorker-" + (i + 1));
+            t.setDaemon(true);
+            workers[i] = t;
+            t.start();
+        }
+    }
+
+    // Потоков по ядрам, но не больше max (на телефоне часть ядер - маленькие)
+    public static int defaultThreads(int max) {
+        return Math.max(1, Math.min(max, Runtime.getRuntime().availableProcessors()));
+    }
+
+    @Override
+    public int threads() {
+        return workers.length + 1;
+    }
+
+    // Звать с одного потока (потока симуляции)
+    @Override
+    public void parallelFor(int count, int chunkSize, RangeTask task) {
+        int chunks = (count + chunkSize - 1) / chunkSize;
+        if (chunks <= 1 || workers.length == 0 || !running) {
+            SERIAL.parallelFor(count, chunkSize, task);
+            return;
+        }
+        this.task = task;
+        this.count = count;
+        this.chunkSize = chunkSize;
+        this.chunks = chunks;
+        this.caller = Thread.currentThread();
+        remaining.set(chunks);
+        int gen = generation + 1;
+        // поля выше публикуются записью курсора и generation
+        cursor.set((long) gen << 32);
+        generation = gen;
+        for (Thread w : workers) LockSupport.unpark(w);
+
+        runChunks(gen);
+
+        int spins = 0;
+        while (remaining.get() > 0) {
+            if (++spins < SPINS) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, 50_000L);
+            }
+        }
+        this.task = null;
+        Throwable t = failure;
+        if (t != null) {
+            failure = null;
+            if (t instanceof RuntimeException) throw (RuntimeException) t;
+            if (t instanceof Error) throw (Error) t;
+            throw new IllegalStateException(t);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        for (Thread w : workers) LockSupport.unpark(w);
+        for (Thread w : workers) {
+            try {
+                w.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void workerLoop() {
+        int seen = 0;
+        int spins = 0;
+        while (running) {
+            int gen = generation;
+            if (gen == seen) {
+                if (++spins < SPINS) {
+                    Thread.yield();
+                } else {
+                    LockSupport.park(this);
+                }
+                continue;
+            }
+            seen = gen;
+            spins = 0;
+            runChunks(gen);
+        }
+    }
+
+    private void runChunks(int gen) {
+        while (true) {
+            long v = cursor.get();
+            int c = (int) v;
+            if ((int) (v >>> 32) != gen || c >= chunks) return;
+            if (!cursor.compareAndSet(v, v + 1)) continue;
+            // кусок наш: задача не сменится, пока мы не уменьшим remaining
+            int from = c * chunkSize;
+            try {
+                task.run(c, from, Math.min(count, from + chunkSize));
+            } catch (Throwable t) {
+                if (failure == null) failure = t;
+            }
+            if (remaining.decrementAndGet() == 0) LockSupport.unpark(caller);
+        }
+    }
+}
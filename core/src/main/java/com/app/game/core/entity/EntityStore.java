@@ -0,0 +1,278 @@
+package com.app.game.core.entity;
+
+import com.app.game.core.anim.AnimationClip;
+import com.app.game.core.anim.AnimationLibrary;
+import com.app.game.core.anim.AnimationListener;
+import com.app.game.core.anim.AnimationSet;
+
+import java.util.Arrays;
+
+// Хранилище сущностей (игрок, монстры, снаряды) в виде параллельных примитивных массивов.
+// Живые сущности всегда лежат плотно в [0, size), удаление - перенос последней на место удаленной.
+// Снаружи сущность адресуется id = поколение + слот, так что протухший id после удаления не сработает
+public class EntityStore {
+
+    public static final int NONE = -1;
+
+    // id: младшие 20 бит - слот, старшие - поколение слота
+    private static final int SLOT_BITS = 20;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << (31 - SLOT_BITS)) - 1;
+    public static final int MAX_ENTITIES = 1 << SLOT_BITS;
+
+    // Клипы общие для всех сущностей, у сущности только id клипа и время в нем
+    private AnimationLibrary animations = AnimationLibrary.standard();
+    private AnimationListener animationListener;
+
+    // Плотные массивы, индекс = dense
+    public float[] x, y;
+    public float[] vx, vy;
+    public float[] speed;
+    public int[] dir;       // -1 влево, 1 вправо, 0 стоим
+    public int[] lastDir;   // куда смотрим, если стоим
+    public int[] clip;
+    public float[] clipTime;
+    public int[] hp;
+    public int[] sprite;
+    public float[] halfW, halfH; // хитбокс вокруг (x, y)
+    private int[] denseToSlot;
+
+    // Разреженная часть, индекс = слот
+    private int[] slotToDense;
+    private int[] generation;
+    private int[] freeSlots;
+    private int freeCount = 0;
+    private int slotCount = 0;
+
+    private int size = 0;
+
+    public EntityStore(int initialCapacity) {
+        int cap = Math.max(1, initialCapacity);
+        x = new float[cap];
+        y = new float[cap];
+        vx = new float[cap];
+        vy = new float[cap];
+        speed = new float[cap];
+        dir = new int[cap];
+        lastDir = new int[cap];
+        clip = new int[cap];
+        clipTime = new float[cap];
+        hp = new int[cap];
+        sprite = new int[cap];
+        halfW = new float[cap];
+        halfH = new float[cap];
+        denseToSlot = new int[cap];
+        slotToDense = new int[cap];
+        generation = new int[cap];
+        freeSlots = new int[cap];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return x.length;
+    }
+
+    // Новая сущность смотрит вправо и стоит. Растим массивы только здесь, не в update
+    public int create(float px, float py, float speedPxPerSec, int hitPoints, int spriteId) {
+        if (size == x.length) grow(size * 2);
+
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == MAX_ENTITIES) throw new IllegalStateException("Too many entities");
+            slot = slotCount++;
+        }
+
+        int i = size++;
+        x[i] = px;
+        y[i] = py;
+        vx[i] = 0f;
+        vy[i] = 0f;
+        speed[i] = speedPxPerSec;
+        dir[i] = 0;
+        lastDir[i] = 1;
+        hp[i] = hitPoints;
+        sprite[i] = spriteId;
+        clip[i] = animations.set(spriteId).clip(AnimationSet.IDLE);
+        clipTime[i] = 0f;
+        halfW[i] = 0f;
+        halfH[i] = 0f;
+        denseToSlot[i] = slot;
+        slotToDense[slot] = i;
+        return (generation[slot] << SLOT_BITS) | slot;
+    }
+
+    public boolean isAlive(int id) {
+        return indexOf(id) != NONE;
+    }
+
+    // Плотный индекс живой сущности или NONE. Индекс меняется после destroy других сущностей
+    public int indexOf(int id) {
+        if (id < 0) return NONE;
+        int slot = id & SLOT_MASK;
+        if (slot >= slotCount || generation[slot] != (id >>> SLOT_BITS)) return NONE;
+        return slotToDense[slot];
+    }
+
+    public int idAt(int index) {
+        int slot = denseToSlot[index];
+        return (generation[slot] << SLOT_BITS) | slot;
+    }
+
+    public boolean destroy(int id) {
+        int i = indexOf(id);
+        if (i == NONE) return false;
+        int slot = id & SLOT_MASK;
+
+        int last = --size;
+        if (i != last) {
+            x[i] = x[last];
+            y[i] = y[last];
+            vx[i] = vx[last];
+            vy[i] = vy[last];
+            speed[i] = speed[last];
+            dir[i] = dir[last];
+            lastDir[i] = lastDir[last];
+            clip[i] = clip[last];
+            clipTime[i] = clipTime[last];
+            hp[i] = hp[last];
+            sprite[i] = sprite[last];
+            halfW[i] = halfW[last];
+            halfH[i] = halfH[last];
+            int movedSlot = denseToSlot[last];
+            denseToSlot[i] = movedSlot;
+            slotToDense[movedSlot] = i;
+        }
+
+        generation[slot] = (generation[slot] + 1) & GENERATION_MASK;
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    // Направление задает и скорость по x, и idle/run. Атаку, урон и смерть движение не прерывает
+    public void setDirection(int index, int dirX) {
+        dir[index] = dirX;
+        vx[index] = dirX * speed[index];
+        if (dirX != 0) lastDir[index] = dirX;
+        if (animations.clip(clip[index]).loops()) {
+            AnimationSet set = animations.set(sprite[index]);
+            int want = dirX != 0 ? set.clip(AnimationSet.RUN) : set.clip(AnimationSet.IDLE);
+            if (want != clip[index]) {
+                clip[index] = want;
+                clipTime[index] = 0f;
+            }
+        }
+    }
+
+    // Запустить клип состояния (AnimationSet.ATTACK, HURT, DEATH...) с начала
+    public void play(int index, int state) {
+        AnimationClip c = animations.clip(clip[index] = animations.set(sprite[index]).clip(state));
+        clipTime[index] = 0f;
+        if (animationListener != null && c.eventAt(0) != AnimationClip.NO_EVENT) {
+            animationListener.onAnimationEvent(index, c.eventAt(0));
+        }
+    }
+
+    public int frameAt(int index) {
+        return animations.clip(clip[index]).frameAt(clipTime[index]);
+    }
+
+    // Номер листа в библиотеке анимаций, какой это лист атласа - решает рендер
+    public int sheetAt(int index) {
+        return animations.clip(clip[index]).sheet;
+    }
+
+    public AnimationLibrary getAnimations() {
+        return animations;
+    }
+
+    // Другая библиотека: id клипов из старой не годятся, все сущности встают в idle
+    public void setAnimations(AnimationLibrary library) {
+        animations = library;
+        for (int i = 0; i < size; i++) {
+            clip[i] = library.set(sprite[i]).clip(dir[i] != 0 ? AnimationSet.RUN : AnimationSet.IDLE);
+            clipTime[i] = 0f;
+        }
+    }
+
+    public void setAnimationListener(AnimationListener listener) {
+        animationListener = listener;
+    }
+
+    public AnimationListener getAnimationListener() {
+        return animationListener;
+    }
+
+    public void setHitbox(int index, float halfWidth, float halfHeight) {
+        halfW[index] = halfWidth;
+        halfH[index] = halfHeight;
+    }
+
+    // Один проход по плотным массивам: движение и время клипов. Кадр по времени - таблица клипа,
+    // цикла по кадрам нет. Без аллокаций
+    public void update(float dt) {
+        updateRange(0, size, dt, animationListener);
+    }
+
+    // То же для куска [from, to). Каждая сущность трогает только свои ячейки, так что
+    // непересекающиеся куски можно считать на разных потоках; listener зовется на потоке куска
+    public void updateRange(int from, int to, float dt, AnimationListener listener) {
+        final float[] x = this.x, y = this.y, vx = this.vx, vy = this.vy, clipTime = this.clipTime;
+        final int[] dir = this.dir, clip = this.clip, sprite = this.sprite;
+        final AnimationLibrary lib = animations;
+        for (int i = from; i < to; i++) {
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+
+            AnimationClip c = lib.clip(clip[i]);
+            float before = clipTime[i];
+            float t = before + dt;
+            if (t >= c.duration) {
+                if (c.mode == AnimationClip.LOOP) {
+                    t %= c.duration;
+                } else if (c.mode == AnimationClip.HOLD) {
+                    t = c.duration;
+                } else {
+                    // атака/урон доиграли - обратно в idle/run, остаток тика уже в новом клипе
+                    t -= c.duration;
+                    AnimationSet set = lib.set(sprite[i]);
+                    clip[i] = set.clip(dir[i] != 0 ? AnimationSet.RUN : AnimationSet.IDLE);
+                    c = lib.clip(clip[i]);
+                    before = -1f;
+                }
+            }
+            clipTime[i] = t;
+
+            if (listener != null) {
+                int frame = c.frameAt(t);
+                if ((before < 0f || frame != c.frameAt(before)) && c.eventAt(frame) != AnimationClip.NO_EVENT) {
+                    listener.onAnimationEvent(i, c.eventAt(frame));
+                }
+            }
+        }
+    }
+
+    private void grow(int cap) {
+        x = Arrays.copyOf(x, cap);
+        y = Arrays.copyOf(y, cap);
+        vx = Arrays.copyOf(vx, cap);
+        vy = Arrays.copyOf(vy, cap);
+        speed = Arrays.copyOf(speed, cap);
+        dir = Arrays.copyOf(dir, cap);
+        lastDir = Arrays.copyOf(lastDir, cap);
+        clip = Arrays.copyOf(clip, cap);
+        clipTime = Arrays.copyOf(clipTime, cap);
+        hp = Arrays.copyOf(hp, cap);
+        sprite = Arrays.copyOf(sprite, cap);
+        halfW = Arrays.copyOf(halfW, cap);
+        halfH = Arrays.copyOf(halfH, cap);
+        denseToSlot = Arrays.copyOf(denseToSlot, cap);
+        slotToDense = Arrays.copyOf(slotToDense, cap);
+        generation = Arrays.copyOf(generation, cap);
+        freeSlots = Arrays.copyOf(freeSlots, cap);
+    }
+}
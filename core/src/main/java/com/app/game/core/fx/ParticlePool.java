@@ -0,0 +1,204 @@
+package com.app.game.core.fx;
+
+import java.util.Arrays;
+
+// Частицы и снаряды (искры удара, пыль из-под ног, стрелы) в плотных массивах фиксированной емкости.
+// Пул не растет: когда полон, новые частицы просто не рождаются. Умершая частица - swap-remove,
+// живые всегда в [0, size). Эмиттеры - тоже фиксированные слоты. После регистрации стилей
+// и эмиттеров update/emit ничего не аллоцируют. Случайность своя (xorshift от сида) -
+// одинаковый сид дает одинаковые частицы
+public final class ParticlePool {
+
+    // Проверка снаряда на попадание (обычно запрос в широкую фазу мира)
+    public interface Collider {
+        boolean hits(int style, float x, float y);
+    }
+
+    private static final float DEG_TO_RAD = (float) (Math.PI / 180.0);
+
+    private final int capacity;
+    private int size;
+
+    // Позиции и скорости - в координатах мира
+    public final float[] x, y, vx, vy;
+    public final float[] age;
+    public final int[] style;
+
+    private ParticleStyle[] styles = new ParticleStyle[0];
+    private Collider collider;
+    private long seed;
+
+    // Эмиттеры: непрерывный поток стиля с частотой rate частиц в секунду
+    private int emitterCount;
+    private final int[] emitterStyle;
+    private final float[] emitterRate, emitterX, emitterY, emitterDebt;
+    private final boolean[] emitterActive;
+
+    // сколько не родилось из-за полного пула (для HUD/тюнинга емкости)
+    private long dropped;
+
+    public ParticlePool(int capacity, int maxEmitters, long seed) {
+        this.capacity = capacity;
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        age = new float[capacity];
+        style = new int[capacity];
+        emitterStyle = new int[maxEmitters];
+        emitterRate = new float[maxEmitters];
+        emitterX = new float[maxEmitters];
+        emitterY = new float[maxEmitters];
+        emitterDebt = new float[maxEmitters];
+        emitterActive = new boolean[maxEmitters];
+        this.seed = seed != 0 ? seed : 1;
+    }
+
+    // Возвращает номер стиля для emit/addEmitter
+    public int addStyle(ParticleStyle s) {
+        if (s.impactStyle != ParticleStyle.NO_STYLE && s.impactStyle >= styles.length) {
+            throw new IllegalArgumentException("Impact style " + s.impactStyle + " is not registered");
+        }
+        styles = Arrays.copyOf(styles, styles.length + 1);
+        styles[styles.length - 1] = s;
+        return styles.length - 1;
+    }
+
+    public ParticleStyle style(int id) {
+        return styles[id];
+    }
+
+    // Эмиттер создается выключенным, двигать и включать - moveEmitter
+    public int addEmitter(int styleId, float ratePerSec) {
+        if (emitterCount == emitterStyle.length) {
+            throw new IllegalStateException("Too many emitters: " + emitterCount);
+        }
+        int e = emitterCount++;
+        emitterStyle[e] = styleId;
+        emitterRate[e] = ratePerSec;
+        return e;
+    }
+
+    public void moveEmitter(int emitter, float ex, float ey, boolean active) {
+        emitterX[emitter] = ex;
+        emitterY[emitter] = ey;
+        // выключенный не копит долг, иначе при включении выплюнет пачку
+        if (!active) emitterDebt[emitter] = 0f;
+        emitterActive[emitter] = active;
+    }
+
+    public void setCollider(Collider collider) {
+        this.collider = collider;
+    }
+
+    // Выпустить count частиц из точки. dirX < 0 зеркалит угол вылета (смотрим влево).
+    // Возвращает, сколько реально родилось
+    public int emit(int styleId, float ex, float ey, int count, int dirX) {
+        ParticleStyle s = styles[styleId];
+        int n = Math.min(count, capacity - size);
+        dropped += count - n;
+        for (int k = 0; k < n; k++) {
+            int i = size++;
+            float a = (s.angle + s.spread * (nextFloat() * 2f - 1f)) * DEG_TO_RAD;
+            float speed = s.speedMin + (s.speedMax - s.speedMin) * nextFloat();
+            // StrictMath: те же частицы на ART и JVM
+            float cos = (float) StrictMath.cos(a);
+            x[i] = ex;
+            y[i] = ey;
+            vx[i] = (dirX < 0 ? -cos : cos) * speed;
+            // экранная Y растет вниз, угол 90 - вверх
+            vy[i] = -(float) StrictMath.sin(a) * speed;
+            age[i] = 0f;
+            style[i] = styleId;
+        }
+        return n;
+    }
+
+    // Один проход по эмиттерам и один по частицам
+    public void update(float dt) {
+        for (int e = 0; e < emitterCount; e++) {
+            if (!emitterActive[e]) continue;
+            float debt = emitterDebt[e] + emitterRate[e] * dt;
+            int n = (int) debt;
+            emitterDebt[e] = debt - n;
+            if (n > 0) emit(emitterStyle[e], emitterX[e], emitterY[e], n, 1);
+        }
+
+        final float[] x = this.x, y = this.y, vx = this.vx, vy = this.vy, age = this.age;
+        final int[] style = this.style;
+        final ParticleStyle[] styles = this.styles;
+        final Collider collider = this.collider;
+        int i = 0;
+        while (i < size) {
+            ParticleStyle s = styles[style[i]];
+            float a = age[i] + dt;
+            if (a >= s.life) {
+                removeAt(i);
+                continue;
+            }
+            age[i] = a;
+            float keep = 1f - s.drag * dt;
+            vx[i] *= keep;
+            vy[i] = vy[i] * keep + s.gravity * dt;
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+            if ((s.flags & ParticleStyle.COLLIDES) != 0 && collider != null && collider.hits(style[i], x[i], y[i])) {
+                float hx = x[i], hy = y[i];
+                int dir = vx[i] < 0f ? -1 : 1;
+                removeAt(i);
+                // искры попадания рождаются в конце и в этом тике уже не двигаются
+                if (s.impactStyle != ParticleStyle.NO_STYLE) emit(s.impactStyle, hx, hy, s.impactCount, -dir);
+                continue;
+            }
+            i++;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public void clear() {
+        size = 0;
+        for (int e = 0; e < emitterCount; e++) emitterDebt[e] = 0f;
+    }
+
+    // Размер частицы на экране по возрасту
+    public float sizeAt(int i) {
+        ParticleStyle s = styles[style[i]];
+        return s.sizeStart + (s.sizeEnd - s.sizeStart) * (age[i] / s.life);
+    }
+
+    public int frameAt(int i) {
+        return styles[style[i]].frame;
+    }
+
+    private void removeAt(int i) {
+        int last = --size;
+        if (i != last) {
+            x[i] = x[last];
+            y[i] = y[last];
+            vx[i] = vx[last];
+            vy[i] = vy[last];
+            age[i] = age[last];
+            style[i] = style[last];
+        }
+    }
+
+    private float nextFloat() {
+        long s = seed;
+        s ^= s << 13;
+        s ^= s >>> 7;
+        s ^= s << 17;
+        seed = s;
+        return (s >>> 40) * 0x1.0p-24f;
+    }
+}
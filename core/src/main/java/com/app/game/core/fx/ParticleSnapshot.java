@@ -0,0 +1,74 @@
+package com.app.game.core.fx;
+
+import com.app.game.core.camera.ViewBounds;
+import com.app.game.core.render.Renderer;
+
+import java.util.Arrays;
+
+// Копия живых частиц для рендера (RenderState): пул меняется на потоке симуляции,
+// рисуем из копии. Массивы растут до емкости пула один раз, дальше копирование без аллокаций
+public final class ParticleSnapshot {
+
+    public int count;
+    public float[] x = new float[0], y = new float[0], vx = new float[0], vy = new float[0];
+    public float[] size = new float[0];
+    public int[] frame = new int[0];
+
+    public void capture(ParticlePool pool) {
+        int n = pool.size();
+        ensureCapacity(pool.capacity());
+        System.arraycopy(pool.x, 0, x, 0, n);
+        System.arraycopy(pool.y, 0, y, 0, n);
+        System.arraycopy(pool.vx, 0, vx, 0, n);
+        System.arraycopy(pool.vy, 0, vy, 0, n);
+        for (int i = 0; i < n; i++) {
+            size[i] = pool.sizeAt(i);
+            frame[i] = pool.frameAt(i);
+        }
+        count = n;
+    }
+
+    public void copyFrom(ParticleSnapshot o) {
+        int n = o.count;
+        ensureCapacity(o.x.length);
+        System.arraycopy(o.x, 0, x, 0, n);
+        System.arraycopy(o.y, 0, y, 0, n);
+        System.arraycopy(o.vx, 0, vx, 0, n);
+        System.arraycopy(o.vy, 0, vy, 0, n);
+        System.arraycopy(o.size, 0, size, 0, n);
+        System.arraycopy(o.frame, 0, frame, 0, n);
+        count = n;
+    }
+
+    // Все частицы одной текстурой атласа - батчинг рисует их одной пачкой.
+    // frameRects: [left, top, right, bottom] на кадр листа частиц в атласе.
+    // alpha - доля между тиками: позиция откатывается назад по скорости, prev-массивы не нужны.
+    // Что не пересекает view, отсекается (и считается в view)
+    public int draw(Renderer r, int texture, int[] frameRects, float alpha, float tickSec, ViewBounds view) {
+        float back = (1f - alpha) * tickSec;
+        int drawn = 0;
+        for (int i = 0; i < count; i++) {
+            float half = size[i] * 0.5f;
+            float px = x[i] - vx[i] * back;
+            float py = y[i] - vy[i] * back;
+            if (!view.accept(px - half, py - half, px + half, py + half)) continue;
+            px -= view.left;
+            py -= view.top;
+            int o = frame[i] * 4;
+            r.drawImage(texture, frameRects[o], frameRects[o + 1], frameRects[o + 2], frameRects[o + 3],
+                    px - half, py - half, px + half, py + half, false);
+            drawn++;
+        }
+        return drawn;
+    }
+
+    private void ensureCapacity(int n) {
+        if (x.length >= n) return;
+        x = Arrays.copyOf(x, n);
+        y = Arrays.copyOf(y, n);
+        vx = Arrays.copyOf(vx, n);
+        vy = Arrays.copyOf(vy, n);
+        size = Arrays.copyOf(size, n);
+        frame = Arrays.copyOf(frame, n);
+    }
+}
@@ -0,0 +1,57 @@
+package com.app.game.core.fx;
+
+// Вид частицы/снаряда: как вылетает, сколько живет, как падает и чем рисуется.
+// Неизменяемый, регистрируется в ParticlePool один раз, частица хранит только его номер
+public final class ParticleStyle {
+
+    // Снаряд: каждый тик проверяется коллайдером пула, при попадании гибнет и дает impactStyle
+    public static final int COLLIDES = 1;
+
+    public static final int NO_STYLE = -1;
+
+    // секунды
+    public final float life;
+    // пикс/сек, берется случайно из [speedMin, speedMax]
+    public final float speedMin, speedMax;
+    // направление вылета в градусах (0 - вправо, 90 - вверх по экрану) и разброс +-spread
+    public final float angle, spread;
+    // пикс/сек^2 вниз по экрану
+    public final float gravity;
+    // доля скорости, теряемая за секунду
+    public final float drag;
+    // размер на экране в начале и в конце жизни, между ними линейно
+    public final float sizeStart, sizeEnd;
+    // кадр в листе частиц (что за лист - знает рендер)
+    public final int frame;
+    public final int flags;
+    // что рождается при попадании снаряда и сколько штук
+    public final int impactStyle;
+    public final int impactCount;
+
+    public ParticleStyle(float life, float speedMin, float speedMax, float angle, float spread,
+                         float gravity, float drag, float sizeStart, float sizeEnd, int frame) {
+        this(life, speedMin, speedMax, angle, spread, gravity, drag, sizeStart, sizeEnd, frame, 0, NO_STYLE, 0);
+    }
+
+    public ParticleStyle(float life, float speedMin, float speedMax, float angle, float spread,
+                         float gravity, float drag, float sizeStart, float sizeEnd, int frame,
+                         int flags, int impactStyle, int impactCount) {
+        if (life <= 0f || speedMax < speedMin || frame < 0) {
+            throw new IllegalArgumentException("Bad particle style: life " + life + ", speed "
+                    + speedMin + ".." + speedMax + ", frame " + frame);
+        }
+        this.life = life;
+        this.speedMin = speedMin;
+        this.speedMax = speedMax;
+        this.angle = angle;
+        this.spread = spread;
+        this.gravity = gravity;
+        this.drag = drag;
+        this.sizeStart = sizeStart;
+        this.sizeEnd = sizeEnd;
+        this.frame = frame;
+        this.flags = flags;
+        this.impactStyle = impactStyle;
+        this.impactCount = impactCount;
+    }
+}
@@ -0,0 +1,41 @@
+package com.app.game.core.fx;
+
+import com.app.game.core.PlayerState;
+import com.app.game.core.World;
+
+// Эффекты игрока на тике мира: пыль из-под ног, пока бежит, и на каждое нажатие атаки - искры
+// у края хитбокса со стороны взгляда плюс тряска камеры. Удары пока ни во что не попадают.
+// Идет хуком World, поэтому работает на том потоке, что тикает мир, и повторяется в реплее
+public final class PlayerEffects implements World.TickHook {
+
+    private final int dustEmitter;
+    private final int sparkStyle;
+    private final int sparksPerAttack;
+    private final float sparkOffsetPx;
+    private final float shakePx, shakeSec;
+
+    // Стили уже в пуле мира. Эмиттер пыли заводится тут
+    public PlayerEffects(ParticlePool fx, int dustStyle, float dustPerSec,
+                         int sparkStyle, int sparksPerAttack, float sparkOffsetPx,
+                         float shakePx, float shakeSec) {
+        this.dustEmitter = fx.addEmitter(dustStyle, dustPerSec);
+        this.sparkStyle = sparkStyle;
+        this.sparksPerAttack = sparksPerAttack;
+        this.sparkOffsetPx = sparkOffsetPx;
+        this.shakePx = shakePx;
+        this.shakeSec = shakeSec;
+    }
+
+    @Override
+    public void onTick(World world, float dt) {
+        PlayerState p = world.getPlayer();
+        ParticlePool fx = world.getParticles();
+        fx.moveEmitter(dustEmitter, p.getX(), world.getGroundSurfaceY(), p.getDirection() != 0);
+        int presses = world.getAttackPresses();
+        if (presses > 0) {
+            int dir = p.getLastDirection();
+            fx.emit(sparkStyle, p.getX() + dir * sparkOffsetPx, p.getY(), sparksPerAttack * presses, dir);
+            world.getCamera().shake(shakePx, shakeSec);
+        }
+    }
+}
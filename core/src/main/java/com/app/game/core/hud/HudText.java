@@ -0,0 +1,101 @@
+package com.app.game.core.hud;
+
+// Текст HUD на заранее выделенных char[]: строки собираются каждый кадр без аллокаций,
+// рисуются через Canvas.drawText(char[], ...). Числа форматируем руками, без String.valueOf
+public class HudText {
+
+    private final char[][] lines;
+    private final int[] lengths;
+    private int lineCount = 0;
+    private int current = -1;
+
+    public HudText(int maxLines, int maxCharsPerLine) {
+        lines = new char[maxLines][maxCharsPerLine];
+        lengths = new int[maxLines];
+    }
+
+    public HudText clear() {
+        for (int i = 0; i < lineCount; i++) lengths[i] = 0;
+        lineCount = 0;
+        current = -1;
+        return this;
+    }
+
+    // Начать новую строку. Лишние строки молча отбрасываются
+    public HudText line() {
+        if (lineCount < lines.length) {
+            current = lineCount++;
+        } else {
+            current = -1;
+        }
+        return this;
+    }
+
+    public HudText append(String s) {
+        if (current < 0) return this;
+        int len = lengths[current];
+        int n = Math.min(s.length(), lines[current].length - len);
+        // getChars копирует в наш буфер без промежуточных объектов
+        s.getChars(0, n, lines[current], len);
+        lengths[current] = len + n;
+        return this;
+    }
+
+    public HudText append(char c) {
+        if (current < 0) return this;
+        int len = lengths[current];
+        if (len < lines[current].length) {
+            lines[current][len] = c;
+            lengths[current] = len + 1;
+        }
+        return this;
+    }
+
+    public HudText append(long v) {
+        if (current < 0) return this;
+        if (v < 0) {
+            append('-');
+            // Long.MIN_VALUE не влезет в положительный long, отдаем последнюю цифру отдельно
+            if (v == Long.MIN_VALUE) {
+                appendDigits(-(v / 10));
+                return append('8');
+            }
+            v = -v;
+        }
+        appendDigits(v);
+        return this;
+    }
+
+    // Микросекунды как миллисекунды с одним знаком: 12345 -> "12.3"
+    public HudText appendMs(int us) {
+        if (us < 0) us = 0;
+        append(us / 1000);
+        append('.');
+        return append((char) ('0' + (us % 1000) / 100));
+    }
+
+    public int lineCount() {
+        return lineCount;
+    }
+
+    public char[] chars(int line) {
+        return lines[line];
+    }
+
+    public int length(int line) {
+        return lengths[line];
+    }
+
+    private void appendDigits(long v) {
+        char[] buf = lines[current];
+        int len = lengths[current];
+        int digits = 1;
+        for (long t = v; t >= 10; t /= 10) digits++;
+        if (len + digits > buf.length) return;
+        for (int i = len + digits - 1; i >= len; i--) {
+            buf[i] = (char) ('0' + (v % 10));
+            v /= 10;
+        }
+        lengths[current] = len + digits;
+    }
+}
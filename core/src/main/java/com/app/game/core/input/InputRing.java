@@ -0,0 +1,93 @@
+package com.app.game.core.input;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Кольцевой буфер событий ввода: один писатель (UI-поток), один читатель (поток симуляции).
+// Записи заранее выделены в параллельных массивах, в кадре ничего не аллоцируется.
+// Поля записи пишутся до lazySet(tail), читаются после get(tail) - рваных записей читатель не видит
+public final class InputRing {
+
+    public static final int DOWN = 0;
+    public static final int MOVE = 1;
+    public static final int UP = 2;
+    public static final int CANCEL = 3;   // система забрала жест: отпустить все пальцы
+    public static final int RESIZE = 4;   // x, y - новый размер экрана
+
+    public interface Consumer {
+        void onInput(int type, int pointerId, float x, float y, long timeNs);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final int[] type;
+    private final int[] pointer;
+    private final float[] x;
+    private final float[] y;
+    private final long[] time;
+
+    // следующий к чтению (пишет читатель) и следующий к записи (пишет писатель)
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    // копия head у писателя, чтобы не читать чужую кэш-линию на каждой записи
+    private long cachedHead;
+    private volatile long dropped;
+
+    // capacity - степень двойки
+    public InputRing(int capacity) {
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        type = new int[capacity];
+        pointer = new int[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        time = new long[capacity];
+    }
+
+    // Только писатель. false - буфер полон, событие потеряно
+    public boolean offer(int eventType, int pointerId, float px, float py, long timeNs) {
+        long t = tail.get();
+        if (t - cachedHead >= capacity) {
+            cachedHead = head.get();
+            if (t - cachedHead >= capacity) {
+                dropped++;
+                return false;
+            }
+        }
+        int i = (int) t & mask;
+        type[i] = eventType;
+        pointer[i] = pointerId;
+        x[i] = px;
+        y[i] = py;
+        time[i] = timeNs;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    // Только писатель: сколько записей точно влезет
+    public int free() {
+        return capacity - (int) (tail.get() - head.get());
+    }
+
+    // Только читатель. Отдает все, что опубликовано на момент вызова, возвращает сколько
+    public int drain(Consumer consumer) {
+        long h = head.get();
+        long t = tail.get();
+        for (long s = h; s < t; s++) {
+            int i = (int) s & mask;
+            consumer.onInput(type[i], pointer[i], x[i], y[i], time[i]);
+        }
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,126 @@
+package com.app.game.core.input;
+
+import com.app.game.core.World;
+
+// Экранное управление поверх InputRing. Каждый палец при касании получает роль по зоне:
+// - виртуальный джойстик (левый нижний угол): направление - смещение от точки касания;
+// - кнопка атаки (круг справа внизу);
+// - остальной экран - кнопки движения: левая половина влево, правая вправо.
+// Пальцы независимы: можно бежать и жать атаку. Из нескольких пальцев движения побеждает
+// последний нажатый. Очередь разбирается в начале тика на потоке симуляции
+public class TouchControls implements World.InputSource, InputRing.Consumer {
+
+    // Зоны в долях экрана, рендер рисует по ним же
+    public static final float JOYSTICK_MAX_X = 0.3f;
+    public static final float JOYSTICK_MIN_Y = 0.55f;
+    // мертвая зона джойстика в долях высоты экрана
+    public static final float JOYSTICK_DEAD_ZONE = 0.03f;
+    public static final float ATTACK_CENTER_X = 0.88f;
+    public static final float ATTACK_CENTER_Y = 0.78f;
+    public static final float ATTACK_RADIUS = 0.12f; // в долях высоты
+
+    private static final int MAX_POINTERS = 10;
+
+    private static final int ROLE_NONE = 0;
+    private static final int ROLE_MOVE = 1;
+    private static final int ROLE_JOYSTICK = 2;
+    private static final int ROLE_ATTACK = 3;
+
+    private final InputRing ring;
+
+    // Состояние пальцев по pointerId. Трогает только поток симуляции
+    private final int[] role = new int[MAX_POINTERS];
+    private final float[] originX = new float[MAX_POINTERS];
+    private final float[] lastX = new float[MAX_POINTERS];
+    private final long[] pressOrder = new long[MAX_POINTERS];
+    private long pressCounter;
+    private float screenW = 1f, screenH = 1f;
+
+    private int direction;
+    private int appliedDirection = World.NO_INPUT;
+    private int attackPresses;
+
+    public TouchControls(InputRing ring) {
+        this.ring = ring;
+    }
+
+    @Override
+    public void pollInput(World world) {
+        ring.drain(this);
+        direction = resolveDirection();
+        if (direction != appliedDirection) {
+            world.setInputDirection(direction);
+            appliedDirection = direction;
+        }
+        world.pressAttack(attackPresses);
+        attackPresses = 0;
+    }
+
+    @Override
+    public void onInput(int type, int pointerId, float x, float y, long timeNs) {
+        if (type == InputRing.RESIZE) {
+            screenW = Math.max(1f, x);
+            screenH = Math.max(1f, y);
+            return;
+        }
+        if (type == InputRing.CANCEL) {
+            for (int p = 0; p < MAX_POINTERS; p++) role[p] = ROLE_NONE;
+            return;
+        }
+        if (pointerId < 0 || pointerId >= MAX_POINTERS) return;
+        switch (type) {
+            case InputRing.DOWN:
+                role[pointerId] = roleAt(x, y);
+                originX[pointerId] = x;
+                lastX[pointerId] = x;
+                pressOrder[pointerId] = ++pressCounter;
+                if (role[pointerId] == ROLE_ATTACK) attackPresses++;
+                break;
+            case InputRing.MOVE:
+                // исторические сэмплы идут подряд - роль не меняется, важна последняя позиция
+                lastX[pointerId] = x;
+                break;
+            case InputRing.UP:
+                role[pointerId] = ROLE_NONE;
+                break;
+        }
+    }
+
+    private int roleAt(float x, float y) {
+        float dx = x - ATTACK_CENTER_X * screenW;
+        float dy = y - ATTACK_CENTER_Y * screenH;
+        float r = ATTACK_RADIUS * screenH;
+        if (dx * dx + dy * dy <= r * r) return ROLE_ATTACK;
+        if (x < JOYSTICK_MAX_X * screenW && y > JOYSTICK_MIN_Y * screenH) return ROLE_JOYSTICK;
+        return ROLE_MOVE;
+    }
+
+    private int resolveDirection() {
+        int best = -1;
+        for (int p = 0; p < MAX_POINTERS; p++) {
+            int r = role[p];
+            if ((r == ROLE_MOVE || r == ROLE_JOYSTICK) && (best < 0 || pressOrder[p] > pressOrder[best])) {
+                best = p;
+            }
+        }
+        if (best < 0) return 0;
+        if (role[best] == ROLE_MOVE) {
+            return lastX[best] < screenW * 0.5f ? -1 : 1;
+        }
+        float dx = lastX[best] - originX[best];
+        float dead = JOYSTICK_DEAD_ZONE * screenH;
+        return dx > dead ? 1 : dx < -dead ? -1 : 0;
+    }
+
+    // Направление после последнего pollInput
+    public int getDirection() {
+        return direction;
+    }
+
+    public boolean isAttackHeld() {
+        for (int p = 0; p < MAX_POINTERS; p++) {
+            if (role[p] == ROLE_ATTACK) return true;
+        }
+        return false;
+    }
+}
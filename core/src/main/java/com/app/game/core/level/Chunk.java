@@ -0,0 +1,59 @@
+package com.app.game.core.level;
+
+// Кусок уровня фиксированной ширины по x. Собирается целиком на потоке генерации и дальше
+// не меняется - рендер и симуляция читают его без синхронизации после публикации в LevelStreamer.
+// Координаты x - мировые, высоты платформ - над линией пола (она зависит от экрана)
+public final class Chunk {
+
+    public static final int TILE_DARK = 0;
+    public static final int TILE_LIGHT = 1;
+
+    public final int index;
+    public final float startX;
+    public final float width;
+
+    // по тайлу пола на колонку
+    public final byte[] tiles;
+
+    public final int platformCount;
+    public final float[] platformX0, platformX1, platformHeight;
+
+    public final int spawnCount;
+    public final float[] spawnX;
+    public final int[] spawnKind;
+
+    public final int shopCount;
+    public final float[] shopX;
+
+    Chunk(int index, float startX, float width, byte[] tiles,
+          int platformCount, float[] platformX0, float[] platformX1, float[] platformHeight,
+          int spawnCount, float[] spawnX, int[] spawnKind,
+          int shopCount, float[] shopX) {
+        this.index = index;
+        this.startX = startX;
+        this.width = width;
+        this.tiles = tiles;
+        this.platformCount = platformCount;
+        this.platformX0 = platformX0;
+        this.platformX1 = platformX1;
+        this.platformHeight = platformHeight;
+        this.spawnCount = spawnCount;
+        this.spawnX = spawnX;
+        this.spawnKind = spawnKind;
+        this.shopCount = shopCount;
+        this.shopX = shopX;
+    }
+
+    public float tileWidth() {
+        return width / tiles.length;
+    }
+
+    // Оценка занимаемой памяти для лимита резидентных чанков (заголовки объектов ~16 байт)
+    public long byteSize() {
+        return 64 + 16 * 8L
+                + tiles.length
+                + 12L * platformX0.length
+                + 8L * spawnX.length
+                + 4L * shopX.length;
+    }
+}
@@ -0,0 +1,77 @@
+package com.app.game.core.level;
+
+import java.util.SplittableRandom;
+
+// Процедурный уровень: чанк целиком определяется (seed, index), порядок генерации не важен.
+// Чанк 0 - старт: без монстров и магазина
+public class ChunkGenerator {
+
+    // Ширина тайла пола на экране (147px * GROUND_SCALE), совпадает с ячейкой широкой фазы
+    public static final float TILE_WIDTH = 294f;
+    public static final int CHUNK_TILES = 8;
+    public static final float CHUNK_WIDTH = TILE_WIDTH * CHUNK_TILES;
+
+    private static final int MAX_PLATFORMS = 2;
+    private static final int MAX_SPAWNS = 3;
+    private static final float LIGHT_TILE_CHANCE = 0.2f;
+    private static final float PLATFORM_MIN_W = 150f, PLATFORM_MAX_W = 500f;
+    private static final float PLATFORM_MIN_H = 150f, PLATFORM_MAX_H = 300f;
+    // магазин примерно раз в столько чанков
+    private static final int SHOP_EVERY = 6;
+    private static final float SHOP_CLEARANCE = 400f;
+
+    private final long seed;
+
+    public ChunkGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Chunk generate(int index) {
+        SplittableRandom rnd = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+        float startX = index * CHUNK_WIDTH;
+
+        byte[] tiles = new byte[CHUNK_TILES];
+        for (int t = 0; t < CHUNK_TILES; t++) {
+            tiles[t] = rnd.nextDouble() < LIGHT_TILE_CHANCE ? (byte) Chunk.TILE_LIGHT : (byte) Chunk.TILE_DARK;
+        }
+
+        // платформы - каждая в своей половине чанка, чтобы не пересекались
+        int platforms = rnd.nextInt(MAX_PLATFORMS + 1);
+        float[] px0 = new float[platforms], px1 = new float[platforms], ph = new float[platforms];
+        float slot = CHUNK_WIDTH / MAX_PLATFORMS;
+        for (int p = 0; p < platforms; p++) {
+            float w = PLATFORM_MIN_W + (float) rnd.nextDouble() * (PLATFORM_MAX_W - PLATFORM_MIN_W);
+            float x0 = startX + p * slot + (float) rnd.nextDouble() * (slot - w);
+            px0[p] = x0;
+            px1[p] = x0 + w;
+            ph[p] = PLATFORM_MIN_H + (float) rnd.nextDouble() * (PLATFORM_MAX_H - PLATFORM_MIN_H);
+        }
+
+        int shops = index != 0 && Math.floorMod(index, SHOP_EVERY) == Math.floorMod(seed, SHOP_EVERY) ? 1 : 0;
+        float[] shopX = new float[shops];
+        if (shops > 0) shopX[0] = startX + CHUNK_WIDTH * 0.5f;
+
+        int spawns = index == 0 ? 0 : rnd.nextInt(MAX_SPAWNS + 1);
+        float[] spawnX = new float[spawns];
+        int[] spawnKind = new int[spawns];
+        int n = 0;
+        for (int s = 0; s < spawns; s++) {
+            float x = startX + (float) rnd.nextDouble() * CHUNK_WIDTH;
+            int kind = rnd.nextInt(2);
+            // у магазина монстров не ставим
+            if (shops > 0 && Math.abs(x - shopX[0]) < SHOP_CLEARANCE) continue;
+            spawnX[n] = x;
+            spawnKind[n] = kind;
+            n++;
+        }
+
+        return new Chunk(index, startX, CHUNK_WIDTH, tiles,
+                platforms, px0, px1, ph,
+                n, spawnX, spawnKind,
+                shops, shopX);
+    }
+}
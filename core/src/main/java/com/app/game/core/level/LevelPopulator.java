@@ -0,0 +1,154 @@
+package com.app.game.core.level;
+
+import com.app.game.core.World;
+import com.app.game.core.entity.EntityStore;
+
+import java.util.Arrays;
+
+// Содержимое чанков в мире: монстры на точках спавна и зоны-триггеры магазинов.
+// Живет окно чанков вокруг камеры (то же, что держит LevelStreamer): вошедший в окно чанк
+// ставит свое, вышедший - убирает, неубитые монстры пропадают и при возврате появятся заново.
+// Окно считается от камеры на границе тика, а чанк, который фон еще не догенерировал,
+// собирается на месте - содержимое не зависит от скорости потока стриминга, и реплей
+// с тем же сидом повторяет его бит-в-бит. Трогает только поток симуляции
+public final class LevelPopulator {
+
+    // id зоны магазина = ZONE_SHOP + индекс чанка
+    public static final int ZONE_SHOP = 1 << 30;
+    // по x - примерно вывеска магазина, по y - вся высота
+    private static final float SHOP_ZONE_HALF_W = ChunkGenerator.TILE_WIDTH;
+
+    // Монстры по spawnKind; рисуются листами из набора MONSTER_SPRITE
+    public static final int MONSTER_SPRITE = 1;
+    private static final int[] MONSTER_HP = {30, 50};
+    private static final float[] MONSTER_SPEED = {120f, 80f};
+
+    // активное окно [first, last], пустое - last < first
+    private int first = 0, last = -1;
+    // по слоту (index - first): индекс чанка, магазин и id поставленных монстров
+    private int[] slotChunk = new int[0];
+    private boolean[] slotShop = new boolean[0];
+    private int[][] slotIds = new int[0][];
+    private int[] slotIdCount = new int[0];
+    // перекладка слотов при сдвиге окна, чтобы не аллоцировать
+    private int[] nextChunk = new int[0];
+    private boolean[] nextShop = new boolean[0];
+    private int[][] nextIds = new int[0][];
+    private int[] nextIdCount = new int[0];
+
+    // Граница тика: привести содержимое мира к окну вокруг камеры
+    public void sync(World world, LevelStreamer level, float camX, int viewportWidth) {
+        int newFirst = level.firstChunk(camX);
+        int newLast = level.lastChunk(camX, viewportWidth);
+        if (newFirst == first && newLast == last) return;
+
+        int count = newLast - newFirst + 1;
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) nextIdCount[i] = 0;
+        // вышедшие из окна убираем, оставшиеся переезжают в свои новые слоты
+        for (int s = 0, n = last - first + 1; s < n; s++) {
+            int index = slotChunk[s];
+            if (index < newFirst || index > newLast) {
+                clearSlot(world, s);
+                continue;
+            }
+            int d = index - newFirst;
+            nextShop[d] = slotShop[s];
+            int[] ids = nextIds[d];
+            nextIds[d] = slotIds[s];
+            slotIds[s] = ids;
+            nextIdCount[d] = slotIdCount[s];
+        }
+        for (int index = newFirst; index <= newLast; index++) {
+            int d = index - newFirst;
+            nextChunk[d] = index;
+            if (index < first || index > last) populate(world, level.chunkOrGenerate(index), d);
+        }
+        swapSlots();
+        first = newFirst;
+        last = newLast;
+    }
+
+    // Убрать все (смена уровня)
+    public void clear(World world) {
+        for (int s = 0, n = last - first + 1; s < n; s++) clearSlot(world, s);
+        first = 0;
+        last = -1;
+    }
+
+    // Монстр поставлен уровнем (в сохранение не идет - уровень поставит его снова)
+    public boolean owns(int entityId) {
+        for (int s = 0, n = last - first + 1; s < n; s++) {
+            int[] ids = slotIds[s];
+            for (int k = 0; k < slotIdCount[s]; k++) {
+                if (ids[k] == entityId) return true;
+            }
+        }
+        return false;
+    }
+
+    public int getActiveChunks() {
+        return last - first + 1;
+    }
+
+    private void populate(World world, Chunk c, int d) {
+        nextShop[d] = c.shopCount > 0;
+        for (int s = 0; s < c.shopCount; s++) {
+            world.addTriggerZone(ZONE_SHOP + c.index, c.shopX[s] - SHOP_ZONE_HALF_W, -Float.MAX_VALUE,
+                    c.shopX[s] + SHOP_ZONE_HALF_W, Float.MAX_VALUE);
+        }
+        if (nextIds[d].length < c.spawnCount) nextIds[d] = new int[c.spawnCount];
+        EntityStore e = world.getEntities();
+        // стоят на полу, как игрок, и с его хитбоксом
+        int p = e.indexOf(world.getPlayer().getId());
+        float y = e.y[p], halfW = e.halfW[p], halfH = e.halfH[p];
+        for (int s = 0; s < c.spawnCount; s++) {
+            int kind = Math.min(c.spawnKind[s], MONSTER_HP.length - 1);
+            int id = e.create(c.spawnX[s], y, MONSTER_SPEED[kind], MONSTER_HP[kind], MONSTER_SPRITE);
+            e.setHitbox(e.indexOf(id), halfW, halfH);
+            nextIds[d][s] = id;
+        }
+        nextIdCount[d] = c.spawnCount;
+    }
+
+    private void clearSlot(World world, int s) {
+        if (slotShop[s]) world.removeTriggerZone(ZONE_SHOP + slotChunk[s]);
+        slotShop[s] = false;
+        EntityStore e = world.getEntities();
+        // убитые уже удалены - destroy по устаревшему id просто вернет false
+        for (int k = 0; k < slotIdCount[s]; k++) e.destroy(slotIds[s][k]);
+        slotIdCount[s] = 0;
+    }
+
+    private void swapSlots() {
+        int[] c = slotChunk;
+        slotChunk = nextChunk;
+        nextChunk = c;
+        boolean[] sh = slotShop;
+        slotShop = nextShop;
+        nextShop = sh;
+        int[][] ids = slotIds;
+        slotIds = nextIds;
+        nextIds = ids;
+        int[] n = slotIdCount;
+        slotIdCount = nextIdCount;
+        nextIdCount = n;
+    }
+
+    private void ensureCapacity(int count) {
+        if (slotChunk.length >= count) return;
+        int old = slotChunk.length;
+        slotChunk = Arrays.copyOf(slotChunk, count);
+        slotShop = Arrays.copyOf(slotShop, count);
+        slotIds = Arrays.copyOf(slotIds, count);
+        slotIdCount = Arrays.copyOf(slotIdCount, count);
+        nextChunk = Arrays.copyOf(nextChunk, count);
+        nextShop = Arrays.copyOf(nextShop, count);
+        nextIds = Arrays.copyOf(nextIds, count);
+        nextIdCount = Arrays.copyOf(nextIdCount, count);
+        for (int i = old; i < count; i++) {
+            slotIds[i] = new int[0];
+            nextIds[i] = new int[0];
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.app.game.core.level;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Стриминг чанков вокруг камеры. Симуляция каждый тик сообщает нужное окно (requestAround),
+// фоновый поток догенерирует недостающие чанки и выселяет лишние под лимит памяти.
+// Резидентный набор - неизменяемый снимок, публикуется через volatile: читатели (рендер,
+// симуляция) видят только целиком собранные чанки и не берут локов
+public class LevelStreamer {
+
+    private final ChunkGenerator generator;
+    private final float aheadPx;
+    private final float behindPx;
+    private final long maxResidentBytes;
+
+    // [first:int][last:int] нужного окна в одном long, чтобы не прочитать половину старого
+    private volatile long wanted;
+    private volatile Resident resident = Resident.EMPTY;
+
+    private volatile Thread worker;
+    private volatile boolean running;
+
+    // Статистика, пишет только тот, кто зовет pump
+    private volatile long generatedChunks;
+    private volatile long evictedChunks;
+    private volatile long generationNsTotal;
+    private volatile long generationNsMax;
+    private volatile long lastGenerationNs;
+
+    // aheadPx/behindPx - сколько держать за краями экрана; maxResidentBytes - сверх нужного окна
+    // чанки держим как кэш, пока влезают
+    public LevelStreamer(ChunkGenerator generator, float aheadPx, float behindPx, long maxResidentBytes) {
+        this.generator = generator;
+        this.aheadPx = aheadPx;
+        this.behindPx = behindPx;
+        this.maxResidentBytes = maxResidentBytes;
+        this.wanted = pack(0, 0);
+    }
+
+    public long getSeed() {
+        return generator.getSeed();
+    }
+
+    public static int chunkIndex(float x) {
+        return (int) Math.floor(x / ChunkGenerator.CHUNK_WIDTH);
+    }
+
+    // Окно чанков вокруг камеры, которое держит стример: [firstChunk, lastChunk]
+    public int firstChunk(float camX) {
+        return chunkIndex(camX - behindPx);
+    }
+
+    public int lastChunk(float camX, int viewportWidth) {
+        return chunkIndex(camX + viewportWidth + aheadPx);
+    }
+
+    // Поток симуляции. Без аллокаций: только новое окно и unpark, если оно поменялось
+    public void requestAround(float camX, int viewportWidth) {
+        long w = pack(firstChunk(camX), lastChunk(camX, viewportWidth));
+        if (w != wanted) {
+            wanted = w;
+            Thread t = worker;
+            if (t != null) LockSupport.unpark(t);
+        }
+    }
+
+    // null - чанк еще не готов (или уже выселен)
+    public Chunk chunk(int index) {
+        return resident.find(index);
+    }
+
+    // Готовый чанк, а если фон до него еще не дошел - собранный тут же, без публикации.
+    // Чанк зависит только от (seed, index), так что это тот же чанк, что сделает фон
+    public Chunk chunkOrGenerate(int index) {
+        Chunk c = resident.find(index);
+        return c != null ? c : generator.generate(index);
+    }
+
+    public void start() {
+        running = true;
+        Thread t = new Thread(() -> {
+            while (running) {
+                if (!pump()) LockSupport.park(this);
+            }
+        }, "LevelStreamer");
+        t.setPriority(Thread.NORM_PRIORITY - 1);
+        t.setDaemon(true);
+        worker = t;
+        t.start();
+    }
+
+    public void stop() {
+        running = false;
+        Thread t = worker;
+        worker = null;
+        if (t != null) {
+            LockSupport.unpark(t);
+            try {
+                t.join();
+            } catch (InterruptedException ignored) {
+            }
+        }
+    }
+
+    // Один проход работы: сгенерировать недостающее из окна (каждый чанк публикуется сразу) и выселить лишнее.
+    // Зовет поток стриминга; тесты - напрямую. false - делать было нечего
+    public boolean pump() {
+        long w = wanted;
+        int first = (int) (w >> 32);
+        int last = (int) w;
+        boolean changed = false;
+        Resident r = resident;
+        for (int i = first; i <= last; i++) {
+            if (r.find(i) != null) continue;
+            long t0 = System.nanoTime();
+            Chunk c = generator.generate(i);
+            long ns = System.nanoTime() - t0;
+            lastGenerationNs = ns;
+            generationNsTotal += ns;
+            if (ns > generationNsMax) generationNsMax = ns;
+            generatedChunks++;
+            r = r.with(c);
+            resident = r;
+            changed = true;
+            // окно сдвинулось, пока генерировали - начинаем заново с новым
+            if (wanted != w) return true;
+        }
+        Resident trimmed = r.evict(first, last, maxResidentBytes);
+        if (trimmed != r) {
+            evictedChunks += r.count - trimmed.count;
+            resident = trimmed;
+            changed = true;
+        }
+        return changed;
+    }
+
+    public int getResidentChunks() {
+        return resident.count;
+    }
+
+    public long getResidentBytes() {
+        return resident.bytes;
+    }
+
+    public long getGeneratedChunks() {
+        return generatedChunks;
+    }
+
+    public long getEvictedChunks() {
+        return evictedChunks;
+    }
+
+    public long getLastGenerationNs() {
+        return lastGenerationNs;
+    }
+
+    public long getMaxGenerationNs() {
+        return generationNsMax;
+    }
+
+    public long getAverageGenerationNs() {
+        long n = generatedChunks;
+        return n > 0 ? generationNsTotal / n : 0;
+    }
+
+    private static long pack(int first, int last) {
+        return ((long) first << 32) | (last & 0xffffffffL);
+    }
+
+    // Неизменяемый набор чанков, отсортирован по index
+    private static final class Resident {
+        static final Resident EMPTY = new Resident(new Chunk[0], 0);
+
+        final Chunk[] chunks;
+        final int count;
+        final long bytes;
+
+        Resident(Chunk[] chunks, long bytes) {
+            this.chunks = chunks;
+            this.count = chunks.length;
+            this.bytes = bytes;
+        }
+
+        Chunk find(int index) {
+            int lo = 0, hi = count - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int v = chunks[mid].index;
+                if (v < index) lo = mid + 1;
+                else if (v > index) hi = mid - 1;
+                else return chunks[mid];
+            }
+            return null;
+        }
+
+        Resident with(Chunk c) {
+            Chunk[] out = new Chunk[count + 1];
+            int i = 0;
+            while (i < count && chunks[i].index < c.index) {
+                out[i] = chunks[i];
+                i++;
+            }
+            out[i] = c;
+            System.arraycopy(chunks, i, out, i + 1, count - i);
+            return new Resident(out, bytes + c.byteSize());
+        }
+
+        // Выселяем вне окна [first, last], самые дальние первыми, пока не влезем в лимит
+        Resident evict(int first, int last, long maxBytes) {
+            if (bytes <= maxBytes) return this;
+            boolean[] drop = new boolean[count];
+            long total = bytes;
+            int lo = 0, hi = count - 1;
+            while (total > maxBytes && lo <= hi) {
+                Chunk a = chunks[lo], b = chunks[hi];
+                int distA = a.index < first ? first - a.index : 0;
+                int distB = b.index > last ? b.index - last : 0;
+                if (distA == 0 && distB == 0) break;
+                if (distA >= distB) {
+                    drop[lo++] = true;
+                    total -= a.byteSize();
+                } else {
+                    drop[hi--] = true;
+                    total -= b.byteSize();
+                }
+            }
+            if (total == bytes) return this;
+            int kept = 0;
+            for (int i = 0; i < count; i++) if (!drop[i]) kept++;
+            Chunk[] out = new Chunk[kept];
+            int k = 0;
+            for (int i = 0; i < count; i++) if (!drop[i]) out[k++] = chunks[i];
+            return new Resident(out, total);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.app.game.core.memory;
+
+// Уровни качества битмапов и когда между ними ходить. Без android: уровни trim из
+// ComponentCallbacks2 продублированы константами, heap меряет вызывающий.
+// Вниз - сразу по trim или по превышению бюджета хипа, вверх - по одной ступени,
+// когда давления нет RESTORE_AFTER и хип заметно ниже бюджета (гистерезис, чтобы не качаться)
+public final class AssetQuality {
+
+    // ARGB_8888 в полном размере цели
+    public static final int FULL = 0;
+    // непрозрачные слои (фон) в RGB_565 - вдвое меньше байт
+    public static final int OPAQUE_565 = 1;
+    // + все слои декодятся в половину размера цели, рисуются с растяжением
+    public static final int REDUCED = 2;
+    public static final int TIER_COUNT = 3;
+
+    // Что сделать вызывающему (битовая маска)
+    public static final int NONE = 0;
+    public static final int TIER_CHANGED = 1;
+    // выкинуть из кэша все, что сейчас не рисуется
+    public static final int EVICT_UNUSED = 2;
+    // выкинуть все битмапы, при возвращении загрузятся заново
+    public static final int EVICT_ALL = 4;
+
+    // ComponentCallbacks2.TRIM_MEMORY_*
+    public static final int TRIM_RUNNING_MODERATE = 5;
+    public static final int TRIM_RUNNING_LOW = 10;
+    public static final int TRIM_RUNNING_CRITICAL = 15;
+    public static final int TRIM_UI_HIDDEN = 20;
+    public static final int TRIM_BACKGROUND = 40;
+    public static final int TRIM_COMPLETE = 80;
+
+    // вверх, только если хип ниже этой доли бюджета
+    private static final float RESTORE_HEAP_FRACTION = 0.6f;
+
+    private final long restoreAfterNs;
+    private long heapBudgetBytes;
+    private int tier = FULL;
+    private long lastPressureNs;
+    private int downgrades;
+
+    public AssetQuality(long heapBudgetBytes, long restoreAfterNs) {
+        this.heapBudgetBytes = heapBudgetBytes;
+        this.restoreAfterNs = restoreAfterNs;
+    }
+
+    public int tier() {
+        return tier;
+    }
+
+    public static String name(int tier) {
+        switch (tier) {
+            case FULL:
+                return "full";
+            case OPAQUE_565:
+                return "565";
+            case REDUCED:
+                return "reduced";
+            default:
+                return "?";
+        }
+    }
+
+    public long getHeapBudgetBytes() {
+        return heapBudgetBytes;
+    }
+
+    public void setHeapBudgetBytes(long bytes) {
+        heapBudgetBytes = bytes;
+    }
+
+    public int getDowngrades() {
+        return downgrades;
+    }
+
+    // onTrimMemory / onLowMemory (тогда level = TRIM_COMPLETE)
+    public int onTrimMemory(int level, long nowNs) {
+        if (level >= TRIM_BACKGROUND) {
+            // нас могут убить первыми - отдаем все, вернемся в худшем качестве
+            return lowerTo(REDUCED, nowNs) | EVICT_ALL;
+        }
+        if (level >= TRIM_UI_HIDDEN) {
+            // не видно - текущее нечего держать сверх нужного, но качество не трогаем
+            return EVICT_UNUSED;
+        }
+        if (level >= TRIM_RUNNING_LOW) return lowerTo(REDUCED, nowNs) | EVICT_UNUSED;
+        if (level >= TRIM_RUNNING_MODERATE) return lowerTo(OPAQUE_565, nowNs) | EVICT_UNUSED;
+        return NONE;
+    }
+
+    // Замер занятого хипа (раз в секунду или около того)
+    public int onHeapSample(long usedBytes, long nowNs) {
+        if (usedBytes > heapBudgetBytes) {
+            lastPressureNs = nowNs;
+            if (tier + 1 < TIER_COUNT) return lowerTo(tier + 1, nowNs) | EVICT_UNUSED;
+            return EVICT_UNUSED;
+        }
+        if (tier > FULL && nowNs - lastPressureNs >= restoreAfterNs
+                && usedBytes < heapBudgetBytes * RESTORE_HEAP_FRACTION) {
+            tier--;
+            // следующая ступень - снова через restoreAfter
+            lastPressureNs = nowNs;
+            return TIER_CHANGED;
+        }
+        return NONE;
+    }
+
+    private int lowerTo(int target, long nowNs) {
+        lastPressureNs = nowNs;
+        if (target <= tier) return NONE;
+        tier = target;
+        downgrades++;
+        return TIER_CHANGED;
+    }
+}
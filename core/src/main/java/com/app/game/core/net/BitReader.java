@@ -0,0 +1,54 @@
+package com.app.game.core.net;
+
+// Чтение того, что записал BitWriter. Вылезли за длину пакета - NetFormatException
+public final class BitReader {
+
+    private byte[] buf;
+    private int lengthBits;
+    private int bitPos;
+
+    public BitReader reset(byte[] data, int lengthBytes) {
+        buf = data;
+        lengthBits = lengthBytes * 8;
+        bitPos = 0;
+        return this;
+    }
+
+    public int read(int bits) throws NetFormatException {
+        if (bitPos + bits > lengthBits) throw new NetFormatException("Truncated packet");
+        int value = 0;
+        for (int done = 0; done < bits; ) {
+            int shift = bitPos & 7;
+            int n = Math.min(8 - shift, bits - done);
+            int b = (buf[bitPos >>> 3] & 0xff) >>> shift;
+            value |= (b & ((1 << n) - 1)) << done;
+            bitPos += n;
+            done += n;
+        }
+        return value;
+    }
+
+    public boolean readBool() throws NetFormatException {
+        return read(1) != 0;
+    }
+
+    public long readVar() throws NetFormatException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = read(8);
+            v |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new NetFormatException("Varint too long");
+    }
+
+    // Пара к BitWriter.writeSigned с той же шириной
+    public int readSigned(int bits) throws NetFormatException {
+        int z = read(bits);
+        return (z >>> 1) ^ -(z & 1);
+    }
+
+    public int remainingBits() {
+        return lengthBits - bitPos;
+    }
+}
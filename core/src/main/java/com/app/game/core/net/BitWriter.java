@@ -0,0 +1,67 @@
+package com.app.game.core.net;
+
+// Запись полей произвольной ширины в биты подряд, младший бит первым.
+// Буфер фиксированный (размер пакета), в тике ничего не аллоцирует
+public final class BitWriter {
+
+    private final byte[] buf;
+    private int bitPos;
+
+    public BitWriter(int capacityBytes) {
+        buf = new byte[capacityBytes];
+    }
+
+    public BitWriter reset() {
+        bitPos = 0;
+        return this;
+    }
+
+    // Младшие bits (1..32) бит value
+    public void write(int value, int bits) {
+        if (bitPos + bits > buf.length * 8) {
+            throw new IllegalStateException("Packet overflow: " + (bitPos + bits) + " bits");
+        }
+        for (int done = 0; done < bits; ) {
+            int byteIndex = bitPos >>> 3;
+            int shift = bitPos & 7;
+            int n = Math.min(8 - shift, bits - done);
+            int mask = (1 << n) - 1;
+            if (shift == 0) buf[byteIndex] = 0;
+            buf[byteIndex] |= (byte) (((value >>> done) & mask) << shift);
+            bitPos += n;
+            done += n;
+        }
+    }
+
+    public void writeBool(boolean v) {
+        write(v ? 1 : 0, 1);
+    }
+
+    // Неотрицательное число группами по 7 бит + бит продолжения: тик и номер ввода обычно
+    // укладываются в 2-3 байта
+    public void writeVar(long v) {
+        if (v < 0) throw new IllegalArgumentException("Negative varint " + v);
+        while ((v & ~0x7fL) != 0) {
+            write((int) (v & 0x7f) | 0x80, 8);
+            v >>>= 7;
+        }
+        write((int) v, 8);
+    }
+
+    // Знаковое в bits бит через zigzag: маленькие по модулю дельты - маленькие коды
+    public void writeSigned(int v, int bits) {
+        write((v << 1) ^ (v >> 31), bits);
+    }
+
+    public int lengthBits() {
+        return bitPos;
+    }
+
+    public int lengthBytes() {
+        return (bitPos + 7) >>> 3;
+    }
+
+    public byte[] array() {
+        return buf;
+    }
+}
@@ -0,0 +1,172 @@
+package com.app.game.core.net;
+
+import com.app.game.core.PlayerState;
+import com.app.game.core.World;
+import com.app.game.core.anim.AnimationSet;
+import com.app.game.core.entity.EntityStore;
+import com.app.game.core.replay.WorldSetup;
+
+// Бой двух игроков поверх обычного World с фиксированным шагом DT_SEC. Хост и клиент держат
+// по своему экземпляру: у каждого свой боец - это игрок мира (за ним камера), соперник - еще
+// одна сущность. step() детерминирован по вводу обоих, поэтому клиент может предсказывать
+// и пересчитывать тики, а результат сходится с хостом бит-в-бит
+public class Duel {
+
+    public static final int ATTACK_COOLDOWN_TICKS = 24;
+    public static final int ATTACK_DAMAGE = 10;
+
+    private final World world;
+    private final int localSlot;
+    private final int[] ids = new int[DuelState.SLOTS];
+    private final int[] cooldown = new int[DuelState.SLOTS];
+    private final boolean[] attacking = new boolean[DuelState.SLOTS];
+    private final boolean[] hit = new boolean[DuelState.SLOTS];
+    private final float reachPx;
+
+    // Слот 0 стартует в setup.playerStartX, слот 1 - на gapPx правее. reachPx - куда достает удар
+    // от края хитбокса бойца
+    public Duel(WorldSetup setup, int localSlot, float gapPx, float reachPx) {
+        if (localSlot < 0 || localSlot >= DuelState.SLOTS) throw new IllegalArgumentException("slot " + localSlot);
+        this.localSlot = localSlot;
+        this.reachPx = reachPx;
+        world = setup.createWorld();
+        PlayerState player = world.getPlayer();
+        float y = setup.playerStartY;
+        player.setPosition(quantize(setup.playerStartX + localSlot * gapPx), y);
+        ids[localSlot] = player.getId();
+
+        int other = 1 - localSlot;
+        EntityStore e = world.getEntities();
+        ids[other] = e.create(quantize(setup.playerStartX + other * gapPx), y, setup.playerSpeed, PlayerState.MAX_HP, 0);
+        e.setHitbox(e.indexOf(ids[other]), setup.playerHalfW, setup.playerHalfH);
+        // стоят лицом друг к другу
+        e.lastDir[e.indexOf(ids[0])] = 1;
+        e.lastDir[e.indexOf(ids[1])] = -1;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public int getLocalSlot() {
+        return localSlot;
+    }
+
+    public int getEntityId(int slot) {
+        return ids[slot];
+    }
+
+    public int getHp(int slot) {
+        EntityStore e = world.getEntities();
+        return e.hp[e.indexOf(ids[slot])];
+    }
+
+    public float getX(int slot) {
+        EntityStore e = world.getEntities();
+        return e.x[e.indexOf(ids[slot])];
+    }
+
+    // Номер победившего слота, -1 - бой идет
+    public int winner() {
+        int alive = -1, count = 0;
+        for (int s = 0; s < DuelState.SLOTS; s++) {
+            if (getHp(s) > 0) {
+                alive = s;
+                count++;
+            }
+        }
+        return count == 1 ? alive : -1;
+    }
+
+    // Один тик боя: ввод по слотам (DuelInput)
+    public void step(int input0, int input1) {
+        EntityStore e = world.getEntities();
+        int i0 = e.indexOf(ids[0]), i1 = e.indexOf(ids[1]);
+        stepFighter(e, i0, 0, input0);
+        stepFighter(e, i1, 1, input1);
+        // удары по позициям до движения, одновременно: оба могут попасть друг в друга
+        hit[0] = attacking[0] && reaches(e, i0, i1);
+        hit[1] = attacking[1] && reaches(e, i1, i0);
+        if (hit[0]) damage(e, i1);
+        if (hit[1]) damage(e, i0);
+
+        world.update(World.DT_SEC);
+
+        // y игрока ставит мир по линии пола, соперник стоит на том же полу
+        int player = e.indexOf(world.getPlayer().getId());
+        int other = player == i0 ? i1 : i0;
+        e.y[other] = e.y[player];
+        for (int s = 0; s < DuelState.SLOTS; s++) {
+            if (cooldown[s] > 0) cooldown[s]--;
+        }
+        e.x[i0] = quantize(e.x[i0]);
+        e.x[i1] = quantize(e.x[i1]);
+    }
+
+    private void stepFighter(EntityStore e, int i, int slot, int input) {
+        boolean alive = e.hp[i] > 0;
+        int dir = alive ? DuelInput.dir(input) : 0;
+        if (e.dir[i] != dir) e.setDirection(i, dir);
+        attacking[slot] = alive && DuelInput.attack(input) && cooldown[slot] == 0;
+        if (attacking[slot]) {
+            cooldown[slot] = ATTACK_COOLDOWN_TICKS;
+            e.play(i, AnimationSet.ATTACK);
+        }
+    }
+
+    // Полоса удара от края хитбокса в сторону взгляда против хитбокса цели
+    private boolean reaches(EntityStore e, int attacker, int target) {
+        float front = e.x[attacker] + e.lastDir[attacker] * e.halfW[attacker];
+        float reach = front + e.lastDir[attacker] * reachPx;
+        float minX = Math.min(front, reach), maxX = Math.max(front, reach);
+        return e.x[target] + e.halfW[target] >= minX && e.x[target] - e.halfW[target] <= maxX
+                && Math.abs(e.y[target] - e.y[attacker]) <= e.halfH[target] + e.halfH[attacker];
+    }
+
+    private static void damage(EntityStore e, int i) {
+        if (e.hp[i] <= 0) return;
+        e.hp[i] = Math.max(0, e.hp[i] - ATTACK_DAMAGE);
+        if (e.hp[i] == 0) {
+            e.setDirection(i, 0);
+            e.play(i, AnimationSet.DEATH);
+        } else {
+            e.play(i, AnimationSet.HURT);
+        }
+    }
+
+    public void capture(DuelState out) {
+        out.tick = world.getTick();
+        EntityStore e = world.getEntities();
+        for (int s = 0; s < DuelState.SLOTS; s++) {
+            int i = e.indexOf(ids[s]);
+            out.set(s, DuelState.X, DuelState.toFixed(e.x[i]));
+            out.set(s, DuelState.Y, DuelState.toFixed(e.y[i]));
+            out.set(s, DuelState.DIR, e.dir[i]);
+            out.set(s, DuelState.LAST_DIR, e.lastDir[i]);
+            out.set(s, DuelState.HP, e.hp[i]);
+            out.set(s, DuelState.COOLDOWN, cooldown[s]);
+        }
+    }
+
+    // Состояние хоста целиком, тик мира тоже
+    public void apply(DuelState s) {
+        world.setTick(s.tick);
+        for (int slot = 0; slot < DuelState.SLOTS; slot++) applyFighter(s, slot);
+    }
+
+    public void applyFighter(DuelState s, int slot) {
+        EntityStore e = world.getEntities();
+        int i = e.indexOf(ids[slot]);
+        e.x[i] = DuelState.toPx(s.get(slot, DuelState.X));
+        e.y[i] = DuelState.toPx(s.get(slot, DuelState.Y));
+        e.hp[i] = s.get(slot, DuelState.HP);
+        int dir = s.get(slot, DuelState.DIR);
+        if (e.dir[i] != dir) e.setDirection(i, dir);
+        e.lastDir[i] = s.get(slot, DuelState.LAST_DIR);
+        cooldown[slot] = s.get(slot, DuelState.COOLDOWN);
+    }
+
+    private static float quantize(float px) {
+        return DuelState.toPx(DuelState.toFixed(px));
+    }
+}
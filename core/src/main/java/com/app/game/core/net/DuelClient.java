@@ -0,0 +1,151 @@
+package com.app.game.core.net;
+
+import com.app.game.core.replay.WorldSetup;
+
+// Клиентская сторона дуэли (слот 1) с предсказанием. Свой ввод применяется сразу, не дожидаясь
+// хоста; каждый вход хранится вместе с предсказанным после него состоянием. Пришел снапшот -
+// сверяем своего бойца с предсказанием на тот ввод, который хост уже обработал: совпал -
+// ничего не пересчитываем, разошелся - берем состояние хоста и заново проигрываем вводы после него.
+// Соперника не предсказываем: он всегда такой, как в последнем снапшоте, дальше идет как шел
+public class DuelClient {
+
+    public static final int SLOT = 1;
+    private static final int REMOTE = 1 - SLOT;
+
+    private static final int HISTORY = 64;
+    private static final int MASK = HISTORY - 1;
+
+    private final Duel duel;
+    private final Transport transport;
+    private final NetStats stats = new NetStats();
+
+    // свои вводы и предсказанное после каждого, по номеру ввода (с 1)
+    private final int[] inputs = new int[HISTORY];
+    private final DuelState[] predicted = new DuelState[HISTORY];
+    private long seq;
+    // снапшоты хоста по тику - базы для дельт
+    private final DuelState[] received = new DuelState[HISTORY];
+    private final DuelState zero = new DuelState();
+    private final DuelState authoritative = new DuelState();
+    private long latestTick = -1;
+    private long serverAck;
+    private boolean fresh;
+
+    private final byte[] packet = new byte[Transport.MAX_PACKET_BYTES];
+    private final BitWriter out = new BitWriter(Transport.MAX_PACKET_BYTES);
+    private final BitReader in = new BitReader();
+    private final long[] header = new long[3];
+
+    public DuelClient(WorldSetup setup, float gapPx, float reachPx, Transport transport) {
+        this.duel = new Duel(setup, SLOT, gapPx, reachPx);
+        this.transport = transport;
+        for (int i = 0; i < HISTORY; i++) {
+            predicted[i] = new DuelState();
+            received[i] = new DuelState();
+        }
+    }
+
+    public Duel getDuel() {
+        return duel;
+    }
+
+    public NetStats getStats() {
+        return stats;
+    }
+
+    // Тик последнего снапшота хоста, -1 - еще не было
+    public long getLatestTick() {
+        return latestTick;
+    }
+
+    public long getInputSeq() {
+        return seq;
+    }
+
+    public void tick(int localInput) {
+        receive();
+        if (fresh) {
+            fresh = false;
+            reconcile();
+        }
+        seq++;
+        int slot = (int) seq & MASK;
+        inputs[slot] = localInput;
+        duel.step(remoteInput(), localInput);
+        duel.capture(predicted[slot]);
+        sendInputs();
+        stats.ticks++;
+    }
+
+    private int remoteInput() {
+        return latestTick < 0 ? DuelInput.NONE : DuelInput.of(authoritative.get(REMOTE, DuelState.DIR), false);
+    }
+
+    private void receive() {
+        int length;
+        while ((length = transport.receive(packet)) >= 0) {
+            stats.received(length);
+            try {
+                in.reset(packet, length);
+                if (DuelCodec.readType(in) != DuelCodec.TYPE_SNAPSHOT) {
+                    stats.badPackets++;
+                    continue;
+                }
+                DuelCodec.readSnapshotHeader(in, header);
+                long tick = header[0];
+                if (tick <= latestTick) continue;
+                DuelState base = zero;
+                if (header[1] != 0) {
+                    base = received[(int) (tick - header[1]) & MASK];
+                    // базу уже затерли - ждем полный или дельту от более свежей
+                    if (base.tick != tick - header[1]) {
+                        stats.badPackets++;
+                        continue;
+                    }
+                }
+                DuelState s = received[(int) tick & MASK];
+                DuelCodec.readFighters(in, base, s);
+                s.tick = tick;
+                latestTick = tick;
+                serverAck = header[2];
+                authoritative.copyFrom(s);
+                fresh = true;
+            } catch (NetFormatException e) {
+                stats.badPackets++;
+            }
+        }
+    }
+
+    private void reconcile() {
+        long start = System.nanoTime();
+        long ack = serverAck;
+        // хост обработал вводы до ack включительно; то, что старше окна, уже не проверить
+        boolean known = ack > 0 && ack <= seq && seq - ack < HISTORY;
+        if (known && predicted[(int) ack & MASK].sameFighter(authoritative, SLOT)) {
+            // предсказание верное - только соперник встает туда, где его видит хост
+            duel.applyFighter(authoritative, REMOTE);
+            stats.reconciled(System.nanoTime() - start, 0);
+            return;
+        }
+        duel.apply(authoritative);
+        long from = Math.max(ack + 1, seq - HISTORY + 1);
+        int replayed = 0;
+        for (long s = from; s <= seq; s++) {
+            int slot = (int) s & MASK;
+            // соперник на перепроигрывании стоит на месте, его позиция - из снапшота
+            duel.step(DuelInput.NONE, inputs[slot]);
+            duel.capture(predicted[slot]);
+            replayed++;
+        }
+        duel.applyFighter(authoritative, REMOTE);
+        stats.reconciled(System.nanoTime() - start, Math.max(1, replayed));
+    }
+
+    private void sendInputs() {
+        long first = Math.max(serverAck + 1, seq - DuelCodec.MAX_INPUTS_PER_PACKET + 1);
+        out.reset();
+        DuelCodec.writeInputs(out, latestTick, first, (int) (seq - first + 1), inputs, MASK);
+        transport.send(out.array(), out.lengthBytes());
+        stats.sent(out.lengthBytes());
+    }
+}
@@ -0,0 +1,127 @@
+package com.app.game.core.net;
+
+// Битовый формат пакетов дуэли.
+// INPUT (клиент -> хост): [type:2][ackTick+1:var][firstSeq:var][count-1:4][ввод:3] x count.
+//   Каждый пакет повторяет все еще не подтвержденные вводы (до 16), так что потеря пакета
+//   ничего не стоит, пока доходит следующий.
+// SNAPSHOT (хост -> клиент): [type:2][tick:var][baselineBack:6][ackInput:var][боец] x SLOTS.
+//   Боец - дельта от базы, которую клиент подтвердил (baselineBack тиков назад, 0 - от нуля):
+//   [changed:1], дальше по полям [changed:1][значение]. Позиции - разница в 1/16 px с классом
+//   ширины (8/12/16/32 бит), остальное - фиксированной ширины
+public final class DuelCodec {
+
+    public static final int TYPE_INPUT = 1;
+    public static final int TYPE_SNAPSHOT = 2;
+    private static final int TYPE_BITS = 2;
+
+    public static final int MAX_INPUTS_PER_PACKET = 16;
+    private static final int COUNT_BITS = 4;
+    public static final int MAX_BASELINE_BACK = 63;
+    private static final int BASELINE_BITS = 6;
+
+    private static final int[] POSITION_CLASS_BITS = {8, 12, 16, 32};
+    // ширина полей DIR, LAST_DIR, HP, COOLDOWN
+    private static final int[] FIELD_BITS = {0, 0, 2, 2, 7, 5};
+
+    private DuelCodec() {
+    }
+
+    public static int readType(BitReader in) throws NetFormatException {
+        return in.read(TYPE_BITS);
+    }
+
+    // inputs - кольцо по номеру ввода (маска mask)
+    public static void writeInputs(BitWriter out, long ackTick, long firstSeq, int count, int[] inputs, int mask) {
+        if (count < 1 || count > MAX_INPUTS_PER_PACKET) throw new IllegalArgumentException("count " + count);
+        out.write(TYPE_INPUT, TYPE_BITS);
+        out.writeVar(ackTick + 1);
+        out.writeVar(firstSeq);
+        out.write(count - 1, COUNT_BITS);
+        for (int i = 0; i < count; i++) {
+            out.write(inputs[(int) (firstSeq + i) & mask], DuelInput.BITS);
+        }
+    }
+
+    // Заголовок снапшота; поля бойцов - writeFighters
+    public static void writeSnapshotHeader(BitWriter out, long tick, int baselineBack, long ackInput) {
+        out.write(TYPE_SNAPSHOT, TYPE_BITS);
+        out.writeVar(tick);
+        out.write(baselineBack, BASELINE_BITS);
+        out.writeVar(ackInput);
+    }
+
+    public static void writeFighters(BitWriter out, DuelState base, DuelState s) {
+        for (int slot = 0; slot < DuelState.SLOTS; slot++) {
+            boolean changed = !s.sameFighter(base, slot);
+            out.writeBool(changed);
+            if (!changed) continue;
+            for (int f = 0; f < DuelState.FIELDS; f++) {
+                int v = s.get(slot, f), b = base.get(slot, f);
+                out.writeBool(v != b);
+                if (v == b) continue;
+                if (f == DuelState.X || f == DuelState.Y) {
+                    writePositionDelta(out, v - b);
+                } else {
+                    out.write(v, FIELD_BITS[f]);
+                }
+            }
+        }
+    }
+
+    // После readType. header: [ackTick, firstSeq], вводы - в out по порядку, вернет их число
+    public static int readInputs(BitReader in, long[] header, int[] out) throws NetFormatException {
+        header[0] = in.readVar() - 1;
+        header[1] = in.readVar();
+        int count = in.read(COUNT_BITS) + 1;
+        for (int i = 0; i < count; i++) out[i] = in.read(DuelInput.BITS);
+        return count;
+    }
+
+    // После readType. header: [tick, baselineBack, ackInput]; поля бойцов - readFighters
+    public static void readSnapshotHeader(BitReader in, long[] header) throws NetFormatException {
+        header[0] = in.readVar();
+        header[1] = in.read(BASELINE_BITS);
+        header[2] = in.readVar();
+    }
+
+    public static void readFighters(BitReader in, DuelState base, DuelState out) throws NetFormatException {
+        for (int slot = 0; slot < DuelState.SLOTS; slot++) {
+            boolean changed = in.readBool();
+            for (int f = 0; f < DuelState.FIELDS; f++) {
+                int b = base.get(slot, f);
+                if (!changed || !in.readBool()) {
+                    out.set(slot, f, b);
+                } else if (f == DuelState.X || f == DuelState.Y) {
+                    out.set(slot, f, b + readPositionDelta(in));
+                } else {
+                    int bits = FIELD_BITS[f];
+                    int v = in.read(bits);
+                    // dir и lastDir знаковые
+                    out.set(slot, f, f == DuelState.DIR || f == DuelState.LAST_DIR ? (v << 30) >> 30 : v);
+                }
+            }
+        }
+    }
+
+    private static void writePositionDelta(BitWriter out, int d) {
+        int cls = 0;
+        while (cls < POSITION_CLASS_BITS.length - 1 && !fits(d, POSITION_CLASS_BITS[cls])) cls++;
+        out.write(cls, 2);
+        int bits = POSITION_CLASS_BITS[cls];
+        if (bits == 32) {
+            out.write(d, 32);
+        } else {
+            out.writeSigned(d, bits);
+        }
+    }
+
+    private static int readPositionDelta(BitReader in) throws NetFormatException {
+        int bits = POSITION_CLASS_BITS[in.read(2)];
+        return bits == 32 ? in.read(32) : in.readSigned(bits);
+    }
+
+    private static boolean fits(int v, int bits) {
+        int limit = 1 << (bits - 1);
+        return v >= -limit && v < limit;
+    }
+}
@@ -0,0 +1,138 @@
+package com.app.game.core.net;
+
+import com.app.game.core.replay.WorldSetup;
+
+// Авторитетная сторона дуэли (слот 0). Каждый тик: забирает вводы клиента, делает шаг со своим
+// вводом и следующим вводом клиента по порядку, шлет снапшот дельтой от подтвержденной базы.
+// Ввод клиента не дошел - его боец продолжает идти как шел, но без удара. Клиент повторяет
+// только последние MAX_INPUTS_PER_PACKET вводов: если пакет начинается дальше следующего
+// ожидаемого, пропущенные уже не придут - перескакиваем через них, а не ждем вечно. Если после
+// дыры в очереди больше одного запасного ввода, догоняем клиента, чтобы его ввод не остался
+// запаздывать на длину дыры; удар из пропущенных вводов переносим на первый обработанный
+public class DuelHost {
+
+    public static final int SLOT = 0;
+
+    private static final int HISTORY = 64;
+    private static final int MASK = HISTORY - 1;
+
+    private final Duel duel;
+    private final Transport transport;
+    private final NetStats stats = new NetStats();
+
+    // отправленные состояния по тику - базы для дельт
+    private final DuelState[] history = new DuelState[HISTORY];
+    private final DuelState zero = new DuelState();
+    // вводы клиента по номеру, номера с 1
+    private final int[] inputs = new int[HISTORY];
+    private final long[] inputSeq = new long[HISTORY];
+    private long processedSeq;
+    private long newestSeq;
+    private int lastClientInput = DuelInput.NONE;
+    // последний снапшот, который клиент подтвердил, -1 - еще ни одного
+    private long clientAckTick = -1;
+
+    private final byte[] packet = new byte[Transport.MAX_PACKET_BYTES];
+    private final BitWriter out = new BitWriter(Transport.MAX_PACKET_BYTES);
+    private final BitReader in = new BitReader();
+    private final long[] header = new long[3];
+    private final int[] received = new int[DuelCodec.MAX_INPUTS_PER_PACKET];
+
+    public DuelHost(WorldSetup setup, float gapPx, float reachPx, Transport transport) {
+        this.duel = new Duel(setup, SLOT, gapPx, reachPx);
+        this.transport = transport;
+        for (int i = 0; i < HISTORY; i++) history[i] = new DuelState();
+    }
+
+    public Duel getDuel() {
+        return duel;
+    }
+
+    public NetStats getStats() {
+        return stats;
+    }
+
+    public long getProcessedInput() {
+        return processedSeq;
+    }
+
+    public void tick(int hostInput) {
+        receive();
+        long next = processedSeq + 1;
+        boolean carriedAttack = false;
+        if (newestSeq > next + 1) {
+            for (long s = next; s < newestSeq - 1; s++) {
+                int slot = (int) s & MASK;
+                if (inputSeq[slot] == s && DuelInput.attack(inputs[slot])) carriedAttack = true;
+            }
+            stats.skippedInputs += newestSeq - 1 - next;
+            next = newestSeq - 1;
+            processedSeq = next - 1;
+        }
+        int clientInput;
+        int slot = (int) next & MASK;
+        if (inputSeq[slot] == next) {
+            clientInput = inputs[slot];
+            processedSeq = next;
+            lastClientInput = clientInput;
+        } else {
+            clientInput = DuelInput.of(DuelInput.dir(lastClientInput), false);
+        }
+        if (carriedAttack) clientInput = DuelInput.of(DuelInput.dir(clientInput), true);
+        duel.step(hostInput, clientInput);
+
+        DuelState s = history[(int) duel.getWorld().getTick() & MASK];
+        duel.capture(s);
+        sendSnapshot(s);
+        stats.ticks++;
+    }
+
+    private void receive() {
+        int length;
+        while ((length = transport.receive(packet)) >= 0) {
+            stats.received(length);
+            try {
+                in.reset(packet, length);
+                if (DuelCodec.readType(in) != DuelCodec.TYPE_INPUT) {
+                    stats.badPackets++;
+                    continue;
+                }
+                int count = DuelCodec.readInputs(in, header, received);
+                if (header[0] > clientAckTick) clientAckTick = header[0];
+                long first = header[1];
+                if (count > 0 && first > processedSeq + 1) {
+                    stats.skippedInputs += first - processedSeq - 1;
+                    processedSeq = first - 1;
+                }
+                for (int i = 0; i < count; i++) {
+                    long seq = header[1] + i;
+                    // уже обработан или так далеко впереди, что затрет неподтвержденные
+                    if (seq <= processedSeq || seq > processedSeq + HISTORY) continue;
+                    int slot = (int) seq & MASK;
+                    inputs[slot] = received[i];
+                    inputSeq[slot] = seq;
+                    if (seq > newestSeq) newestSeq = seq;
+                }
+            } catch (NetFormatException e) {
+                stats.badPackets++;
+            }
+        }
+    }
+
+    private void sendSnapshot(DuelState s) {
+        DuelState base = zero;
+        int back = 0;
+        long ack = clientAckTick;
+        if (ack >= 0 && s.tick - ack <= DuelCodec.MAX_BASELINE_BACK && history[(int) ack & MASK].tick == ack) {
+            base = history[(int) ack & MASK];
+            back = (int) (s.tick - ack);
+        }
+        out.reset();
+        DuelCodec.writeSnapshotHeader(out, s.tick, back, processedSeq);
+        DuelCodec.writeFighters(out, base, s);
+        if (back == 0) stats.fullSnapshots++;
+        else stats.deltaSnapshots++;
+        transport.send(out.array(), out.lengthBytes());
+        stats.sent(out.lengthBytes());
+    }
+}
@@ -0,0 +1,23 @@
+package com.app.game.core.net;
+
+// Ввод одного бойца за тик в 3 бита: [attack:1][dir:2], dir в дополнительном коде (-1 = 0b11)
+public final class DuelInput {
+
+    public static final int NONE = 0;
+    public static final int BITS = 3;
+
+    private DuelInput() {
+    }
+
+    public static int of(int dir, boolean attack) {
+        return (dir & 3) | (attack ? 4 : 0);
+    }
+
+    public static int dir(int input) {
+        return (input << 30) >> 30;
+    }
+
+    public static boolean attack(int input) {
+        return (input & 4) != 0;
+    }
+}
@@ -0,0 +1,58 @@
+package com.app.game.core.net;
+
+import java.util.Arrays;
+
+// Состояние дуэли, которое ходит по сети: тик хоста и поля обоих бойцов.
+// Позиции в 1/POSITION_SCALE px - Duel сам держит их на этой сетке, так что копия без потерь.
+// Анимация сюда не входит, каждая сторона доигрывает ее сама
+public final class DuelState {
+
+    public static final int SLOTS = 2;
+    public static final int POSITION_SCALE = 16;
+
+    // Поля бойца
+    public static final int X = 0;
+    public static final int Y = 1;
+    public static final int DIR = 2;
+    public static final int LAST_DIR = 3;
+    public static final int HP = 4;
+    public static final int COOLDOWN = 5;
+    public static final int FIELDS = 6;
+
+    public long tick = -1;
+    private final int[] fields = new int[SLOTS * FIELDS];
+
+    public int get(int slot, int field) {
+        return fields[slot * FIELDS + field];
+    }
+
+    public void set(int slot, int field, int value) {
+        fields[slot * FIELDS + field] = value;
+    }
+
+    public void copyFrom(DuelState o) {
+        tick = o.tick;
+        System.arraycopy(o.fields, 0, fields, 0, fields.length);
+    }
+
+    // Нулевая база: полный снапшот кодируется как дельта от нее
+    public void clear() {
+        tick = -1;
+        Arrays.fill(fields, 0);
+    }
+
+    public boolean sameFighter(DuelState o, int slot) {
+        for (int f = slot * FIELDS, end = f + FIELDS; f < end; f++) {
+            if (fields[f] != o.fields[f]) return false;
+        }
+        return true;
+    }
+
+    public static int toFixed(float px) {
+        return Math.round(px * POSITION_SCALE);
+    }
+
+    public static float toPx(int fixed) {
+        return fixed / (float) POSITION_SCALE;
+    }
+}
@@ -0,0 +1,110 @@
+package com.app.game.core.net;
+
+// Две симуляции в одном процессе (тесты, бенчи, игра вдвоем на одном устройстве).
+// Задержка считается в тиках: пакет, отправленный на шаге N, читается с шага N + latencyTicks.
+// Потери детерминированные - каждый lossEvery-й пакет в каждую сторону, чтобы тесты повторялись.
+// Очереди выделены заранее, send/receive не аллоцируют
+public class LoopbackTransport {
+
+    private final Queue toClient;
+    private final Queue toHost;
+    private final Transport hostEnd;
+    private final Transport clientEnd;
+    private final int latencyTicks;
+    private long now;
+
+    public LoopbackTransport(int latencyTicks, int queueCapacity) {
+        if (latencyTicks < 0) throw new IllegalArgumentException("latency " + latencyTicks);
+        this.latencyTicks = latencyTicks;
+        toClient = new Queue(queueCapacity);
+        toHost = new Queue(queueCapacity);
+        hostEnd = new End(toClient, toHost);
+        clientEnd = new End(toHost, toClient);
+    }
+
+    public Transport hostEnd() {
+        return hostEnd;
+    }
+
+    public Transport clientEnd() {
+        return clientEnd;
+    }
+
+    // 0 - без потерь
+    public synchronized void setLossEvery(int n) {
+        toClient.lossEvery = n;
+        toHost.lossEvery = n;
+    }
+
+    // Один тик сети: пакеты с истекшей задержкой становятся видны
+    public synchronized void step() {
+        now++;
+    }
+
+    public synchronized long getLost() {
+        return toClient.lost + toHost.lost;
+    }
+
+    private final class End implements Transport {
+        private final Queue out, in;
+
+        End(Queue out, Queue in) {
+            this.out = out;
+            this.in = in;
+        }
+
+        @Override
+        public boolean send(byte[] data, int length) {
+            synchronized (LoopbackTransport.this) {
+                return out.offer(data, length, now + latencyTicks);
+            }
+        }
+
+        @Override
+        public int receive(byte[] dst) {
+            synchronized (LoopbackTransport.this) {
+                return in.poll(dst, now);
+            }
+        }
+    }
+
+    private static final class Queue {
+        private final byte[][] packets;
+        private final int[] lengths;
+        private final long[] readyAt;
+        private int head, count;
+        private long sent;
+        long lost;
+        int lossEvery;
+
+        Queue(int capacity) {
+            packets = new byte[capacity][Transport.MAX_PACKET_BYTES];
+            lengths = new int[capacity];
+            readyAt = new long[capacity];
+        }
+
+        boolean offer(byte[] data, int length, long at) {
+            if (length > Transport.MAX_PACKET_BYTES) throw new IllegalArgumentException("Packet " + length);
+            sent++;
+            if (lossEvery > 0 && sent % lossEvery == 0 || count == packets.length) {
+                lost++;
+                return count < packets.length;
+            }
+            int slot = (head + count) % packets.length;
+            System.arraycopy(data, 0, packets[slot], 0, length);
+            lengths[slot] = length;
+            readyAt[slot] = at;
+            count++;
+            return true;
+        }
+
+        int poll(byte[] dst, long now) {
+            if (count == 0 || readyAt[head] > now) return -1;
+            int length = lengths[head];
+            System.arraycopy(packets[head], 0, dst, 0, length);
+            head = (head + 1) % packets.length;
+            count--;
+            return length;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.app.game.core.net;
+
+import java.io.IOException;
+
+// Пакет обрезан или не нашего формата
+public class NetFormatException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public NetFormatException(String message) {
+        super(message);
+    }
+}
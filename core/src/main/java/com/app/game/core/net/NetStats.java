@@ -0,0 +1,98 @@
+package com.app.game.core.net;
+
+// Счетчики одной стороны соединения: трафик на тик и цена сверки предсказания.
+// Пишет поток симуляции, читать (HUD, тесты) можно с любого - значения могут быть на тик позади
+public class NetStats {
+
+    volatile long ticks;
+    volatile long packetsSent, bytesSent;
+    volatile long packetsReceived, bytesReceived;
+    volatile long badPackets;
+    volatile long skippedInputs;
+    volatile long fullSnapshots, deltaSnapshots;
+    volatile long reconciles, corrections, resimulatedTicks;
+    volatile long reconcileNs, maxReconcileNs;
+
+    void sent(int bytes) {
+        packetsSent++;
+        bytesSent += bytes;
+    }
+
+    void received(int bytes) {
+        packetsReceived++;
+        bytesReceived += bytes;
+    }
+
+    void reconciled(long ns, int resimulated) {
+        reconciles++;
+        if (resimulated > 0) corrections++;
+        resimulatedTicks += resimulated;
+        reconcileNs += ns;
+        if (ns > maxReconcileNs) maxReconcileNs = ns;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getPacketsSent() {
+        return packetsSent;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getPacketsReceived() {
+        return packetsReceived;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    // Пакеты, которые не разобрались или пришли с неизвестной базой
+    public long getBadPackets() {
+        return badPackets;
+    }
+
+    // Вводы клиента, которые хост так и не получил и пропустил после серии потерь
+    public long getSkippedInputs() {
+        return skippedInputs;
+    }
+
+    public long getFullSnapshots() {
+        return fullSnapshots;
+    }
+
+    public long getDeltaSnapshots() {
+        return deltaSnapshots;
+    }
+
+    public float getBytesSentPerTick() {
+        long t = ticks;
+        return t > 0 ? bytesSent / (float) t : 0f;
+    }
+
+    // Сверок с хостом (по одной на новый снапшот) и сколько из них разошлись с предсказанием
+    public long getReconciles() {
+        return reconciles;
+    }
+
+    public long getCorrections() {
+        return corrections;
+    }
+
+    public long getResimulatedTicks() {
+        return resimulatedTicks;
+    }
+
+    public long getAverageReconcileNs() {
+        long n = reconciles;
+        return n > 0 ? reconcileNs / n : 0L;
+    }
+
+    public long getMaxReconcileNs() {
+        return maxReconcileNs;
+    }
+}
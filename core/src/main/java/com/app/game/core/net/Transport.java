@@ -0,0 +1,15 @@
+package com.app.game.core.net;
+
+// Канал пакетов между двумя симуляциями, как UDP: пакеты целиком, могут теряться,
+// порядок не обещан. Оба метода не блокируют и зовутся на потоке симуляции
+public interface Transport {
+
+    // Самый большой пакет, который надо уметь передать
+    int MAX_PACKET_BYTES = 256;
+
+    // false - пакет не ушел (очередь полна), для протокола это та же потеря
+    boolean send(byte[] data, int length);
+
+    // Следующий пришедший пакет в out, вернет длину или -1, если пусто
+    int receive(byte[] out);
+}
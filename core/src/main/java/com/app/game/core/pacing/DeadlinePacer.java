@@ -0,0 +1,66 @@
+package com.app.game.core.pacing;
+
+// Пейсинг по расписанию: кадр k начинается в start + k * interval. Опоздали больше чем на кадр -
+// расписание сдвигается, догонять пропущенные кадры смысла нет. Как ждать дедлайн - решает наследник
+public abstract class DeadlinePacer implements FramePacer {
+
+    protected final PacingClock clock;
+    private final long intervalNs;
+    private final long idleIntervalNs;
+    private boolean idle;
+    private boolean started;
+    private long nextNs;
+    private long lastErrorNs;
+
+    protected DeadlinePacer(PacingClock clock, long intervalNs, long idleIntervalNs) {
+        if (intervalNs <= 0 || idleIntervalNs < intervalNs) {
+            throw new IllegalArgumentException("interval " + intervalNs + ", idle " + idleIntervalNs);
+        }
+        this.clock = clock;
+        this.intervalNs = intervalNs;
+        this.idleIntervalNs = idleIntervalNs;
+    }
+
+    // Вернуться не раньше targetNs
+    protected abstract void waitUntil(long targetNs);
+
+    @Override
+    public long awaitFrame() {
+        long interval = getFrameIntervalNs();
+        long now = clock.nanoTime();
+        if (!started) {
+            started = true;
+            nextNs = now + interval;
+            lastErrorNs = 0;
+            return now;
+        }
+        long target = nextNs;
+        if (now < target) {
+            waitUntil(target);
+            now = clock.nanoTime();
+        }
+        lastErrorNs = now - target;
+        nextNs = lastErrorNs > interval ? now + interval : target + interval;
+        return now;
+    }
+
+    @Override
+    public long getLastErrorNs() {
+        return lastErrorNs;
+    }
+
+    @Override
+    public long getFrameIntervalNs() {
+        return idle ? idleIntervalNs : intervalNs;
+    }
+
+    @Override
+    public void setIdle(boolean idle) {
+        this.idle = idle;
+    }
+
+    @Override
+    public void reset() {
+        started = false;
+    }
+}
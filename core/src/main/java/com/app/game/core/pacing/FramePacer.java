@@ -0,0 +1,23 @@
+package com.app.game.core.pacing;
+
+// Стратегия пейсинга GameLoop: когда начинать следующий кадр.
+// Все методы, кроме сигналов извне (VsyncPacer.onVsync), зовутся только из потока лупа
+public interface FramePacer {
+
+    // Блокирует до начала следующего кадра, возвращает время его начала по часам пейсера
+    long awaitFrame();
+
+    // Насколько последний кадр начался позже плана (ns, <0 - раньше)
+    long getLastErrorNs();
+
+    // Текущий плановый интервал между кадрами
+    long getFrameIntervalNs();
+
+    // Игрок ничего не делает - стратегия может реже рисовать
+    void setIdle(boolean idle);
+
+    // Забыть расписание (после паузы первый кадр сразу, без догоняния)
+    void reset();
+
+    String getName();
+}
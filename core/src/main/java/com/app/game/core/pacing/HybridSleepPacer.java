@@ -0,0 +1,52 @@
+package com.app.game.core.pacing;
+
+// Точный пейсинг: спим почти до дедлайна и досиживаем последние сотни микросекунд в спине.
+// Запас под спин подстраивается под то, насколько реально пересыпает park на этом устройстве
+public class HybridSleepPacer extends DeadlinePacer {
+
+    private static final long MIN_SPIN_NS = 200_000;
+    private static final long MAX_SPIN_NS = 3_000_000;
+    private static final long INITIAL_SPIN_NS = 1_000_000;
+
+    private long spinNs = INITIAL_SPIN_NS;
+
+    public HybridSleepPacer(PacingClock clock, long intervalNs) {
+        super(clock, intervalNs, intervalNs);
+    }
+
+    @Override
+    protected void waitUntil(long targetNs) {
+        long wakeNs = targetNs - spinNs;
+        long now = clock.nanoTime();
+        if (now < wakeNs) {
+            while (now < wakeNs) {
+                clock.park(wakeNs - now);
+                now = clock.nanoTime();
+            }
+            adaptSpin(now - wakeNs);
+        }
+        while (now < targetNs) {
+            clock.spinWait();
+            now = clock.nanoTime();
+        }
+    }
+
+    // Пересып с запасом в полраза: растем сразу, сжимаемся медленно (1/16 разницы за кадр)
+    private void adaptSpin(long overshootNs) {
+        long wanted = Math.max(MIN_SPIN_NS, overshootNs + overshootNs / 2);
+        if (wanted > spinNs) {
+            spinNs = Math.min(wanted, MAX_SPIN_NS);
+        } else {
+            spinNs -= (spinNs - wanted) >> 4;
+        }
+    }
+
+    public long getSpinNs() {
+        return spinNs;
+    }
+
+    @Override
+    public String getName() {
+        return "hybrid";
+    }
+}
@@ -0,0 +1,28 @@
+package com.app.game.core.pacing;
+
+// Экономный режим: не больше 30 FPS, без спина (точность - сколько даст park),
+// пока игрок бездействует - 10 FPS
+public class LowPowerPacer extends DeadlinePacer {
+
+    public static final long INTERVAL_NS = 1_000_000_000L / 30;
+    public static final long IDLE_INTERVAL_NS = 1_000_000_000L / 10;
+
+    // displayIntervalNs - период обновления экрана: на 24-герцовом экране 30 FPS не нужны
+    public LowPowerPacer(PacingClock clock, long displayIntervalNs) {
+        super(clock, Math.max(INTERVAL_NS, displayIntervalNs), Math.max(IDLE_INTERVAL_NS, displayIntervalNs));
+    }
+
+    @Override
+    protected void waitUntil(long targetNs) {
+        long now = clock.nanoTime();
+        while (now < targetNs) {
+            clock.park(targetNs - now);
+            now = clock.nanoTime();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "low-power";
+    }
+}
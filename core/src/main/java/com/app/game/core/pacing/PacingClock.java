@@ -0,0 +1,19 @@
+package com.app.game.core.pacing;
+
+// Часы и ожидание для пейсеров. На устройстве - System.nanoTime/LockSupport, в тестах - ручные часы,
+// поэтому каждую стратегию можно прогнать детерминированно на JVM
+public interface PacingClock {
+
+    long nanoTime();
+
+    // CPU-время текущего потока в ns, -1 если платформа не умеет
+    long threadCpuNanos();
+
+    // Уснуть не дольше ns. Может проснуться раньше (unpark, спурьезно) - вызывающий проверяет время сам
+    void park(long ns);
+
+    void unpark(Thread thread);
+
+    // Один шаг активного ожидания
+    void spinWait();
+}
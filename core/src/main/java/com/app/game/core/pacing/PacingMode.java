@@ -0,0 +1,7 @@
+package com.app.game.core.pacing;
+
+public enum PacingMode {
+    VSYNC,
+    HYBRID,
+    LOW_POWER
+}
@@ -0,0 +1,33 @@
+package com.app.game.core.pacing;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Настоящие часы. CPU-время потока в core не достать (на Android нет java.lang.management),
+// приложение переопределяет threadCpuNanos
+public class SystemPacingClock implements PacingClock {
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public long threadCpuNanos() {
+        return -1;
+    }
+
+    @Override
+    public void park(long ns) {
+        LockSupport.parkNanos(ns);
+    }
+
+    @Override
+    public void unpark(Thread thread) {
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void spinWait() {
+        Thread.yield();
+    }
+}
@@ -0,0 +1,94 @@
+package com.app.game.core.pacing;
+
+// Кадр по vsync: источник (на Android - Choreographer на своем Looper-потоке) зовет onVsync,
+// луп спит до следующего сигнала. Сигналов нет дольше двух периодов (экран выключен,
+// источник не запущен) - кадр начинается по таймауту, чтобы луп не встал.
+// Ошибка пейсинга - задержка от vsync до начала кадра
+public class VsyncPacer implements FramePacer {
+
+    private static final int TIMEOUT_PERIODS = 2;
+
+    private final PacingClock clock;
+    private final long periodNs;
+    private final int idleDivisor;
+
+    // пишет только поток источника
+    private volatile long vsyncCount;
+    private volatile long lastVsyncNs;
+    private volatile Thread waiter;
+
+    private long consumedCount;
+    private long lastErrorNs;
+    private boolean idle;
+
+    public VsyncPacer(PacingClock clock, long periodNs) {
+        this(clock, periodNs, 1);
+    }
+
+    // idleDivisor - в простое рисовать каждый N-й vsync
+    public VsyncPacer(PacingClock clock, long periodNs, int idleDivisor) {
+        if (periodNs <= 0 || idleDivisor < 1) {
+            throw new IllegalArgumentException("period " + periodNs + ", divisor " + idleDivisor);
+        }
+        this.clock = clock;
+        this.periodNs = periodNs;
+        this.idleDivisor = idleDivisor;
+    }
+
+    // frameTimeNs - время vsync по тем же часам, что у пейсера (Choreographer отдает System.nanoTime)
+    public void onVsync(long frameTimeNs) {
+        lastVsyncNs = frameTimeNs;
+        vsyncCount++;
+        Thread t = waiter;
+        if (t != null) clock.unpark(t);
+    }
+
+    @Override
+    public long awaitFrame() {
+        int divisor = idle ? idleDivisor : 1;
+        long target = consumedCount + divisor;
+        waiter = Thread.currentThread();
+        long now = clock.nanoTime();
+        long timeoutNs = now + periodNs * divisor * TIMEOUT_PERIODS;
+        while (vsyncCount < target && now < timeoutNs) {
+            clock.park(timeoutNs - now);
+            now = clock.nanoTime();
+        }
+        waiter = null;
+        long count = vsyncCount;
+        if (count < target) {
+            // таймаут: считаем от того vsync, который должен был прийти
+            lastErrorNs = now - (timeoutNs - periodNs * divisor);
+        } else {
+            lastErrorNs = now - lastVsyncNs;
+        }
+        consumedCount = count;
+        return now;
+    }
+
+    @Override
+    public long getLastErrorNs() {
+        return lastErrorNs;
+    }
+
+    @Override
+    public long getFrameIntervalNs() {
+        return periodNs * (idle ? idleDivisor : 1);
+    }
+
+    @Override
+    public void setIdle(boolean idle) {
+        this.idle = idle;
+    }
+
+    // Vsync-и, пришедшие во время паузы, не считаются: следующий кадр - по следующему сигналу
+    @Override
+    public void reset() {
+        consumedCount = vsyncCount;
+    }
+
+    @Override
+    public String getName() {
+        return "vsync";
+    }
+}
@@ -0,0 +1,71 @@
+package com.app.game.core.render;
+
+import java.util.Arrays;
+
+// Батчинг: за кадр (до flush) вызовы копятся в одном буфере команд, на flush сортируются
+// по (слой, текстура) со стабильным порядком внутри и уходят в target подряд.
+// Смен текстуры (и состояния в драйвере) - по одной на текстуру в слое, а не на каждый блит
+public class BatchingRenderer extends RecordingRenderer {
+
+    private static final int INDEX_BITS = 24;
+    private static final int TEXTURE_BITS = 20;
+
+    private final Renderer target;
+    private long[] keys = new long[64];
+    private int[] order = new int[64];
+
+    private int lastCommands;
+    private int lastSwitches;
+    private int lastSwitchesUnsorted;
+
+    public BatchingRenderer(Renderer target) {
+        this.target = target;
+    }
+
+    @Override
+    public void flush() {
+        int n = size();
+        if (n >= 1 << INDEX_BITS) throw new IllegalStateException("Too many draw commands: " + n);
+        if (keys.length < n) {
+            keys = new long[Math.max(n, keys.length * 2)];
+            order = new int[keys.length];
+        }
+        // ключ: слой | текстура | номер вызова - сортировка стабильна.
+        // Вызовы без текстуры (текст, контуры) - в конце слоя, поверх картинок
+        long noTexture = (1L << TEXTURE_BITS) - 1;
+        for (int i = 0; i < n; i++) {
+            long tex = texture(i) == NO_TEXTURE ? noTexture : texture(i) & noTexture;
+            keys[i] = ((long) layer(i) << (TEXTURE_BITS + INDEX_BITS)) | (tex << INDEX_BITS) | i;
+        }
+        Arrays.sort(keys, 0, n);
+        for (int k = 0; k < n; k++) {
+            order[k] = (int) (keys[k] & ((1L << INDEX_BITS) - 1));
+        }
+
+        lastCommands = n;
+        lastSwitchesUnsorted = countTextureSwitches(null);
+        lastSwitches = countTextureSwitches(order);
+
+        // координаты в буфере уже с масштабом
+        target.setScale(1f);
+        for (int k = 0; k < n; k++) {
+            replay(order[k], target);
+        }
+        target.flush();
+        reset();
+    }
+
+    // Команд в последнем flush
+    public int getLastCommands() {
+        return lastCommands;
+    }
+
+    // Смен текстуры в последнем flush после сортировки и сколько было бы без нее
+    public int getLastTextureSwitches() {
+        return lastSwitches;
+    }
+
+    public int getLastTextureSwitchesUnsorted() {
+        return lastSwitchesUnsorted;
+    }
+}
@@ -0,0 +1,107 @@
+package com.app.game.core.render;
+
+// Счетчики рендера: вызовы отрисовки и залитые пиксели за кадр, объекты нарисованные/отсеченные
+// камерой, пропущенные кадры.
+// Пишет поток лупа; раз в секунду publish, HUD читает опубликованное с любого потока.
+// HUD не должен меняться каждый кадр сам по себе - иначе пропуск неизменных кадров не сработает
+public final class DrawStats {
+
+    private int calls;
+    private long pixels;
+    private int objectsDrawn, objectsCulled;
+    private int lastCalls;
+    private long lastPixels;
+    private volatile int lastDrawn, lastCulled;
+    private long skippedAtPublish;
+
+    private volatile long drawnFrames;
+    private volatile long skippedFrames;
+
+    private volatile int publishedCalls;
+    private volatile long publishedPixels;
+    private volatile int publishedSkipped;
+    private volatile int publishedDrawn, publishedCulled;
+
+    // Блит w x h в (x, y), пиксели считаются только видимые на экране screenW x screenH
+    public void blit(float x, float y, int w, int h, int screenW, int screenH) {
+        calls++;
+        long visW = (long) (Math.min(x + w, screenW) - Math.max(x, 0f));
+        long visH = (long) (Math.min(y + h, screenH) - Math.max(y, 0f));
+        if (visW > 0 && visH > 0) pixels += visW * visH;
+    }
+
+    // Вызов, пиксели которого не считаем (текст, контуры)
+    public void call() {
+        calls++;
+    }
+
+    // Итог отсечения по видимой области за кадр (тайлы, пропсы, спрайты, частицы)
+    public void objects(int drawn, int culled) {
+        objectsDrawn += drawn;
+        objectsCulled += culled;
+    }
+
+    public void endFrame() {
+        lastCalls = calls;
+        lastPixels = pixels;
+        lastDrawn = objectsDrawn;
+        lastCulled = objectsCulled;
+        calls = 0;
+        pixels = 0;
+        objectsDrawn = 0;
+        objectsCulled = 0;
+        drawnFrames++;
+    }
+
+    public void skipFrame() {
+        skippedFrames++;
+    }
+
+    // Последний нарисованный кадр и пропуски с прошлого publish
+    public void publish() {
+        publishedCalls = lastCalls;
+        publishedPixels = lastPixels;
+        publishedDrawn = lastDrawn;
+        publishedCulled = lastCulled;
+        long skipped = skippedFrames;
+        publishedSkipped = (int) (skipped - skippedAtPublish);
+        skippedAtPublish = skipped;
+    }
+
+    public int getCalls() {
+        return publishedCalls;
+    }
+
+    public long getPixels() {
+        return publishedPixels;
+    }
+
+    public int getDrawnObjects() {
+        return publishedDrawn;
+    }
+
+    public int getCulledObjects() {
+        return publishedCulled;
+    }
+
+    // Последний нарисованный кадр, без ожидания publish (профилирование по кадрам)
+    public int getLastFrameDrawnObjects() {
+        return lastDrawn;
+    }
+
+    public int getLastFrameCulledObjects() {
+        return lastCulled;
+    }
+
+    public int getSkipped() {
+        return publishedSkipped;
+    }
+
+    public long getDrawnFrames() {
+        return drawnFrames;
+    }
+
+    public long getSkippedFrames() {
+        return skippedFrames;
+    }
+}
@@ -0,0 +1,47 @@
+package com.app.game.core.render;
+
+// Отпечаток всего, от чего зависят пиксели кадра (сдвиги слоев, экранная позиция и кадр спрайта,
+// текст HUD...). Совпал с прошлым - кадр можно не рисовать вовсе, на экране уже то же самое.
+// Один поток (луп), без аллокаций
+public final class FrameFingerprint {
+
+    private static final long OFFSET = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long hash = OFFSET;
+    private long last;
+    private boolean valid;
+
+    public FrameFingerprint begin() {
+        hash = OFFSET;
+        return this;
+    }
+
+    public FrameFingerprint add(long v) {
+        hash = (hash ^ v) * PRIME;
+        hash ^= hash >>> 29;
+        return this;
+    }
+
+    public FrameFingerprint add(char[] chars, int length) {
+        for (int i = 0; i < length; i++) add(chars[i]);
+        return add(length);
+    }
+
+    public long value() {
+        return hash;
+    }
+
+    // true - кадр отличается от последнего нарисованного (или экран надо перерисовать в любом случае)
+    public boolean changed() {
+        boolean changed = !valid || hash != last;
+        last = hash;
+        valid = true;
+        return changed;
+    }
+
+    // Содержимое экрана неизвестно (новая поверхность) - следующий кадр рисуем обязательно
+    public void invalidate() {
+        valid = false;
+    }
+}
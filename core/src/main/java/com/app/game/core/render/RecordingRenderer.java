@@ -0,0 +1,178 @@
+package com.app.game.core.render;
+
+import java.util.Arrays;
+
+// Бэкенд-запись: вызовы складываются в плоские массивы (команда = индекс) и могут быть
+// проиграны в другой Renderer. Для тестов на JVM (порядок, число вызовов, смены текстур без GPU)
+// и как буфер команд для BatchingRenderer. Без аллокаций после прогрева
+public class RecordingRenderer implements Renderer {
+
+    public static final int OP_CLEAR = 0;
+    public static final int OP_IMAGE = 1;
+    public static final int OP_TEXT = 2;
+    public static final int OP_CIRCLE = 3;
+
+    private int count;
+    private int[] op = new int[64];
+    private int[] layer = new int[64];
+    // текстура для OP_IMAGE, стиль для текста и кругов, цвет для OP_CLEAR
+    private int[] texture = new int[64];
+    private int[] style = new int[64];
+    // OP_IMAGE: источник по 4 на команду; длина текста в src[i * 4]
+    private int[] src = new int[64 * 4];
+    // OP_IMAGE: назначение по 4 на команду, текст (x, y), круг (cx, cy, r)
+    private float[] dst = new float[64 * 4];
+    private boolean[] flip = new boolean[64];
+    private char[][] text = new char[64][];
+
+    private int currentLayer;
+    private float scale = 1f;
+
+    @Override
+    public void setLayer(int layer) {
+        currentLayer = layer;
+    }
+
+    @Override
+    public void setScale(float scale) {
+        this.scale = scale;
+    }
+
+    @Override
+    public void clear(int argb) {
+        int i = add(OP_CLEAR, NO_TEXTURE);
+        style[i] = argb;
+    }
+
+    @Override
+    public void drawImage(int texture, int srcLeft, int srcTop, int srcRight, int srcBottom,
+                          float dstLeft, float dstTop, float dstRight, float dstBottom, boolean flipX) {
+        int i = add(OP_IMAGE, texture);
+        int s = i * 4;
+        src[s] = srcLeft;
+        src[s + 1] = srcTop;
+        src[s + 2] = srcRight;
+        src[s + 3] = srcBottom;
+        dst[s] = dstLeft * scale;
+        dst[s + 1] = dstTop * scale;
+        dst[s + 2] = dstRight * scale;
+        dst[s + 3] = dstBottom * scale;
+        flip[i] = flipX;
+    }
+
+    @Override
+    public void drawText(char[] chars, int length, float x, float y, int style) {
+        int i = add(OP_TEXT, NO_TEXTURE);
+        this.style[i] = style;
+        text[i] = chars;
+        src[i * 4] = length;
+        dst[i * 4] = x * scale;
+        dst[i * 4 + 1] = y * scale;
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, int style) {
+        int i = add(OP_CIRCLE, NO_TEXTURE);
+        this.style[i] = style;
+        dst[i * 4] = cx * scale;
+        dst[i * 4 + 1] = cy * scale;
+        dst[i * 4 + 2] = radius * scale;
+    }
+
+    // Запись остается для проверки, следующий кадр пишется в конец. reset() - начать заново
+    @Override
+    public void flush() {
+    }
+
+    public void reset() {
+        // текст держит чужие буферы - не держим их дольше кадра
+        Arrays.fill(text, 0, count, null);
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int op(int i) {
+        return op[i];
+    }
+
+    public int layer(int i) {
+        return layer[i];
+    }
+
+    public int texture(int i) {
+        return texture[i];
+    }
+
+    public float dstLeft(int i) {
+        return dst[i * 4];
+    }
+
+    public float dstTop(int i) {
+        return dst[i * 4 + 1];
+    }
+
+    public boolean flipX(int i) {
+        return flip[i];
+    }
+
+    // Сколько раз подряд идущие картинки меняют текстуру в порядке order (null - порядок записи)
+    public int countTextureSwitches(int[] order) {
+        int switches = 0;
+        int last = NO_TEXTURE;
+        for (int n = 0; n < count; n++) {
+            int i = order != null ? order[n] : n;
+            if (op[i] != OP_IMAGE) continue;
+            if (texture[i] != last) {
+                if (last != NO_TEXTURE) switches++;
+                last = texture[i];
+            }
+        }
+        return switches;
+    }
+
+    // Проиграть команду i в target (координаты уже с масштабом)
+    public void replay(int i, Renderer target) {
+        int s = i * 4;
+        switch (op[i]) {
+            case OP_CLEAR:
+                target.clear(style[i]);
+                break;
+            case OP_IMAGE:
+                target.drawImage(texture[i], src[s], src[s + 1], src[s + 2], src[s + 3],
+                        dst[s], dst[s + 1], dst[s + 2], dst[s + 3], flip[i]);
+                break;
+            case OP_TEXT:
+                target.drawText(text[i], src[s], dst[s], dst[s + 1], style[i]);
+                break;
+            case OP_CIRCLE:
+                target.drawCircle(dst[s], dst[s + 1], dst[s + 2], style[i]);
+                break;
+            default:
+                throw new IllegalStateException("Unknown op " + op[i]);
+        }
+    }
+
+    private int add(int opcode, int tex) {
+        if (count == op.length) grow();
+        int i = count++;
+        op[i] = opcode;
+        layer[i] = currentLayer;
+        texture[i] = tex;
+        return i;
+    }
+
+    private void grow() {
+        int n = op.length * 2;
+        op = Arrays.copyOf(op, n);
+        layer = Arrays.copyOf(layer, n);
+        texture = Arrays.copyOf(texture, n);
+        style = Arrays.copyOf(style, n);
+        src = Arrays.copyOf(src, n * 4);
+        dst = Arrays.copyOf(dst, n * 4);
+        flip = Arrays.copyOf(flip, n);
+        text = Arrays.copyOf(text, n);
+    }
+}
@@ -0,0 +1,29 @@
+package com.app.game.core.render;
+
+// Куда рисует игра: GameView, спрайты и слои ходят только через этот интерфейс.
+// Текстуры и стили - номера слотов, бэкенд сам знает, что за ними (Bitmap/Paint на Android,
+// ничего в тестах). Координаты назначения умножаются на setScale, источник - в пикселях текстуры.
+// Бэкенд может копить вызовы до flush (батчинг), поэтому смена цели - только после flush
+public interface Renderer {
+
+    int NO_TEXTURE = -1;
+
+    // Слои >= 0, их порядок соблюдается всегда; внутри слоя батчинг может переставить вызовы
+    // разных текстур, так что вызовы одного слоя не должны перекрываться с разными текстурами
+    void setLayer(int layer);
+
+    void setScale(float scale);
+
+    void clear(int argb);
+
+    void drawImage(int texture, int srcLeft, int srcTop, int srcRight, int srcBottom,
+                   float dstLeft, float dstTop, float dstRight, float dstBottom, boolean flipX);
+
+    // chars должны жить до flush (HudText держит свои буферы между кадрами)
+    void drawText(char[] chars, int length, float x, float y, int style);
+
+    void drawCircle(float cx, float cy, float radius, int style);
+
+    // Конец кадра или смена цели: все накопленное уходит в цель
+    void flush();
+}
@@ -0,0 +1,65 @@
+package com.app.game.core.render;
+
+// Внутреннее разрешение low-res рендера: сцена рисуется в маленький битмап и один раз за кадр
+// растягивается на поверхность целым множителем (nearest). Остаток от деления - поля по краям.
+// Мир остается в пикселях устройства, один пиксель цели = scale x scale пикселей экрана.
+// Неизменяемый: UI-поток собирает новый на resize, луп читает ссылку
+public final class VirtualResolution {
+
+    // 480x270 на 1920x1080, 600x270 на 2400x1080
+    public static final int DEFAULT_HEIGHT = 270;
+
+    public final int surfaceWidth, surfaceHeight;
+    public final int scale;
+    public final int width, height;
+    // где на поверхности начинается картинка (поля)
+    public final int offsetX, offsetY;
+
+    private VirtualResolution(int surfaceWidth, int surfaceHeight, int scale) {
+        this.surfaceWidth = surfaceWidth;
+        this.surfaceHeight = surfaceHeight;
+        this.scale = scale;
+        this.width = Math.max(1, surfaceWidth / scale);
+        this.height = Math.max(1, surfaceHeight / scale);
+        this.offsetX = (surfaceWidth - width * scale) / 2;
+        this.offsetY = (surfaceHeight - height * scale) / 2;
+    }
+
+    // Самый крупный целый множитель, при котором высота цели не меньше targetHeight
+    public static VirtualResolution fit(int surfaceWidth, int surfaceHeight, int targetHeight) {
+        return fit(surfaceWidth, surfaceHeight, targetHeight, Integer.MAX_VALUE);
+    }
+
+    // То же, но не больше maxScale - см. nativeScale
+    public static VirtualResolution fit(int surfaceWidth, int surfaceHeight, int targetHeight, int maxScale) {
+        if (targetHeight <= 0) throw new IllegalArgumentException("targetHeight " + targetHeight);
+        int scale = Math.min(surfaceHeight / targetHeight, maxScale);
+        return new VirtualResolution(surfaceWidth, surfaceHeight, Math.max(1, scale));
+    }
+
+    // Наибольший scale, при котором ассет с исходной стороной sourcePx, занимающий на экране drawPx,
+    // в цели не меньше 1:1 (toTarget(drawPx) >= sourcePx) - тексели не выбрасываются.
+    // Минимум по всем ассетам сцены - потолок для fit
+    public static int nativeScale(int drawPx, int sourcePx) {
+        return Math.max(1, drawPx / Math.max(1, sourcePx));
+    }
+
+    // 1:1, без внутренней цели
+    public static VirtualResolution identity(int surfaceWidth, int surfaceHeight) {
+        return new VirtualResolution(surfaceWidth, surfaceHeight, 1);
+    }
+
+    // Координата устройства, прижатая к сетке пикселей цели - иначе картинка дрожит на полпикселя
+    public float snap(float devicePx) {
+        return scale == 1 ? Math.round(devicePx) : Math.round(devicePx / scale) * (float) scale;
+    }
+
+    // Размер в пикселях цели для декода ассета, который на экране занимает devicePx
+    public int toTarget(int devicePx) {
+        return Math.max(1, devicePx / scale);
+    }
+
+    public long pixelsPerFrame() {
+        return (long) width * height;
+    }
+}
@@ -0,0 +1,128 @@
+package com.app.game.core.replay;
+
+import com.app.game.core.World;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+// Пишет ввод по тикам в компактный бинарный лог.
+// Формат: [magic:int][version:short][reserved:short][checkpointInterval:int][WorldSetup],
+// дальше события [type:byte][дельта тика:varint][payload], в конце END.
+// Пишется только то, что поменялось к началу тика (направление игрока, вьюпорт, нажатия атаки), и хэш
+// состояния каждые checkpointInterval тиков. Little-endian
+public class InputRecorder implements World.TickListener {
+
+    public static final int MAGIC = 0x50524644; // "DFRP"
+    // 2 - нажатия атаки, 3 - сид уровня в WorldSetup, 4 - высота вьюпорта (WorldSetup, EV_VIEWPORT)
+    // и камера по y и зум в хэше
+    public static final int VERSION = 4;
+
+    static final int EV_END = 0;
+    static final int EV_DIRECTION = 1;      // [dir:byte]
+    static final int EV_VIEWPORT = 2;       // [width:int][height:int][groundY:float]
+    static final int EV_CHECKPOINT = 3;     // [hash:long], тик - после апдейта
+    static final int EV_ATTACK = 4;         // [presses:varint]
+
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final int MAX_EVENT_BYTES = 1 + 10 + 12;
+
+    private final int checkpointInterval;
+    private ByteBuffer buf;
+    private long lastEventTick;
+    private int lastDirection = World.NO_INPUT;
+    private int lastViewportWidth = -1, lastViewportHeight = -1;
+    private float lastGroundY = Float.NaN;
+
+    // Звать сразу после setup.createWorld(), до первого тика
+    public InputRecorder(WorldSetup setup, int checkpointInterval) {
+        if (checkpointInterval <= 0) throw new IllegalArgumentException("interval " + checkpointInterval);
+        this.checkpointInterval = checkpointInterval;
+        buf = ByteBuffer.allocate(Math.max(INITIAL_CAPACITY, 16 + setup.encodedSize())).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putShort((short) VERSION).putShort((short) 0);
+        buf.putInt(checkpointInterval);
+        setup.write(buf);
+        lastEventTick = setup.snapshot != null ? setup.snapshot.tick : 0;
+    }
+
+    @Override
+    public synchronized void beforeTick(World world) {
+        long tick = world.getTick();
+        int dir = world.getPlayer().getDirection();
+        if (dir != lastDirection) {
+            event(EV_DIRECTION, tick);
+            buf.put((byte) dir);
+            lastDirection = dir;
+        }
+        int width = world.getViewportWidth();
+        int height = world.getViewportHeight();
+        float groundY = world.getGroundSurfaceY();
+        if (width != lastViewportWidth || height != lastViewportHeight
+                || Float.floatToRawIntBits(groundY) != Float.floatToRawIntBits(lastGroundY)) {
+            event(EV_VIEWPORT, tick);
+            buf.putInt(width).putInt(height).putFloat(groundY);
+            lastViewportWidth = width;
+            lastViewportHeight = height;
+            lastGroundY = groundY;
+        }
+        int presses = world.getAttackPresses();
+        if (presses > 0) {
+            event(EV_ATTACK, tick);
+            putVarLong(buf, presses);
+        }
+    }
+
+    @Override
+    public synchronized void afterTick(World world) {
+        long tick = world.getTick();
+        if (tick % checkpointInterval == 0) {
+            event(EV_CHECKPOINT, tick);
+            buf.putLong(StateHash.of(world));
+        }
+    }
+
+    // Готовый лог на текущий момент (с END). Запись продолжается, если мир еще тикает
+    public synchronized byte[] toByteArray(long endTick) {
+        byte[] out = new byte[buf.position() + MAX_EVENT_BYTES];
+        ByteBuffer copy = ByteBuffer.wrap(out).order(ByteOrder.LITTLE_ENDIAN);
+        copy.put(buf.array(), 0, buf.position());
+        copy.put((byte) EV_END);
+        putVarLong(copy, endTick - lastEventTick);
+        return copy.position() == out.length ? out : Arrays.copyOf(out, copy.position());
+    }
+
+    public synchronized int size() {
+        return buf.position();
+    }
+
+    private void event(int type, long tick) {
+        if (buf.remaining() < MAX_EVENT_BYTES) {
+            ByteBuffer bigger = ByteBuffer.allocate(buf.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+            buf.flip();
+            bigger.put(buf);
+            buf = bigger;
+        }
+        buf.put((byte) type);
+        putVarLong(buf, tick - lastEventTick);
+        lastEventTick = tick;
+    }
+
+    static void putVarLong(ByteBuffer out, long v) {
+        while ((v & ~0x7fL) != 0) {
+            out.put((byte) ((v & 0x7f) | 0x80));
+            v >>>= 7;
+        }
+        out.put((byte) v);
+    }
+
+    static long getVarLong(ByteBuffer in) throws ReplayFormatException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!in.hasRemaining()) throw new ReplayFormatException("Truncated varint");
+            int b = in.get();
+            v |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new ReplayFormatException("Varint too long");
+    }
+}
@@ -0,0 +1,112 @@
+package com.app.game.core.replay;
+
+import com.app.game.core.World;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Прогоняет лог InputRecorder без рендера и пейсинга - так быстро, как тикает World.
+// На каждом чекпоинте сверяет хэш состояния с записанным
+public final class InputReplayer {
+
+    // То, что игра вешает на мир поверх WorldSetup (хуки эффектов и т.п.). С тем же набором
+    // реплей повторяет и косметику - частицы, тряску
+    public interface Decorator {
+        void decorate(World world);
+    }
+
+    private InputReplayer() {
+    }
+
+    public static WorldSetup readSetup(ByteBuffer log) throws ReplayFormatException {
+        ByteBuffer in = log.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int version = readHeader(in);
+        return WorldSetup.read(in, version);
+    }
+
+    public static ReplayResult run(ByteBuffer log, boolean stopOnMismatch) throws ReplayFormatException {
+        return run(log, stopOnMismatch, null);
+    }
+
+    public static ReplayResult run(ByteBuffer log, boolean stopOnMismatch, Decorator decorator)
+            throws ReplayFormatException {
+        ByteBuffer in = log.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int version = readHeader(in);
+        WorldSetup setup = WorldSetup.read(in, version);
+
+        ReplayResult result = new ReplayResult();
+        long startNs = System.nanoTime();
+        World world = setup.createWorld();
+        if (decorator != null) decorator.decorate(world);
+        long startTick = world.getTick();
+        long tick = startTick;
+
+        while (true) {
+            if (!in.hasRemaining()) throw new ReplayFormatException("Replay log has no end marker");
+            int type = in.get();
+            tick += InputRecorder.getVarLong(in);
+            advance(world, tick);
+            switch (type) {
+                case InputRecorder.EV_DIRECTION:
+                    need(in, 1);
+                    world.getPlayer().setDirection(in.get());
+                    break;
+                case InputRecorder.EV_VIEWPORT:
+                    if (version >= 4) {
+                        need(in, 12);
+                        world.setViewport(in.getInt(), in.getInt(), in.getFloat());
+                    } else {
+                        need(in, 8);
+                        world.setViewport(in.getInt(), in.getFloat());
+                    }
+                    break;
+                case InputRecorder.EV_ATTACK:
+                    // засчитается в тике события, как и при записи
+                    world.pressAttack((int) InputRecorder.getVarLong(in));
+                    break;
+                case InputRecorder.EV_CHECKPOINT:
+                    need(in, 8);
+                    long expected = in.getLong();
+                    result.checkpoints++;
+                    if (StateHash.of(world, version) != expected) {
+                        if (result.mismatches++ == 0) result.firstMismatchTick = tick;
+                        if (stopOnMismatch) return finish(result, world, startTick, startNs);
+                    }
+                    break;
+                case InputRecorder.EV_END:
+                    return finish(result, world, startTick, startNs);
+                default:
+                    throw new ReplayFormatException("Unknown event " + type);
+            }
+        }
+    }
+
+    private static int readHeader(ByteBuffer in) throws ReplayFormatException {
+        if (in.remaining() < 12 || in.getInt() != InputRecorder.MAGIC) {
+            throw new ReplayFormatException("Not a replay log");
+        }
+        int version = in.getShort() & 0xffff;
+        in.getShort();
+        if (version > InputRecorder.VERSION) {
+            throw new ReplayFormatException("Replay version " + version + " is newer than " + InputRecorder.VERSION);
+        }
+        in.getInt(); // checkpointInterval - реплееру не нужен, чекпоинты лежат в логе
+        return version;
+    }
+
+    private static void advance(World world, long tick) throws ReplayFormatException {
+        if (tick < world.getTick()) throw new ReplayFormatException("Event goes back in time");
+        while (world.getTick() < tick) world.update(World.DT_SEC);
+    }
+
+    private static void need(ByteBuffer in, int bytes) throws ReplayFormatException {
+        if (in.remaining() < bytes) throw new ReplayFormatException("Truncated event");
+    }
+
+    private static ReplayResult finish(ReplayResult r, World world, long startTick, long startNs) {
+        r.elapsedNs = System.nanoTime() - startNs;
+        r.ticks = world.getTick() - startTick;
+        r.finalHash = StateHash.of(world);
+        return r;
+    }
+}
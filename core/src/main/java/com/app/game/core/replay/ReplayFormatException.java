@@ -0,0 +1,13 @@
+package com.app.game.core.replay;
+
+import java.io.IOException;
+
+// Лог реплея битый или из новой версии
+public class ReplayFormatException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ReplayFormatException(String message) {
+        super(message);
+    }
+}
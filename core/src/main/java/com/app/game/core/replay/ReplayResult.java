@@ -0,0 +1,20 @@
+package com.app.game.core.replay;
+
+// Итог прогона реплея
+public class ReplayResult {
+    public long ticks;
+    public long elapsedNs;
+    public int checkpoints;
+    public int mismatches;
+    // первый тик, на котором хэш разошелся; -1 - все сошлось
+    public long firstMismatchTick = -1;
+    public long finalHash;
+
+    public boolean isDeterministic() {
+        return mismatches == 0;
+    }
+
+    public double ticksPerSecond() {
+        return elapsedNs > 0 ? ticks * 1e9 / elapsedNs : 0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.app.game.core.replay;
+
+import com.app.game.core.World;
+import com.app.game.core.entity.EntityStore;
+
+// 64-битный FNV-1a по всему состоянию симуляции: тик, камера (x, y, зум), все поля сущностей по плотному индексу.
+// Любой расходящийся бит меняет хэш - так реплей ловит недетерминизм
+public final class StateHash {
+
+    private static final long OFFSET = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private StateHash() {
+    }
+
+    public static long of(World world) {
+        return of(world, InputRecorder.VERSION);
+    }
+
+    // Хэш, как его считала запись версии logVersion: до 4-й камера по y и зум в него не входили
+    static long of(World world, int logVersion) {
+        long h = OFFSET;
+        h = mix(h, world.getTick());
+        h = mix(h, Float.floatToRawIntBits(world.getCamX()));
+        if (logVersion >= 4) {
+            h = mix(h, Float.floatToRawIntBits(world.getCamY()));
+            h = mix(h, Float.floatToRawIntBits(world.getCamera().getZoom()));
+        }
+        EntityStore e = world.getEntities();
+        int n = e.size();
+        h = mix(h, n);
+        for (int i = 0; i < n; i++) {
+            h = mix(h, e.idAt(i));
+            h = mix(h, Float.floatToRawIntBits(e.x[i]));
+            h = mix(h, Float.floatToRawIntBits(e.y[i]));
+            h = mix(h, Float.floatToRawIntBits(e.vx[i]));
+            h = mix(h, Float.floatToRawIntBits(e.vy[i]));
+            h = mix(h, Float.floatToRawIntBits(e.speed[i]));
+            h = mix(h, e.dir[i]);
+            h = mix(h, e.lastDir[i]);
+            h = mix(h, e.clip[i]);
+            h = mix(h, Float.floatToRawIntBits(e.clipTime[i]));
+            h = mix(h, e.hp[i]);
+            h = mix(h, e.sprite[i]);
+            h = mix(h, Float.floatToRawIntBits(e.halfW[i]));
+            h = mix(h, Float.floatToRawIntBits(e.halfH[i]));
+        }
+        return h;
+    }
+
+    // по байту, как в FNV-1a
+    private static long mix(long h, long v) {
+        for (int b = 0; b < 8; b++) {
+            h ^= (v >>> (b * 8)) & 0xff;
+            h *= PRIME;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,128 @@
+package com.app.game.core.replay;
+
+import com.app.game.core.World;
+import com.app.game.core.level.ChunkGenerator;
+import com.app.game.core.level.LevelStreamer;
+import com.app.game.core.save.GameSnapshot;
+import com.app.game.core.save.SaveCodec;
+import com.app.game.core.save.SaveFormatException;
+
+import java.nio.ByteBuffer;
+
+// Как был собран мир на старте сессии: GameView и реплеер строят его одним и тем же кодом,
+// поэтому реплей начинается с бит-в-бит того же состояния
+public final class WorldSetup {
+
+    // Мертвая зона камеры в долях видимой области: игрок ходит внутри, камера стоит.
+    // Влияет на camX (он в хэше), поэтому задается тут, а не во вьюхе - реплей строит так же
+    public static final float CAMERA_DEAD_ZONE_X = 0.15f;
+    public static final float CAMERA_DEAD_ZONE_Y = 0.2f;
+
+    // Окно чанков вокруг камеры. Монстры и магазины ставятся по этому окну, поэтому оно тоже тут
+    public static final float LEVEL_AHEAD_PX = ChunkGenerator.CHUNK_WIDTH;
+    public static final float LEVEL_BEHIND_PX = ChunkGenerator.CHUNK_WIDTH * 0.5f;
+    public static final long LEVEL_MAX_RESIDENT_BYTES = 64 * 1024;
+
+    public final float playerStartX, playerStartY, playerSpeed;
+    public final int playerDrawHeight;
+    public final float playerHalfW, playerHalfH;
+    public final int viewportWidth, viewportHeight;
+    public final float groundSurfaceY;
+    // сохранение, из которого восстановились; null - новая игра
+    public final GameSnapshot snapshot;
+    // сид процедурного уровня, 0 - без уровня
+    public final long levelSeed;
+
+    public WorldSetup(float playerStartX, float playerStartY, float playerSpeed,
+                      int playerDrawHeight, float playerHalfW, float playerHalfH,
+                      int viewportWidth, float groundSurfaceY, GameSnapshot snapshot) {
+        this(playerStartX, playerStartY, playerSpeed, playerDrawHeight, playerHalfW, playerHalfH,
+                viewportWidth, 0, groundSurfaceY, snapshot, 0);
+    }
+
+    public WorldSetup(float playerStartX, float playerStartY, float playerSpeed,
+                      int playerDrawHeight, float playerHalfW, float playerHalfH,
+                      int viewportWidth, int viewportHeight, float groundSurfaceY,
+                      GameSnapshot snapshot, long levelSeed) {
+        this.playerStartX = playerStartX;
+        this.playerStartY = playerStartY;
+        this.playerSpeed = playerSpeed;
+        this.playerDrawHeight = playerDrawHeight;
+        this.playerHalfW = playerHalfW;
+        this.playerHalfH = playerHalfH;
+        this.viewportWidth = viewportWidth;
+        this.viewportHeight = viewportHeight;
+        this.groundSurfaceY = groundSurfaceY;
+        this.snapshot = snapshot;
+        this.levelSeed = levelSeed;
+    }
+
+    public World createWorld() {
+        World world = new World(playerStartX, playerStartY, playerSpeed);
+        world.getPlayer().setDrawHeight(playerDrawHeight);
+        world.getPlayer().setHitbox(playerHalfW, playerHalfH);
+        world.setViewport(viewportWidth, viewportHeight, groundSurfaceY);
+        world.getCamera().setDeadZone(CAMERA_DEAD_ZONE_X, CAMERA_DEAD_ZONE_Y);
+        if (snapshot != null) snapshot.applyTo(world);
+        // стример не запущен: запускает игра, реплей обходится без фона - чанки окна соберутся на тике
+        if (levelSeed != 0) {
+            world.setLevel(new LevelStreamer(new ChunkGenerator(levelSeed),
+                    LEVEL_AHEAD_PX, LEVEL_BEHIND_PX, LEVEL_MAX_RESIDENT_BYTES));
+        }
+        return world;
+    }
+
+    int encodedSize() {
+        return 4 * 9 + 8 + 4 + (snapshot != null ? snapshotSize() : 0);
+    }
+
+    private int snapshotSize() {
+        int size = SaveCodec.HEADER_BYTES;
+        for (int sec = 0; sec < SaveCodec.SECTION_COUNT; sec++) size += SaveCodec.recordSize(sec, snapshot);
+        return size;
+    }
+
+    void write(ByteBuffer out) {
+        out.putFloat(playerStartX).putFloat(playerStartY).putFloat(playerSpeed);
+        out.putInt(playerDrawHeight).putFloat(playerHalfW).putFloat(playerHalfH);
+        out.putInt(viewportWidth).putInt(viewportHeight).putFloat(groundSurfaceY);
+        out.putLong(levelSeed);
+        if (snapshot == null) {
+            out.putInt(0);
+            return;
+        }
+        ByteBuffer encoded = SaveCodec.encodeFull(snapshot, null);
+        out.putInt(encoded.remaining());
+        out.put(encoded);
+    }
+
+    // version - версия лога InputRecorder: сид уровня пишется с 3-й, высота вьюпорта - с 4-й
+    static WorldSetup read(ByteBuffer in, int version) throws ReplayFormatException {
+        boolean hasSeed = version >= 3;
+        boolean hasHeight = version >= 4;
+        if (in.remaining() < 4 * 9 + (hasHeight ? 4 : 0) + (hasSeed ? 8 : 0)) throw new ReplayFormatException("Truncated world setup");
+        float x = in.getFloat(), y = in.getFloat(), speed = in.getFloat();
+        int drawHeight = in.getInt();
+        float halfW = in.getFloat(), halfH = in.getFloat();
+        int width = in.getInt();
+        int height = hasHeight ? in.getInt() : 0;
+        float groundY = in.getFloat();
+        long levelSeed = hasSeed ? in.getLong() : 0;
+        int snapshotLength = in.getInt();
+        if (snapshotLength < 0 || snapshotLength > in.remaining()) {
+            throw new ReplayFormatException("Bad snapshot length " + snapshotLength);
+        }
+        GameSnapshot snapshot = null;
+        if (snapshotLength > 0) {
+            ByteBuffer slice = in.slice();
+            slice.limit(snapshotLength);
+            try {
+                snapshot = SaveCodec.decode(slice);
+            } catch (SaveFormatException e) {
+                throw new ReplayFormatException("Bad snapshot: " + e.getMessage());
+            }
+            in.position(in.position() + snapshotLength);
+        }
+        return new WorldSetup(x, y, speed, drawHeight, halfW, halfH, width, height, groundY, snapshot, levelSeed);
+    }
+}
@@ -0,0 +1,85 @@
+package com.app.game.core.save;
+
+import com.app.game.core.PlayerState;
+import com.app.game.core.World;
+import com.app.game.core.entity.EntityStore;
+
+//Наш снапшот сохранения: копия мира, которую можно спокойно писать с другого потока
+public class GameSnapshot {
+    public long tick;
+    public float playerX, playerY;
+    public float cameraX;
+    public int playerLastDirection;
+    public int playerHp = PlayerState.MAX_HP;
+    // сид процедурного уровня, 0 - уровня не было (сохранения до него)
+    public long levelSeed;
+
+    // Остальные сущности (без игрока и без монстров уровня - их снова поставит окно чанков)
+    public int entityCount;
+    public float[] entityX = new float[0], entityY = new float[0], entitySpeed = new float[0];
+    public float[] entityHalfW = new float[0], entityHalfH = new float[0];
+    public int[] entityDir = new int[0], entityLastDir = new int[0], entityHp = new int[0], entitySprite = new int[0];
+
+    public static GameSnapshot capture(World world) {
+        GameSnapshot s = new GameSnapshot();
+        PlayerState player = world.getPlayer();
+        s.tick = world.getTick();
+        s.cameraX = world.getCamX();
+        s.levelSeed = world.getLevel() != null ? world.getLevel().getSeed() : 0;
+        s.playerX = player.getX();
+        s.playerY = player.getY();
+        s.playerLastDirection = player.getLastDirection();
+
+        EntityStore e = world.getEntities();
+        int playerIndex = e.indexOf(player.getId());
+        s.playerHp = e.hp[playerIndex];
+        s.ensureEntityCapacity(e.size() - 1);
+        int n = 0;
+        for (int i = 0; i < e.size(); i++) {
+            if (i == playerIndex || world.isLevelEntity(e.idAt(i))) continue;
+            s.entityX[n] = e.x[i];
+            s.entityY[n] = e.y[i];
+            s.entitySpeed[n] = e.speed[i];
+            s.entityHalfW[n] = e.halfW[i];
+            s.entityHalfH[n] = e.halfH[i];
+            s.entityDir[n] = e.dir[i];
+            s.entityLastDir[n] = e.lastDir[i];
+            s.entityHp[n] = e.hp[i];
+            s.entitySprite[n] = e.sprite[i];
+            n++;
+        }
+        s.entityCount = n;
+        return s;
+    }
+
+    // Мир должен быть свежим (только игрок) - остальные сущности пересоздаются из снапшота
+    public void applyTo(World world) {
+        PlayerState player = world.getPlayer();
+        player.setPosition(playerX, playerY);
+        player.setLastDirX(playerLastDirection);
+        world.setCamX(cameraX);
+        world.setTick(tick);
+
+        EntityStore e = world.getEntities();
+        e.hp[e.indexOf(player.getId())] = playerHp;
+        for (int n = 0; n < entityCount; n++) {
+            int i = e.indexOf(e.create(entityX[n], entityY[n], entitySpeed[n], entityHp[n], entitySprite[n]));
+            e.setHitbox(i, entityHalfW[n], entityHalfH[n]);
+            e.setDirection(i, entityDir[n]);
+            e.lastDir[i] = entityLastDir[n];
+        }
+    }
+
+    public void ensureEntityCapacity(int n) {
+        if (entityX.length >= n) return;
+        entityX = new float[n];
+        entityY = new float[n];
+        entitySpeed = new float[n];
+        entityHalfW = new float[n];
+        entityHalfH = new float[n];
+        entityDir = new int[n];
+        entityLastDir = new int[n];
+        entityHp = new int[n];
+        entitySprite = new int[n];
+    }
+}
@@ -0,0 +1,68 @@
+package com.app.game.core.save;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+
+// Сохранения до SaveCodec: ObjectOutputStream с одним com.app.game.GameSnapshot
+// (позиция игрока, камера, взгляд). Читаются один раз, чтобы пересохранить через SaveStore.
+// Класса в приложении больше нет, поэтому дескриптор из потока подменяется своим V0 с теми же полями.
+// Любой другой класс в потоке - ошибка формата, а не десериализация чего попало
+public final class LegacySnapshot {
+
+    private static final String CLASS_NAME = "com.app.game.GameSnapshot";
+
+    // Поля и их типы - как у старого класса, по ним читаются данные потока
+    private static final class V0 implements Serializable {
+        private static final long serialVersionUID = -7307510777268357508L;
+        float playerX, playerY;
+        float cameraX;
+        int playerLastDirection;
+    }
+
+    private LegacySnapshot() {
+    }
+
+    public static GameSnapshot read(InputStream in) throws IOException {
+        Object o;
+        try (ObjectInputStream ois = new V0InputStream(in)) {
+            o = ois.readObject();
+        } catch (EOFException e) {
+            throw new SaveFormatException("Truncated legacy save");
+        } catch (ClassNotFoundException e) {
+            throw new SaveFormatException("Legacy save: " + e.getMessage());
+        }
+        if (!(o instanceof V0)) throw new SaveFormatException("Legacy save holds " + o);
+        V0 v = (V0) o;
+        GameSnapshot s = new GameSnapshot();
+        s.playerX = v.playerX;
+        s.playerY = v.playerY;
+        s.cameraX = v.cameraX;
+        s.playerLastDirection = v.playerLastDirection;
+        return s;
+    }
+
+    private static final class V0InputStream extends ObjectInputStream {
+
+        V0InputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+            ObjectStreamClass desc = super.readClassDescriptor();
+            if (!CLASS_NAME.equals(desc.getName())) throw new InvalidClassException(desc.getName(), "not a legacy save");
+            return ObjectStreamClass.lookup(V0.class);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException {
+            if (desc.forClass() != V0.class) throw new InvalidClassException(desc.getName(), "not a legacy save");
+            return V0.class;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.app.game.core.save;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+// Бинарный формат сохранения.
+// Файл: заголовок [magic:int][version:short][reserved:short], дальше записи секций
+// [id:short][sectionVersion:short][length:int][crc32:int][payload].
+// Записи идут группами: полный файл или одна дельта-дозапись, в конце группы - запись COMMIT
+// с числом записей в ней. Группа без целого COMMIT (падение посреди дозаписи) не применяется
+// целиком, так что новые секции не смешиваются со старыми. Секция может встречаться несколько
+// раз - побеждает последняя из закрытых групп. В файлах версии 1 групп нет, каждая целая запись сразу в силе.
+// Порядок байт little-endian, без рефлексии и без Java-сериализации
+public final class SaveCodec {
+
+    public static final int MAGIC = 0x56534644; // "DFSV"
+    // 2 - группы записей с COMMIT
+    public static final int VERSION = 2;
+    public static final int HEADER_BYTES = 8;
+    public static final int RECORD_HEADER_BYTES = 12;
+
+    public static final int SECTION_WORLD = 0;
+    public static final int SECTION_PLAYER = 1;
+    public static final int SECTION_ENTITIES = 2;
+    public static final int SECTION_COUNT = 3;
+    // Конец группы: [records:int] - сколько записей перед ним в группе
+    public static final int SECTION_COMMIT = 0x7fff;
+    public static final int COMMIT_RECORD_BYTES = RECORD_HEADER_BYTES + 4;
+
+    // Текущие версии секций. Поднимаем при изменении раскладки, старые читаем в decodeSection
+    // WORLD v2: + levelSeed
+    private static final int[] SECTION_VERSIONS = {2, 1, 1};
+
+    private static final int ENTITY_BYTES = 4 * 9;
+
+    private SaveCodec() {
+    }
+
+    public static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public static void writeHeader(ByteBuffer out) {
+        out.putInt(MAGIC);
+        out.putShort((short) VERSION);
+        out.putShort((short) 0);
+    }
+
+    public static int payloadSize(int section, GameSnapshot s) {
+        switch (section) {
+            case SECTION_WORLD:
+                return 8 + 4 + 8;
+            case SECTION_PLAYER:
+                return 4 * 4;
+            case SECTION_ENTITIES:
+                return 4 + s.entityCount * ENTITY_BYTES;
+            default:
+                throw new IllegalArgumentException("Unknown section " + section);
+        }
+    }
+
+    public static int recordSize(int section, GameSnapshot s) {
+        return RECORD_HEADER_BYTES + payloadSize(section, s);
+    }
+
+    // Запись секции целиком (заголовок + payload + crc). out должен быть heap-буфером
+    public static void encodeRecord(int section, GameSnapshot s, ByteBuffer out) {
+        int start = out.position();
+        int length = payloadSize(section, s);
+        out.putShort((short) section);
+        out.putShort((short) SECTION_VERSIONS[section]);
+        out.putInt(length);
+        int crcPos = out.position();
+        out.putInt(0);
+        int payloadStart = out.position();
+        encodePayload(section, s, out);
+        if (out.position() - payloadStart != length) {
+            throw new IllegalStateException("Section " + section + " size mismatch");
+        }
+        out.putInt(crcPos, crc(out, payloadStart, length));
+        if (out.position() - start != RECORD_HEADER_BYTES + length) {
+            throw new IllegalStateException("Record size mismatch");
+        }
+    }
+
+    // Закрывает группу из records записей
+    public static void encodeCommit(int records, ByteBuffer out) {
+        out.putShort((short) SECTION_COMMIT);
+        out.putShort((short) 1);
+        out.putInt(4);
+        int crcPos = out.position();
+        out.putInt(0);
+        int payloadStart = out.position();
+        out.putInt(records);
+        out.putInt(crcPos, crc(out, payloadStart, 4));
+    }
+
+    // Полный файл: заголовок + все секции одной группой
+    public static ByteBuffer encodeFull(GameSnapshot s, ByteBuffer reuse) {
+        int size = HEADER_BYTES + COMMIT_RECORD_BYTES;
+        for (int sec = 0; sec < SECTION_COUNT; sec++) size += recordSize(sec, s);
+        ByteBuffer out = reuse != null && reuse.capacity() >= size ? reuse : allocate(size);
+        out.clear();
+        writeHeader(out);
+        for (int sec = 0; sec < SECTION_COUNT; sec++) encodeRecord(sec, s, out);
+        encodeCommit(SECTION_COUNT, out);
+        out.flip();
+        return out;
+    }
+
+    // Разбор файла. Битый хвост и незакрытая группа (недописанная дельта) отбрасываются,
+    // битый заголовок - исключение
+    public static GameSnapshot decode(ByteBuffer in) throws SaveFormatException {
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC) {
+            throw new SaveFormatException("Not a save file");
+        }
+        int version = in.getShort() & 0xffff;
+        in.getShort();
+        if (version > VERSION) {
+            throw new SaveFormatException("Save version " + version + " is newer than " + VERSION);
+        }
+
+        boolean grouped = version >= 2;
+        GameSnapshot s = new GameSnapshot();
+        boolean[] seen = new boolean[SECTION_COUNT];
+        // записи открытой группы: где лежит payload каждой секции, -1 - нет
+        int[] pendingStart = new int[SECTION_COUNT];
+        int[] pendingLength = new int[SECTION_COUNT];
+        int[] pendingVersion = new int[SECTION_COUNT];
+        Arrays.fill(pendingStart, -1);
+        int groupRecords = 0;
+        while (in.remaining() >= RECORD_HEADER_BYTES) {
+            int section = in.getShort() & 0xffff;
+            int sectionVersion = in.getShort() & 0xffff;
+            int length = in.getInt();
+            int expectedCrc = in.getInt();
+            if (length < 0 || length > in.remaining()) break;
+            int payloadStart = in.position();
+            if (crc(in, payloadStart, length) != expectedCrc) break;
+
+            if (grouped && section == SECTION_COMMIT) {
+                if (length != 4 || in.getInt(payloadStart) != groupRecords) break;
+                for (int sec = 0; sec < SECTION_COUNT; sec++) {
+                    if (pendingStart[sec] < 0) continue;
+                    decodeRecord(in, sec, pendingVersion[sec], pendingStart[sec], pendingLength[sec], s);
+                    seen[sec] = true;
+                    pendingStart[sec] = -1;
+                }
+                groupRecords = 0;
+            } else {
+                // неизвестные секции из новых версий пропускаем
+                if (section < SECTION_COUNT) {
+                    if (sectionVersion > SECTION_VERSIONS[section]) {
+                        throw new SaveFormatException("Section " + section + " version " + sectionVersion);
+                    }
+                    if (grouped) {
+                        pendingStart[section] = payloadStart;
+                        pendingLength[section] = length;
+                        pendingVersion[section] = sectionVersion;
+                    } else {
+                        decodeRecord(in, section, sectionVersion, payloadStart, length, s);
+                        seen[section] = true;
+                    }
+                }
+                groupRecords++;
+            }
+            in.position(payloadStart + length);
+        }
+        if (!seen[SECTION_WORLD] || !seen[SECTION_PLAYER]) {
+            throw new SaveFormatException("Save file has no world/player section");
+        }
+        return s;
+    }
+
+    private static void decodeRecord(ByteBuffer in, int section, int version, int payloadStart, int length,
+                                     GameSnapshot s) throws SaveFormatException {
+        ByteBuffer payload = in.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        payload.position(payloadStart).limit(payloadStart + length);
+        decodePayload(section, version, payload, s);
+    }
+
+    public static int crc(ByteBuffer buf, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), buf.arrayOffset() + offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static void encodePayload(int section, GameSnapshot s, ByteBuffer out) {
+        switch (section) {
+            case SECTION_WORLD:
+                out.putLong(s.tick);
+                out.putFloat(s.cameraX);
+                out.putLong(s.levelSeed);
+                break;
+            case SECTION_PLAYER:
+                out.putFloat(s.playerX);
+                out.putFloat(s.playerY);
+                out.putInt(s.playerLastDirection);
+                out.putInt(s.playerHp);
+                break;
+            case SECTION_ENTITIES:
+                out.putInt(s.entityCount);
+                for (int i = 0; i < s.entityCount; i++) {
+                    out.putFloat(s.entityX[i]);
+                    out.putFloat(s.entityY[i]);
+                    out.putFloat(s.entitySpeed[i]);
+                    out.putFloat(s.entityHalfW[i]);
+                    out.putFloat(s.entityHalfH[i]);
+                    out.putInt(s.entityDir[i]);
+                    out.putInt(s.entityLastDir[i]);
+                    out.putInt(s.entityHp[i]);
+                    out.putInt(s.entitySprite[i]);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown section " + section);
+        }
+    }
+
+    private static void decodePayload(int section, int version, ByteBuffer in, GameSnapshot s)
+            throws SaveFormatException {
+        switch (section) {
+            case SECTION_WORLD:
+                s.tick = in.getLong();
+                s.cameraX = in.getFloat();
+                if (version >= 2) s.levelSeed = in.getLong();
+                break;
+            case SECTION_PLAYER:
+                s.playerX = in.getFloat();
+                s.playerY = in.getFloat();
+                s.playerLastDirection = in.getInt();
+                s.playerHp = in.getInt();
+                break;
+            case SECTION_ENTITIES:
+                int n = in.getInt();
+                if (n < 0 || (long) n * ENTITY_BYTES > in.remaining()) {
+                    throw new SaveFormatException("Bad entity count " + n);
+                }
+                s.ensureEntityCapacity(n);
+                for (int i = 0; i < n; i++) {
+                    s.entityX[i] = in.getFloat();
+                    s.entityY[i] = in.getFloat();
+                    s.entitySpeed[i] = in.getFloat();
+                    s.entityHalfW[i] = in.getFloat();
+                    s.entityHalfH[i] = in.getFloat();
+                    s.entityDir[i] = in.getInt();
+                    s.entityLastDir[i] = in.getInt();
+                    s.entityHp[i] = in.getInt();
+                    s.entitySprite[i] = in.getInt();
+                }
+                s.entityCount = n;
+                break;
+            default:
+                break;
+        }
+    }
+}
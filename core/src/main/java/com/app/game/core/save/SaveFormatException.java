@@ -0,0 +1,13 @@
+package com.app.game.core.save;
+
+import java.io.IOException;
+
+// Файл сохранения битый или из будущей версии
+public class SaveFormatException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SaveFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,182 @@
+package com.app.game.core.save;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Executor;
+
+// Файл сохранения на диске.
+// Полная запись: во временный файл + fsync + атомарный rename, так что файл всегда целый.
+// Дельта: дописываем в конец только секции, у которых поменялся crc, и запись COMMIT за ними.
+// Недописанная при падении дельта без COMMIT при чтении отбрасывается целиком - на диске
+// либо вся новая дельта, либо старое состояние. Когда лог разрастается - снова полная запись
+public class SaveStore {
+
+    public interface ErrorListener {
+        void onSaveFailed(IOException e);
+    }
+
+    // Лог дельт больше полного снапшота в столько раз - переписываем целиком
+    private static final int COMPACT_FACTOR = 4;
+
+    private final File file;
+    private final File tmpFile;
+
+    // Что лежит в файле сейчас (по секциям) - для сравнения при дельте
+    private final int[] savedCrc = new int[SaveCodec.SECTION_COUNT];
+    private final int[] savedLength = new int[SaveCodec.SECTION_COUNT];
+    private boolean fileKnown = false;
+    private long fileSize = 0;
+    private long fullSize = 0;
+
+    private ByteBuffer scratch = SaveCodec.allocate(4096);
+    private ByteBuffer fullScratch;
+
+    private int fullWrites = 0;
+    private int deltaWrites = 0;
+
+    // Последний снапшот, отданный на запись: resume в том же процессе не ходит на диск
+    private volatile GameSnapshot latest;
+
+    public SaveStore(File file) {
+        this.file = file;
+        this.tmpFile = new File(file.getPath() + ".tmp");
+    }
+
+    // Снапшот пишется на executor, вызывающий поток (UI) не ждет диск
+    public void saveAsync(final GameSnapshot s, Executor executor, final ErrorListener listener) {
+        latest = s;
+        executor.execute(() -> {
+            try {
+                save(s);
+            } catch (IOException e) {
+                listener.onSaveFailed(e);
+            }
+        });
+    }
+
+    public synchronized void save(GameSnapshot s) throws IOException {
+        if (!fileKnown || !file.exists() || fileSize > fullSize * COMPACT_FACTOR) {
+            writeFull(s);
+        } else {
+            writeDelta(s);
+        }
+    }
+
+    // null - сохранения нет
+    public GameSnapshot load() throws IOException {
+        GameSnapshot mem = latest;
+        if (mem != null) return mem;
+        synchronized (this) {
+            if (!file.exists()) return null;
+            ByteBuffer buf;
+            try (FileInputStream in = new FileInputStream(file); FileChannel ch = in.getChannel()) {
+                long size = ch.size();
+                if (size > Integer.MAX_VALUE) throw new SaveFormatException("Save file too large");
+                buf = SaveCodec.allocate((int) size);
+                while (buf.hasRemaining() && ch.read(buf) >= 0) {
+                    // читаем до конца
+                }
+            }
+            buf.flip();
+            // файл в формате, который мы знаем - следующая запись все равно полная
+            fileKnown = false;
+            return SaveCodec.decode(buf);
+        }
+    }
+
+    public synchronized void delete() {
+        latest = null;
+        fileKnown = false;
+        if (file.exists() && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    public int getFullWrites() {
+        return fullWrites;
+    }
+
+    public int getDeltaWrites() {
+        return deltaWrites;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    private void writeFull(GameSnapshot s) throws IOException {
+        fullScratch = SaveCodec.encodeFull(s, fullScratch);
+        rememberSections(fullScratch);
+
+        try (FileOutputStream out = new FileOutputStream(tmpFile); FileChannel ch = out.getChannel()) {
+            writeFully(ch, fullScratch);
+            ch.force(true);
+        }
+        if (!tmpFile.renameTo(file)) {
+            throw new IOException("Failed to rename " + tmpFile + " to " + file);
+        }
+        fullSize = fullScratch.limit();
+        fileSize = fullSize;
+        fileKnown = true;
+        fullWrites++;
+    }
+
+    private void writeDelta(GameSnapshot s) throws IOException {
+        int size = SaveCodec.COMMIT_RECORD_BYTES;
+        for (int sec = 0; sec < SaveCodec.SECTION_COUNT; sec++) size += SaveCodec.recordSize(sec, s);
+        if (scratch.capacity() < size) scratch = SaveCodec.allocate(Math.max(size, scratch.capacity() * 2));
+        scratch.clear();
+
+        // кодируем все, но в файл идут только изменившиеся секции
+        int records = 0;
+        for (int sec = 0; sec < SaveCodec.SECTION_COUNT; sec++) {
+            int start = scratch.position();
+            SaveCodec.encodeRecord(sec, s, scratch);
+            int length = scratch.position() - start - SaveCodec.RECORD_HEADER_BYTES;
+            int crc = scratch.getInt(start + 8);
+            if (crc == savedCrc[sec] && length == savedLength[sec]) {
+                scratch.position(start);
+            } else {
+                savedCrc[sec] = crc;
+                savedLength[sec] = length;
+                records++;
+            }
+        }
+        if (records == 0) return;
+        SaveCodec.encodeCommit(records, scratch);
+        scratch.flip();
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel ch = raf.getChannel()) {
+            ch.position(fileSize);
+            writeFully(ch, scratch);
+            ch.force(false);
+            fileSize = ch.position();
+        } catch (IOException e) {
+            // в хвосте может остаться незакрытая группа, следующие дельты за ней не прочитаются
+            fileKnown = false;
+            throw e;
+        }
+        deltaWrites++;
+    }
+
+    private void rememberSections(ByteBuffer full) {
+        int pos = SaveCodec.HEADER_BYTES;
+        for (int sec = 0; sec < SaveCodec.SECTION_COUNT; sec++) {
+            int length = full.getInt(pos + 4);
+            savedLength[sec] = length;
+            savedCrc[sec] = full.getInt(pos + 8);
+            pos += SaveCodec.RECORD_HEADER_BYTES + length;
+        }
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+    }
+}
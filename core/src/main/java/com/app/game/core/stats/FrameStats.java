@@ -0,0 +1,108 @@
+package com.app.game.core.stats;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Статистика кадров GameLoop: гистограммы по фазам кадра, джанк и срабатывания клампов.
+// Поток лупа пишет record/endFrame и раз в секунду publish; HUD и тесты читают get() с любого потока.
+public class FrameStats {
+
+    // Метрики (фазы кадра)
+    public static final int UPDATE = 0;          // все фиксированные апдейты кадра
+    public static final int DRAW = 1;            // gameView.draw
+    public static final int LOCK_CANVAS = 2;     // ожидание lockCanvas
+    public static final int POST = 3;            // unlockCanvasAndPost
+    public static final int PACING_ERROR = 4;    // |начало кадра - план пейсера|
+    public static final int FRAME = 5;           // интервал между кадрами целиком
+    public static final int CPU = 6;             // CPU-время потока лупа на кадр, вместе с ожиданием
+    public static final int DRAW_NATIVE = 7;     // то же, что DRAW, только кадры в полном разрешении
+    public static final int DRAW_LOW_RES = 8;    // и только кадры через low-res цель (вместе с апскейлом)
+    public static final int METRIC_COUNT = 9;
+
+    // Что публикуем по каждой метрике
+    public static final int P50 = 0;
+    public static final int P95 = 1;
+    public static final int P99 = 2;
+    public static final int MAX = 3;
+    private static final int STAT_COUNT = 4;
+
+    // ~4 секунды при 60 FPS
+    private static final int WINDOW = 256;
+    // кадр дольше полутора бюджетов считаем джанком
+    private static final float JANK_FACTOR = 1.5f;
+
+    private final FrameTimeHistogram[] histograms = new FrameTimeHistogram[METRIC_COUNT];
+    private final AtomicIntegerArray published = new AtomicIntegerArray(METRIC_COUNT * STAT_COUNT);
+    private final long targetFrameNs;
+
+    // Пишет только поток лупа, поэтому ++ по volatile тут безопасен
+    private volatile long frames;
+    private volatile long jankFrames;
+    private volatile long droppedFrames;
+    private volatile long updateCapFrames;
+    private volatile long accumClampFrames;
+
+    public FrameStats(long targetFrameNs) {
+        this.targetFrameNs = targetFrameNs;
+        for (int i = 0; i < METRIC_COUNT; i++) {
+            histograms[i] = new FrameTimeHistogram(WINDOW);
+        }
+    }
+
+    public void record(int metric, long ns) {
+        histograms[metric].record(ns);
+    }
+
+    // updateCapHit - уперлись в MAX_UPDATES_PER_FRAME, accumClamped - сработал MAX_ACCUM_SEC
+    public void endFrame(long frameIntervalNs, boolean updateCapHit, boolean accumClamped) {
+        histograms[FRAME].record(frameIntervalNs);
+        frames++;
+        if (frameIntervalNs > targetFrameNs * JANK_FACTOR) {
+            jankFrames++;
+            // сколько vsync-ов пропустили за этот кадр
+            droppedFrames += (frameIntervalNs + targetFrameNs / 2) / targetFrameNs - 1;
+        }
+        if (updateCapHit) updateCapFrames++;
+        if (accumClamped) accumClampFrames++;
+    }
+
+    // Пересчитать перцентили. Зовется из потока лупа (раз в секунду вместе с fps/ups)
+    public void publish() {
+        for (int m = 0; m < METRIC_COUNT; m++) {
+            FrameTimeHistogram h = histograms[m];
+            int base = m * STAT_COUNT;
+            published.set(base + P50, h.percentileUs(0.50f));
+            published.set(base + P95, h.percentileUs(0.95f));
+            published.set(base + P99, h.percentileUs(0.99f));
+            published.set(base + MAX, h.maxUs());
+        }
+    }
+
+    // Значение в микросекундах на момент последнего publish
+    public int get(int metric, int stat) {
+        return published.get(metric * STAT_COUNT + stat);
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public long getJankFrames() {
+        return jankFrames;
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public long getUpdateCapFrames() {
+        return updateCapFrames;
+    }
+
+    public long getAccumClampFrames() {
+        return accumClampFrames;
+    }
+
+    public long getTargetFrameNs() {
+        return targetFrameNs;
+    }
+}
@@ -0,0 +1,69 @@
+package com.app.game.core.stats;
+
+// Скользящее окно времен кадра: кольцевой буфер последних N замеров + гистограмма
+// по корзинам в 0.1 мс. Пишет и читает один поток (GameLoop), ничего не аллоцирует.
+public class FrameTimeHistogram {
+
+    public static final int BUCKET_US = 100;
+    // до 100 мс, все что дольше - в последнюю корзину
+    private static final int BUCKETS = 1000;
+
+    private final int[] ring;
+    private final int[] buckets = new int[BUCKETS + 1];
+    private int head = 0;
+    private int count = 0;
+
+    public FrameTimeHistogram(int window) {
+        ring = new int[window];
+    }
+
+    public void record(long ns) {
+        int us = (int) Math.min(Integer.MAX_VALUE, Math.max(0L, ns / 1000L));
+        if (count == ring.length) {
+            buckets[bucketOf(ring[head])]--;
+        } else {
+            count++;
+        }
+        ring[head] = us;
+        buckets[bucketOf(us)]++;
+        head = (head + 1) % ring.length;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    // Верхняя граница корзины, в которую попал перцентиль, мкс, но не больше максимума окна
+    // (иначе p99 бывает больше max). p от 0 до 1
+    public int percentileUs(float p) {
+        if (count == 0) return 0;
+        int rank = Math.max(1, (int) Math.ceil(p * count));
+        int seen = 0;
+        for (int b = 0; b <= BUCKETS; b++) {
+            seen += buckets[b];
+            if (seen >= rank) {
+                return b == BUCKETS ? maxUs() : Math.min((b + 1) * BUCKET_US, maxUs());
+            }
+        }
+        return maxUs();
+    }
+
+    // Точный максимум по окну
+    public int maxUs() {
+        int max = 0;
+        for (int i = 0; i < count; i++) {
+            if (ring[i] > max) max = ring[i];
+        }
+        return max;
+    }
+
+    public void clear() {
+        for (int i = 0; i < buckets.length; i++) buckets[i] = 0;
+        head = 0;
+        count = 0;
+    }
+
+    private static int bucketOf(int us) {
+        return Math.min(us / BUCKET_US, BUCKETS);
+    }
+}
@@ -0,0 +1,156 @@
+package com.app.game.core.trace;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Кольцо последних событий begin/end со всех потоков, по запросу выгружается в JSON Chrome Trace
+// (открывается в chrome://tracing и ui.perfetto.dev).
+// Запись без локов и аллокаций: номер события - из общего счетчика, слот - номер по маске.
+// Слот помечается номером события последним, так что выгрузка на ходу пропускает слоты,
+// которые в этот момент переписываются
+public class TraceRecorder {
+
+    private static final int PHASE_BEGIN = 1 << 16;
+    private static final int SECTION_MASK = 0xffff;
+
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+    // номер события в слоте, -1 - слот пишется или пуст
+    private final AtomicLongArray seq;
+    private final AtomicLongArray timeNs;
+    // [tid:32][phase:16][section:16]
+    private final AtomicLongArray meta;
+
+    // capacity округляется вверх до степени двойки
+    public TraceRecorder(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity " + capacity);
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        mask = size - 1;
+        seq = new AtomicLongArray(size);
+        timeNs = new AtomicLongArray(size);
+        meta = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) seq.set(i, -1L);
+    }
+
+    public void begin(int section) {
+        record(section, true, System.nanoTime());
+    }
+
+    public void end(int section) {
+        record(section, false, System.nanoTime());
+    }
+
+    public void record(int section, boolean begin, long nowNs) {
+        long n = cursor.getAndIncrement();
+        int slot = (int) n & mask;
+        long tid = Thread.currentThread().getId();
+        seq.lazySet(slot, -1L);
+        timeNs.lazySet(slot, nowNs);
+        meta.lazySet(slot, (tid << 32) | (begin ? PHASE_BEGIN : 0) | (section & SECTION_MASK));
+        seq.lazySet(slot, n);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    // Сколько событий записано за все время (в кольце из них последние capacity)
+    public long getRecorded() {
+        return cursor.get();
+    }
+
+    public long getOverwritten() {
+        return Math.max(0L, cursor.get() - capacity());
+    }
+
+    // Выгрузка того, что сейчас в кольце. Запись с других потоков при этом не останавливается.
+    // Аллоцирует - зовется по запросу, не в кадре
+    public void writeChromeJson(Writer out) throws IOException {
+        long end = cursor.get();
+        long start = Math.max(0L, end - capacity());
+        long[] tids = new long[8];
+        int tidCount = 0;
+
+        out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        boolean first = true;
+        for (long n = start; n < end; n++) {
+            int slot = (int) n & mask;
+            if (seq.get(slot) != n) continue;
+            long t = timeNs.get(slot);
+            long m = meta.get(slot);
+            if (seq.get(slot) != n) continue;
+
+            long tid = m >>> 32;
+            if (indexOf(tids, tidCount, tid) < 0) {
+                if (tidCount == tids.length) tids = Arrays.copyOf(tids, tidCount * 2);
+                tids[tidCount++] = tid;
+            }
+            if (!first) out.write(',');
+            first = false;
+            out.write("\n{\"name\":\"");
+            out.write(Tracing.name((int) m & SECTION_MASK));
+            out.write((m & PHASE_BEGIN) != 0 ? "\",\"ph\":\"B\"" : "\",\"ph\":\"E\"");
+            out.write(",\"pid\":1,\"tid\":");
+            out.write(Long.toString(tid));
+            out.write(",\"ts\":");
+            writeMicros(out, t);
+            out.write('}');
+        }
+        // имена потоков (GameLoop, Simulation, воркеры) - если поток еще жив
+        Map<Thread, StackTraceElement[]> live = Thread.getAllStackTraces();
+        for (Thread th : live.keySet()) {
+            if (indexOf(tids, tidCount, th.getId()) < 0) continue;
+            if (!first) out.write(',');
+            first = false;
+            out.write("\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":");
+            out.write(Long.toString(th.getId()));
+            out.write(",\"args\":{\"name\":\"");
+            writeEscaped(out, th.getName());
+            out.write("\"}}");
+        }
+        out.write("\n]}\n");
+        out.flush();
+    }
+
+    private static int indexOf(long[] a, int n, long v) {
+        for (int i = 0; i < n; i++) {
+            if (a[i] == v) return i;
+        }
+        return -1;
+    }
+
+    // ts у Chrome - микросекунды, дробная часть сохраняет наносекунды
+    private static void writeMicros(Writer out, long ns) throws IOException {
+        // nanoTime бывает отрицательным
+        if (ns < 0) {
+            out.write('-');
+            ns = -ns;
+        }
+        out.write(Long.toString(ns / 1000));
+        int frac = (int) (ns % 1000);
+        if (frac == 0) return;
+        out.write('.');
+        if (frac < 100) out.write('0');
+        if (frac < 10) out.write('0');
+        out.write(Integer.toString(frac));
+    }
+
+    private static void writeEscaped(Writer out, String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                out.write(' ');
+            } else {
+                out.write(c);
+            }
+        }
+    }
+}
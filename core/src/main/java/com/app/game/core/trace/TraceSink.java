@@ -0,0 +1,9 @@
+package com.app.game.core.trace;
+
+// Куда уходят секции кроме встроенного рекордера. На устройстве - android.os.Trace (systrace/Perfetto).
+// Имя - константа из Tracing, begin/end зовутся парами на одном потоке
+public interface TraceSink {
+    void begin(String name);
+
+    void end();
+}
@@ -0,0 +1,72 @@
+package com.app.game.core.trace;
+
+// Секции кадра и тика для профилирования: ввод, апдейт, слои отрисовки, lockCanvas, пост, сон.
+// Выключено (ни sink, ни рекордера) - begin/end это одно чтение volatile. Включено - без аллокаций:
+// sink получает константное имя, рекордер пишет в заранее выделенное кольцо
+public final class Tracing {
+
+    public static final int INPUT = 0;
+    public static final int UPDATE = 1;
+    public static final int DRAW_BACKGROUND = 2;
+    public static final int DRAW_GROUND = 3;
+    public static final int DRAW_PLAYER = 4;
+    public static final int DRAW_PARTICLES = 5;
+    public static final int DRAW_HUD = 6;
+    public static final int FLUSH = 7;             // выдача батча в Canvas
+    public static final int LOCK_CANVAS = 8;
+    public static final int POST = 9;              // unlockCanvasAndPost
+    public static final int SLEEP = 10;            // ожидание следующего кадра у пейсера
+    public static final int SECTION_COUNT = 11;
+
+    private static final String[] NAMES = {
+            "input", "update", "draw:background", "draw:ground", "draw:player", "draw:particles",
+            "draw:hud", "flush", "lockCanvas", "unlockCanvasAndPost", "sleep"
+    };
+
+    private static volatile boolean enabled;
+    private static volatile TraceSink sink;
+    private static volatile TraceRecorder recorder;
+
+    private Tracing() {
+    }
+
+    public static void begin(int section) {
+        if (!enabled) return;
+        TraceSink s = sink;
+        if (s != null) s.begin(NAMES[section]);
+        TraceRecorder r = recorder;
+        if (r != null) r.begin(section);
+    }
+
+    public static void end(int section) {
+        if (!enabled) return;
+        TraceSink s = sink;
+        if (s != null) s.end();
+        TraceRecorder r = recorder;
+        if (r != null) r.end(section);
+    }
+
+    // null - выключить. Секции, открытые до переключения, закроются уже в новом месте - это
+    // терпят и systrace, и Chrome (непарные события отбрасываются)
+    public static synchronized void setSink(TraceSink s) {
+        sink = s;
+        enabled = s != null || recorder != null;
+    }
+
+    public static synchronized void setRecorder(TraceRecorder r) {
+        recorder = r;
+        enabled = sink != null || r != null;
+    }
+
+    public static TraceRecorder getRecorder() {
+        return recorder;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static String name(int section) {
+        return NAMES[section];
+    }
+}
@@ -0,0 +1,140 @@
+package com.app.game.core;
+
+import com.app.game.core.anim.AnimationLibrary;
+import com.app.game.core.collision.BroadPhase;
+import com.app.game.core.concurrent.JobScheduler;
+import com.app.game.core.concurrent.WorkerPool;
+import com.app.game.core.entity.EntityStore;
+import com.app.game.core.replay.StateHash;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WorldTest {
+
+    @Test
+    public void playerMovesWithFixedStep() {
+        World world = new World(0f, 0f, 500f);
+        world.setViewport(1000, 600f);
+        world.getPlayer().setDirection(1);
+
+        for (int i = 0; i < World.TARGET_UPS; i++) {
+            world.update(World.DT_SEC);
+        }
+
+        assertEquals(500f, world.getPlayer().getX(), 0.01f);
+        assertEquals(World.TARGET_UPS, world.getTick());
+        assertEquals(1, world.getPlayer().getLastDirection());
+    }
+
+    @Test
+    public void cameraSettlesOnPlayer() {
+        World world = new World(2000f, 0f, 500f);
+        world.setViewport(1000, 600f);
+
+        for (int i = 0; i < 10 * World.TARGET_UPS; i++) {
+            world.update(World.DT_SEC);
+        }
+
+        assertEquals(2000f - 500f, world.getCamX(), 0.5f);
+    }
+
+    @Test
+    public void playerSnapsToGround() {
+        World world = new World(0f, 0f, 500f);
+        world.getPlayer().setDrawHeight(400);
+        world.setViewport(1000, 600f);
+
+        world.update(World.DT_SEC);
+
+        assertEquals(600f - 200f * 0.17f, world.getPlayer().getY(), 0.01f);
+    }
+
+    @Test
+    public void playerFoundInShopZone() {
+        World world = new World(0f, 500f, 500f);
+        world.getPlayer().setHitbox(40f, 100f);
+        world.setViewport(1000, 600f);
+        int shopZone = 7;
+        world.addTriggerZone(shopZone, 900f, 0f, 1200f, 1000f);
+
+        int[] out = new int[4];
+        world.update(World.DT_SEC);
+        assertEquals(0, world.queryArea(900f, 0f, 1200f, 1000f, BroadPhase.LAYER_ENTITY, out));
+
+        world.getPlayer().setDirection(1);
+        for (int i = 0; i < 2 * World.TARGET_UPS; i++) world.update(World.DT_SEC);
+
+        PlayerState p = world.getPlayer();
+        int n = world.queryArea(p.getX() - 40f, p.getY() - 100f, p.getX() + 40f, p.getY() + 100f,
+                BroadPhase.LAYER_TRIGGER, out);
+        assertEquals(1, n);
+        assertEquals(shopZone, out[0]);
+    }
+
+    // Мир без android должен прокручиваться в разы быстрее реального времени
+    @Test(timeout = 10_000)
+    public void runsMillionsOfTicksHeadless() {
+        World world = new World(0f, 0f, 500f);
+        world.setViewport(1000, 600f);
+
+        int ticks = 5_000_000;
+        for (int i = 0; i < ticks; i++) {
+            // меняем направление каждые 2 секунды игрового времени
+            if (i % 120 == 0) world.getPlayer().setDirection((i / 120) % 2 == 0 ? 1 : -1);
+            world.update(World.DT_SEC);
+        }
+
+        assertEquals(ticks, world.getTick());
+        assertTrue(Math.abs(world.getPlayer().getX()) < 2000f);
+    }
+
+    // Толпа с ИИ и событиями шагов: хэш мира и порядок событий не зависят от числа потоков
+    @Test(timeout = 30_000)
+    public void parallelPhasesMatchSerialRun() {
+        long[] serial = runCrowd(JobScheduler.SERIAL);
+        assertTrue(serial[1] > 0);
+        for (int threads = 2; threads <= 4; threads++) {
+            try (WorkerPool pool = new WorkerPool(threads)) {
+                assertArrayEquals("threads=" + threads, serial, runCrowd(pool));
+            }
+        }
+    }
+
+    private static long[] runCrowd(JobScheduler scheduler) {
+        World world = new World(0f, 0f, 500f);
+        world.setViewport(1000, 600f);
+        world.setScheduler(scheduler);
+        final EntityStore e = world.getEntities();
+        e.setAnimations(AnimationLibrary.parse(""
+                + "clip p_idle p 2x100 loop\n"
+                + "clip m_idle m 4x70 loop\n"
+                + "clip m_run m_run 4x50 loop step@1\n"
+                + "set 0 idle=p_idle run=p_idle\n"
+                + "set 1 idle=m_idle run=m_run\n"));
+        for (int i = 0; i < 3000; i++) {
+            e.create((i * 37 % 4000) - 2000f, 300f, 50f + i % 200, 30, 1);
+        }
+        final long[] events = {0L, 0L};
+        e.setAnimationListener((index, event) -> {
+            events[0]++;
+            events[1] = events[1] * 31 + index;
+        });
+        final int playerId = world.getPlayer().getId();
+        // монстры идут к игроку, у самого игрока стоят
+        world.addEntitySystem((w, from, to, dt) -> {
+            float px = w.getPlayer().getX();
+            for (int i = from; i < to; i++) {
+                if (e.idAt(i) == playerId) continue;
+                float d = px - e.x[i];
+                e.setDirection(i, Math.abs(d) < 40f ? 0 : d > 0 ? 1 : -1);
+            }
+        });
+        for (int t = 0; t < 300; t++) {
+            if (t % 60 == 0) world.getPlayer().setDirection(t % 120 == 0 ? 1 : -1);
+            world.update(World.DT_SEC);
+        }
+        return new long[]{StateHash.of(world), events[0], events[1]};
+    }
+}
@@ -0,0 +1,110 @@
+package com.app.game.core.anim;
+
+import com.app.game.core.entity.EntityStore;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AnimationLibraryTest {
+
+    private static final String MONSTERS = ""
+            + "# монстр: атака с кадром удара, урон, смерть\n"
+            + "clip slime_idle slime 4x100 loop\n"
+            + "clip slime_run slime_move 6x50 loop\n"
+            + "clip slime_attack slime_attack 50,50,100,50 once hit@2\n"
+            + "clip slime_hurt slime 2x40 once\n"
+            + "clip slime_death slime_death 5x60 hold\n"
+            + "set 1 idle=slime_idle run=slime_run attack=slime_attack hurt=slime_hurt death=slime_death\n"
+            + "set 2 idle=slime_idle\n";
+
+    private static final float DT = 1f / 60f;
+
+    @Test
+    public void parsesClipsAndLooksUpFramesByTime() {
+        AnimationLibrary lib = AnimationLibrary.parse(MONSTERS);
+
+        assertEquals(5, lib.clipCount());
+        assertEquals(4, lib.sheetCount());
+        assertEquals(6, lib.framesInSheet(lib.sheetIndex("slime_move")));
+        AnimationClip attack = lib.clip(lib.clipId("slime_attack"));
+        assertEquals(0.25f, attack.duration, 1e-6f);
+        assertEquals(0, attack.frameAt(0f));
+        assertEquals(1, attack.frameAt(0.05f));
+        assertEquals(2, attack.frameAt(0.1999f));
+        assertEquals(3, attack.frameAt(0.2f));
+        assertEquals(3, attack.frameAt(10f));
+        assertEquals(lib.eventId("hit"), attack.eventAt(2));
+        assertEquals(AnimationClip.NO_EVENT, attack.eventAt(1));
+
+        // у набора 2 нет run - играет idle; неизвестный sprite - набор с наименьшим id
+        assertEquals(lib.clipId("slime_idle"), lib.set(2).clip(AnimationSet.RUN));
+        assertSame(lib.set(1), lib.set(7));
+    }
+
+    @Test
+    public void onceReturnsToLocomotionAndHoldStays() {
+        AnimationLibrary lib = AnimationLibrary.parse(MONSTERS);
+        EntityStore store = new EntityStore(4);
+        store.setAnimations(lib);
+        int a = store.indexOf(store.create(0f, 0f, 100f, 10, 1));
+        store.setDirection(a, 1);
+        assertEquals(lib.clipId("slime_run"), store.clip[a]);
+
+        store.play(a, AnimationSet.ATTACK);
+        // движение атаку не прерывает
+        store.setDirection(a, -1);
+        for (int i = 0; i < 14; i++) store.update(DT);
+        assertEquals(lib.clipId("slime_attack"), store.clip[a]);
+        // 0.25 с атаки доиграли - снова бег, остаток тика уже в нем
+        store.update(DT);
+        store.update(DT);
+        assertEquals(lib.clipId("slime_run"), store.clip[a]);
+        assertTrue(store.clipTime[a] < DT * 1.5f);
+
+        store.play(a, AnimationSet.DEATH);
+        for (int i = 0; i < 120; i++) store.update(DT);
+        assertEquals(lib.clipId("slime_death"), store.clip[a]);
+        assertEquals(4, store.frameAt(a));
+    }
+
+    @Test
+    public void hitEventFiresOncePerAttackForEveryMonster() {
+        AnimationLibrary lib = AnimationLibrary.parse(MONSTERS);
+        EntityStore store = new EntityStore(1);
+        store.setAnimations(lib);
+        List<Integer> hits = new ArrayList<>();
+        int hit = lib.eventId("hit");
+        store.setAnimationListener((index, event) -> {
+            if (event == hit) hits.add(index);
+        });
+        int monsters = 100;
+        for (int i = 0; i < monsters; i++) store.create(i, 0f, 0f, 10, 1);
+        for (int i = 0; i < monsters; i++) store.play(i, AnimationSet.ATTACK);
+
+        for (int t = 0; t < 60; t++) store.update(DT);
+
+        assertEquals(monsters, hits.size());
+        for (int i = 0; i < monsters; i++) assertEquals(i, (int) hits.get(i));
+    }
+
+    @Test
+    public void standardLibraryKeepsPlayerTimings() {
+        AnimationLibrary lib = AnimationLibrary.standard();
+        AnimationClip idle = lib.clip(lib.set(0).clip(AnimationSet.IDLE));
+        AnimationClip run = lib.clip(lib.set(0).clip(AnimationSet.RUN));
+
+        assertEquals(8, idle.frameCount);
+        assertEquals(8 * 0.14f, idle.duration, 1e-6f);
+        assertEquals(8 * 0.09f, run.duration, 1e-6f);
+        assertTrue(idle.loops());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownClipInSet() {
+        AnimationLibrary.parse("clip a s 2x10 loop\nset 0 idle=b\n");
+    }
+}
@@ -0,0 +1,47 @@
+package com.app.game.core.atlas;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AtlasLayoutTest {
+
+    @Test
+    public void packsSheetsOnShelvesWithoutOverlap() {
+        AtlasLayout layout = new AtlasLayout();
+        int idle = layout.addSheet(768, 80, 8);
+        int run = layout.addSheet(768, 80, 8);
+        int shop = layout.addSheet(512, 256, 1);
+
+        layout.pack(1024);
+
+        // каждый лист шире половины атласа - по полке на лист
+        assertEquals(0, layout.sheetY(idle));
+        assertEquals(81, layout.sheetY(run));
+        assertEquals(162, layout.sheetY(shop));
+        assertEquals(768, layout.getWidth());
+        assertEquals(162 + 256, layout.getHeight());
+    }
+
+    @Test
+    public void frameRectsArePrecomputed() {
+        AtlasLayout layout = new AtlasLayout();
+        layout.addSheet(100, 10, 1);
+        int run = layout.addSheet(768, 80, 8);
+        layout.pack(2048);
+
+        int f = layout.frameIndex(run, 3);
+        assertEquals(101 + 3 * 96, layout.frameLeft(f));
+        assertEquals(0, layout.frameTop(f));
+        assertEquals(96, layout.frameWidth(f));
+        assertEquals(80, layout.frameHeight(f));
+        assertEquals(9, layout.getFrameCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSheetWiderThanAtlas() {
+        AtlasLayout layout = new AtlasLayout();
+        layout.addSheet(4096, 10, 1);
+        layout.pack(2048);
+    }
+}
@@ -0,0 +1,174 @@
+package com.app.game.core.audio;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class MixerTest {
+
+    private static final int RATE = 48_000;
+
+    private static short[] constant(int length, int value) {
+        short[] s = new short[length];
+        Arrays.fill(s, (short) value);
+        return s;
+    }
+
+    @Test
+    public void mixesVoiceWithPanAndFreesItAtTheEnd() {
+        SoundBank bank = new SoundBank(RATE, 1024);
+        int sound = bank.add(constant(100, 1000), 0, 100);
+        Mixer mixer = new Mixer(bank, 4, 64, 16);
+        short[] out = new short[64 * Mixer.CHANNELS];
+
+        assertTrue(mixer.play(sound, 1f, -1f, 1));
+        assertEquals(1, mixer.mix(out, 64));
+        assertEquals(1000, out[0]);
+        assertEquals(0, out[1]);
+
+        // оставшиеся 36 кадров, дальше тишина и голос свободен
+        assertEquals(0, mixer.mix(out, 64));
+        assertEquals(1000, out[2 * 35]);
+        assertEquals(0, out[2 * 36]);
+
+        // в центре оба канала на -3 дБ
+        mixer.play(sound, 1f, 0f, 1);
+        mixer.mix(out, 1);
+        assertEquals(707, out[0], 4);
+        assertEquals(out[0], out[1]);
+    }
+
+    @Test
+    public void stealsOldestVoiceOfLowestPriority() {
+        SoundBank bank = new SoundBank(RATE, 4096);
+        int a = bank.add(constant(1000, 100), 0, 1000);
+        int b = bank.add(constant(1000, 2000), 0, 1000);
+        Mixer mixer = new Mixer(bank, 2, 16, 16);
+        short[] out = new short[16 * Mixer.CHANNELS];
+
+        mixer.play(a, 1f, -1f, 1);
+        mixer.play(a, 1f, -1f, 5);
+        mixer.mix(out, 16);
+        // голосов нет, новый важнее первого - забирает его
+        mixer.play(b, 1f, -1f, 2);
+        // а этот неважнее всех звучащих - теряется
+        mixer.play(b, 1f, -1f, 0);
+        mixer.mix(out, 16);
+
+        assertEquals(2, mixer.getActiveVoices());
+        assertEquals(3, mixer.getPlayed());
+        assertEquals(1, mixer.getStolen());
+        assertEquals(1, mixer.getDropped());
+        assertEquals(100 + 2000, out[0]);
+    }
+
+    @Test
+    public void clipsInsteadOfWrapping() {
+        SoundBank bank = new SoundBank(RATE, 1024);
+        int loud = bank.add(constant(64, Short.MAX_VALUE), 0, 64);
+        Mixer mixer = new Mixer(bank, Mixer.MAX_VOICES, 64, 128);
+        for (int i = 0; i < Mixer.MAX_VOICES; i++) mixer.play(loud, 2f, 1f, 1);
+        short[] out = new short[64 * Mixer.CHANNELS];
+        mixer.mix(out, 64);
+
+        assertEquals(0, out[0]);
+        assertEquals(Short.MAX_VALUE, out[1]);
+    }
+
+    @Test
+    public void rejectsWhenQueueIsFull() {
+        SoundBank bank = new SoundBank(RATE, 16);
+        int s = bank.add(constant(8, 1), 0, 8);
+        Mixer mixer = new Mixer(bank, 4, 16, 4);
+        for (int i = 0; i < 4; i++) assertTrue(mixer.play(s, 1f, 0f, 1));
+        assertFalse(mixer.play(s, 1f, 0f, 1));
+        assertEquals(1, mixer.getRejected());
+    }
+
+    // play() с нескольких потоков сразу: ни одного отказа не теряется
+    @Test
+    public void countsRejectsFromConcurrentCallers() throws Exception {
+        SoundBank bank = new SoundBank(RATE, 16);
+        int s = bank.add(constant(8, 1), 0, 8);
+        Mixer mixer = new Mixer(bank, 4, 16, 8);
+        int threads = 4, calls = 20_000;
+        long[] accepted = new long[threads];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < calls; i++) {
+                    if (mixer.play(s, 1f, 0f, 1)) accepted[id]++;
+                }
+            });
+            workers[t].start();
+        }
+        long total = 0;
+        for (int t = 0; t < threads; t++) {
+            workers[t].join();
+            total += accepted[t];
+        }
+        assertEquals(8, total);
+        assertEquals((long) threads * calls - total, mixer.getRejected());
+    }
+
+    // После прогрева ни play, ни mix не аллоцируют
+    @Test
+    public void mixingAllocatesNothing() {
+        com.sun.management.ThreadMXBean mx =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        org.junit.Assume.assumeTrue(mx.isThreadAllocatedMemorySupported());
+        mx.setThreadAllocatedMemoryEnabled(true);
+
+        SoundBank bank = new SoundBank(RATE, RATE);
+        int step = bank.add(SoundSynth.noiseBurst(RATE, 120, 0.5f, 7), 0, RATE * 120 / 1000);
+        Mixer mixer = new Mixer(bank, 32, 256, 64);
+        short[] out = new short[256 * Mixer.CHANNELS];
+        for (int i = 0; i < 5_000; i++) buffer(mixer, step, out, i);
+
+        long tid = Thread.currentThread().getId();
+        long before = mx.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < 5_000; i++) buffer(mixer, step, out, i);
+        long allocated = mx.getThreadAllocatedBytes(tid) - before;
+
+        assertEquals(0, allocated);
+    }
+
+    private static void buffer(Mixer mixer, int sound, short[] out, int i) {
+        mixer.play(sound, 0.8f, (i % 21) / 10f - 1f, i % 4);
+        mixer.mix(out, 256);
+    }
+
+    @Test
+    public void decodesStereoWavToMonoAtMixerRate() throws Exception {
+        // 4 стерео-кадра на 24 кГц
+        short[] frames = {100, 300, 200, 400, -100, -300, 0, 0};
+        ByteBuffer wav = ByteBuffer.allocate(44 + frames.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        wav.putInt(0x46464952).putInt(36 + frames.length * 2).putInt(0x45564157);
+        wav.putInt(0x20746d66).putInt(16).putShort((short) 1).putShort((short) 2)
+                .putInt(24_000).putInt(24_000 * 4).putShort((short) 4).putShort((short) 16);
+        wav.putInt(0x61746164).putInt(frames.length * 2);
+        for (short f : frames) wav.putShort(f);
+        wav.flip();
+
+        SoundBank bank = new SoundBank(RATE, 64);
+        int id = bank.addWav(wav);
+
+        assertEquals(8, bank.length(id));
+        short[] pcm = bank.samples();
+        assertEquals(200, pcm[bank.offset(id)]);
+        assertEquals(250, pcm[bank.offset(id) + 1]);
+        assertEquals(300, pcm[bank.offset(id) + 2]);
+        assertEquals(-200, pcm[bank.offset(id) + 4]);
+    }
+
+    @Test(expected = SoundFormatException.class)
+    public void rejectsNonWav() throws Exception {
+        WavDecoder.decode(ByteBuffer.wrap(new byte[]{'O', 'g', 'g', 'S', 0, 0, 0, 0, 0, 0, 0, 0}), RATE);
+    }
+}
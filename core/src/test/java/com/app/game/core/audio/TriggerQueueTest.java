@@ -0,0 +1,53 @@
+package com.app.game.core.audio;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TriggerQueueTest {
+
+    @Test
+    public void fifoAndBounded() {
+        TriggerQueue q = new TriggerQueue(3);
+        assertEquals(4, q.capacity());
+        for (int i = 0; i < 4; i++) assertTrue(q.offer(i));
+        assertFalse(q.offer(99));
+        assertEquals(0, q.poll());
+        assertTrue(q.offer(4));
+        for (int i = 1; i <= 4; i++) assertEquals(i, q.poll());
+        assertEquals(TriggerQueue.EMPTY, q.poll());
+    }
+
+    // Несколько писателей и читатель на своих потоках: каждая команда доходит ровно один раз,
+    // а команды одного писателя - по порядку
+    @Test
+    public void manyProducersOneConsumer() throws Exception {
+        final int producers = 4, perProducer = 50_000;
+        final TriggerQueue q = new TriggerQueue(64);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final long tag = (long) p << 32;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!q.offer(tag | i)) Thread.yield();
+                }
+            });
+            threads[p].start();
+        }
+
+        int[] next = new int[producers];
+        for (int received = 0; received < producers * perProducer; ) {
+            long c = q.poll();
+            if (c == TriggerQueue.EMPTY) {
+                Thread.yield();
+                continue;
+            }
+            int p = (int) (c >>> 32);
+            assertEquals(next[p], (int) c);
+            next[p]++;
+            received++;
+        }
+        for (Thread t : threads) t.join();
+        assertEquals(TriggerQueue.EMPTY, q.poll());
+    }
+}
@@ -0,0 +1,97 @@
+package com.app.game.core.camera;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CameraTest {
+
+    private static final float DT = 1f / 60f;
+
+    // Без зума и мертвой зоны - бит-в-бит прежняя half-life формула (старые реплеи сходятся)
+    @Test
+    public void matchesPlainHalfLifeWithoutDeadZone() {
+        Camera cam = new Camera(0.12f);
+        cam.setViewport(1000, 0);
+        float old = 0f;
+        for (int t = 0; t < 120; t++) {
+            float target = 2000f + t * 8f;
+            cam.follow(target, 0f, DT);
+            float k = (float) StrictMath.pow(0.5, DT / 0.12f);
+            old = k * old + (1f - k) * (target - 1000 * 0.5f);
+            assertEquals(Float.floatToRawIntBits(old), Float.floatToRawIntBits(cam.getX()));
+        }
+        assertEquals(1f, cam.getZoom(), 0f);
+        assertEquals(0f, cam.getY(), 0f);
+    }
+
+    @Test
+    public void targetInsideDeadZoneDoesNotMoveCamera() {
+        Camera cam = new Camera(0.12f);
+        cam.setViewport(1000, 600);
+        cam.setDeadZone(0.2f, 0f);
+        // центр вьюпорта на x = 500, зона 400..600
+        for (int t = 0; t < 60; t++) cam.follow(580f, 0f, DT);
+        assertEquals(0f, cam.getX(), 0f);
+
+        // вышли за зону - камера доводит цель до края зоны, не до центра
+        for (int t = 0; t < 600; t++) cam.follow(900f, 0f, DT);
+        assertEquals(900f - 100f - 500f, cam.getX(), 0.5f);
+    }
+
+    @Test
+    public void zoomShrinksVisibleBoundsAroundAnchor() {
+        Camera cam = new Camera(0.12f);
+        cam.setViewport(1000, 600);
+        cam.setAnchor(0.5f, 0.9f);
+        cam.snapZoom(2f);
+        cam.setPosition(0f, 0f);
+        for (int t = 0; t < 600; t++) cam.follow(500f, 540f, DT);
+
+        ViewBounds v = cam.visibleBounds(new ViewBounds());
+        assertEquals(500f, v.width(), 1e-3f);
+        assertEquals(250f, v.left, 0.5f);
+        // линия y = 540 осталась на 90% высоты экрана
+        assertEquals(540f, v.top + 0.9f * 300f, 0.5f);
+        assertTrue(v.intersects(260f, 400f, 270f, 410f));
+        assertFalse(v.intersects(760f, 400f, 800f, 410f));
+
+        cam.setZoom(100f);
+        for (int t = 0; t < 600; t++) cam.follow(500f, 540f, DT);
+        assertEquals(Camera.MAX_ZOOM, cam.getZoom(), 0f);
+    }
+
+    @Test
+    public void shakeOffsetsOnlyTheDrawnPositionAndDecays() {
+        Camera still = new Camera(0.12f);
+        Camera shaken = new Camera(0.12f);
+        still.setViewport(1000, 0);
+        shaken.setViewport(1000, 0);
+        shaken.shake(10f, 0.2f);
+
+        boolean moved = false;
+        for (int t = 0; t < 30; t++) {
+            still.follow(700f, 0f, DT);
+            shaken.follow(700f, 0f, DT);
+            assertEquals(still.getX(), shaken.getX(), 0f);
+            assertTrue(Math.abs(shaken.getShakeX()) <= 10f);
+            moved |= shaken.getShakeX() != 0f;
+        }
+        assertTrue(moved);
+        assertEquals(0f, shaken.getShakeX(), 0f);
+        assertEquals(0f, shaken.getShakeY(), 0f);
+    }
+
+    @Test
+    public void viewBoundsCountsDrawnAndCulled() {
+        ViewBounds v = new ViewBounds().set(100f, 0f, 1f, 200, 100);
+        assertTrue(v.accept(90f, 10f, 110f, 20f));
+        assertFalse(v.accept(301f, 10f, 320f, 20f));
+        assertFalse(v.accept(150f, 101f, 160f, 120f));
+        assertEquals(1, v.getDrawn());
+        assertEquals(2, v.getCulled());
+
+        v.set(0f, 0f, 1f, 10, 10);
+        assertEquals(0, v.getDrawn());
+    }
+}
@@ -0,0 +1,54 @@
+package com.app.game.core.collision;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BroadPhaseTest {
+
+    @Test
+    public void matchesBruteForce() {
+        // мало корзин, чтобы ячейки гарантированно совпадали по хешу
+        BroadPhase bp = new BroadPhase(100f, 8, 4);
+        Random rnd = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            float x = rnd.nextFloat() * 20_000f - 10_000f;
+            float w = rnd.nextInt(10) == 0 ? rnd.nextFloat() * 3000f : rnd.nextFloat() * 150f;
+            bp.add(i, i % 3 == 0 ? BroadPhase.LAYER_TRIGGER : BroadPhase.LAYER_ENTITY,
+                    x, 0f, x + w, 10f + rnd.nextFloat() * 50f);
+        }
+        bp.build();
+
+        int[] a = new int[600];
+        int[] b = new int[600];
+        for (int q = 0; q < 200; q++) {
+            float x = rnd.nextFloat() * 20_000f - 10_000f;
+            float w = rnd.nextFloat() * 1500f;
+            int mask = q % 2 == 0 ? BroadPhase.LAYER_ALL : BroadPhase.LAYER_ENTITY;
+            int na = bp.query(x, 5f, x + w, 30f, mask, a);
+            int nb = bp.queryBruteForce(x, 5f, x + w, 30f, mask, b);
+
+            assertEquals(nb, na);
+            Arrays.sort(a, 0, na);
+            Arrays.sort(b, 0, nb);
+            assertArrayEquals(Arrays.copyOf(b, nb), Arrays.copyOf(a, na));
+        }
+    }
+
+    @Test
+    public void filtersByLayer() {
+        BroadPhase bp = new BroadPhase(294f, 64, 4);
+        bp.add(1, BroadPhase.LAYER_ENTITY, 0f, 0f, 100f, 100f);
+        bp.add(2, BroadPhase.LAYER_TRIGGER, 50f, 0f, 400f, 100f);
+        bp.build();
+
+        int[] out = new int[4];
+        assertEquals(1, bp.query(60f, 10f, 70f, 20f, BroadPhase.LAYER_TRIGGER, out));
+        assertEquals(2, out[0]);
+        assertEquals(2, bp.query(60f, 10f, 70f, 20f, BroadPhase.LAYER_ALL, out));
+        assertEquals(0, bp.query(500f, 10f, 600f, 20f, BroadPhase.LAYER_ALL, out));
+    }
+}
@@ -0,0 +1,55 @@
+package com.app.game.core.concurrent;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class TripleBufferTest {
+
+    @Test
+    public void readerSeesLatestPublished() {
+        TripleBuffer<long[]> buf = new TripleBuffer<>(new long[1], new long[1], new long[1]);
+
+        assertFalse(buf.acquire());
+        buf.writeSlot()[0] = 1;
+        buf.publish();
+        buf.writeSlot()[0] = 2;
+        buf.publish();
+
+        assertTrue(buf.acquire());
+        assertEquals(2, buf.readSlot()[0]);
+        assertFalse(buf.acquire());
+        assertEquals(2, buf.readSlot()[0]);
+    }
+
+    // Слот у читателя никогда не пишется: две половины значения всегда совпадают
+    @Test(timeout = 10_000)
+    public void noTornReadsAcrossThreads() throws Exception {
+        final TripleBuffer<long[]> buf = new TripleBuffer<>(new long[2], new long[2], new long[2]);
+        final AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (long i = 1; i <= 2_000_000; i++) {
+                long[] s = buf.writeSlot();
+                s[0] = i;
+                s[1] = -i;
+                buf.publish();
+            }
+            done.set(true);
+        });
+        writer.start();
+
+        long lastSeen = 0;
+        while (!done.get() || buf.acquire()) {
+            buf.acquire();
+            long[] s = buf.readSlot();
+            long a = s[0], b = s[1];
+            assertEquals(a, -b);
+            assertTrue(a >= lastSeen);
+            lastSeen = a;
+        }
+        writer.join();
+        assertEquals(2_000_000, lastSeen);
+    }
+}
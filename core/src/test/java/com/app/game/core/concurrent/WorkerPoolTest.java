@@ -0,0 +1,48 @@
+package com.app.game.core.concurrent;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.*;
+
+public class WorkerPoolTest {
+
+    // Много фаз подряд: каждый индекс ровно один раз, куски с теми же границами, что у SERIAL
+    @Test(timeout = 20_000)
+    public void everyIndexRunsOncePerPhase() {
+        try (WorkerPool pool = new WorkerPool(4)) {
+            assertEquals(4, pool.threads());
+            final int count = 1000;
+            final AtomicIntegerArray hits = new AtomicIntegerArray(count);
+            final int[] chunkFrom = new int[count];
+            int phases = 2000;
+            for (int p = 0; p < phases; p++) {
+                pool.parallelFor(count, 64, (chunk, from, to) -> {
+                    chunkFrom[chunk] = from;
+                    for (int i = from; i < to; i++) hits.incrementAndGet(i);
+                });
+            }
+            for (int i = 0; i < count; i++) assertEquals(phases, hits.get(i));
+            for (int c = 0; c < 16; c++) assertEquals(c * 64, chunkFrom[c]);
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void taskFailureReachesCaller() {
+        try (WorkerPool pool = new WorkerPool(3)) {
+            try {
+                pool.parallelFor(100, 10, (chunk, from, to) -> {
+                    if (chunk == 7) throw new IllegalStateException("chunk 7");
+                });
+                fail();
+            } catch (IllegalStateException expected) {
+                assertEquals("chunk 7", expected.getMessage());
+            }
+            // после ошибки пул жив
+            final int[] sum = new int[1];
+            pool.parallelFor(10, 10, (chunk, from, to) -> sum[0] += to - from);
+            assertEquals(10, sum[0]);
+        }
+    }
+}
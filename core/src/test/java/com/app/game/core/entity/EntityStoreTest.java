@@ -0,0 +1,53 @@
+package com.app.game.core.entity;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EntityStoreTest {
+
+    @Test
+    public void swapRemoveKeepsOtherIdsValid() {
+        EntityStore store = new EntityStore(2);
+        int a = store.create(1f, 0f, 10f, 100, 0);
+        int b = store.create(2f, 0f, 10f, 100, 0);
+        int c = store.create(3f, 0f, 10f, 100, 0);
+
+        assertTrue(store.destroy(a));
+
+        assertEquals(2, store.size());
+        assertFalse(store.isAlive(a));
+        assertEquals(2f, store.x[store.indexOf(b)], 0f);
+        assertEquals(3f, store.x[store.indexOf(c)], 0f);
+        assertEquals(c, store.idAt(store.indexOf(c)));
+    }
+
+    @Test
+    public void reusedSlotGetsNewGeneration() {
+        EntityStore store = new EntityStore(4);
+        int a = store.create(0f, 0f, 10f, 100, 0);
+        store.destroy(a);
+        int b = store.create(5f, 0f, 10f, 100, 0);
+
+        assertNotEquals(a, b);
+        assertFalse(store.isAlive(a));
+        assertFalse(store.destroy(a));
+        assertTrue(store.isAlive(b));
+    }
+
+    @Test
+    public void updateMovesAndAnimates() {
+        EntityStore store = new EntityStore(4);
+        int id = store.create(0f, 0f, 500f, 100, 0);
+        store.setDirection(store.indexOf(id), -1);
+
+        for (int i = 0; i < 60; i++) store.update(1f / 60f);
+
+        int i = store.indexOf(id);
+        assertEquals(-500f, store.x[i], 0.01f);
+        assertEquals(-1, store.lastDir[i]);
+        // 1 сек / 0.09 на кадр = 11 кадров, клип бега из 8
+        assertEquals(store.getAnimations().clipId("player_run"), store.clip[i]);
+        assertEquals(11 % 8, store.frameAt(i));
+    }
+}
@@ -0,0 +1,155 @@
+package com.app.game.core.fx;
+
+import com.app.game.core.World;
+import com.app.game.core.camera.ViewBounds;
+import com.app.game.core.render.RecordingRenderer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParticlePoolTest {
+
+    private static final float DT = 1f / 60f;
+
+    // life 0.5с, летят вправо без гравитации и торможения
+    private static ParticleStyle straight(float life, int frame) {
+        return new ParticleStyle(life, 100f, 100f, 0f, 0f, 0f, 0f, 10f, 2f, frame);
+    }
+
+    @Test
+    public void fullPoolDropsInsteadOfGrowing() {
+        ParticlePool pool = new ParticlePool(100, 1, 1);
+        int s = pool.addStyle(straight(1f, 0));
+        assertEquals(60, pool.emit(s, 0f, 0f, 60, 1));
+        assertEquals(40, pool.emit(s, 0f, 0f, 60, 1));
+        assertEquals(100, pool.size());
+        assertEquals(20, pool.getDropped());
+        assertEquals(100, pool.x.length);
+    }
+
+    @Test
+    public void particlesMoveAndDieAfterLife() {
+        ParticlePool pool = new ParticlePool(16, 1, 1);
+        int shortLived = pool.addStyle(straight(0.1f, 0));
+        int longLived = pool.addStyle(straight(1f, 1));
+        pool.emit(shortLived, 0f, 0f, 3, 1);
+        pool.emit(longLived, 0f, 50f, 2, -1);
+
+        for (int t = 0; t < 10; t++) pool.update(DT);
+
+        // короткие умерли, swap-remove оставил живые плотно в начале
+        assertEquals(2, pool.size());
+        for (int i = 0; i < pool.size(); i++) {
+            assertEquals(longLived, pool.style[i]);
+            assertEquals(-100f * 10 * DT, pool.x[i], 1e-3f);
+            assertEquals(50f, pool.y[i], 0f);
+            assertEquals(1, pool.frameAt(i));
+            assertTrue(pool.sizeAt(i) < 10f && pool.sizeAt(i) > 2f);
+        }
+    }
+
+    @Test
+    public void emitterRateIsSpreadOverTicks() {
+        ParticlePool pool = new ParticlePool(1000, 2, 1);
+        int s = pool.addStyle(straight(10f, 0));
+        int e = pool.addEmitter(s, 30f);
+        pool.moveEmitter(e, 5f, 5f, true);
+        for (int t = 0; t < 60; t++) pool.update(DT);
+        assertEquals(30, pool.size(), 1);
+
+        pool.moveEmitter(e, 5f, 5f, false);
+        pool.update(DT);
+        assertEquals(30, pool.size(), 1);
+    }
+
+    @Test
+    public void projectileHitSpawnsImpact() {
+        ParticlePool pool = new ParticlePool(64, 1, 1);
+        int spark = pool.addStyle(straight(0.2f, 1));
+        int arrow = pool.addStyle(new ParticleStyle(5f, 600f, 600f, 0f, 0f, 0f, 0f, 20f, 20f, 0,
+                ParticleStyle.COLLIDES, spark, 8));
+        // стена на x >= 100
+        pool.setCollider((style, x, y) -> x >= 100f);
+        pool.emit(arrow, 0f, 0f, 1, 1);
+
+        for (int t = 0; t < 9; t++) pool.update(DT);
+        assertEquals(1, pool.size());
+        pool.update(DT);
+
+        // стрела на 10-м тике на x = 100 -> 8 искр отлетают назад
+        assertEquals(8, pool.size());
+        for (int i = 0; i < pool.size(); i++) {
+            assertEquals(spark, pool.style[i]);
+            assertTrue(pool.vx[i] < 0f);
+        }
+    }
+
+    @Test
+    public void sameSeedSameParticles() {
+        ParticlePool a = new ParticlePool(100, 1, 42);
+        ParticlePool b = new ParticlePool(100, 1, 42);
+        ParticleStyle dust = new ParticleStyle(1f, 40f, 120f, 90f, 60f, 200f, 2f, 24f, 4f, 0);
+        a.emit(a.addStyle(dust), 0f, 0f, 50, 1);
+        b.emit(b.addStyle(dust), 0f, 0f, 50, 1);
+        for (int t = 0; t < 20; t++) {
+            a.update(DT);
+            b.update(DT);
+        }
+        for (int i = 0; i < 50; i++) {
+            assertEquals(a.x[i], b.x[i], 0f);
+            assertEquals(a.y[i], b.y[i], 0f);
+        }
+    }
+
+    @Test
+    public void snapshotDrawsOneTextureAndCullsOffscreen() {
+        ParticlePool pool = new ParticlePool(10, 1, 1);
+        int s = pool.addStyle(straight(1f, 1));
+        pool.emit(s, 50f, 20f, 3, 1);
+        pool.emit(s, 5000f, 20f, 2, 1);
+        ParticleSnapshot snap = new ParticleSnapshot();
+        snap.capture(pool);
+        ParticleSnapshot copy = new ParticleSnapshot();
+        copy.copyFrom(snap);
+
+        RecordingRenderer r = new RecordingRenderer();
+        int[] rects = {0, 0, 8, 8, 8, 0, 16, 8};
+        ViewBounds view = new ViewBounds().set(10f, 0f, 1f, 1000, 0);
+        assertEquals(3, copy.draw(r, 4, rects, 1f, DT, view));
+        assertEquals(3, r.size());
+        assertEquals(3, view.getDrawn());
+        assertEquals(2, view.getCulled());
+        for (int i = 0; i < r.size(); i++) {
+            assertEquals(4, r.texture(i));
+            assertEquals(35f, r.dstLeft(i), 0f);
+        }
+    }
+
+    // Эффекты игрока идут хуком внутри World.update - их видит и поток симуляции, не только GameView
+    @Test
+    public void playerEffectsRunInsideWorldTick() {
+        World world = new World(500f, 300f, 500f);
+        world.setViewport(1000, 600, 600f);
+        ParticlePool fx = world.getParticles();
+        int dust = fx.addStyle(straight(0.5f, 0));
+        int spark = fx.addStyle(straight(0.2f, 1));
+        world.addTickHook(new PlayerEffects(fx, dust, 60f, spark, 16, 20f, 6f, 0.15f));
+
+        world.update(DT);
+        assertEquals(0, fx.size());
+
+        world.pressAttack(1);
+        world.update(DT);
+        assertEquals(16, fx.size());
+        world.update(DT);
+        assertTrue(world.getCamera().getShakeX() != 0f || world.getCamera().getShakeY() != 0f);
+
+        // пыль пошла, как только игрок побежал
+        for (int t = 0; t < 30; t++) world.update(DT);
+        assertEquals(0, fx.size());
+        world.setInputDirection(1);
+        for (int t = 0; t < 10; t++) world.update(DT);
+        assertTrue(fx.size() > 0);
+    }
+}
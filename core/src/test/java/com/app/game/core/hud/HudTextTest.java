@@ -0,0 +1,77 @@
+package com.app.game.core.hud;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+public class HudTextTest {
+
+    @Test
+    public void formatsNumbers() {
+        HudText hud = new HudText(2, 64);
+        hud.line().append("FPS: ").append(60).append(" UPS: ").append(-7);
+        hud.line().append("p99: ").appendMs(16_789).append(" max: ").append(Long.MIN_VALUE);
+
+        assertEquals(2, hud.lineCount());
+        assertEquals("FPS: 60 UPS: -7", lineText(hud, 0));
+        assertEquals("p99: 16.7 max: -9223372036854775808", lineText(hud, 1));
+    }
+
+    @Test
+    public void truncatesInsteadOfGrowing() {
+        HudText hud = new HudText(1, 8);
+        hud.line().append("0123456").append(12345);
+        hud.line().append("dropped");
+
+        assertEquals(1, hud.lineCount());
+        assertEquals("0123456", lineText(hud, 0));
+    }
+
+    // Собираем и "рисуем" HUD много кадров подряд: после прогрева ни одного байта
+    @Test
+    public void drawingAllocatesNothingPerFrame() {
+        com.sun.management.ThreadMXBean mx =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeAllocationCounting(mx);
+
+        HudText hud = new HudText(4, 96);
+        long[] sink = new long[1];
+        for (int frame = 0; frame < 20_000; frame++) {
+            buildAndDraw(hud, frame, sink);
+        }
+
+        long tid = Thread.currentThread().getId();
+        long before = mx.getThreadAllocatedBytes(tid);
+        for (int frame = 0; frame < 10_000; frame++) {
+            buildAndDraw(hud, frame, sink);
+        }
+        long allocated = mx.getThreadAllocatedBytes(tid) - before;
+
+        assertTrue(sink[0] != 0);
+        assertEquals(0, allocated);
+    }
+
+    private static void buildAndDraw(HudText hud, int frame, long[] sink) {
+        hud.clear();
+        hud.line().append("FPS: ").append(frame % 120).append(" UPS: ").append(60);
+        hud.line().append("frame p50/p95/p99/max: ").appendMs(frame * 7).append('/').appendMs(frame * 11)
+                .append(" ms");
+        hud.line().append("entities: ").append(frame).append(" GC: ").append(frame / 100);
+        // вместо canvas.drawText(char[], 0, len, ...)
+        for (int i = 0; i < hud.lineCount(); i++) {
+            char[] chars = hud.chars(i);
+            for (int c = 0; c < hud.length(i); c++) sink[0] += chars[c];
+        }
+    }
+
+    private static void assumeAllocationCounting(com.sun.management.ThreadMXBean mx) {
+        org.junit.Assume.assumeTrue(mx.isThreadAllocatedMemorySupported());
+        mx.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    private static String lineText(HudText hud, int line) {
+        return new String(hud.chars(line), 0, hud.length(line));
+    }
+}
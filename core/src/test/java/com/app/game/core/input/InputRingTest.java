@@ -0,0 +1,138 @@
+package com.app.game.core.input;
+
+import com.app.game.core.World;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class InputRingTest {
+
+    private static final float W = 1000f, H = 500f;
+
+    private static TouchControls controls(InputRing ring) {
+        ring.offer(InputRing.RESIZE, -1, W, H, 0);
+        return new TouchControls(ring);
+    }
+
+    private static World world(TouchControls controls) {
+        World world = new World(100f, 100f, 500f);
+        world.setViewport(1000, 500f);
+        world.setInputSource(controls);
+        return world;
+    }
+
+    @Test
+    public void keepsOrderAcrossWrapAndRejectsWhenFull() {
+        InputRing ring = new InputRing(8);
+        final int[] next = {0};
+        InputRing.Consumer check = (type, id, x, y, t) -> assertEquals(next[0]++, id);
+
+        int written = 0;
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 5; i++) assertTrue(ring.offer(InputRing.MOVE, written++, 0f, 0f, 0));
+            assertEquals(5, ring.drain(check));
+        }
+        for (int i = 0; i < 8; i++) assertTrue(ring.offer(InputRing.MOVE, written++, 0f, 0f, 0));
+        assertFalse(ring.offer(InputRing.MOVE, -1, 0f, 0f, 0));
+        assertEquals(1, ring.getDropped());
+        assertEquals(8, ring.drain(check));
+        assertEquals(written, next[0]);
+    }
+
+    @Test(timeout = 10_000)
+    public void producerAndConsumerThreadsSeeWholeRecords() throws Exception {
+        final InputRing ring = new InputRing(64);
+        final int total = 1_000_000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; ) {
+                // все поля записи выводятся из i - рваная запись сразу видна
+                if (ring.offer(InputRing.MOVE, i, i * 0.5f, -i, i * 3L)) i++;
+                else Thread.yield();
+            }
+        });
+        producer.start();
+        final int[] seen = {0};
+        InputRing.Consumer check = (type, id, x, y, t) -> {
+            assertEquals(seen[0], id);
+            assertEquals(id * 0.5f, x, 0f);
+            assertEquals(-id, y, 0f);
+            assertEquals(id * 3L, t);
+            seen[0]++;
+        };
+        while (seen[0] < total) {
+            if (ring.drain(check) == 0) Thread.yield();
+        }
+        producer.join();
+        assertEquals(total, seen[0]);
+    }
+
+    @Test
+    public void moveAndAttackWithTwoFingers() {
+        InputRing ring = new InputRing(64);
+        TouchControls c = controls(ring);
+        World world = world(c);
+
+        // правая половина (не зона атаки) - бег вправо
+        ring.offer(InputRing.DOWN, 0, 700f, 100f, 0);
+        world.update(World.DT_SEC);
+        assertEquals(1, world.getPlayer().getDirection());
+
+        // второй палец на кнопку атаки, бег продолжается
+        ring.offer(InputRing.DOWN, 1, TouchControls.ATTACK_CENTER_X * W, TouchControls.ATTACK_CENTER_Y * H, 0);
+        world.update(World.DT_SEC);
+        assertEquals(1, world.getPlayer().getDirection());
+        assertTrue(c.isAttackHeld());
+        assertEquals(1, world.getAttackPresses());
+
+        // отпустили бег - стоим, атака все еще зажата
+        ring.offer(InputRing.UP, 0, 700f, 100f, 0);
+        world.update(World.DT_SEC);
+        assertEquals(0, world.getPlayer().getDirection());
+        assertTrue(c.isAttackHeld());
+        // нажатие засчитано один раз, удержание новых не дает
+        assertEquals(0, world.getAttackPresses());
+
+        ring.offer(InputRing.CANCEL, -1, 0f, 0f, 0);
+        world.update(World.DT_SEC);
+        assertFalse(c.isAttackHeld());
+    }
+
+    @Test
+    public void lastPressedMoveFingerWins() {
+        InputRing ring = new InputRing(64);
+        World world = world(controls(ring));
+
+        ring.offer(InputRing.DOWN, 0, 100f, 100f, 0);
+        ring.offer(InputRing.DOWN, 1, 700f, 100f, 0);
+        world.update(World.DT_SEC);
+        assertEquals(1, world.getPlayer().getDirection());
+
+        ring.offer(InputRing.UP, 1, 700f, 100f, 0);
+        world.update(World.DT_SEC);
+        assertEquals(-1, world.getPlayer().getDirection());
+    }
+
+    @Test
+    public void joystickUsesOffsetFromTouchPointAndDeadZone() {
+        InputRing ring = new InputRing(64);
+        World world = world(controls(ring));
+        float dead = TouchControls.JOYSTICK_DEAD_ZONE * H;
+
+        ring.offer(InputRing.DOWN, 0, 150f, 450f, 0);
+        // историческая пачка: ушли влево, вернулись почти в центр
+        ring.offer(InputRing.MOVE, 0, 150f - 3 * dead, 450f, 1);
+        ring.offer(InputRing.MOVE, 0, 150f + dead * 0.5f, 450f, 2);
+        world.update(World.DT_SEC);
+        assertEquals(0, world.getPlayer().getDirection());
+
+        // палец уехал в правую половину экрана, но это джойстик: важна только сторона от точки касания
+        ring.offer(InputRing.MOVE, 0, 120f - 2 * dead, 450f, 3);
+        world.update(World.DT_SEC);
+        assertEquals(-1, world.getPlayer().getDirection());
+
+        ring.offer(InputRing.MOVE, 0, 800f, 450f, 4);
+        world.update(World.DT_SEC);
+        assertEquals(1, world.getPlayer().getDirection());
+    }
+}
@@ -0,0 +1,109 @@
+package com.app.game.core.level;
+
+import com.app.game.core.World;
+import com.app.game.core.collision.BroadPhase;
+import com.app.game.core.replay.WorldSetup;
+import com.app.game.core.save.GameSnapshot;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LevelPopulatorTest {
+
+    private static final float W = ChunkGenerator.CHUNK_WIDTH;
+    private static final long SEED = 99L;
+    private static final int VIEW = 1000;
+
+    private static World world() {
+        return new WorldSetup(500f, 300f, 500f, 400, 48f, 120f, VIEW, 700, 600f, null, SEED).createWorld();
+    }
+
+    private static int firstShopChunk(ChunkGenerator g) {
+        for (int i = 1; ; i++) {
+            if (g.generate(i).shopCount > 0) return i;
+        }
+    }
+
+    // Монстров в окне вокруг camX - столько, сколько точек спавна у его чанков
+    private static int spawnsAround(World world, float camX) {
+        LevelStreamer level = world.getLevel();
+        int n = 0;
+        for (int i = level.firstChunk(camX), last = level.lastChunk(camX, VIEW); i <= last; i++) {
+            n += level.chunkOrGenerate(i).spawnCount;
+        }
+        return n;
+    }
+
+    private static boolean shopZoneAt(World world, float x, int chunk) {
+        int[] out = new int[16];
+        int n = world.queryArea(x - 1f, 0f, x + 1f, 1f, BroadPhase.LAYER_TRIGGER, out);
+        for (int k = 0; k < Math.min(n, out.length); k++) {
+            if (out[k] == LevelPopulator.ZONE_SHOP + chunk) return true;
+        }
+        return false;
+    }
+
+    @Test
+    public void windowSpawnsMonstersAndShopZonesAndClearsThemWhenLeft() {
+        World world = world();
+        int shop = firstShopChunk(new ChunkGenerator(SEED));
+        float shopX = new ChunkGenerator(SEED).generate(shop).shopX[0];
+
+        float camX = shop * W;
+        world.setCamX(camX);
+        world.update(World.DT_SEC);
+        assertEquals(1 + spawnsAround(world, camX), world.getEntityCount());
+        assertTrue(shopZoneAt(world, shopX, shop));
+
+        // камера далеко: прежнее окно убрано целиком, поставлено новое
+        float farX = -40 * W;
+        world.setCamX(farX);
+        world.update(World.DT_SEC);
+        assertFalse(shopZoneAt(world, shopX, shop));
+        assertEquals(1 + spawnsAround(world, farX), world.getEntityCount());
+
+        // вернулись - поставилось заново
+        world.setCamX(camX);
+        world.update(World.DT_SEC);
+        assertTrue(shopZoneAt(world, shopX, shop));
+        assertEquals(1 + spawnsAround(world, camX), world.getEntityCount());
+    }
+
+    @Test
+    public void killedMonsterIsNotDoubleDestroyedAndSnapshotSkipsLevelEntities() {
+        World world = world();
+        float camX = 3 * W;
+        world.setCamX(camX);
+        world.update(World.DT_SEC);
+        int spawned = spawnsAround(world, camX);
+        assertTrue("spawns " + spawned, spawned > 0);
+
+        // свою сущность игра сохраняет, монстров уровня - нет
+        int own = world.getEntities().create(0f, 0f, 0f, 10, 2);
+        assertFalse(world.isLevelEntity(own));
+        assertEquals(1, GameSnapshot.capture(world).entityCount);
+
+        // убили монстра, потом окно уехало - остальные убраны, своя осталась
+        int monster = world.getEntities().idAt(1);
+        assertTrue(world.isLevelEntity(monster));
+        assertTrue(world.getEntities().destroy(monster));
+        world.setCamX(-40 * W);
+        world.update(World.DT_SEC);
+        assertTrue(world.getEntities().isAlive(own));
+        assertEquals(2 + spawnsAround(world, -40 * W), world.getEntityCount());
+    }
+
+    @Test
+    public void setLevelClearsPreviousLevelContent() {
+        World world = world();
+        world.setCamX(3 * W);
+        world.update(World.DT_SEC);
+        assertTrue(world.getEntityCount() > 1);
+
+        world.setLevel(null);
+        assertEquals(1, world.getEntityCount());
+        world.update(World.DT_SEC);
+        assertEquals(1, world.getEntityCount());
+    }
+}
@@ -0,0 +1,102 @@
+package com.app.game.core.level;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LevelStreamerTest {
+
+    private static final float W = ChunkGenerator.CHUNK_WIDTH;
+
+    @Test
+    public void chunksDependOnlyOnSeedAndIndex() {
+        ChunkGenerator a = new ChunkGenerator(1234L);
+        ChunkGenerator b = new ChunkGenerator(1234L);
+        // другой порядок генерации - те же чанки
+        Chunk a7 = a.generate(7);
+        b.generate(3);
+        Chunk b7 = b.generate(7);
+
+        assertArrayEquals(a7.tiles, b7.tiles);
+        assertEquals(a7.platformCount, b7.platformCount);
+        assertEquals(a7.spawnCount, b7.spawnCount);
+        assertEquals(a7.shopCount, b7.shopCount);
+        assertEquals(7 * W, a7.startX, 0f);
+
+        Chunk start = a.generate(0);
+        assertEquals(0, start.spawnCount);
+        assertEquals(0, start.shopCount);
+    }
+
+    @Test
+    public void platformsAndSpawnsStayInsideChunkAndShopsAppear() {
+        ChunkGenerator g = new ChunkGenerator(99L);
+        int shops = 0;
+        for (int i = -20; i < 40; i++) {
+            Chunk c = g.generate(i);
+            for (int p = 0; p < c.platformCount; p++) {
+                assertTrue(c.platformX0[p] >= c.startX && c.platformX1[p] <= c.startX + c.width);
+                assertTrue(c.platformX1[p] > c.platformX0[p]);
+            }
+            for (int s = 0; s < c.spawnCount; s++) {
+                assertTrue(c.spawnX[s] >= c.startX && c.spawnX[s] < c.startX + c.width);
+            }
+            shops += c.shopCount;
+        }
+        assertTrue("shops " + shops, shops >= 5);
+    }
+
+    @Test
+    public void streamsAheadOfCameraAndEvictsBehindUnderCap() {
+        ChunkGenerator g = new ChunkGenerator(5L);
+        long chunkBytes = g.generate(1).byteSize();
+        // окно ~3 чанка, лимит - на 6
+        LevelStreamer level = new LevelStreamer(g, W, W * 0.5f, chunkBytes * 6);
+
+        level.requestAround(0f, 1000);
+        assertTrue(level.pump());
+        assertNotNull(level.chunk(0));
+        assertNotNull(level.chunk(1));
+        assertNull(level.chunk(-2));
+        assertFalse(level.pump());
+
+        // камера ушла далеко вправо - ближние слева выселены, окно на месте
+        for (float cam = 0; cam <= 20 * W; cam += W * 0.25f) {
+            level.requestAround(cam, 1000);
+            level.pump();
+            assertTrue(level.getResidentBytes() <= chunkBytes * 8);
+        }
+        assertNotNull(level.chunk(20));
+        assertNotNull(level.chunk(21));
+        assertNull(level.chunk(0));
+        assertTrue(level.getEvictedChunks() > 0);
+        assertTrue(level.getResidentChunks() <= 8);
+        assertEquals(level.getGeneratedChunks(), level.getResidentChunks() + level.getEvictedChunks());
+    }
+
+    @Test(timeout = 10_000)
+    public void workerThreadPublishesOnlyBuiltChunks() throws Exception {
+        LevelStreamer level = new LevelStreamer(new ChunkGenerator(42L), 2 * W, W, 1L << 20);
+        level.start();
+        try {
+            float cam = 0f;
+            for (int step = 0; step < 2000; step++) {
+                cam += 37f;
+                level.requestAround(cam, 1920);
+                // читаем как рендер: все, что видно, - целиком собрано
+                for (int i = LevelStreamer.chunkIndex(cam) - 1; i <= LevelStreamer.chunkIndex(cam + 1920) + 1; i++) {
+                    Chunk c = level.chunk(i);
+                    if (c == null) continue;
+                    assertEquals(i, c.index);
+                    assertEquals(ChunkGenerator.CHUNK_TILES, c.tiles.length);
+                }
+                if (step % 64 == 0) Thread.yield();
+            }
+            while (level.chunk(LevelStreamer.chunkIndex(cam + 1920)) == null) Thread.yield();
+        } finally {
+            level.stop();
+        }
+        assertTrue(level.getGeneratedChunks() > 0);
+        assertTrue(level.getMaxGenerationNs() >= level.getAverageGenerationNs());
+    }
+}
@@ -0,0 +1,66 @@
+package com.app.game.core.memory;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AssetQualityTest {
+
+    private static final long SEC = 1_000_000_000L;
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    public void trimLevelsMapToTiers() {
+        AssetQuality q = new AssetQuality(100 * MB, 30 * SEC);
+
+        assertEquals(AssetQuality.TIER_CHANGED | AssetQuality.EVICT_UNUSED,
+                q.onTrimMemory(AssetQuality.TRIM_RUNNING_MODERATE, 0));
+        assertEquals(AssetQuality.OPAQUE_565, q.tier());
+
+        // повтор того же уровня - ничего не меняем, только чистим
+        assertEquals(AssetQuality.EVICT_UNUSED, q.onTrimMemory(AssetQuality.TRIM_RUNNING_MODERATE, SEC));
+        assertEquals(AssetQuality.EVICT_UNUSED, q.onTrimMemory(AssetQuality.TRIM_UI_HIDDEN, SEC));
+        assertEquals(AssetQuality.OPAQUE_565, q.tier());
+
+        assertEquals(AssetQuality.TIER_CHANGED | AssetQuality.EVICT_ALL,
+                q.onTrimMemory(AssetQuality.TRIM_BACKGROUND, 2 * SEC));
+        assertEquals(AssetQuality.REDUCED, q.tier());
+        assertEquals(2, q.getDowngrades());
+
+        // trim никогда не поднимает качество
+        assertEquals(AssetQuality.EVICT_UNUSED, q.onTrimMemory(AssetQuality.TRIM_RUNNING_MODERATE, 3 * SEC));
+        assertEquals(AssetQuality.REDUCED, q.tier());
+    }
+
+    @Test
+    public void heapOverBudgetStepsDownThenRestoresSlowly() {
+        AssetQuality q = new AssetQuality(100 * MB, 30 * SEC);
+
+        assertEquals(AssetQuality.NONE, q.onHeapSample(90 * MB, 0));
+        assertEquals(AssetQuality.TIER_CHANGED | AssetQuality.EVICT_UNUSED, q.onHeapSample(120 * MB, SEC));
+        assertEquals(AssetQuality.OPAQUE_565, q.tier());
+        q.onHeapSample(110 * MB, 2 * SEC);
+        assertEquals(AssetQuality.REDUCED, q.tier());
+        assertEquals(AssetQuality.EVICT_UNUSED, q.onHeapSample(110 * MB, 3 * SEC));
+
+        // давление ушло, но хип выше порога восстановления - стоим
+        assertEquals(AssetQuality.NONE, q.onHeapSample(80 * MB, 40 * SEC));
+        assertEquals(AssetQuality.REDUCED, q.tier());
+
+        // ниже порога: одна ступень, следующая - еще через 30 с
+        assertEquals(AssetQuality.TIER_CHANGED, q.onHeapSample(40 * MB, 41 * SEC));
+        assertEquals(AssetQuality.OPAQUE_565, q.tier());
+        assertEquals(AssetQuality.NONE, q.onHeapSample(40 * MB, 50 * SEC));
+        assertEquals(AssetQuality.TIER_CHANGED, q.onHeapSample(40 * MB, 71 * SEC));
+        assertEquals(AssetQuality.FULL, q.tier());
+        assertEquals(AssetQuality.NONE, q.onHeapSample(10 * MB, 200 * SEC));
+    }
+
+    @Test
+    public void budgetIsConfigurable() {
+        AssetQuality q = new AssetQuality(100 * MB, 30 * SEC);
+        q.setHeapBudgetBytes(50 * MB);
+        q.onHeapSample(60 * MB, 0);
+        assertEquals(AssetQuality.OPAQUE_565, q.tier());
+    }
+}
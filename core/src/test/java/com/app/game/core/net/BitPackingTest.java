@@ -0,0 +1,99 @@
+package com.app.game.core.net;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BitPackingTest {
+
+    @Test
+    public void fieldsRoundTrip() throws Exception {
+        BitWriter w = new BitWriter(64);
+        w.write(5, 3);
+        w.writeBool(true);
+        w.write(0xabcdef, 24);
+        w.writeSigned(-100, 8);
+        w.writeVar(300);
+        w.write(-1, 32);
+        w.writeSigned(2047, 12);
+        w.writeVar(0);
+
+        assertEquals(3 + 1 + 24 + 8 + 16 + 32 + 12 + 8, w.lengthBits());
+        BitReader r = new BitReader().reset(w.array(), w.lengthBytes());
+        assertEquals(5, r.read(3));
+        assertTrue(r.readBool());
+        assertEquals(0xabcdef, r.read(24));
+        assertEquals(-100, r.readSigned(8));
+        assertEquals(300, r.readVar());
+        assertEquals(-1, r.read(32));
+        assertEquals(2047, r.readSigned(12));
+        assertEquals(0, r.readVar());
+        assertTrue(r.remainingBits() < 8);
+    }
+
+    @Test(expected = NetFormatException.class)
+    public void truncatedPacketThrows() throws Exception {
+        BitWriter w = new BitWriter(8);
+        w.write(0x3ff, 10);
+        new BitReader().reset(w.array(), 1).read(10);
+    }
+
+    @Test
+    public void inputPacking() {
+        for (int dir = -1; dir <= 1; dir++) {
+            for (int a = 0; a < 2; a++) {
+                int in = DuelInput.of(dir, a == 1);
+                assertTrue(in < (1 << DuelInput.BITS));
+                assertEquals(dir, DuelInput.dir(in));
+                assertEquals(a == 1, DuelInput.attack(in));
+            }
+        }
+        assertEquals(DuelInput.NONE, DuelInput.of(0, false));
+    }
+
+    @Test
+    public void unchangedFightersCostTwoBits() throws Exception {
+        DuelState base = new DuelState();
+        DuelState s = new DuelState();
+        base.set(0, DuelState.X, 8000);
+        base.set(1, DuelState.HP, 100);
+        s.copyFrom(base);
+
+        BitWriter w = new BitWriter(64);
+        DuelCodec.writeFighters(w, base, s);
+        assertEquals(2, w.lengthBits());
+
+        // шаг игрока за тик - 8-битный класс
+        s.set(0, DuelState.X, 8000 + 133);
+        s.set(0, DuelState.DIR, -1);
+        s.set(1, DuelState.HP, 90);
+        w.reset();
+        DuelCodec.writeFighters(w, base, s);
+        DuelState out = new DuelState();
+        DuelCodec.readFighters(new BitReader().reset(w.array(), w.lengthBytes()), base, out);
+        assertTrue(out.sameFighter(s, 0));
+        assertTrue(out.sameFighter(s, 1));
+        assertTrue("bits " + w.lengthBits(), w.lengthBits() <= 40);
+    }
+
+    @Test
+    public void loopbackDelaysAndDrops() {
+        LoopbackTransport link = new LoopbackTransport(2, 8);
+        byte[] buf = new byte[Transport.MAX_PACKET_BYTES];
+        link.setLossEvery(3);
+        for (int i = 1; i <= 3; i++) link.hostEnd().send(new byte[]{(byte) i}, 1);
+
+        assertEquals(-1, link.clientEnd().receive(buf));
+        link.step();
+        assertEquals(-1, link.clientEnd().receive(buf));
+        link.step();
+        assertEquals(1, link.clientEnd().receive(buf));
+        assertEquals(1, buf[0]);
+        assertEquals(1, link.clientEnd().receive(buf));
+        assertEquals(2, buf[0]);
+        // третий потерян
+        assertEquals(-1, link.clientEnd().receive(buf));
+        assertEquals(-1, link.hostEnd().receive(buf));
+        assertEquals(1, link.getLost());
+    }
+}
@@ -0,0 +1,159 @@
+package com.app.game.core.net;
+
+import com.app.game.core.replay.WorldSetup;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DuelNetTest {
+
+    private static final float GAP = 300f;
+    private static final float REACH = 60f;
+
+    private static WorldSetup setup() {
+        return new WorldSetup(500f, 300f, 500f, 400, 48f, 120f, 1000, 600f, null);
+    }
+
+    // Хост и клиент тикают по очереди в одном потоке, сеть - loopback с задержкой в тиках
+    private static final class Session {
+        final LoopbackTransport link;
+        final DuelHost host;
+        final DuelClient client;
+
+        Session(int latencyTicks, int lossEvery) {
+            this(new LoopbackTransport(latencyTicks, 64), lossEvery, 0, 0);
+        }
+
+        // Клиент теряет подряд свои отправки с номерами [dropFrom, dropTo]
+        Session(int latencyTicks, long dropFrom, long dropTo) {
+            this(new LoopbackTransport(latencyTicks, 64), 0, dropFrom, dropTo);
+        }
+
+        private Session(LoopbackTransport link, int lossEvery, long dropFrom, long dropTo) {
+            this.link = link;
+            link.setLossEvery(lossEvery);
+            host = new DuelHost(setup(), GAP, REACH, link.hostEnd());
+            Transport clientEnd = dropTo > 0 ? new BurstLoss(link.clientEnd(), dropFrom, dropTo) : link.clientEnd();
+            client = new DuelClient(setup(), GAP, REACH, clientEnd);
+        }
+
+        void tick(int hostInput, int clientInput) {
+            host.tick(hostInput);
+            client.tick(clientInput);
+            link.step();
+        }
+
+        void settle() {
+            for (int i = 0; i < 40; i++) tick(DuelInput.NONE, DuelInput.NONE);
+        }
+    }
+
+    private static final class BurstLoss implements Transport {
+        private final Transport inner;
+        private final long from, to;
+        private long sent;
+
+        BurstLoss(Transport inner, long from, long to) {
+            this.inner = inner;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean send(byte[] data, int length) {
+            sent++;
+            return sent >= from && sent <= to || inner.send(data, length);
+        }
+
+        @Override
+        public int receive(byte[] out) {
+            return inner.receive(out);
+        }
+    }
+
+    // Клиент бегает туда-сюда, хост стоит и иногда бьет
+    private static void play(Session s, int ticks) {
+        for (int t = 0; t < ticks; t++) {
+            int clientDir = (t / 45) % 3 - 1;
+            s.tick(DuelInput.of(0, t % 50 == 0), DuelInput.of(clientDir, t % 70 == 35));
+        }
+    }
+
+    private static void assertSameFighters(Session s) {
+        DuelState h = new DuelState();
+        DuelState c = new DuelState();
+        s.host.getDuel().capture(h);
+        s.client.getDuel().capture(c);
+        for (int slot = 0; slot < DuelState.SLOTS; slot++) {
+            assertTrue("slot " + slot, h.sameFighter(c, slot));
+        }
+    }
+
+    @Test
+    public void predictionMatchesHostWithoutLoss() {
+        Session s = new Session(3, 0);
+        play(s, 600);
+        s.settle();
+
+        assertSameFighters(s);
+        NetStats c = s.client.getStats();
+        // клиент видит свои шаги сразу, расходится с хостом только от ударов хоста и на старте
+        assertTrue(c.getReconciles() > 500);
+        assertTrue("corrections " + c.getCorrections(), c.getCorrections() < c.getReconciles() / 10);
+        assertEquals(0, c.getBadPackets());
+        assertEquals(0, s.host.getStats().getBadPackets());
+        // почти все снапшоты - дельты, и трафик в обе стороны - единицы байт на тик
+        assertTrue(s.host.getStats().getDeltaSnapshots() > 600);
+        assertTrue("host " + s.host.getStats().getBytesSentPerTick(), s.host.getStats().getBytesSentPerTick() < 12f);
+        assertTrue("client " + c.getBytesSentPerTick(), c.getBytesSentPerTick() < 10f);
+    }
+
+    @Test
+    public void convergesWithPacketLoss() {
+        Session s = new Session(4, 7);
+        play(s, 900);
+        s.settle();
+
+        assertSameFighters(s);
+        assertTrue(s.link.getLost() > 100);
+        // хост отстает от клиента ровно на путь пакета: потери не копятся в очереди вводов
+        assertEquals(s.client.getInputSeq() - 4 - 1, s.host.getProcessedInput());
+    }
+
+    @Test
+    public void hostSkipsInputsLostInLongBurst() {
+        // 20 пакетов подряд - больше, чем клиент повторяет в одном пакете
+        Session s = new Session(2, 50, 69);
+        play(s, 300);
+
+        assertTrue(s.host.getStats().getSkippedInputs() > 0);
+        assertEquals(s.client.getInputSeq() - 2 - 1, s.host.getProcessedInput());
+        // после дыры хост снова принимает удары клиента
+        int hp = s.host.getDuel().getHp(0);
+        for (int t = 0; t < 200 && s.host.getDuel().getHp(0) == hp; t++) {
+            boolean close = s.client.getDuel().getX(1) - s.client.getDuel().getX(0) < 40f;
+            s.tick(DuelInput.NONE, close ? DuelInput.of(0, t % 30 == 0) : DuelInput.of(-1, false));
+        }
+        assertEquals(hp - Duel.ATTACK_DAMAGE, s.host.getDuel().getHp(0));
+        s.settle();
+        assertSameFighters(s);
+    }
+
+    @Test
+    public void hostHitIsCorrectedOnClient() {
+        Session s = new Session(2, 0);
+        // клиент подходит вплотную, хост бьет один раз
+        for (int t = 0; t < 120; t++) {
+            boolean close = s.host.getDuel().getX(1) - s.host.getDuel().getX(0) < 100f;
+            s.tick(DuelInput.of(0, close && s.host.getDuel().getHp(1) == 100), close ? DuelInput.NONE : DuelInput.of(-1, false));
+        }
+        s.settle();
+
+        assertEquals(100 - Duel.ATTACK_DAMAGE, s.host.getDuel().getHp(1));
+        assertEquals(100 - Duel.ATTACK_DAMAGE, s.client.getDuel().getHp(1));
+        assertEquals(-1, s.host.getDuel().winner());
+        assertTrue(s.client.getStats().getCorrections() >= 1);
+        assertSameFighters(s);
+    }
+}
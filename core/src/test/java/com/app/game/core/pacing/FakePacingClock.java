@@ -0,0 +1,82 @@
+package com.app.game.core.pacing;
+
+// Ручные часы для тестов пейсинга: park сдвигает время (с пересыпом как у таймера ОС),
+// спин и work жгут "CPU". Может сам слать vsync в VsyncPacer
+class FakePacingClock implements PacingClock {
+
+    private final long oversleepNs;
+    private final long spinStepNs;
+
+    private long now;
+    private long cpu;
+    private boolean permit;
+
+    private VsyncPacer vsyncTarget;
+    private long vsyncPeriodNs;
+    private long nextVsyncNs = Long.MAX_VALUE;
+
+    FakePacingClock(long oversleepNs, long spinStepNs) {
+        this.oversleepNs = oversleepNs;
+        this.spinStepNs = spinStepNs;
+    }
+
+    void startVsync(VsyncPacer target, long periodNs) {
+        vsyncTarget = target;
+        vsyncPeriodNs = periodNs;
+        nextVsyncNs = now + periodNs;
+    }
+
+    void stopVsync() {
+        nextVsyncNs = Long.MAX_VALUE;
+    }
+
+    // Работа кадра: время идет, CPU тратится
+    void work(long ns) {
+        advanceTo(now + ns);
+        cpu += ns;
+    }
+
+    @Override
+    public long nanoTime() {
+        return now;
+    }
+
+    @Override
+    public long threadCpuNanos() {
+        return cpu;
+    }
+
+    @Override
+    public void park(long ns) {
+        long wake = now + ns + oversleepNs;
+        while (!permit && nextVsyncNs <= wake) {
+            fireVsync();
+        }
+        if (permit) {
+            permit = false;
+            return;
+        }
+        now = wake;
+    }
+
+    @Override
+    public void unpark(Thread thread) {
+        permit = true;
+    }
+
+    @Override
+    public void spinWait() {
+        work(spinStepNs);
+    }
+
+    private void advanceTo(long t) {
+        while (nextVsyncNs <= t) fireVsync();
+        now = t;
+    }
+
+    private void fireVsync() {
+        now = nextVsyncNs;
+        nextVsyncNs += vsyncPeriodNs;
+        vsyncTarget.onVsync(now);
+    }
+}
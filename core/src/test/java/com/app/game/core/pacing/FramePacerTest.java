@@ -0,0 +1,133 @@
+package com.app.game.core.pacing;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FramePacerTest {
+
+    private static final long US = 1_000L;
+    private static final long MS = 1_000_000L;
+    private static final long FRAME_60 = 1_000_000_000L / 60;
+    private static final int FRAMES = 600;
+
+    // Итог прогона: средняя |ошибка|, CPU и интервал на кадр
+    private static final class Report {
+        long meanAbsErrorNs;
+        long maxAbsErrorNs;
+        long cpuPerFrameNs;
+        long meanIntervalNs;
+    }
+
+    private static Report run(FramePacer pacer, FakePacingClock clock, long workNs) {
+        Report r = new Report();
+        long first = pacer.awaitFrame();
+        long cpuStart = clock.threadCpuNanos();
+        long errSum = 0;
+        long last = first;
+        for (int i = 0; i < FRAMES; i++) {
+            clock.work(workNs);
+            last = pacer.awaitFrame();
+            long err = Math.abs(pacer.getLastErrorNs());
+            errSum += err;
+            r.maxAbsErrorNs = Math.max(r.maxAbsErrorNs, err);
+        }
+        r.meanAbsErrorNs = errSum / FRAMES;
+        r.cpuPerFrameNs = (clock.threadCpuNanos() - cpuStart) / FRAMES;
+        r.meanIntervalNs = (last - first) / FRAMES;
+        return r;
+    }
+
+    @Test
+    public void hybridHitsDeadlineDespiteTimerSlack() {
+        // park пересыпает на 1.5 мс - спин должен это закрыть
+        FakePacingClock clock = new FakePacingClock(1500 * US, 20 * US);
+        HybridSleepPacer pacer = new HybridSleepPacer(clock, FRAME_60);
+
+        Report r = run(pacer, clock, 5 * MS);
+
+        assertEquals(FRAME_60, r.meanIntervalNs, 1 * US);
+        assertTrue("max error " + r.maxAbsErrorNs, r.maxAbsErrorNs <= 20 * US + 1500 * US);
+        assertTrue("mean error " + r.meanAbsErrorNs, r.meanAbsErrorNs <= 20 * US);
+        assertTrue("spin " + pacer.getSpinNs(), pacer.getSpinNs() >= 1500 * US);
+        // ждем в основном во сне: спин - пара миллисекунд из 11.6 мс ожидания
+        assertTrue("cpu " + r.cpuPerFrameNs, r.cpuPerFrameNs < 5 * MS + 3 * MS);
+    }
+
+    @Test
+    public void hybridResyncsAfterLongFrameInsteadOfCatchingUp() {
+        FakePacingClock clock = new FakePacingClock(0, 10 * US);
+        HybridSleepPacer pacer = new HybridSleepPacer(clock, FRAME_60);
+        pacer.awaitFrame();
+
+        clock.work(100 * MS);
+        long late = pacer.awaitFrame();
+        assertTrue(pacer.getLastErrorNs() > FRAME_60);
+
+        // следующий кадр - через полный интервал, а не сразу
+        clock.work(1 * MS);
+        long next = pacer.awaitFrame();
+        assertEquals(FRAME_60, next - late, 10 * US);
+    }
+
+    @Test
+    public void lowPowerCapsAt30AndThrottlesWhenIdle() {
+        FakePacingClock clock = new FakePacingClock(200 * US, 20 * US);
+        LowPowerPacer pacer = new LowPowerPacer(clock, FRAME_60);
+
+        Report r = run(pacer, clock, 5 * MS);
+        assertEquals(LowPowerPacer.INTERVAL_NS, r.meanIntervalNs, 300 * US);
+        // не спиним: CPU - только работа кадра
+        assertEquals(5 * MS, r.cpuPerFrameNs);
+        assertTrue(r.maxAbsErrorNs <= 200 * US);
+
+        pacer.setIdle(true);
+        long a = pacer.awaitFrame();
+        long b = pacer.awaitFrame();
+        long c = pacer.awaitFrame();
+        assertEquals(LowPowerPacer.IDLE_INTERVAL_NS, c - b, 300 * US);
+        assertTrue(b > a);
+    }
+
+    @Test
+    public void vsyncFollowsSignalAndFallsBackWithoutIt() {
+        FakePacingClock clock = new FakePacingClock(0, 10 * US);
+        VsyncPacer pacer = new VsyncPacer(clock, FRAME_60, 2);
+        clock.startVsync(pacer, FRAME_60);
+
+        Report r = run(pacer, clock, 5 * MS);
+        assertEquals(FRAME_60, r.meanIntervalNs, 1 * US);
+        assertEquals(0, r.maxAbsErrorNs);
+        assertEquals(5 * MS, r.cpuPerFrameNs);
+
+        // в простое - каждый второй vsync
+        pacer.setIdle(true);
+        long a = pacer.awaitFrame();
+        long b = pacer.awaitFrame();
+        assertEquals(2 * FRAME_60, b - a);
+        pacer.setIdle(false);
+
+        // источник замолчал - луп не встает, кадры идут по таймауту
+        clock.stopVsync();
+        long before = clock.nanoTime();
+        long t = pacer.awaitFrame();
+        assertEquals(2 * FRAME_60, t - before);
+        assertEquals(FRAME_60, pacer.getLastErrorNs());
+    }
+
+    @Test
+    public void vsyncSkipsMissedSignalsInsteadOfBursting() {
+        FakePacingClock clock = new FakePacingClock(0, 10 * US);
+        VsyncPacer pacer = new VsyncPacer(clock, FRAME_60);
+        clock.startVsync(pacer, FRAME_60);
+        pacer.awaitFrame();
+
+        // кадр на три vsync
+        clock.work(3 * FRAME_60 + 1 * MS);
+        long late = pacer.awaitFrame();
+        assertEquals(1 * MS, pacer.getLastErrorNs());
+        // пропущенные vsync не копятся: следующий кадр - по следующему сигналу
+        long next = pacer.awaitFrame();
+        assertEquals(FRAME_60 - 1 * MS, next - late);
+    }
+}
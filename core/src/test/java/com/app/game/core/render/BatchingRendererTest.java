@@ -0,0 +1,90 @@
+package com.app.game.core.render;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BatchingRendererTest {
+
+    private static final int BG = 0;
+    private static final int GROUND = 1;
+    private static final int HUD = 2;
+
+    private static final int TEX_DARK = 3;
+    private static final int TEX_LIGHT = 4;
+    private static final int TEX_BG = 7;
+
+    private static void tile(Renderer r, int texture, float x) {
+        r.drawImage(texture, 0, 0, 16, 16, x, 0, x + 16, 16, false);
+    }
+
+    @Test
+    public void groupsDrawsByTextureInsideLayer() {
+        RecordingRenderer out = new RecordingRenderer();
+        BatchingRenderer batch = new BatchingRenderer(out);
+        char[] hud = "FPS: 60".toCharArray();
+
+        batch.setLayer(HUD);
+        batch.drawText(hud, hud.length, 0, 20, 0);
+        batch.setLayer(GROUND);
+        // полосатый пол: темный/светлый через один
+        for (int i = 0; i < 8; i++) tile(batch, i % 2 == 0 ? TEX_DARK : TEX_LIGHT, i * 16);
+        batch.setLayer(BG);
+        tile(batch, TEX_BG, 0);
+        tile(batch, TEX_BG, 100);
+        batch.flush();
+
+        assertEquals(11, batch.getLastCommands());
+        assertEquals(11, out.size());
+        // как записано: bg посреди пола не мешает, 7 смен внутри пола + переход на bg
+        assertEquals(8, batch.getLastTextureSwitchesUnsorted());
+        // bg -> dark -> light
+        assertEquals(2, batch.getLastTextureSwitches());
+        assertEquals(0, batch.size());
+
+        // слои по порядку, внутри слоя - текстура, внутри текстуры - порядок записи
+        assertEquals(TEX_BG, out.texture(0));
+        assertEquals(0f, out.dstLeft(0), 0f);
+        assertEquals(100f, out.dstLeft(1), 0f);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(TEX_DARK, out.texture(2 + i));
+            assertEquals(i * 32f, out.dstLeft(2 + i), 0f);
+            assertEquals(TEX_LIGHT, out.texture(6 + i));
+            assertEquals(16f + i * 32f, out.dstLeft(6 + i), 0f);
+        }
+        assertEquals(RecordingRenderer.OP_TEXT, out.op(10));
+    }
+
+    @Test
+    public void scaleIsAppliedWhenRecorded() {
+        RecordingRenderer out = new RecordingRenderer();
+        BatchingRenderer batch = new BatchingRenderer(out);
+
+        batch.setScale(0.25f);
+        batch.drawImage(TEX_DARK, 0, 0, 16, 16, 400, 200, 416, 216, true);
+        batch.setScale(1f);
+        batch.drawCircle(10, 10, 5, 0);
+        batch.flush();
+
+        assertEquals(100f, out.dstLeft(0), 0f);
+        assertEquals(50f, out.dstTop(0), 0f);
+        assertTrue(out.flipX(0));
+        assertEquals(10f, out.dstLeft(1), 0f);
+    }
+
+    @Test
+    public void recorderKeepsCallOrderAcrossFlushes() {
+        RecordingRenderer rec = new RecordingRenderer();
+
+        rec.clear(0xff000000);
+        tile(rec, TEX_LIGHT, 0);
+        rec.flush();
+        tile(rec, TEX_DARK, 0);
+
+        assertEquals(3, rec.size());
+        assertEquals(RecordingRenderer.OP_CLEAR, rec.op(0));
+        assertEquals(1, rec.countTextureSwitches(null));
+        rec.reset();
+        assertEquals(0, rec.size());
+    }
+}
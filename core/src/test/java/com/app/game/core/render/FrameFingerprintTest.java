@@ -0,0 +1,62 @@
+package com.app.game.core.render;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameFingerprintTest {
+
+    @Test
+    public void sameInputsSkipDifferentInputsDraw() {
+        FrameFingerprint f = new FrameFingerprint();
+        char[] hud = "FPS: 60".toCharArray();
+
+        assertTrue(f.begin().add(100).add(hud, hud.length).changed());
+        assertFalse(f.begin().add(100).add(hud, hud.length).changed());
+        assertTrue(f.begin().add(101).add(hud, hud.length).changed());
+
+        hud[5] = '5';
+        assertTrue(f.begin().add(101).add(hud, hud.length).changed());
+        assertFalse(f.begin().add(101).add(hud, hud.length).changed());
+
+        // порядок важен: (1, 2) и (2, 1) - разные кадры
+        f.begin().add(1).add(2).changed();
+        assertTrue(f.begin().add(2).add(1).changed());
+    }
+
+    @Test
+    public void invalidateForcesNextFrame() {
+        FrameFingerprint f = new FrameFingerprint();
+        f.begin().add(7).changed();
+        f.invalidate();
+        assertTrue(f.begin().add(7).changed());
+        assertFalse(f.begin().add(7).changed());
+    }
+
+    @Test
+    public void drawStatsCountOnlyVisiblePixels() {
+        DrawStats s = new DrawStats();
+        s.blit(0, 0, 100, 50, 1000, 500);
+        // наполовину за левым краем
+        s.blit(-50, 0, 100, 10, 1000, 500);
+        // целиком за экраном - вызов есть, пикселей нет
+        s.blit(2000, 0, 100, 10, 1000, 500);
+        s.call();
+        s.endFrame();
+        s.skipFrame();
+        s.skipFrame();
+        s.publish();
+
+        assertEquals(4, s.getCalls());
+        assertEquals(100 * 50 + 50 * 10, s.getPixels());
+        assertEquals(2, s.getSkipped());
+        assertEquals(1, s.getDrawnFrames());
+
+        // пропуски считаются с прошлого publish, кадр - последний нарисованный
+        s.skipFrame();
+        s.publish();
+        assertEquals(1, s.getSkipped());
+        assertEquals(4, s.getCalls());
+        assertEquals(3, s.getSkippedFrames());
+    }
+}
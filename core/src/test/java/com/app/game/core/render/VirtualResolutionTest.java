@@ -0,0 +1,69 @@
+package com.app.game.core.render;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class VirtualResolutionTest {
+
+    @Test
+    public void fullHdIsExactly480x270() {
+        VirtualResolution v = VirtualResolution.fit(1920, 1080, VirtualResolution.DEFAULT_HEIGHT);
+
+        assertEquals(4, v.scale);
+        assertEquals(480, v.width);
+        assertEquals(270, v.height);
+        assertEquals(0, v.offsetX);
+        assertEquals(0, v.offsetY);
+        assertEquals(1920L * 1080 / 16, v.pixelsPerFrame());
+    }
+
+    @Test
+    public void remainderBecomesCenteredBorder() {
+        // 1440 / 270 = 5.33 -> x5, 2962 / 5 = 592 (остаток 2), 1440 / 5 = 288
+        VirtualResolution v = VirtualResolution.fit(2962, 1440, VirtualResolution.DEFAULT_HEIGHT);
+
+        assertEquals(5, v.scale);
+        assertEquals(592, v.width);
+        assertEquals(288, v.height);
+        assertEquals(1, v.offsetX);
+        assertEquals(0, v.offsetY);
+    }
+
+    @Test
+    public void smallSurfaceFallsBackToOneToOne() {
+        VirtualResolution v = VirtualResolution.fit(400, 200, VirtualResolution.DEFAULT_HEIGHT);
+
+        assertEquals(1, v.scale);
+        assertEquals(400, v.width);
+        assertEquals(200, v.height);
+    }
+
+    @Test
+    public void snapsToTargetPixelGrid() {
+        VirtualResolution v = VirtualResolution.fit(1920, 1080, VirtualResolution.DEFAULT_HEIGHT);
+
+        assertEquals(100f, v.snap(101.9f), 0f);
+        assertEquals(104f, v.snap(102.1f), 0f);
+        assertEquals(-4f, v.snap(-3f), 0f);
+        assertEquals(102f, VirtualResolution.identity(1920, 1080).snap(101.6f), 0f);
+
+        assertEquals(270, v.toTarget(1080));
+        assertEquals(1, v.toTarget(2));
+    }
+
+    @Test
+    public void scaleIsCappedSoAssetsStayAtLeastNative() {
+        // пол 2x, фон 1080/700 = 1.5x: фон не дает уменьшать - остается 1:1
+        int cap = Math.min(VirtualResolution.nativeScale(2 * 64, 64), VirtualResolution.nativeScale(1080, 700));
+        assertEquals(1, cap);
+        assertEquals(1, VirtualResolution.fit(1920, 1080, VirtualResolution.DEFAULT_HEIGHT, cap).scale);
+
+        // на 1440p фон 2x, пол 2x - цель 2x, каждый ассет в цели не меньше исходника
+        cap = Math.min(VirtualResolution.nativeScale(2 * 64, 64), VirtualResolution.nativeScale(1440, 700));
+        VirtualResolution v = VirtualResolution.fit(2960, 1440, VirtualResolution.DEFAULT_HEIGHT, cap);
+        assertEquals(2, v.scale);
+        assertTrue(v.toTarget(1440) >= 700);
+        assertTrue(v.toTarget(2 * 64) >= 64);
+    }
+}
@@ -0,0 +1,179 @@
+package com.app.game.core.replay;
+
+import com.app.game.core.World;
+import com.app.game.core.fx.ParticlePool;
+import com.app.game.core.fx.ParticleStyle;
+import com.app.game.core.fx.PlayerEffects;
+import com.app.game.core.save.GameSnapshot;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class ReplayTest {
+
+    private static final int CHECKPOINT = 60;
+
+    private static WorldSetup setup(GameSnapshot snapshot) {
+        return new WorldSetup(500f, 300f, 500f, 400, 48f, 120f, 1000, 700, 600f, snapshot, 0);
+    }
+
+    // Сессия "как на устройстве": ввод через setInputDirection, смена вьюпорта посреди игры
+    private static World play(World world, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            if (i % 97 == 0) world.setInputDirection((i / 97) % 3 - 1);
+            if (i == 500) world.setViewport(1280, 800, 700f);
+            world.update(World.DT_SEC);
+        }
+        return world;
+    }
+
+    private static byte[] record(WorldSetup setup, int ticks) {
+        World world = setup.createWorld();
+        InputRecorder recorder = new InputRecorder(setup, CHECKPOINT);
+        world.setTickListener(recorder);
+        play(world, ticks);
+        return recorder.toByteArray(world.getTick());
+    }
+
+    @Test
+    public void replayReproducesRecordedSession() throws Exception {
+        WorldSetup setup = setup(null);
+        World original = setup.createWorld();
+        InputRecorder recorder = new InputRecorder(setup, CHECKPOINT);
+        original.setTickListener(recorder);
+        play(original, 3000);
+        byte[] log = recorder.toByteArray(original.getTick());
+
+        ReplayResult r = InputReplayer.run(ByteBuffer.wrap(log), false);
+
+        assertTrue(r.isDeterministic());
+        assertEquals(3000, r.ticks);
+        assertEquals(3000 / CHECKPOINT, r.checkpoints);
+        assertEquals(StateHash.of(original), r.finalHash);
+        // ввод меняется редко - лог маленький
+        assertTrue("log " + log.length, log.length < 1024);
+    }
+
+    @Test
+    public void replayStartsFromSnapshot() throws Exception {
+        World saved = play(setup(null).createWorld(), 200);
+        for (int i = 0; i < 50; i++) saved.getEntities().create(i * 40f, 600f, 150f, 30, 1);
+        GameSnapshot snapshot = GameSnapshot.capture(saved);
+
+        byte[] log = record(setup(snapshot), 1000);
+        ReplayResult r = InputReplayer.run(ByteBuffer.wrap(log), false);
+
+        assertTrue(r.isDeterministic());
+        assertEquals(1000, r.ticks);
+        assertEquals(51, InputReplayer.readSetup(ByteBuffer.wrap(log)).createWorld().getEntityCount());
+    }
+
+    @Test
+    public void tamperedInputIsReportedAtNextCheckpoint() throws Exception {
+        byte[] log = record(setup(null), 600);
+        // первое событие направления после заголовка: [type=1][delta][dir] - меняем dir
+        ByteBuffer in = ByteBuffer.wrap(log).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+        in.position(12);
+        WorldSetup.read(in, InputRecorder.VERSION);
+        int p = in.position();
+        assertEquals(InputRecorder.EV_DIRECTION, log[p]);
+        log[p + 2] = (byte) (log[p + 2] == 1 ? -1 : 1);
+
+        ReplayResult r = InputReplayer.run(ByteBuffer.wrap(log), true);
+
+        assertFalse(r.isDeterministic());
+        assertEquals(CHECKPOINT, r.firstMismatchTick);
+    }
+
+    // Как GameView: пыль и искры хуком мира
+    private static final InputReplayer.Decorator EFFECTS = world -> {
+        ParticlePool fx = world.getParticles();
+        int dust = fx.addStyle(new ParticleStyle(0.5f, 40f, 120f, 90f, 60f, 200f, 2f, 24f, 4f, 0));
+        int spark = fx.addStyle(new ParticleStyle(0.3f, 300f, 700f, 10f, 40f, 900f, 1f, 16f, 4f, 1));
+        world.addTickHook(new PlayerEffects(fx, dust, 24f, spark, 16, 40f, 6f, 0.15f));
+    };
+
+    @Test
+    public void replayRepeatsAttacksAndParticles() throws Exception {
+        WorldSetup setup = setup(null);
+        World original = setup.createWorld();
+        EFFECTS.decorate(original);
+        InputRecorder recorder = new InputRecorder(setup, CHECKPOINT);
+        original.setTickListener(recorder);
+        for (int i = 0; i < 600; i++) {
+            if (i % 97 == 0) original.setInputDirection((i / 97) % 3 - 1);
+            if (i % 41 == 0 || i == 595) original.pressAttack(1 + i % 2);
+            original.update(World.DT_SEC);
+        }
+        byte[] log = recorder.toByteArray(original.getTick());
+
+        World[] replayed = new World[1];
+        ReplayResult r = InputReplayer.run(ByteBuffer.wrap(log), false, world -> {
+            EFFECTS.decorate(world);
+            replayed[0] = world;
+        });
+
+        assertTrue(r.isDeterministic());
+        ParticlePool a = original.getParticles();
+        ParticlePool b = replayed[0].getParticles();
+        assertTrue(a.size() > 0);
+        assertEquals(a.size(), b.size());
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(a.x[i], b.x[i], 0f);
+            assertEquals(a.y[i], b.y[i], 0f);
+            assertEquals(a.style[i], b.style[i]);
+        }
+        assertEquals(original.getCamera().getShakeX(), replayed[0].getCamera().getShakeX(), 0f);
+    }
+
+    @Test
+    public void replayKeepsViewportHeightAndCameraY() throws Exception {
+        WorldSetup setup = setup(null);
+        World original = setup.createWorld();
+        InputRecorder recorder = new InputRecorder(setup, CHECKPOINT);
+        original.setTickListener(recorder);
+        play(original, 800);
+        byte[] log = recorder.toByteArray(original.getTick());
+
+        World[] replayed = new World[1];
+        ReplayResult r = InputReplayer.run(ByteBuffer.wrap(log), false, world -> replayed[0] = world);
+
+        assertTrue(r.isDeterministic());
+        assertEquals(700, InputReplayer.readSetup(ByteBuffer.wrap(log)).viewportHeight);
+        // смена вьюпорта на 500-м тике тоже с высотой
+        assertEquals(800, replayed[0].getViewportHeight());
+        assertEquals(original.getCamY(), replayed[0].getCamY(), 0f);
+        int[] out = new int[8];
+        assertTrue(replayed[0].queryVisible(-1, out) > 0);
+    }
+
+    @Test
+    public void replayRepopulatesLevelFromSeed() throws Exception {
+        WorldSetup setup = new WorldSetup(500f, 300f, 500f, 400, 48f, 120f, 1000, 700, 600f, null, 42L);
+        World original = setup.createWorld();
+        InputRecorder recorder = new InputRecorder(setup, CHECKPOINT);
+        original.setTickListener(recorder);
+        // все время вправо: окно чанков уезжает, монстры ставятся и убираются
+        original.setInputDirection(1);
+        for (int i = 0; i < 1200; i++) original.update(World.DT_SEC);
+        byte[] log = recorder.toByteArray(original.getTick());
+
+        World[] replayed = new World[1];
+        ReplayResult r = InputReplayer.run(ByteBuffer.wrap(log), false, world -> replayed[0] = world);
+
+        assertTrue(r.isDeterministic());
+        assertEquals(42L, replayed[0].getLevel().getSeed());
+        assertTrue(original.getEntityCount() > 1);
+        assertEquals(original.getEntityCount(), replayed[0].getEntityCount());
+    }
+
+    @Test(expected = ReplayFormatException.class)
+    public void rejectsNewerVersion() throws Exception {
+        byte[] log = record(setup(null), 10);
+        log[4] = (byte) (InputRecorder.VERSION + 1);
+        InputReplayer.run(ByteBuffer.wrap(log), false);
+    }
+}
@@ -0,0 +1,45 @@
+package com.app.game.core.save;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.Base64;
+
+import static org.junit.Assert.*;
+
+public class LegacySnapshotTest {
+
+    // game_snapshot.bin, записанный старым com.app.game.GameSnapshot:
+    // playerX 1234.5, playerY 456, cameraX 1000.25, playerLastDirection -1
+    private static final String V0_FILE = "rO0ABXNyABljb20uYXBwLmdhbWUuR2FtZVNuYXBzaG90mpaBqjiUtnwCAARGAAdjYW1lcmFYSQAT"
+            + "cGxheWVyTGFzdERpcmVjdGlvbkYAB3BsYXllclhGAAdwbGF5ZXJZeHBEehAA/////0SaUABD5AAA";
+
+    @Test
+    public void readsSnapshotWrittenByOldClass() throws Exception {
+        GameSnapshot s = LegacySnapshot.read(new ByteArrayInputStream(Base64.getDecoder().decode(V0_FILE)));
+
+        assertEquals(1234.5f, s.playerX, 0f);
+        assertEquals(456f, s.playerY, 0f);
+        assertEquals(1000.25f, s.cameraX, 0f);
+        assertEquals(-1, s.playerLastDirection);
+        assertEquals(0, s.entityCount);
+        assertEquals(0, s.levelSeed);
+    }
+
+    @Test(expected = SaveFormatException.class)
+    public void truncatedFileIsFormatError() throws Exception {
+        byte[] file = Base64.getDecoder().decode(V0_FILE);
+        LegacySnapshot.read(new ByteArrayInputStream(file, 0, file.length - 6));
+    }
+
+    @Test(expected = java.io.InvalidClassException.class)
+    public void otherClassesAreNotDeserialized() throws Exception {
+        ByteArrayOutputStream b = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(b)) {
+            out.writeObject(new java.util.ArrayList<String>());
+        }
+        LegacySnapshot.read(new ByteArrayInputStream(b.toByteArray()));
+    }
+}
@@ -0,0 +1,155 @@
+package com.app.game.core.save;
+
+import com.app.game.core.World;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class SaveStoreTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static World worldWithMonsters(int monsters) {
+        World world = new World(100f, 200f, 500f);
+        world.setViewport(1000, 600f);
+        for (int i = 0; i < monsters; i++) {
+            world.getEntities().create(i * 50f, 300f, 120f, 30, 1);
+        }
+        world.getPlayer().setDirection(-1);
+        for (int i = 0; i < 30; i++) world.update(World.DT_SEC);
+        return world;
+    }
+
+    @Test
+    public void roundTripThroughFile() throws Exception {
+        World world = worldWithMonsters(100);
+        File f = new File(tmp.getRoot(), "save.dat");
+        new SaveStore(f).save(GameSnapshot.capture(world));
+
+        GameSnapshot s = new SaveStore(f).load();
+
+        assertEquals(world.getTick(), s.tick);
+        assertEquals(world.getCamX(), s.cameraX, 0f);
+        assertEquals(world.getPlayer().getX(), s.playerX, 0f);
+        assertEquals(-1, s.playerLastDirection);
+        assertEquals(100, s.entityCount);
+        assertEquals(99 * 50f, s.entityX[99], 0f);
+
+        World restored = new World(0f, 0f, 500f);
+        s.applyTo(restored);
+        assertEquals(101, restored.getEntityCount());
+        assertEquals(world.getPlayer().getX(), restored.getPlayer().getX(), 0f);
+    }
+
+    @Test
+    public void deltaAppendsOnlyChangedSections() throws Exception {
+        World world = worldWithMonsters(1000);
+        File f = new File(tmp.getRoot(), "save.dat");
+        SaveStore store = new SaveStore(f);
+
+        store.save(GameSnapshot.capture(world));
+        long fullSize = f.length();
+
+        // монстры стоят, двигается только игрок - дописываются world и player
+        world.update(World.DT_SEC);
+        store.save(GameSnapshot.capture(world));
+
+        assertEquals(1, store.getFullWrites());
+        assertEquals(1, store.getDeltaWrites());
+        assertTrue(f.length() - fullSize < 100);
+        assertEquals(world.getPlayer().getX(), new SaveStore(f).load().playerX, 0f);
+    }
+
+    @Test
+    public void tornTailIsIgnored() throws Exception {
+        World world = worldWithMonsters(10);
+        File f = new File(tmp.getRoot(), "save.dat");
+        SaveStore store = new SaveStore(f);
+        store.save(GameSnapshot.capture(world));
+        float savedX = world.getPlayer().getX();
+
+        world.update(World.DT_SEC);
+        store.save(GameSnapshot.capture(world));
+        // обрываем последнюю дельту посередине, как при падении во время записи
+        try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+            raf.setLength(raf.length() - 6);
+        }
+
+        GameSnapshot s = new SaveStore(f).load();
+        assertEquals(savedX, s.playerX, 0f);
+        assertEquals(10, s.entityCount);
+    }
+
+    // Дельта оборвалась после целой секции world, но до entities: новое не смешивается со старым
+    @Test
+    public void deltaWithoutCommitIsIgnoredWhole() throws Exception {
+        World world = worldWithMonsters(10);
+        File f = new File(tmp.getRoot(), "save.dat");
+        SaveStore store = new SaveStore(f);
+        store.save(GameSnapshot.capture(world));
+        long savedTick = world.getTick();
+        long fullSize = f.length();
+
+        world.getEntities().create(900f, 300f, 0f, 30, 1);
+        world.update(World.DT_SEC);
+        store.save(GameSnapshot.capture(world));
+        assertEquals(1, store.getDeltaWrites());
+        // world + player целые, от entities - только заголовок
+        int tail = SaveCodec.recordSize(SaveCodec.SECTION_WORLD, GameSnapshot.capture(world))
+                + SaveCodec.recordSize(SaveCodec.SECTION_PLAYER, GameSnapshot.capture(world))
+                + SaveCodec.RECORD_HEADER_BYTES;
+        try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+            raf.setLength(fullSize + tail);
+        }
+
+        GameSnapshot s = new SaveStore(f).load();
+        assertEquals(savedTick, s.tick);
+        assertEquals(10, s.entityCount);
+
+        // целая дельта после обрыва снова читается: store перепишет файл полностью
+        SaveStore reopened = new SaveStore(f);
+        reopened.load();
+        reopened.save(GameSnapshot.capture(world));
+        assertEquals(world.getTick(), new SaveStore(f).load().tick);
+        assertEquals(11, new SaveStore(f).load().entityCount);
+    }
+
+    @Test
+    public void readsVersion1WorldSectionWithoutLevelSeed() throws Exception {
+        GameSnapshot src = GameSnapshot.capture(worldWithMonsters(0));
+        ByteBuffer buf = SaveCodec.allocate(256);
+        SaveCodec.writeHeader(buf);
+        // WORLD v1: [tick:long][cameraX:float]
+        buf.putShort((short) SaveCodec.SECTION_WORLD).putShort((short) 1).putInt(12);
+        int crcPos = buf.position();
+        buf.putInt(0);
+        int payload = buf.position();
+        buf.putLong(src.tick).putFloat(src.cameraX);
+        buf.putInt(crcPos, SaveCodec.crc(buf, payload, 12));
+        SaveCodec.encodeRecord(SaveCodec.SECTION_PLAYER, src, buf);
+        // файл версии 1: групп с COMMIT еще нет
+        buf.putShort(4, (short) 1);
+        buf.flip();
+
+        GameSnapshot s = SaveCodec.decode(buf);
+
+        assertEquals(src.tick, s.tick);
+        assertEquals(src.cameraX, s.cameraX, 0f);
+        assertEquals(0L, s.levelSeed);
+    }
+
+    @Test(expected = SaveFormatException.class)
+    public void rejectsNewerVersion() throws Exception {
+        ByteBuffer buf = SaveCodec.encodeFull(GameSnapshot.capture(worldWithMonsters(0)), null);
+        buf.putShort(4, (short) (SaveCodec.VERSION + 1));
+        SaveCodec.decode(buf);
+    }
+}
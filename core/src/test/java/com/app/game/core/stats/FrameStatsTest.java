@@ -0,0 +1,53 @@
+package com.app.game.core.stats;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameStatsTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void percentilesOverWindow() {
+        FrameTimeHistogram h = new FrameTimeHistogram(100);
+        for (int i = 1; i <= 100; i++) {
+            h.record(i * MS);
+        }
+
+        assertEquals(50_000, h.percentileUs(0.50f), FrameTimeHistogram.BUCKET_US);
+        assertEquals(95_000, h.percentileUs(0.95f), FrameTimeHistogram.BUCKET_US);
+        assertEquals(99_000, h.percentileUs(0.99f), FrameTimeHistogram.BUCKET_US);
+        assertEquals(100_000, h.maxUs());
+    }
+
+    @Test
+    public void oldSamplesLeaveWindow() {
+        FrameTimeHistogram h = new FrameTimeHistogram(10);
+        for (int i = 0; i < 10; i++) h.record(50 * MS);
+        for (int i = 0; i < 10; i++) h.record(2 * MS);
+
+        assertEquals(10, h.count());
+        assertEquals(2_000, h.maxUs());
+        // корзина 2.0-2.1 мс, но перцентиль не выше максимума
+        assertEquals(2_000, h.percentileUs(0.99f));
+    }
+
+    @Test
+    public void countsJankDroppedAndClamps() {
+        long target = 16_666_667L;
+        FrameStats stats = new FrameStats(target);
+
+        stats.endFrame(target, false, false);
+        stats.endFrame(target * 3, true, false);  // пропустили 2 vsync
+        stats.endFrame(300 * MS, true, true);
+        stats.publish();
+
+        assertEquals(3, stats.getFrames());
+        assertEquals(2, stats.getJankFrames());
+        assertEquals(2 + 17, stats.getDroppedFrames());
+        assertEquals(2, stats.getUpdateCapFrames());
+        assertEquals(1, stats.getAccumClampFrames());
+        assertEquals(300_000, stats.get(FrameStats.FRAME, FrameStats.MAX));
+    }
+}
@@ -0,0 +1,151 @@
+package com.app.game.core.trace;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class TraceRecorderTest {
+
+    @After
+    public void disableTracing() {
+        Tracing.setSink(null);
+        Tracing.setRecorder(null);
+    }
+
+    @Test
+    public void writesChromeTraceEvents() throws Exception {
+        TraceRecorder rec = new TraceRecorder(16);
+        rec.record(Tracing.UPDATE, true, 1_000_500L);
+        rec.record(Tracing.INPUT, true, 1_001_000L);
+        rec.record(Tracing.INPUT, false, 1_002_007L);
+        rec.record(Tracing.UPDATE, false, 2_000_000L);
+
+        String json = export(rec);
+
+        long tid = Thread.currentThread().getId();
+        assertTrue(json.startsWith("{"));
+        assertTrue(json.trim().endsWith("]}"));
+        assertTrue(json.contains("{\"name\":\"update\",\"ph\":\"B\",\"pid\":1,\"tid\":" + tid + ",\"ts\":1000.500}"));
+        assertTrue(json.contains("{\"name\":\"input\",\"ph\":\"E\",\"pid\":1,\"tid\":" + tid + ",\"ts\":1002.007}"));
+        assertTrue(json.contains("\"ph\":\"M\",\"pid\":1,\"tid\":" + tid + ",\"args\":{\"name\":\""));
+        assertEquals(4, count(json, "\"ph\":\"[BE]\""));
+    }
+
+    @Test
+    public void ringKeepsNewestEvents() throws Exception {
+        TraceRecorder rec = new TraceRecorder(5);
+        assertEquals(8, rec.capacity());
+        for (int i = 0; i < 20; i++) rec.record(Tracing.SLEEP, (i & 1) == 0, i * 1000L);
+
+        String json = export(rec);
+
+        assertEquals(20, rec.getRecorded());
+        assertEquals(12, rec.getOverwritten());
+        assertEquals(8, count(json, "\"ph\":\"[BE]\""));
+        assertFalse(json.contains("\"ts\":11,"));
+        assertTrue(json.contains("\"ts\":12}"));
+        assertTrue(json.contains("\"ts\":19}"));
+    }
+
+    @Test
+    public void sectionsGoToSinkAndRecorderOnlyWhenEnabled() {
+        TraceRecorder rec = new TraceRecorder(64);
+        StringBuilder sink = new StringBuilder();
+
+        Tracing.begin(Tracing.DRAW_HUD);
+        Tracing.end(Tracing.DRAW_HUD);
+        assertFalse(Tracing.isEnabled());
+
+        Tracing.setRecorder(rec);
+        Tracing.setSink(new TraceSink() {
+            @Override
+            public void begin(String name) {
+                sink.append('<').append(name);
+            }
+
+            @Override
+            public void end() {
+                sink.append('>');
+            }
+        });
+        Tracing.begin(Tracing.LOCK_CANVAS);
+        Tracing.end(Tracing.LOCK_CANVAS);
+
+        assertEquals(2, rec.getRecorded());
+        assertEquals("<lockCanvas>", sink.toString());
+    }
+
+    // После прогрева запись секций не аллоцирует ни байта. Изредка JVM сама списывает на поток
+    // пару сотен байт посреди замера (перекомпиляция) - берем лучший из нескольких замеров:
+    // аллокация в самой записи была бы в каждом
+    @Test
+    public void recordingAllocatesNothing() {
+        com.sun.management.ThreadMXBean mx =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        org.junit.Assume.assumeTrue(mx.isThreadAllocatedMemorySupported());
+        mx.setThreadAllocatedMemoryEnabled(true);
+
+        Tracing.setRecorder(new TraceRecorder(1024));
+        for (int i = 0; i < 20_000; i++) tick();
+
+        long tid = Thread.currentThread().getId();
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 3 && allocated > 0; round++) {
+            long before = mx.getThreadAllocatedBytes(tid);
+            for (int i = 0; i < 10_000; i++) tick();
+            allocated = Math.min(allocated, mx.getThreadAllocatedBytes(tid) - before);
+        }
+
+        assertEquals(0, allocated);
+    }
+
+    @Test
+    public void exportWhileOtherThreadsRecord() throws Exception {
+        final TraceRecorder rec = new TraceRecorder(256);
+        Thread[] writers = new Thread[2];
+        for (int w = 0; w < writers.length; w++) {
+            writers[w] = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    rec.begin(Tracing.UPDATE);
+                    rec.end(Tracing.UPDATE);
+                }
+            });
+            writers[w].start();
+        }
+        // каждая выгрузка на ходу - целые события, не больше кольца
+        for (int i = 0; i < 20; i++) {
+            String json = export(rec);
+            assertTrue(count(json, "\"ph\":\"[BE]\"") <= rec.capacity());
+            assertEquals(count(json, "\\{\"name\":\"update\""), count(json, "\"ph\":\"[BE]\""));
+        }
+        for (Thread t : writers) t.join();
+        assertEquals(200_000, rec.getRecorded());
+        assertEquals(256, count(export(rec), "\"ph\":\"[BE]\""));
+    }
+
+    private static void tick() {
+        Tracing.begin(Tracing.UPDATE);
+        Tracing.begin(Tracing.INPUT);
+        Tracing.end(Tracing.INPUT);
+        Tracing.end(Tracing.UPDATE);
+    }
+
+    private static String export(TraceRecorder rec) throws Exception {
+        StringWriter out = new StringWriter();
+        rec.writeChromeJson(out);
+        return out.toString();
+    }
+
+    private static int count(String s, String regex) {
+        Matcher m = Pattern.compile(regex).matcher(s);
+        int n = 0;
+        while (m.find()) n++;
+        return n;
+    }
+}